@@ -0,0 +1,20 @@
+# Runs the JMH benchmarks in src/bench with the GC profiler, which reports
+# allocation rates next to throughput. Arguments are passed to JMH, for example
+# a benchmark name pattern: ./bench.sh PokerHand
+# The JMH jars are expected in lib/ and can be downloaded from Maven Central:
+#   org.openjdk.jmh:jmh-core:1.37
+#   org.openjdk.jmh:jmh-generator-annprocess:1.37
+#   net.sf.jopt-simple:jopt-simple:5.0.4
+#   org.apache.commons:commons-math3:3.6.1
+JMH_LIB=${JMH_LIB:-lib}
+JMH_CP=$JMH_LIB/jmh-core-1.37.jar:$JMH_LIB/jmh-generator-annprocess-1.37.jar:$JMH_LIB/jopt-simple-5.0.4.jar:$JMH_LIB/commons-math3-3.6.1.jar
+for jar in $(echo $JMH_CP | tr ':' ' '); do
+    if [ ! -f $jar ]; then
+        echo "Missing $jar; see bench.sh for the JMH jars to download."
+        exit 1
+    fi
+done
+./build.sh
+mkdir -p bin-bench
+javac -g src/bench/cardgame/common/*.java src/bench/cardgame/poker/*.java -cp bin:$JMH_CP -d bin-bench
+java -cp bin:bin-bench:$JMH_CP org.openjdk.jmh.Main -prof gc "$@"
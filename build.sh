@@ -1,11 +1,50 @@
 javac -g src/main/cardgame/common/Rank.java -cp bin -d bin
 javac -g src/main/cardgame/common/Suit.java -cp bin -d bin
 javac -g src/main/cardgame/common/Card.java -cp bin -d bin
+javac -g src/main/cardgame/common/CardSet.java -cp bin -d bin
+javac -g src/main/cardgame/common/CombinationSpliterator.java -cp bin -d bin
 javac -g src/main/cardgame/common/Hand.java -cp bin -d bin
+javac -g src/main/cardgame/common/LatencySummaryMXBean.java src/main/cardgame/common/LatencySummary.java src/main/cardgame/common/GameMetricsMXBean.java src/main/cardgame/common/GameMetrics.java -cp bin -d bin
 javac -g src/main/cardgame/poker/PokerRank.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandEvaluator.java src/main/cardgame/poker/StrengthTable.java -cp bin -d bin
+javac -g src/main/cardgame/poker/EvaluationMetricsMXBean.java src/main/cardgame/poker/EvaluationMetrics.java -cp bin -d bin
+javac -g src/main/cardgame/poker/BestHandEvaluator.java -cp bin -d bin
+javac -g src/main/cardgame/poker/OmahaEvaluator.java -cp bin -d bin
 javac -g src/main/cardgame/poker/PokerHand.java -cp bin -d bin
+javac -g src/main/cardgame/poker/OmahaHand.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandCategoryReport.java -cp bin -d bin
 javac -g src/main/cardgame/common/Player.java -cp bin -d bin
+javac -g src/main/cardgame/common/Xoshiro256.java -cp bin -d bin
+javac -g src/main/cardgame/common/RandomStreams.java -cp bin -d bin
 javac -g src/main/cardgame/common/Deck.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandFileEvaluator.java -cp bin -d bin
 javac -g src/main/cardgame/common/Game.java -cp bin -d bin
+javac -g src/main/cardgame/poker/Equity.java -cp bin -d bin
+javac -g src/main/cardgame/poker/EquityCalculator.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/ConsoleDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/KeepPatDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HeuristicDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/RandomDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DrawOutcome.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DrawTable.java src/main/cardgame/poker/DrawSolver.java -cp bin -d bin
+javac -g src/main/cardgame/poker/TableDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/Showdown.java -cp bin -d bin
+javac -g src/main/cardgame/poker/RoundListener.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandHistoryWriter.java src/main/cardgame/poker/HandHistoryReader.java src/main/cardgame/poker/RoundRecord.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DrawState.java -cp bin -d bin
 javac -g src/main/cardgame/poker/FiveCardDraw.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DrawSnapshot.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HoldemHand.java src/main/cardgame/poker/TexasHoldem.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandRange.java src/main/cardgame/poker/RangeEquity.java src/main/cardgame/poker/RangeEquityCalculator.java -cp bin -d bin
+javac -g src/main/cardgame/poker/FiveCardDrawSimulation.java -cp bin -d bin
+javac -g src/main/cardgame/poker/TournamentSimulation.java -cp bin -d bin
+javac -g src/main/cardgame/poker/ReplayResult.java -cp bin -d bin
+javac -g src/main/cardgame/poker/RecordedDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandHistoryReplay.java -cp bin -d bin
+javac -g src/main/cardgame/server/Connection.java -cp bin -d bin
+javac -g src/main/cardgame/server/RemoteDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/server/Table.java -cp bin -d bin
+javac -g src/main/cardgame/server/TableServer.java -cp bin -d bin
+javac -g src/main/cardgame/server/ScriptedClient.java -cp bin -d bin
 javac -g src/main/cardgame/CardGame.java -cp bin -d bin
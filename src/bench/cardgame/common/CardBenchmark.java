@@ -0,0 +1,41 @@
+package cardgame.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * CardBenchmark measures parsing all 52 cards with Card.getInstance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBenchmark {
+
+    private String[] cardStrings;
+
+    @Setup
+    public void setUp() {
+        cardStrings = new String[Card.NUM_CARDS];
+        for (int id = 0; id < Card.NUM_CARDS; id++) {
+            cardStrings[id] = Card.of(id).toString();
+        }
+    }
+
+    @Benchmark
+    public void getInstance(Blackhole blackhole) {
+        for (String cardString : cardStrings) {
+            blackhole.consume(Card.getInstance(cardString));
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package cardgame.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * DeckBenchmark measures building, shuffling and drawing from a deck.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+
+    private static final long SEED = 20100301L;
+
+    private Xoshiro256 random;
+    private Deck deck;
+
+    @Setup
+    public void setUp() {
+        random = new Xoshiro256(SEED);
+        deck = new Deck(false, random);
+    }
+
+    @Benchmark
+    public Deck construct() {
+        // construction includes the first shuffle
+        return new Deck(false, random);
+    }
+
+    @Benchmark
+    public Deck shuffle() {
+        deck.reset();
+        return deck;
+    }
+
+    @Benchmark
+    public void drawAll(Blackhole blackhole) {
+        deck.reset();
+        Card card;
+        while ((card = deck.drawCard()) != null) {
+            blackhole.consume(card);
+        }
+    }
+
+}
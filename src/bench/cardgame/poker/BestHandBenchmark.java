@@ -0,0 +1,62 @@
+package cardgame.poker;
+
+import cardgame.common.CardSet;
+import cardgame.common.Deck;
+import cardgame.common.Xoshiro256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * BestHandBenchmark measures BestHandEvaluator over 1024 random seven-card
+ * hands, against evaluating all 21 five-card subsets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BestHandBenchmark {
+
+    private static final int NUM_CARDS = 7;
+    private static final int NUM_RANDOM_HANDS = 1024;
+    private static final long SEED = 20100301L;
+
+    private long[] randomHands;
+
+    @Setup
+    public void setUp() {
+        Deck deck = new Deck(false, new Xoshiro256(SEED));
+        randomHands = new long[NUM_RANDOM_HANDS];
+        for (int i = 0; i < randomHands.length; i++) {
+            deck.reset();
+            CardSet hand = new CardSet();
+            for (int j = 0; j < NUM_CARDS; j++) {
+                hand.add(deck.drawCard());
+            }
+            randomHands[i] = hand.getBits();
+        }
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        for (long hand : randomHands) {
+            blackhole.consume(BestHandEvaluator.evaluate(hand));
+        }
+    }
+
+    @Benchmark
+    public void evaluateByEnumeration(Blackhole blackhole) {
+        for (long hand : randomHands) {
+            blackhole.consume(BestHandEvaluator.evaluateByEnumeration(hand));
+        }
+    }
+
+}
@@ -0,0 +1,72 @@
+package cardgame.poker;
+
+import cardgame.common.Xoshiro256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * OmahaBenchmark measures OmahaEvaluator over 1024 random hands of four hole
+ * cards and a five-card board, against evaluating all 60 combinations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OmahaBenchmark {
+
+    private static final int NUM_RANDOM_HANDS = 1024;
+    private static final int NUM_CARDS = 52;
+    private static final long SEED = 20100301L;
+
+    private long[] holes;
+    private long[] boards;
+
+    @Setup
+    public void setUp() {
+        Xoshiro256 random = new Xoshiro256(SEED);
+        holes = new long[NUM_RANDOM_HANDS];
+        boards = new long[NUM_RANDOM_HANDS];
+        for (int i = 0; i < NUM_RANDOM_HANDS; i++) {
+            long cards = 0;
+            while (Long.bitCount(cards) < OmahaEvaluator.MIN_NUM_HOLE_CARDS) {
+                cards |= 1L << random.nextInt(NUM_CARDS);
+            }
+            holes[i] = cards;
+            while (Long.bitCount(cards) < OmahaEvaluator.MIN_NUM_HOLE_CARDS + OmahaEvaluator.MAX_NUM_BOARD_CARDS) {
+                cards |= 1L << random.nextInt(NUM_CARDS);
+            }
+            boards[i] = cards & ~holes[i];
+        }
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        for (int i = 0; i < NUM_RANDOM_HANDS; i++) {
+            blackhole.consume(OmahaEvaluator.evaluate(holes[i], boards[i]));
+        }
+    }
+
+    @Benchmark
+    public void evaluateByEnumeration(Blackhole blackhole) {
+        for (int i = 0; i < NUM_RANDOM_HANDS; i++) {
+            blackhole.consume(OmahaEvaluator.evaluateByEnumeration(holes[i], boards[i]));
+        }
+    }
+
+    @Benchmark
+    public void evaluateLow(Blackhole blackhole) {
+        for (int i = 0; i < NUM_RANDOM_HANDS; i++) {
+            blackhole.consume(OmahaEvaluator.evaluateLow(holes[i], boards[i]));
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package cardgame.poker;
+
+import cardgame.common.Deck;
+import cardgame.common.Xoshiro256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * PokerHandBenchmark measures PokerHand.getPokerRank over 1024 random hands.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PokerHandBenchmark {
+
+    private static final int FULL_HAND = 5;
+    private static final int NUM_RANDOM_HANDS = 1024;
+    private static final long SEED = 20100301L;
+
+    private PokerHand[] randomHands;
+
+    @Setup
+    public void setUp() {
+        Deck deck = new Deck(false, new Xoshiro256(SEED));
+        randomHands = new PokerHand[NUM_RANDOM_HANDS];
+        for (int i = 0; i < randomHands.length; i++) {
+            deck.reset();
+            randomHands[i] = new PokerHand(FULL_HAND);
+            deck.drawInto(randomHands[i], FULL_HAND);
+        }
+    }
+
+    @Benchmark
+    public void getPokerRank(Blackhole blackhole) {
+        for (PokerHand hand : randomHands) {
+            blackhole.consume(hand.getPokerRank());
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package cardgame.poker;
+
+import cardgame.common.CardSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * RangeEquityBenchmark measures RangeEquityCalculator for two narrow ranges
+ * enumerated exactly on a flop, and for two ranges of every holding over one
+ * sampled round of 1024 runouts on a flop.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RangeEquityBenchmark {
+
+    private static final long SEED = 20100301L;
+    private static final String EVERY_HOLDING = "22+, A2+, K2+, Q2+, J2+, T2+, 92+, 82+, 72+, 62+, 52+, 42+, 32";
+
+    private RangeEquityCalculator exact;
+    private RangeEquityCalculator sampled;
+    private HandRange narrow;
+    private HandRange calling;
+    private HandRange every;
+    private CardSet flop;
+
+    @Setup
+    public void setUp() {
+        exact = new RangeEquityCalculator(SEED);
+        sampled = new RangeEquityCalculator(ForkJoinPool.commonPool(), SEED,
+                RangeEquityCalculator.DEFAULT_RUNOUTS_PER_TASK, 0);
+        narrow = HandRange.parse("QQ+, AKs");
+        calling = HandRange.parse("JJ-99, AQs+, AKo");
+        every = HandRange.parse(EVERY_HOLDING);
+        flop = new CardSet(HandRange.parseCards("Ah 7d 2c"));
+    }
+
+    @Benchmark
+    public RangeEquity narrowExact() {
+        return exact.calculate(narrow, calling, flop, new CardSet(), 0, Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public RangeEquity everySampledRound() {
+        // a target of 1 stops after the first round of tasks
+        return sampled.calculate(every, every, flop, new CardSet(), 1, Long.MAX_VALUE);
+    }
+
+}
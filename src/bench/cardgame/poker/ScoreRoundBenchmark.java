@@ -0,0 +1,94 @@
+package cardgame.poker;
+
+import cardgame.common.Deck;
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ScoreRoundBenchmark measures FiveCardDraw.scoreRound, and the Showdown
+ * tiers, winners and top-k selections, for tables of 2 to 10,000 players.
+ * One deck cannot deal that many hands, so each hand is dealt from a
+ * reshuffled deck.
+ *
+ * A hand keeps its strength once evaluated, so the cached strengths are
+ * cleared on every invocation and each one evaluates every hand again.
+ * Clearing a strength is a single field write, far cheaper than evaluating.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreRoundBenchmark {
+
+    private static final int FULL_HAND = 5;
+    private static final long SEED = 20100301L;
+
+    @Param({"2", "10", "100", "1000", "10000"})
+    public int numPlayers;
+
+    private FiveCardDraw game;
+    private List<Player> players;
+    private PokerHand[] hands;
+
+    @Setup
+    public void setUp() {
+        game = new FiveCardDraw(new Xoshiro256(SEED));
+        players = new ArrayList<Player>();
+        Deck deck = new Deck(false, new Xoshiro256(SEED + 1));
+        for (int i = 0; i < numPlayers; i++) {
+            Player player = game.addPlayer("Player " + i);
+            deck.reset();
+            deck.drawInto(player.getHand(), FULL_HAND);
+            players.add(player);
+        }
+        hands = new PokerHand[numPlayers];
+        for (int i = 0; i < numPlayers; i++) {
+            hands[i] = (PokerHand) players.get(i).getHand();
+        }
+    }
+
+    private void clearStrengths() {
+        for (PokerHand hand : hands) {
+            hand.cardsChanged();
+        }
+    }
+
+    @Benchmark
+    public List<Player> scoreRound() {
+        clearStrengths();
+        return game.scoreRound();
+    }
+
+    @Benchmark
+    public List<List<Player>> tiers() {
+        clearStrengths();
+        return Showdown.tiers(players);
+    }
+
+    @Benchmark
+    public List<Player> winners() {
+        clearStrengths();
+        return Showdown.winners(players);
+    }
+
+    @Benchmark
+    public List<Player> top10() {
+        clearStrengths();
+        return Showdown.top(players, 10);
+    }
+
+}
@@ -0,0 +1,53 @@
+package cardgame.poker;
+
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+/**
+ * TexasHoldemBenchmark measures whole headless rounds of Texas Hold'em,
+ * from the shuffle to the showdown, for tables of 2 to 10 players.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TexasHoldemBenchmark {
+
+    private static final long SEED = 20100301L;
+
+    @Param({"2", "6", "10"})
+    public int numPlayers;
+
+    private TexasHoldem game;
+
+    @Setup
+    public void setUp() {
+        game = new TexasHoldem(new Xoshiro256(SEED));
+        game.setOut(null);
+        for (int i = 0; i < numPlayers; i++) {
+            game.addPlayer("Player " + i);
+        }
+    }
+
+    @Benchmark
+    public List<Player> round() {
+        game.newRound();
+        game.beforeRound();
+        game.round();
+        return game.afterRound();
+    }
+
+}
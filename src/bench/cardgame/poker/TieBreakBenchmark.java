@@ -0,0 +1,75 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TieBreakBenchmark measures PokerHand.compareTo on two hands of the same
+ * poker rank that differ only in their last tie-breaking card.
+ *
+ * A hand keeps its strength once evaluated, so both cached strengths are
+ * cleared on every invocation and each comparison evaluates both hands.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TieBreakBenchmark {
+
+    private static final int FULL_HAND = 5;
+
+    // for each poker rank, two hands that tie on everything but the last card compared
+    private static final String[][][] TIE_BREAKS = {
+            {{"2H", "5D", "7S", "9C", "KH"}, {"3H", "5C", "7D", "9S", "KD"}},
+            {{"KH", "KD", "2C", "7S", "9H"}, {"KS", "KC", "3C", "7D", "9D"}},
+            {{"KH", "KD", "9C", "9S", "2H"}, {"KS", "KC", "9D", "9H", "3H"}},
+            {{"7H", "7D", "7C", "KS", "2H"}, {"7S", "7D", "7C", "KH", "3H"}},
+            {{"5H", "6D", "7C", "8S", "9H"}, {"5D", "6C", "7S", "8H", "9D"}},
+            {{"2H", "5H", "7H", "9H", "KH"}, {"3S", "5S", "7S", "9S", "KS"}},
+            {{"7H", "7D", "7C", "2S", "2H"}, {"7S", "7D", "7C", "3S", "3H"}},
+            {{"9H", "9D", "9C", "9S", "2H"}, {"9H", "9D", "9C", "9S", "3H"}},
+            {{"5H", "6H", "7H", "8H", "9H"}, {"5S", "6S", "7S", "8S", "9S"}},
+    };
+
+    @Param({"NO_RANK", "ONE_PAIR", "TWO_PAIRS", "THREE_OF_A_KIND", "STRAIGHT",
+            "FLUSH", "FULL_HOUSE", "FOUR_OF_A_KIND", "STRAIGHT_FLUSH"})
+    public PokerRank pokerRank;
+
+    private PokerHand firstHand;
+    private PokerHand secondHand;
+
+    private static PokerHand hand(String... cardStrings) {
+        PokerHand hand = new PokerHand(FULL_HAND);
+        for (String cardString : cardStrings) {
+            hand.addCard(Card.getInstance(cardString));
+        }
+        return hand;
+    }
+
+    @Setup
+    public void setUp() {
+        firstHand = hand(TIE_BREAKS[pokerRank.ordinal()][0]);
+        secondHand = hand(TIE_BREAKS[pokerRank.ordinal()][1]);
+        if (firstHand.getPokerRank() != pokerRank || secondHand.getPokerRank() != pokerRank) {
+            throw new IllegalStateException("Tie-break hands should be " + pokerRank);
+        }
+    }
+
+    @Benchmark
+    public int compareTo() {
+        firstHand.cardsChanged();
+        secondHand.cardsChanged();
+        return firstHand.compareTo(secondHand);
+    }
+
+}
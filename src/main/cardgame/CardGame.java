@@ -3,23 +3,63 @@ package cardgame;
 import cardgame.common.Game;
 import cardgame.common.Player;
 import cardgame.poker.FiveCardDraw;
+import cardgame.poker.HandHistoryWriter;
+import cardgame.poker.TexasHoldem;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.List;
 
 /**
- * CardGame is the entry point for card games. Currently, users can only play FiveCardDraw.
+ * CardGame is the entry point for card games. Users play FiveCardDraw, or
+ * TexasHoldem when the first arguments are --game holdem.
+ * If the system property cardgame.poker.handHistory names a file, a round of
+ * Five Card Draw is appended to it as a hand history.
  */
 public class CardGame {
 
     public static final int VALID_ARG_LENGTH = 2;
+    public static final String GAME_OPTION = "--game";
+    public static final String DRAW = "draw";
+    public static final String HOLDEM = "holdem";
 
-    public static void main(String args[]) {
+    public static void main(String args[]) throws IOException {
 
+        String gameName = DRAW;
+        if (args.length >= 2 && args[0].equals(GAME_OPTION)) {
+            gameName = args[1];
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
         if (!validateArgs(args)) {
             return;
         }
 
-        Game game = new FiveCardDraw();
+        if (gameName.equals(HOLDEM)) {
+            play(new TexasHoldem(), args);
+            return;
+        } else if (!gameName.equals(DRAW)) {
+            System.out.println("Unknown game " + gameName + "; expected " + DRAW + " or " + HOLDEM);
+            return;
+        }
+        FiveCardDraw game = new FiveCardDraw();
+        String historyFile = System.getProperty(HandHistoryWriter.FILE_PROPERTY);
+        if (historyFile == null) {
+            play(game, args);
+        } else {
+            try (HandHistoryWriter history = new HandHistoryWriter(Paths.get(historyFile))) {
+                game.setRoundListener(history);
+                play(game, args);
+            }
+        }
+    }
+
+    /**
+     * Play a round with the named players and print the ranking.
+     * @param game the game to play
+     * @param args the names of the players
+     */
+    private static void play(Game game, String args[]) {
         for (String arg : args) {
             if (game.addPlayer(arg) == null) {
                 System.out.println("Player with the name " + arg + " is already playing.");
@@ -55,7 +95,7 @@ public class CardGame {
     public static Boolean validateArgs(String args[]) {
         Boolean isValidArgs = true;
         if (args.length < VALID_ARG_LENGTH) {
-            System.out.println("cardgame.exe <player name(s)>");
+            System.out.println("cardgame.exe [" + GAME_OPTION + " " + DRAW + "|" + HOLDEM + "] <player name(s)>");
             isValidArgs = false;
         }
         return isValidArgs;
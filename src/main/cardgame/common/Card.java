@@ -5,17 +5,54 @@ package cardgame.common;
  */
 public class Card implements Comparable<Card> {
 
-    private Rank rank;
-    private Suit suit;
+    private static final int NUM_RANKS = Rank.values().length;
+    public static final int NUM_CARDS = NUM_RANKS * Suit.values().length;
+
+    // canonical cards, indexed by id
+    private static final Card[] CARDS = new Card[NUM_CARDS];
+
+    static {
+        for (Suit suit : Suit.values()) {
+            for (Rank rank : Rank.values()) {
+                Card card = new Card(rank, suit);
+                CARDS[card.id] = card;
+            }
+        }
+    }
+
+    private final Rank rank;
+    private final Suit suit;
+    private final int id;
 
     /**
-     * Construct a card of given rank and suit.
+     * Construct a card of given rank and suit. Prefer Card.of, which returns
+     * the canonical card instead of allocating a new one.
      * @param rank rank for the card
      * @param suit suit for the card
      */
     public Card(Rank rank, Suit suit) {
         this.rank = rank;
         this.suit = suit;
+        this.id = suit.ordinal() * NUM_RANKS + rank.ordinal();
+    }
+
+    /**
+     * Return the canonical card of given rank and suit.
+     * @param rank rank for the card
+     * @param suit suit for the card
+     * @return the card of given rank and suit
+     */
+    public static Card of(Rank rank, Suit suit) {
+        return CARDS[suit.ordinal() * NUM_RANKS + rank.ordinal()];
+    }
+
+    /**
+     * Return the canonical card with the given id.
+     * @param id id of the card, between 0 and 51
+     * @return the card with the given id
+     */
+    public static Card of(int id) {
+        return CARDS[id];
     }
 
     /**
@@ -26,25 +63,21 @@ public class Card implements Comparable<Card> {
      */
     public static Card getInstance(String cardString) {
         Card card = null;
-        String suitString;
-        String rankString;
-        Rank rank;
-        Suit suit;
-        if (cardString.length() >= 2) {
-            if (cardString.length() == 3) {
-                // cardString looks like "10D" = 10 of Diamonds
-                rankString = "" + cardString.charAt(0) + cardString.charAt(1);
-                suitString = "" + cardString.charAt(2);
-            } else {
-                // cardString looks like "AC" = Ace of Clubs or "2S" = 2 of Spades
-                rankString = "" + cardString.charAt(0);
-                suitString = "" + cardString.charAt(1);
-            }
-            rank = Rank.fromString(rankString);
-            suit = Suit.fromString(suitString);
-            if (rank != null && suit != null) {
-                card = new Card(rank, suit);
+        Rank rank = null;
+        Suit suit = null;
+        if (cardString.length() == 3) {
+            // cardString looks like "10D" = 10 of Diamonds
+            if (cardString.charAt(0) == '1' && cardString.charAt(1) == '0') {
+                rank = Rank.TEN;
             }
+            suit = Suit.fromChar(cardString.charAt(2));
+        } else if (cardString.length() >= 2) {
+            // cardString looks like "AC" = Ace of Clubs or "2S" = 2 of Spades
+            rank = Rank.fromChar(cardString.charAt(0));
+            suit = Suit.fromChar(cardString.charAt(1));
+        }
+        if (rank != null && suit != null) {
+            card = of(rank, suit);
         }
         return card;
     }
@@ -72,6 +105,20 @@ public class Card implements Comparable<Card> {
         return true;
     }
 
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    /**
+     * Return the id of the card, between 0 and 51. Cards are numbered by suit,
+     * then by rank, so the cards of a suit have consecutive ids.
+     * @return the id of the card
+     */
+    public int getId() {
+        return id;
+    }
+
     public Rank getRank() {
         return rank;
     }
@@ -0,0 +1,252 @@
+package cardgame.common;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * CardSet implements a set of playing cards backed by a single long, with
+ * one bit per card id. Because card ids are numbered by suit, then by rank,
+ * the cards of a suit occupy 13 consecutive bits, and the ranks held in a
+ * suit can be read with a shift and a mask.
+ */
+public class CardSet implements Iterable<Card> {
+
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final long SUIT_MASK = (1L << NUM_RANKS) - 1;
+    private static final long FULL_DECK = (1L << Card.NUM_CARDS) - 1;
+
+    private long bits;
+
+    /**
+     * Construct an empty card set.
+     */
+    public CardSet() {
+        this(0L);
+    }
+
+    /**
+     * Construct a card set from its bits, one bit per card id.
+     * @param bits bits of the card set
+     */
+    public CardSet(long bits) {
+        this.bits = bits & FULL_DECK;
+    }
+
+    /**
+     * Return a card set holding all 52 cards.
+     * @return a card set holding all 52 cards
+     */
+    public static CardSet fullDeck() {
+        return new CardSet(FULL_DECK);
+    }
+
+    /**
+     * Return a card set holding the given cards.
+     * @param cards cards to add to the set
+     * @return a card set holding the given cards
+     */
+    public static CardSet of(Iterable<Card> cards) {
+        CardSet cardSet = new CardSet();
+        for (Card card : cards) {
+            cardSet.add(card);
+        }
+        return cardSet;
+    }
+
+    /**
+     * Return the bit of a card.
+     * @param card the card
+     * @return the single bit of the card
+     */
+    public static long bit(Card card) {
+        return 1L << card.getId();
+    }
+
+    /**
+     * Add a card to the set.
+     * @param card card to be added
+     * @return whether the card was added, that is, not already in the set
+     */
+    public boolean add(Card card) {
+        long before = bits;
+        bits |= bit(card);
+        return bits != before;
+    }
+
+    /**
+     * Remove a card from the set.
+     * @param card card to be removed
+     * @return whether the card was removed, that is, was in the set
+     */
+    public boolean remove(Card card) {
+        long before = bits;
+        bits &= ~bit(card);
+        return bits != before;
+    }
+
+    /**
+     * Return whether the set holds the card.
+     * @param card the card
+     * @return whether the set holds the card
+     */
+    public boolean contains(Card card) {
+        return (bits & bit(card)) != 0;
+    }
+
+    /**
+     * Return whether the set holds every card of another set.
+     * @param other the other set
+     * @return whether the set holds every card of the other set
+     */
+    public boolean containsAll(CardSet other) {
+        return (bits & other.bits) == other.bits;
+    }
+
+    /**
+     * Return whether the set shares any card with another set.
+     * @param other the other set
+     * @return whether the sets share any card
+     */
+    public boolean intersects(CardSet other) {
+        return (bits & other.bits) != 0;
+    }
+
+    /**
+     * Return the number of cards in the set.
+     * @return the number of cards in the set
+     */
+    public int size() {
+        return Long.bitCount(bits);
+    }
+
+    /**
+     * Return whether the set is empty.
+     * @return whether the set is empty
+     */
+    public boolean isEmpty() {
+        return bits == 0;
+    }
+
+    /**
+     * Remove all cards from the set.
+     */
+    public void clear() {
+        bits = 0;
+    }
+
+    /**
+     * Return a new set holding the cards in either set.
+     * @param other the other set
+     * @return the union of the sets
+     */
+    public CardSet union(CardSet other) {
+        return new CardSet(bits | other.bits);
+    }
+
+    /**
+     * Return a new set holding the cards in both sets.
+     * @param other the other set
+     * @return the intersection of the sets
+     */
+    public CardSet intersection(CardSet other) {
+        return new CardSet(bits & other.bits);
+    }
+
+    /**
+     * Return a new set holding the cards of this set that are not in the other set,
+     * such as the cards remaining in a deck once dead cards are removed.
+     * @param other the other set
+     * @return the difference of the sets
+     */
+    public CardSet difference(CardSet other) {
+        return new CardSet(bits & ~other.bits);
+    }
+
+    /**
+     * Return the ranks held in a suit, one bit per rank with Two as the lowest bit.
+     * @param suit the suit
+     * @return the 13-bit rank mask of the suit
+     */
+    public int getRankMask(Suit suit) {
+        return (int) ((bits >>> (suit.ordinal() * NUM_RANKS)) & SUIT_MASK);
+    }
+
+    /**
+     * Return the ranks held in any suit, one bit per rank with Two as the lowest bit.
+     * @return the 13-bit rank mask of the set
+     */
+    public int getRankMask() {
+        long ranks = bits | (bits >>> NUM_RANKS) | (bits >>> (2 * NUM_RANKS)) | (bits >>> (3 * NUM_RANKS));
+        return (int) (ranks & SUIT_MASK);
+    }
+
+    /**
+     * Return the suits for which the set holds a card of the rank, one bit per suit.
+     * @param rank the rank
+     * @return the 4-bit suit mask of the rank
+     */
+    public int getSuitMask(Rank rank) {
+        int suits = 0;
+        for (int suit = 0; suit < Suit.values().length; suit++) {
+            if ((bits & (1L << (suit * NUM_RANKS + rank.ordinal()))) != 0) {
+                suits |= 1 << suit;
+            }
+        }
+        return suits;
+    }
+
+    /**
+     * Return the bits of the set, one bit per card id.
+     * @return the bits of the set
+     */
+    public long getBits() {
+        return bits;
+    }
+
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<Card>() {
+            private long remaining = bits;
+
+            public boolean hasNext() {
+                return remaining != 0;
+            }
+
+            public Card next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                int id = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                return Card.of(id);
+            }
+
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CardSet)) return false;
+
+        return bits == ((CardSet) o).bits;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+        String cardSet = "";
+        for (Card card : this) {
+            cardSet = cardSet + card + " ";
+        }
+        return cardSet;
+    }
+
+}
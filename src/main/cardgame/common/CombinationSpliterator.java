@@ -0,0 +1,186 @@
+package cardgame.common;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * CombinationSpliterator enumerates every combination of k cards out of the
+ * 52 as the bits of a CardSet, in colex order.
+ *
+ * In colex order, the combinations are sorted by their bits as numbers, so the
+ * next combination is the next larger number with the same number of bits set,
+ * and no object is allocated per combination. Each combination has an index in
+ * the combinatorial number system, so the spliterator splits its index range in
+ * half and starts the upper half at the combination for the middle index.
+ */
+public class CombinationSpliterator implements Spliterator.OfLong {
+
+    private static final int CHARACTERISTICS =
+            ORDERED | SORTED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+
+    // binomial coefficients, BINOMIALS[n][k] = n choose k
+    private static final long[][] BINOMIALS = new long[Card.NUM_CARDS + 1][Card.NUM_CARDS + 1];
+
+    static {
+        for (int n = 0; n <= Card.NUM_CARDS; n++) {
+            BINOMIALS[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                BINOMIALS[n][k] = BINOMIALS[n - 1][k - 1] + BINOMIALS[n - 1][k];
+            }
+        }
+    }
+
+    private final int numCards;
+    private long index;
+    private final long end;
+    private long bits;
+
+    /**
+     * Construct a spliterator over every combination of the given number of cards.
+     * @param numCards number of cards in each combination, between 1 and 52
+     */
+    public CombinationSpliterator(int numCards) {
+        this(numCards, 0, count(numCards));
+    }
+
+    /**
+     * Construct a spliterator over the combinations with colex index from
+     * index, inclusive, to end, exclusive.
+     * @param numCards number of cards in each combination, between 1 and 52
+     * @param index colex index of the first combination
+     * @param end colex index one past the last combination
+     */
+    public CombinationSpliterator(int numCards, long index, long end) {
+        if (numCards < 1 || numCards > Card.NUM_CARDS) {
+            throw new IllegalArgumentException("Expected between 1 and " + Card.NUM_CARDS
+                    + " cards but got " + numCards);
+        }
+        if (index < 0 || index > end || end > count(numCards)) {
+            throw new IllegalArgumentException("Invalid index range " + index + " to " + end);
+        }
+        this.numCards = numCards;
+        this.index = index;
+        this.end = end;
+        this.bits = index < end ? unrank(numCards, index) : 0;
+    }
+
+    /**
+     * Return a stream of the bits of every combination of the given number of cards.
+     * @param numCards number of cards in each combination, between 1 and 52
+     * @param parallel whether the stream is parallel
+     * @return a stream of the bits of every combination, in colex order
+     */
+    public static LongStream stream(int numCards, boolean parallel) {
+        return StreamSupport.longStream(new CombinationSpliterator(numCards), parallel);
+    }
+
+    /**
+     * Return the number of combinations of the given number of cards.
+     * @param numCards number of cards in each combination
+     * @return 52 choose numCards
+     */
+    public static long count(int numCards) {
+        return BINOMIALS[Card.NUM_CARDS][numCards];
+    }
+
+    /**
+     * Return the combination with the given colex index.
+     * @param numCards number of cards in the combination
+     * @param index colex index of the combination
+     * @return the bits of the combination, one bit per card id
+     */
+    public static long unrank(int numCards, long index) {
+        long bits = 0;
+        long remaining = index;
+        int id = Card.NUM_CARDS;
+        for (int k = numCards; k > 0; k--) {
+            // the highest card is the largest id with id choose k not above the index
+            do {
+                id--;
+            } while (BINOMIALS[id][k] > remaining);
+            bits |= 1L << id;
+            remaining -= BINOMIALS[id][k];
+        }
+        return bits;
+    }
+
+    /**
+     * Return the colex index of a combination.
+     * @param bits the bits of the combination, one bit per card id
+     * @return the colex index of the combination
+     */
+    public static long rank(long bits) {
+        long index = 0;
+        long remaining = bits;
+        for (int k = 1; remaining != 0; k++) {
+            index += BINOMIALS[Long.numberOfTrailingZeros(remaining)][k];
+            remaining &= remaining - 1;
+        }
+        return index;
+    }
+
+    /**
+     * Return the next larger number with the same number of bits set, which
+     * is the next combination in colex order.
+     */
+    private static long next(long bits) {
+        long lowest = bits & -bits;
+        long ripple = bits + lowest;
+        return (((ripple ^ bits) >>> 2) / lowest) | ripple;
+    }
+
+    @Override
+    public boolean tryAdvance(LongConsumer action) {
+        if (index >= end) {
+            return false;
+        }
+        long current = bits;
+        index++;
+        bits = next(current);
+        action.accept(current);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(LongConsumer action) {
+        long current = bits;
+        for (long i = index; i < end; i++) {
+            action.accept(current);
+            current = next(current);
+        }
+        index = end;
+        bits = current;
+    }
+
+    @Override
+    public CombinationSpliterator trySplit() {
+        long middle = index + ((end - index) >>> 1);
+        if (middle == index) {
+            return null;
+        }
+        CombinationSpliterator prefix = new CombinationSpliterator(numCards, index, middle);
+        index = middle;
+        bits = unrank(numCards, middle);
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    @Override
+    public Comparator<? super Long> getComparator() {
+        // combinations are in the natural order of their bits
+        return null;
+    }
+
+}
@@ -1,40 +1,134 @@
 package cardgame.common;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * Deck implements a deck of cards.
+ *
+ * Cards are held in a fixed array with a cursor at the next card to draw, so
+ * drawing never shifts the remaining cards. Drawn cards stay in the array
+ * ahead of the cursor until the deck is reset or cleared.
  */
 public class Deck {
 
-    private List<Card> cards;
+    // the card counts of a written deck are one byte each
+    public static final int MAX_WRITTEN_CARDS = 0xFF;
+
+    private Card[] cards;
+    private int cursor;
+    private int end;
+    private RandomGenerator random;
 
     /**
      * Construct a playing card deck. If isEmpty is not true, the deck
      * is initialized with 52 cards and shuffled. An empty deck is useful for
-     * discards.
+     * discards. The deck shuffles with its own unseeded random source.
      * @param isEmpty whether the card deck should be empty on initialization
      */
     public Deck(boolean isEmpty) {
-        cards = new ArrayList<Card>();
+        this(isEmpty, new SplittableRandom());
+    }
+
+    /**
+     * Construct a playing card deck that shuffles with the given random source.
+     * If isEmpty is not true, the deck is initialized with 52 cards and shuffled.
+     * @param isEmpty whether the card deck should be empty on initialization
+     * @param random the random source used for shuffling; it should not be
+     * shared with other threads
+     */
+    public Deck(boolean isEmpty, RandomGenerator random) {
+        cards = new Card[Card.NUM_CARDS];
+        this.random = random;
         if (!isEmpty) {
             for (Rank rank : Rank.values()) {
                 for (Suit suit : Suit.values()) {
-                    Card card = new Card(rank, suit);
-                    cards.add(card);
+                    cards[end++] = Card.of(rank, suit);
                 }
             }
-            Collections.shuffle(cards);
+            shuffle();
         }
     }
 
     /**
-     * Shuffle the deck.
+     * Construct a playing card deck holding exactly the given cards, shuffled.
+     * This is useful for dealing the cards that remain once known and dead
+     * cards are removed.
+     * @param cardSet the cards the deck should hold
+     */
+    public Deck(CardSet cardSet) {
+        this(cardSet, new SplittableRandom());
+    }
+
+    /**
+     * Construct a playing card deck holding exactly the given cards, shuffled
+     * with the given random source.
+     * @param cardSet the cards the deck should hold
+     * @param random the random source used for shuffling; it should not be
+     * shared with other threads
+     */
+    public Deck(CardSet cardSet, RandomGenerator random) {
+        cards = new Card[Card.NUM_CARDS];
+        this.random = random;
+        for (Card card : cardSet) {
+            cards[end++] = card;
+        }
+        shuffle();
+    }
+
+    /**
+     * Shuffle the cards left in the deck.
      */
     public void shuffle() {
-        Collections.shuffle(cards);
+        for (int i = end - 1; i > cursor; i--) {
+            int j = cursor + random.nextInt(i - cursor + 1);
+            Card card = cards[i];
+            cards[i] = cards[j];
+            cards[j] = card;
+        }
+    }
+
+    /**
+     * Return all cards drawn from the deck to it and shuffle, reusing the
+     * same storage.
+     */
+    public void reset() {
+        cursor = 0;
+        shuffle();
+    }
+
+    /**
+     * Return all cards drawn from the deck to it in order of card id and
+     * shuffle, so that the new order depends only on the random source and not
+     * on earlier shuffles, such as when a round is replayed from its seed.
+     */
+    public void resetInOrder() {
+        cursor = 0;
+        long bits = 0;
+        for (int i = 0; i < end; i++) {
+            bits |= 1L << cards[i].getId();
+        }
+        if (Long.bitCount(bits) == end) {
+            // distinct cards, as in a dealing deck, are put in order without sorting
+            for (int i = 0; bits != 0; i++, bits &= bits - 1) {
+                cards[i] = Card.of(Long.numberOfTrailingZeros(bits));
+            }
+        } else {
+            Arrays.sort(cards, 0, end, Comparator.comparingInt(Card::getId));
+        }
+        shuffle();
+    }
+
+    /**
+     * Remove all cards from the deck, such as when a discard deck is
+     * emptied between rounds.
+     */
+    public void clear() {
+        cursor = 0;
+        end = 0;
     }
 
     /**
@@ -43,19 +137,119 @@ public class Deck {
      */
     public Card drawCard() {
         Card card = null;
-        if (!cards.isEmpty()) {
-            card = cards.get(0);
-            cards.remove(0);
+        if (cursor < end) {
+            card = cards[cursor++];
         }
         return card;
     }
 
+    /**
+     * Draw cards from the deck into a hand until the given number of cards
+     * has been drawn, the hand is full or the deck is empty.
+     * @param hand the hand to draw cards into
+     * @param numCards the number of cards to draw
+     * @return the number of cards drawn
+     */
+    public int drawInto(Hand<?> hand, int numCards) {
+        int numDrawn = 0;
+        while (numDrawn < numCards && cursor < end && hand.addCard(cards[cursor])) {
+            cursor++;
+            numDrawn++;
+        }
+        return numDrawn;
+    }
+
     /**
      * Add card to deck, such as in the case of discard decks.
      * @param card add a card to the deck.
      */
     public void addCard(Card card) {
-        cards.add(card);
+        if (end == cards.length) {
+            cards = Arrays.copyOf(cards, cards.length * 2);
+        }
+        cards[end++] = card;
+    }
+
+    /**
+     * Write the deck to a buffer: the number of cards drawn, the number of
+     * cards and every card in order, drawn or not, each a byte holding the
+     * card id. Drawn cards are written because later shuffles start from
+     * their order. The random source is not written.
+     * @param buffer the buffer to write to
+     * @throws IllegalStateException if the deck holds more than MAX_WRITTEN_CARDS cards
+     */
+    public void writeTo(ByteBuffer buffer) {
+        if (end > MAX_WRITTEN_CARDS) {
+            throw new IllegalStateException("Cannot write a deck of " + end + " cards");
+        }
+        buffer.put((byte) cursor);
+        buffer.put((byte) end);
+        for (int i = 0; i < end; i++) {
+            buffer.put((byte) cards[i].getId());
+        }
+    }
+
+    /**
+     * Replace the cards of the deck with cards written by writeTo, keeping
+     * the random source.
+     * @param buffer the buffer to read from
+     * @throws IllegalArgumentException if the buffer does not hold a deck
+     * @throws java.nio.BufferUnderflowException if the buffer ends within the deck
+     */
+    public void readFrom(ByteBuffer buffer) {
+        int newCursor = buffer.get() & 0xFF;
+        int newEnd = buffer.get() & 0xFF;
+        if (newCursor > newEnd) {
+            throw new IllegalArgumentException("Invalid deck of " + newEnd + " cards with " + newCursor + " drawn");
+        }
+        Card[] newCards = new Card[Math.max(Card.NUM_CARDS, newEnd)];
+        for (int i = 0; i < newEnd; i++) {
+            int id = buffer.get() & 0xFF;
+            if (id >= Card.NUM_CARDS) {
+                throw new IllegalArgumentException("Invalid card id " + id);
+            }
+            newCards[i] = Card.of(id);
+        }
+        cards = newCards;
+        cursor = newCursor;
+        end = newEnd;
+    }
+
+    /**
+     * Return the random source used for shuffling.
+     * @return the random source used for shuffling
+     */
+    public RandomGenerator getRandom() {
+        return random;
+    }
+
+    /**
+     * Set the random source used for shuffling, such as when a round is
+     * replayed from its seed.
+     * @param random the random source used for shuffling
+     */
+    public void setRandom(RandomGenerator random) {
+        this.random = random;
+    }
+
+    /**
+     * Return the number of cards left in the deck.
+     * @return the number of cards left in the deck
+     */
+    public int size() {
+        return end - cursor;
+    }
+
+    /**
+     * Return the cards left in the deck as a card set.
+     * @return the cards left in the deck
+     */
+    public CardSet getCardSet() {
+        CardSet cardSet = new CardSet();
+        for (int i = cursor; i < end; i++) {
+            cardSet.add(cards[i]);
+        }
+        return cardSet;
     }
 
     /**
@@ -63,14 +257,14 @@ public class Deck {
      * @return true if deck is empty; otherwise, false
      */
     public boolean isEmpty() {
-        return cards.isEmpty();
+        return cursor == end;
     }
 
     @Override
     public String toString() {
         String deck = "";
-        for (Card card : cards) {
-            deck = deck + card + " ";
+        for (int i = cursor; i < end; i++) {
+            deck = deck + cards[i] + " ";
         }
         return deck;
     }
@@ -1,20 +1,34 @@
 package cardgame.common;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 public abstract class Game {
 
     private Deck deck;
     private List<Player> players;
     private Set<String> playerNames;
+    private RandomGenerator random;
 
     /**
      * Construct a playing card game, initializing the deck.
      */
     public Game() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Construct a playing card game, initializing the deck with the given
+     * random source. Games constructed with generators that produce the same
+     * sequence deal the same cards.
+     * @param random the random source for shuffling; it should not be shared
+     * with other threads
+     */
+    public Game(RandomGenerator random) {
         players = new ArrayList<Player>();
         playerNames = new HashSet<String>();
-        deck = new Deck(true);
+        this.random = random;
+        deck = new Deck(false, random);
     }
 
     /**
@@ -48,12 +62,15 @@ public abstract class Game {
 
     /**
      * Perform actions after a round. In the abstract implementation,
-     * score the round. Subclasses should provide game-specific
-     * implementation.
+     * score the round, timed as the afterRound phase of GameMetrics.
+     * Subclasses should provide game-specific implementation.
      * @return the list of players, sorted by rank, lowest rank first
      */
     public List<Player> afterRound() {
-        return scoreRound();
+        long start = GameMetrics.start();
+        List<Player> ranking = scoreRound();
+        GameMetrics.recordSince(GameMetrics.AFTER_ROUND, start);
+        return ranking;
     }
 
     /**
@@ -71,6 +88,14 @@ public abstract class Game {
         return deck;
     }
 
+    /**
+     * Return the random source for shuffling, for decks created by subclasses.
+     * @return the random source for shuffling
+     */
+    protected RandomGenerator getRandom() {
+        return random;
+    }
+
     /**
      * Return the list of players playing the game.
      * @return the list of players playing the game.
@@ -0,0 +1,141 @@
+package cardgame.common;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * GameMetrics records where the time of each round goes, for reading over
+ * JMX with tools such as jconsole without attaching a profiler.
+ *
+ * Recording is turned on by setting the system property cardgame.metrics to
+ * true. Since the switch is a constant, the JIT removes the recording calls
+ * when it is off. When it is on, the following MXBeans are registered with
+ * the platform MBean server:
+ * <ul>
+ * <li>cardgame:type=GameMetrics, counting the shuffles of a game's deck
+ * between rounds and the reshuffles of a discard deck drawn from once the
+ * deck runs out. Decks shuffled outside games, such as by the equity
+ * calculators for every trial, are not counted.</li>
+ * <li>cardgame:type=Phase,name=beforeRound, round and afterRound, each a
+ * LatencySummary of that phase of Game.</li>
+ * </ul>
+ * Counters are LongAdders, so games on many threads record without contending.
+ */
+public final class GameMetrics implements GameMetricsMXBean {
+
+    public static final String ENABLED_PROPERTY = "cardgame.metrics";
+    public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+    public static final String DOMAIN = "cardgame";
+
+    public static final LatencySummary BEFORE_ROUND = new LatencySummary();
+    public static final LatencySummary ROUND = new LatencySummary();
+    public static final LatencySummary AFTER_ROUND = new LatencySummary();
+
+    private static final GameMetrics INSTANCE = new GameMetrics();
+
+    private final LongAdder deckShuffles;
+    private final LongAdder discardReshuffles;
+
+    static {
+        if (ENABLED) {
+            register(DOMAIN + ":type=GameMetrics", INSTANCE);
+            register(DOMAIN + ":type=Phase,name=beforeRound", BEFORE_ROUND);
+            register(DOMAIN + ":type=Phase,name=round", ROUND);
+            register(DOMAIN + ":type=Phase,name=afterRound", AFTER_ROUND);
+        }
+    }
+
+    private GameMetrics() {
+        deckShuffles = new LongAdder();
+        discardReshuffles = new LongAdder();
+    }
+
+    /**
+     * Register an MXBean with the platform MBean server, unless one is
+     * already registered under the name.
+     * @param name the object name
+     * @param mxBean the MXBean
+     */
+    public static void register(String name, Object mxBean) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName objectName = new ObjectName(name);
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mxBean, objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Unable to register " + name, e);
+        }
+    }
+
+    /**
+     * Return the metrics.
+     * @return the metrics
+     */
+    public static GameMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Return the time to pass to recordSince when a timed call ends.
+     * @return System.nanoTime if recording is on; otherwise, 0
+     */
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Record a call that started at the given time, if recording is on.
+     * @param summary the summary of the call
+     * @param startNanos the time returned by start when the call started
+     */
+    public static void recordSince(LatencySummary summary, long startNanos) {
+        if (ENABLED) {
+            summary.recordSince(startNanos);
+        }
+    }
+
+    /**
+     * Count the shuffle of a game's deck for a new round, if recording is on.
+     */
+    public static void deckShuffled() {
+        if (ENABLED) {
+            INSTANCE.deckShuffles.increment();
+        }
+    }
+
+    /**
+     * Count a reshuffle of a discard deck to draw from it, if recording is on.
+     */
+    public static void discardReshuffled() {
+        if (ENABLED) {
+            INSTANCE.discardReshuffles.increment();
+        }
+    }
+
+    @Override
+    public long getDeckShuffles() {
+        return deckShuffles.sum();
+    }
+
+    @Override
+    public long getDiscardReshuffles() {
+        return discardReshuffles.sum();
+    }
+
+    /**
+     * Reset the counters and the phase summaries.
+     */
+    @Override
+    public void reset() {
+        deckShuffles.reset();
+        discardReshuffles.reset();
+        BEFORE_ROUND.reset();
+        ROUND.reset();
+        AFTER_ROUND.reset();
+    }
+
+}
@@ -0,0 +1,14 @@
+package cardgame.common;
+
+/**
+ * GameMetricsMXBean is the management interface of GameMetrics.
+ */
+public interface GameMetricsMXBean {
+
+    long getDeckShuffles();
+
+    long getDiscardReshuffles();
+
+    void reset();
+
+}
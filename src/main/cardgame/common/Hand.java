@@ -1,22 +1,38 @@
 package cardgame.common;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 /**
  * Hand implements a hand of cards.
+ *
+ * Besides the cards, a hand keeps the number of cards of each rank and suit,
+ * a mask of the ranks held and the number of same-rank pairs, updated as
+ * cards are added and removed, so questions about ranks and suits are
+ * answered without scanning the cards.
  */
 public abstract class Hand<T extends Hand<T>> implements Comparable<T> {
 
+    private static final int NUM_RANKS = Rank.values().length;
+
     private int numCardsInFullHand;
     private List<Card> cards;
+    private CardSet cardSet;
+    private int[] rankCounts;
+    private int[] suitCounts;
+    private int rankMask;
+    private int numSameRankPairs;
 
     /**
      * Construct an empty hand.
      */
     public Hand() {
         cards = new ArrayList<Card>();
+        cardSet = new CardSet();
+        rankCounts = new int[NUM_RANKS];
+        suitCounts = new int[Suit.values().length];
     }
 
     /**
@@ -29,10 +45,18 @@ public abstract class Hand<T extends Hand<T>> implements Comparable<T> {
         Boolean cardAdded = false;
         if (!isFullHand()) {
             cards.add(card);
+            cardSet.add(card);
+            int rank = card.getRank().ordinal();
+            // the new card pairs with every card of its rank already held
+            numSameRankPairs += rankCounts[rank];
+            rankCounts[rank]++;
+            suitCounts[card.getSuit().ordinal()]++;
+            rankMask |= 1 << rank;
             cardAdded = true;
             if (isFullHand()) {
                 sort();
             }
+            cardsChanged();
         }
         // if hand is full, do nothing
         return cardAdded;
@@ -51,6 +75,14 @@ public abstract class Hand<T extends Hand<T>> implements Comparable<T> {
         return card;
     }
 
+    /**
+     * Return the number of cards in hand.
+     * @return the number of cards in hand
+     */
+    public int getNumCards() {
+        return cards.size();
+    }
+
     /**
      * Get list of cards in hand.
      * @return list of cards in hand
@@ -66,10 +98,87 @@ public abstract class Hand<T extends Hand<T>> implements Comparable<T> {
      */
     public void removeCard(int position) {
         if (cards.size() > position) {
-            cards.remove(position);
+            Card card = cards.remove(position);
+            if (!cards.contains(card)) {
+                // hands built by hand may hold a card twice
+                cardSet.remove(card);
+            }
+            int rank = card.getRank().ordinal();
+            rankCounts[rank]--;
+            numSameRankPairs -= rankCounts[rank];
+            suitCounts[card.getSuit().ordinal()]--;
+            if (rankCounts[rank] == 0) {
+                rankMask &= ~(1 << rank);
+            }
+            cardsChanged();
         }
     }
 
+    /**
+     * Remove all cards from hand, such as between rounds.
+     */
+    public void clear() {
+        cards.clear();
+        cardSet.clear();
+        Arrays.fill(rankCounts, 0);
+        Arrays.fill(suitCounts, 0);
+        rankMask = 0;
+        numSameRankPairs = 0;
+        cardsChanged();
+    }
+
+    /**
+     * Called after a card is added or removed or the hand is cleared.
+     * Subclasses that cache values derived from the cards should override
+     * it to forget them.
+     */
+    protected void cardsChanged() {
+    }
+
+    /**
+     * Return the cards in hand as a card set, for mask tests against
+     * other hands, dead cards and decks.
+     * @return a copy of the cards in hand as a card set
+     */
+    public CardSet getCardSet() {
+        return new CardSet(cardSet.getBits());
+    }
+
+    /**
+     * Return the bits of the cards in hand, one bit per card id, without
+     * copying the card set.
+     * @return the bits of the cards in hand
+     */
+    protected long getCardBits() {
+        return cardSet.getBits();
+    }
+
+    /**
+     * Return the number of cards of a rank in hand.
+     * @param rank the rank
+     * @return the number of cards of the rank
+     */
+    public int getRankCount(Rank rank) {
+        return rankCounts[rank.ordinal()];
+    }
+
+    /**
+     * Return the number of cards of a suit in hand.
+     * @param suit the suit
+     * @return the number of cards of the suit
+     */
+    public int getSuitCount(Suit suit) {
+        return suitCounts[suit.ordinal()];
+    }
+
+    /**
+     * Return the ranks in hand as a mask with one bit per rank, bit 0 for Two.
+     * @return the mask of ranks in hand
+     */
+    public int getRankMask() {
+        return rankMask;
+    }
+
     /**
      * Return whether the hand is full.
      * @return whether the hand is full
@@ -89,27 +198,22 @@ public abstract class Hand<T extends Hand<T>> implements Comparable<T> {
      * Return whether the cards in the hand have consecutive
      * ranks. For example, Eight, Nine, Ten, Jack, Queen.
      *
-     * Hand is presumed to be sorted, lowest to highest.
+     * Hand is presumed to be full.
      * @return whether the cards in the hand have consecutive ranks
      */
     protected boolean getIsConsecutiveRanks() {
-        boolean consecutive = true;
-        // -1 because we look ahead by 1
-        for (int i = 0; i < getNumCardsInFullHand() - 1; i++) {
-            if (!cards.get(i).getRank().getNext().equals(cards.get(i + 1).getRank())) {
-                // card and next card are not in sequence
-                // look at -2 for 2nd to last
-                if (!((i == getNumCardsInFullHand() - 2) &&
-                      cards.get(i).getRank().equals(Rank.FIVE) &&
-                      cards.get(i + 1).getRank().equals(Rank.ACE))) {
-                    // make an exception for Ace in the last position
-                    // for all others, set consecutive to false
-                    consecutive = false;
-                    break;
-                }
-            }
+        int numCards = getNumCardsInFullHand();
+        if (Integer.bitCount(rankMask) != numCards) {
+            // a repeated rank breaks the sequence
+            return false;
+        }
+        int lowest = Integer.numberOfTrailingZeros(rankMask);
+        if (rankMask == ((1 << numCards) - 1) << lowest) {
+            return true;
         }
-        return consecutive;
+        // make an exception for Ace below Two when the ranks run up to Five
+        int wheel = (1 << Rank.ACE.ordinal()) | ((1 << (Rank.FIVE.ordinal() + 1)) - 1);
+        return numCards == Rank.FIVE.ordinal() + 2 && rankMask == wheel;
     }
 
     /**
@@ -118,14 +222,12 @@ public abstract class Hand<T extends Hand<T>> implements Comparable<T> {
      * @return whether the cards in the hand have the same suit
      */
     protected boolean getIsSameSuit() {
-        boolean same = true;
-        for (int i = 1; i < getNumCardsInFullHand(); i++) {
-            if (!cards.get(0).getSuit().equals(cards.get(i).getSuit())) {
-                same = false;
-                break;
+        for (int suitCount : suitCounts) {
+            if (suitCount == getNumCardsInFullHand()) {
+                return true;
             }
         }
-        return same;
+        return false;
     }
 
     /**
@@ -137,19 +239,12 @@ public abstract class Hand<T extends Hand<T>> implements Comparable<T> {
      *         c-d c-e
      *             d-e
      * The number of same ranks is the number of comparisons for which
-     * the same rank was found between the two cards being compared.
+     * the same rank was found between the two cards being compared. It is
+     * kept up to date as cards are added and removed.
      * @return the number of same rank two-way comparisons
      */
     protected int getNumSameRankInTwoWayComparisons() {
-        int numSameRank = 0;
-        for (int i = 0; i < getNumCardsInFullHand(); i++) {
-            for (int j = i + 1; j < getNumCardsInFullHand(); j++) {
-                if (cards.get(i).getRank() == cards.get(j).getRank()) {
-                    numSameRank++;
-                }
-            }
-        }
-        return numSameRank;
+        return numSameRankPairs;
     }
 
     /**
@@ -0,0 +1,128 @@
+package cardgame.common;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencySummary counts timed calls and summarizes how long they took: the
+ * total, mean and maximum, and the median and 99th percentile from a
+ * histogram with one bucket per power of two nanoseconds.
+ *
+ * Every count is a LongAdder or LongAccumulator, which spread updates from
+ * different threads over separate cells, so threads recording at the same
+ * time do not contend. Reading sums the cells, and a summary read while
+ * calls are being recorded may be a few calls behind.
+ */
+public class LatencySummary implements LatencySummaryMXBean {
+
+    private static final int NUM_BUCKETS = Long.SIZE;
+
+    private final LongAdder count;
+    private final LongAdder totalNanos;
+    private final LongAccumulator maxNanos;
+    // calls by the number of bits in their duration, so bucket i holds
+    // durations from 2^(i-1) to 2^i - 1 nanoseconds
+    private final LongAdder[] buckets;
+
+    /**
+     * Construct an empty summary.
+     */
+    public LatencySummary() {
+        count = new LongAdder();
+        totalNanos = new LongAdder();
+        maxNanos = new LongAccumulator(Math::max, 0);
+        buckets = new LongAdder[NUM_BUCKETS];
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Record a call that took the given time.
+     * @param nanos the duration of the call in nanoseconds
+     */
+    public void record(long nanos) {
+        long duration = Math.max(nanos, 0);
+        count.increment();
+        totalNanos.add(duration);
+        maxNanos.accumulate(duration);
+        buckets[Math.min(Long.SIZE - Long.numberOfLeadingZeros(duration), NUM_BUCKETS - 1)].increment();
+    }
+
+    /**
+     * Record a call that started at the given System.nanoTime.
+     * @param startNanos the System.nanoTime when the call started
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) totalNanos.sum() / n;
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    @Override
+    public long getMedianNanos() {
+        return getPercentileNanos(0.5);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return getPercentileNanos(0.99);
+    }
+
+    /**
+     * Return an upper bound on the duration of the given share of calls, as
+     * the top of the histogram bucket it falls in.
+     * @param percentile the share of calls, between 0 and 1
+     * @return the upper bound in nanoseconds, or 0 if no calls were recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long[] counts = new long[NUM_BUCKETS];
+        long n = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            n += counts[i];
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile * n);
+        long seen = 0;
+        for (int i = 0; i < NUM_BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && counts[i] > 0) {
+                return i == 0 ? 0 : Math.min((1L << i) - 1, getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+
+    @Override
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package cardgame.common;
+
+/**
+ * LatencySummaryMXBean is the management interface of a LatencySummary.
+ */
+public interface LatencySummaryMXBean {
+
+    long getCount();
+
+    long getTotalNanos();
+
+    double getMeanNanos();
+
+    long getMaxNanos();
+
+    long getMedianNanos();
+
+    long getP99Nanos();
+
+    void reset();
+
+}
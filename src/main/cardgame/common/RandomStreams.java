@@ -0,0 +1,38 @@
+package cardgame.common;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * RandomStreams derives independent random streams from a single seed.
+ *
+ * Each stream depends only on the seed and the stream index, not on which
+ * thread asks for it or in what order, so work split into numbered tasks
+ * gives identical results for the same seed however many threads run it.
+ */
+public class RandomStreams {
+
+    private final long seed;
+
+    /**
+     * Construct the streams for a seed.
+     * @param seed the seed from which all streams are derived
+     */
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Return a new generator for the stream with the given index. Asking
+     * twice for the same index returns generators with the same sequence.
+     * @param index index of the stream, such as a task or table number
+     * @return a new generator for the stream
+     */
+    public RandomGenerator stream(long index) {
+        return new Xoshiro256(Xoshiro256.mix(seed ^ Xoshiro256.mix(index)));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+}
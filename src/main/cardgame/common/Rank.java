@@ -31,11 +31,17 @@ public enum Rank {
 
     private static Map<String, Rank> nameEnumMap = new HashMap<String, Rank>();
     private static Map<Integer, Rank> valueEnumMap = new HashMap<Integer, Rank>();
+    // single-character ranks indexed by character, in upper and lower case
+    private static final Rank[] charEnumTable = new Rank[128];
 
     static {
         for (Rank rank : Rank.values()) {
             nameEnumMap.put(rank.name.toUpperCase(), rank);
             valueEnumMap.put(rank.value, rank);
+            if (rank.name.length() == 1) {
+                charEnumTable[Character.toUpperCase(rank.name.charAt(0))] = rank;
+                charEnumTable[Character.toLowerCase(rank.name.charAt(0))] = rank;
+            }
         }
     }
 
@@ -86,6 +92,16 @@ public enum Rank {
         return rank;
     }
 
+    /**
+     * Return rank based on a single-character representation. Ten has
+     * a two-character representation and is not returned.
+     * @param rankChar character representation of the rank
+     * @return rank corresponding to the character, or null if there is none
+     */
+    public static Rank fromChar(char rankChar) {
+        return rankChar < charEnumTable.length ? charEnumTable[rankChar] : null;
+    }
+
     @Override
     public String toString() {
         return name;
@@ -16,10 +16,14 @@ public enum Suit {
     private final String initial;
 
     private static Map<String, Suit> initialEnumMap = new HashMap<String, Suit>();
+    // suits indexed by initial, in upper and lower case
+    private static final Suit[] charEnumTable = new Suit[128];
 
     static {
         for (Suit suit : Suit.values()) {
             initialEnumMap.put(suit.initial.toUpperCase(), suit);
+            charEnumTable[Character.toUpperCase(suit.initial.charAt(0))] = suit;
+            charEnumTable[Character.toLowerCase(suit.initial.charAt(0))] = suit;
         }
     }
 
@@ -42,6 +46,15 @@ public enum Suit {
         return suit;
     }
 
+    /**
+     * Return suit based on the initial character.
+     * @param suitChar initial of the suit
+     * @return suit corresponding to the initial, or null if there is none
+     */
+    public static Suit fromChar(char suitChar) {
+        return suitChar < charEnumTable.length ? charEnumTable[suitChar] : null;
+    }
+
     @Override
     public String toString() {
         return initial;
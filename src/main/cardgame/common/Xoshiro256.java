@@ -0,0 +1,89 @@
+package cardgame.common;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Xoshiro256 implements the xoshiro256** pseudo-random number generator.
+ * It is small, fast and not thread-safe, so each thread or deck should own
+ * its own instance. Seeds are expanded to the 256-bit state with SplitMix64.
+ */
+public class Xoshiro256 implements RandomGenerator {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    /**
+     * Construct a generator from a seed. Equal seeds produce equal sequences.
+     * @param seed the seed
+     */
+    public Xoshiro256(long seed) {
+        long x = seed;
+        s0 = mix(x += GOLDEN_GAMMA);
+        s1 = mix(x += GOLDEN_GAMMA);
+        s2 = mix(x += GOLDEN_GAMMA);
+        s3 = mix(x += GOLDEN_GAMMA);
+    }
+
+    /**
+     * Return the SplitMix64 finalizer of a value, which scrambles all bits
+     * of the value into all bits of the result.
+     * @param value the value to scramble
+     * @return the scrambled value
+     */
+    public static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    /**
+     * Return the 256-bit state of the generator, such as for a snapshot.
+     * @return the four words of the state
+     */
+    public long[] getState() {
+        return new long[] {s0, s1, s2, s3};
+    }
+
+    /**
+     * Set the state of the generator to one returned by getState, so that it
+     * continues the sequence of the generator the state was taken from.
+     * @param state the four words of the state, not all zero
+     */
+    public void setState(long[] state) {
+        if (state.length != 4 || (state[0] | state[1] | state[2] | state[3]) == 0) {
+            throw new IllegalArgumentException("Expected four words, not all zero, but got " + Arrays.toString(state));
+        }
+        s0 = state[0];
+        s1 = state[1];
+        s2 = state[2];
+        s3 = state[3];
+    }
+
+    /**
+     * Return a new generator seeded from this generator, advancing this one.
+     * @return a new, independently seeded generator
+     */
+    public Xoshiro256 split() {
+        return new Xoshiro256(nextLong());
+    }
+
+}
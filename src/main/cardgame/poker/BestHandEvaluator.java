@@ -0,0 +1,195 @@
+package cardgame.poker;
+
+import cardgame.common.Rank;
+import cardgame.common.Suit;
+
+/**
+ * BestHandEvaluator returns the strength of the best five-card hand among
+ * five to seven cards, as used in hold'em and stud, with the same strength
+ * encoding as HandEvaluator.
+ *
+ * Rather than evaluate each five-card subset, it splits the cards into a
+ * 13-bit rank mask per suit. A suit holding five or more ranks is a flush,
+ * which with at most seven cards cannot be beaten by a full house or four of
+ * a kind, and is looked up by that suit's mask. Otherwise the masks of ranks
+ * held at least once, twice, three and four times are combined from the suit
+ * masks with a few bitwise operations, and the hand is read from them: the
+ * highest groups by their highest bits, straights and kickers from tables
+ * indexed by rank mask.
+ *
+ * evaluateByEnumeration evaluates every five-card subset with HandEvaluator
+ * instead, and is kept as the reference to verify against.
+ */
+public final class BestHandEvaluator {
+
+    public static final int MIN_NUM_CARDS = HandEvaluator.NUM_CARDS_IN_HAND;
+    public static final int MAX_NUM_CARDS = 7;
+
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final int NUM_SUITS = Suit.values().length;
+    private static final int RANK_MASK_SIZE = 1 << NUM_RANKS;
+    private static final int SUIT_MASK = RANK_MASK_SIZE - 1;
+    private static final int SHIFT = HandEvaluator.CATEGORY_SHIFT;
+    // the five-high straight: Two, Three, Four, Five and Ace
+    private static final int WHEEL_MASK = 0x100F;
+
+    // by rank mask: the highest five ranks as 4-bit rank indexes, highest
+    // first and in the same places as in a strength, fewer if fewer are held
+    private static final int[] TOP_RANKS = new int[RANK_MASK_SIZE];
+    // by rank mask: the strength of the best straight, or 0 if there is none
+    private static final int[] STRAIGHTS = new int[RANK_MASK_SIZE];
+    // by rank mask of a suit: the strength of the best straight flush or
+    // flush, or 0 if fewer than five ranks are held
+    private static final int[] FLUSHES = new int[RANK_MASK_SIZE];
+
+    static {
+        for (int rankMask = 0; rankMask < RANK_MASK_SIZE; rankMask++) {
+            int topRanks = 0;
+            int numRanks = 0;
+            for (int rank = NUM_RANKS - 1; rank >= 0 && numRanks < MIN_NUM_CARDS; rank--) {
+                if ((rankMask & (1 << rank)) != 0) {
+                    topRanks |= rank << (4 * (MIN_NUM_CARDS - 1 - numRanks));
+                    numRanks++;
+                }
+            }
+            TOP_RANKS[rankMask] = topRanks;
+
+            int straightHigh = straightHighRank(rankMask);
+            if (straightHigh >= 0) {
+                STRAIGHTS[rankMask] = strength(PokerRank.STRAIGHT, straightHigh << 16);
+            }
+            if (numRanks == MIN_NUM_CARDS) {
+                FLUSHES[rankMask] = straightHigh >= 0 ? strength(PokerRank.STRAIGHT_FLUSH, straightHigh << 16)
+                        : strength(PokerRank.FLUSH, topRanks);
+            }
+        }
+    }
+
+    private BestHandEvaluator() {
+    }
+
+    /**
+     * Return the highest rank index of a straight in a rank mask, or -1 if there is none.
+     */
+    private static int straightHighRank(int rankMask) {
+        for (int high = NUM_RANKS - 1; high >= MIN_NUM_CARDS - 1; high--) {
+            int run = 0x1F << (high - (MIN_NUM_CARDS - 1));
+            if ((rankMask & run) == run) {
+                return high;
+            }
+        }
+        if ((rankMask & WHEEL_MASK) == WHEEL_MASK) {
+            return Rank.FIVE.ordinal();
+        }
+        return -1;
+    }
+
+    private static int strength(PokerRank pokerRank, int ranks) {
+        return (pokerRank.ordinal() << SHIFT) | ranks;
+    }
+
+    /**
+     * Return the highest n ranks in a rank mask, packed at the bottom as 4-bit
+     * rank indexes, highest first.
+     */
+    static int top(int rankMask, int n) {
+        return TOP_RANKS[rankMask] >>> (4 * (MIN_NUM_CARDS - n));
+    }
+
+    private static int highest(int rankMask) {
+        return 31 - Integer.numberOfLeadingZeros(rankMask);
+    }
+
+    /**
+     * Return the strength of the best five-card hand among five to seven cards.
+     * @param cardBits the bits of the cards, one bit per card id
+     * @return the strength of the best five-card hand
+     */
+    public static int evaluate(long cardBits) {
+        int numCards = Long.bitCount(cardBits);
+        if (numCards < MIN_NUM_CARDS || numCards > MAX_NUM_CARDS) {
+            throw new IllegalArgumentException("Expected " + MIN_NUM_CARDS + " to " + MAX_NUM_CARDS
+                    + " cards but got " + numCards);
+        }
+        int s0 = (int) cardBits & SUIT_MASK;
+        int s1 = (int) (cardBits >>> NUM_RANKS) & SUIT_MASK;
+        int s2 = (int) (cardBits >>> (2 * NUM_RANKS)) & SUIT_MASK;
+        int s3 = (int) (cardBits >>> (3 * NUM_RANKS)) & SUIT_MASK;
+        int flush = FLUSHES[s0] | FLUSHES[s1] | FLUSHES[s2] | FLUSHES[s3];
+        if (flush != 0) {
+            // only one suit can hold five of seven cards
+            return flush;
+        }
+
+        // ranks held at least once, twice, three times and four times
+        int ones = s0 | s1 | s2 | s3;
+        int twos = (s0 & s1) | (s2 & s3) | ((s0 | s1) & (s2 | s3));
+        int threes = (s0 & s1 & (s2 | s3)) | (s2 & s3 & (s0 | s1));
+        int fours = s0 & s1 & s2 & s3;
+
+        if (fours != 0) {
+            int quad = highest(fours);
+            return strength(PokerRank.FOUR_OF_A_KIND, (quad << 16) | (top(ones & ~(1 << quad), 1) << 12));
+        }
+        if (threes != 0) {
+            int trip = highest(threes);
+            int pairs = twos & ~(1 << trip);
+            if (pairs != 0) {
+                return strength(PokerRank.FULL_HOUSE, (trip << 16) | (highest(pairs) << 12));
+            }
+        }
+        int straight = STRAIGHTS[ones];
+        if (straight != 0) {
+            return straight;
+        }
+        if (threes != 0) {
+            int trip = highest(threes);
+            return strength(PokerRank.THREE_OF_A_KIND, (trip << 16) | (top(ones & ~(1 << trip), 2) << 8));
+        }
+        if (twos != 0) {
+            int high = highest(twos);
+            int low = twos & ~(1 << high);
+            if (low != 0) {
+                low = highest(low);
+                int kicker = top(ones & ~(1 << high) & ~(1 << low), 1);
+                return strength(PokerRank.TWO_PAIRS, (high << 16) | (low << 12) | (kicker << 8));
+            }
+            return strength(PokerRank.ONE_PAIR, (high << 16) | (top(ones & ~(1 << high), 3) << 4));
+        }
+        return strength(PokerRank.NO_RANK, TOP_RANKS[ones]);
+    }
+
+    /**
+     * Return the strength of the best five-card hand among five to seven
+     * cards by evaluating every five-card subset with HandEvaluator. This is
+     * the reference that evaluate is verified against.
+     * @param cardBits the bits of the cards, one bit per card id
+     * @return the strength of the best five-card hand
+     */
+    public static int evaluateByEnumeration(long cardBits) {
+        int numCards = Long.bitCount(cardBits);
+        if (numCards < MIN_NUM_CARDS || numCards > MAX_NUM_CARDS) {
+            throw new IllegalArgumentException("Expected " + MIN_NUM_CARDS + " to " + MAX_NUM_CARDS
+                    + " cards but got " + numCards);
+        }
+        int best = 0;
+        // leave out each subset of numCards - 5 cards, as a mask of card positions
+        for (int left = 0; left < 1 << numCards; left++) {
+            if (Integer.bitCount(left) != numCards - MIN_NUM_CARDS) {
+                continue;
+            }
+            long hand = 0;
+            long remaining = cardBits;
+            for (int i = 0; i < numCards; i++) {
+                long card = remaining & -remaining;
+                remaining &= remaining - 1;
+                if ((left & (1 << i)) == 0) {
+                    hand |= card;
+                }
+            }
+            best = Math.max(best, HandEvaluator.evaluate(hand));
+        }
+        return best;
+    }
+
+}
@@ -0,0 +1,107 @@
+package cardgame.poker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+/**
+ * ConsoleDiscardAgent prompts the player on the command line for the cards
+ * to discard. All prompts read from one scanner, so input typed ahead of a
+ * prompt is not lost.
+ */
+public class ConsoleDiscardAgent implements DiscardAgent {
+
+    private static final int NUM_CARDS_IN_FULL_HAND = 5;
+
+    private final Scanner scanner;
+
+    /**
+     * Construct a console discard agent that reads from standard input.
+     */
+    public ConsoleDiscardAgent() {
+        this(new Scanner(System.in));
+    }
+
+    /**
+     * Construct a console discard agent that reads from the given scanner.
+     * @param scanner the scanner to read input from
+     */
+    public ConsoleDiscardAgent(Scanner scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Prompt player for number of cards to discard, followed by discard positions.
+     * @param hand the player's hand
+     * @return the positions to discard
+     */
+    @Override
+    public List<Integer> chooseDiscards(PokerHand hand) {
+        int numDiscards = promptForNumDiscards();
+        List <Integer> positionsToDiscard = new ArrayList<Integer>();
+        if (numDiscards > 0) {
+            promptForDiscardPositions(numDiscards, positionsToDiscard);
+        }
+        return positionsToDiscard;
+    }
+
+    /**
+     * Prompt player for number of cards to discard.
+     * @return number of cards to discard
+     */
+    private int promptForNumDiscards() {
+        int numDiscards = -1;  // initialize to an invalid number
+        System.out.println("How many cards do you want to discard? Enter a number between 0 and 5.");
+        while ((numDiscards < 0) || (numDiscards  > NUM_CARDS_IN_FULL_HAND)) {
+            if (scanner.hasNextInt()) {
+                numDiscards = scanner.nextInt();
+            } else if (scanner.hasNext()) {
+                // skip input that is not a number
+                scanner.next();
+            } else {
+                throw new IllegalStateException("No more input");
+            }
+            if ((numDiscards < 0) || (numDiscards  > NUM_CARDS_IN_FULL_HAND)) {
+                // if input if invalid, then prompt again
+                System.out.println("Please enter a number between 0 and 5.");
+            }
+        }
+        return numDiscards;
+    }
+
+    /**
+     * Prompt for positions to discard
+     * @param numDiscards number of discards to prompt for
+     * @param positionsToDiscard a list to which the positions to discard should be added
+     */
+    private void promptForDiscardPositions(int numDiscards, List<Integer> positionsToDiscard) {
+        if (numDiscards > 0 && numDiscards <= NUM_CARDS_IN_FULL_HAND) {
+            System.out.println("Enter the positions (between 0 and 4) of the cards you want to discard.");
+            while (positionsToDiscard.size() < numDiscards) {
+                if (scanner.hasNextInt()) {
+                    int position = scanner.nextInt();
+                    if (positionsToDiscard.contains(position)) {
+                        System.out.println("That position has already been entered. Please enter another position between 0 and 4.");
+                    } else {
+                        if ((position >= 0) &&  (position < NUM_CARDS_IN_FULL_HAND)) {
+                            positionsToDiscard.add(position);
+                        } else {
+                            System.out.println("Please enter a number between 0 and 4.");
+                        }
+                    }
+                } else if (scanner.hasNext()) {
+                    scanner.next();
+                    System.out.println("Please enter a number between 0 and 4.");
+                } else {
+                    throw new IllegalStateException("No more input");
+                }
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "console";
+    }
+
+}
@@ -0,0 +1,17 @@
+package cardgame.poker;
+
+import java.util.List;
+
+/**
+ * DiscardAgent decides which cards a player discards in Five Card Draw.
+ */
+public interface DiscardAgent {
+
+    /**
+     * Return the positions of the cards to discard from a full hand.
+     * @param hand the player's hand, sorted lowest to highest
+     * @return distinct positions between 0 and 4, in any order
+     */
+    List<Integer> chooseDiscards(PokerHand hand);
+
+}
@@ -0,0 +1,75 @@
+package cardgame.poker;
+
+/**
+ * DrawOutcome holds the exact outcome of one discard choice for a hand in
+ * Five Card Draw, as computed by DrawSolver.
+ */
+public class DrawOutcome {
+
+    private final int discardMask;
+    private final long[] pokerRankCounts;
+    private final double winRate;
+
+    /**
+     * Construct a draw outcome.
+     * @param discardMask the cards discarded, one bit per card in order of card id
+     * @param pokerRankCounts the number of draws ending in each poker rank,
+     * indexed by poker rank ordinal
+     * @param winRate the chance that the final hand beats a random hand,
+     * counting a tie as half a win
+     */
+    public DrawOutcome(int discardMask, long[] pokerRankCounts, double winRate) {
+        this.discardMask = discardMask;
+        this.pokerRankCounts = pokerRankCounts;
+        this.winRate = winRate;
+    }
+
+    public int getDiscardMask() {
+        return discardMask;
+    }
+
+    /**
+     * Return the number of draws ending in a poker rank.
+     * @param pokerRank the poker rank
+     * @return the number of draws ending in the poker rank
+     */
+    public long getCount(PokerRank pokerRank) {
+        return pokerRankCounts[pokerRank.ordinal()];
+    }
+
+    /**
+     * Return the number of possible draws.
+     * @return the number of possible draws
+     */
+    public long getNumDraws() {
+        long numDraws = 0;
+        for (long count : pokerRankCounts) {
+            numDraws += count;
+        }
+        return numDraws;
+    }
+
+    /**
+     * Return the chance to end with a poker rank.
+     * @param pokerRank the poker rank
+     * @return the chance to end with the poker rank, between 0 and 1
+     */
+    public double getProbability(PokerRank pokerRank) {
+        return (double) getCount(pokerRank) / getNumDraws();
+    }
+
+    /**
+     * Return the chance that the final hand beats a random five-card hand,
+     * counting a tie as half a win.
+     * @return the win rate, between 0 and 1
+     */
+    public double getWinRate() {
+        return winRate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("discard %5s  win rate %.4f", Integer.toBinaryString(discardMask), winRate);
+    }
+
+}
@@ -0,0 +1,248 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.Deck;
+import cardgame.common.Hand;
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.random.RandomGenerator;
+
+/**
+ * DrawSnapshot saves the full state of a Five Card Draw game to a compact
+ * byte array and restores it, so that a table can be checkpointed, or moved
+ * to another JVM, between events and carry on exactly where it left off:
+ * the restored game deals, draws and shuffles the same cards as the saved one.
+ *
+ * A snapshot starts with a magic number as a big-endian int and the format
+ * version as a byte, followed by:
+ * <ul>
+ * <li>the state of the game's random source and of the round's, each four
+ * big-endian longs, and the round's seed as a big-endian long;</li>
+ * <li>the dealer's seat, the phase of the round, the seat to act and the
+ * number of players who have discarded, a byte each;</li>
+ * <li>the deck and the discard deck, as written by Deck.writeTo;</li>
+ * <li>the number of players as a byte and, for each seat, the player's name
+ * in UTF-8 after its length as a big-endian short, and the number of cards
+ * in the hand as a byte followed by the cards in hand order;</li>
+ * <li>for a finished round, the seats in ranking order, lowest rank first.</li>
+ * </ul>
+ * Cards are one byte holding the card id, so a six-player round in progress
+ * takes about 200 bytes.
+ *
+ * Discard agents, the output stream and the round listener are not saved:
+ * agents are given again on restore, and the restored game prints to
+ * System.out until told otherwise. Only games shuffled by Xoshiro256, as
+ * games from RandomStreams or the default constructor are, can be saved.
+ */
+public class DrawSnapshot {
+
+    // "CGDS"
+    public static final int MAGIC = 0x43474453;
+    // increase when the layout changes
+    public static final byte VERSION = 1;
+    // seats and the number of players are one byte
+    public static final int MAX_PLAYERS = 0xFF;
+
+    private static final int RANDOM_STATE_SIZE = 4 * Long.BYTES;
+    private static final int FIXED_SIZE = Integer.BYTES + 1 + 2 * RANDOM_STATE_SIZE + Long.BYTES + 4 + 1;
+    private static final int MAX_DECK_SIZE = 2 + Deck.MAX_WRITTEN_CARDS;
+    private static final int MAX_NAME_LENGTH = 0xFFFF;
+    private static final DrawState.Phase[] PHASES = DrawState.Phase.values();
+
+    private DrawSnapshot() {
+    }
+
+    /**
+     * Save the state of a game.
+     * @param game the game, between events
+     * @return the snapshot
+     * @throws IllegalStateException if the game is not shuffled by
+     * Xoshiro256, has more than MAX_PLAYERS players, a name longer than
+     * 65535 bytes in UTF-8 or a deck of more than Deck.MAX_WRITTEN_CARDS cards
+     */
+    public static byte[] save(FiveCardDraw game) {
+        List<Player> players = game.getSeats();
+        if (players.size() > MAX_PLAYERS) {
+            throw new IllegalStateException("Cannot save a game of " + players.size() + " players");
+        }
+        byte[][] names = new byte[players.size()][];
+        int size = FIXED_SIZE + 2 * MAX_DECK_SIZE + 2 * players.size();
+        for (int seat = 0; seat < players.size(); seat++) {
+            names[seat] = players.get(seat).getName().getBytes(StandardCharsets.UTF_8);
+            if (names[seat].length > MAX_NAME_LENGTH) {
+                throw new IllegalStateException("Cannot save a name of " + names[seat].length + " bytes");
+            }
+            size += Short.BYTES + names[seat].length + 1 + players.get(seat).getHand().getNumCards();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        putRandomState(buffer, game.getGameRandom());
+        putRandomState(buffer, game.getDeck().getRandom());
+        buffer.putLong(game.getRoundSeed());
+        DrawState state = game.getState();
+        buffer.put((byte) game.getDealerSeat());
+        buffer.put((byte) state.getPhase().ordinal());
+        buffer.put((byte) game.getSeatToAct());
+        buffer.put((byte) game.getNumDiscarded());
+        game.getDeck().writeTo(buffer);
+        game.getDiscardDeck().writeTo(buffer);
+        buffer.put((byte) players.size());
+        for (int seat = 0; seat < players.size(); seat++) {
+            buffer.putShort((short) names[seat].length);
+            buffer.put(names[seat]);
+            Hand<?> hand = players.get(seat).getHand();
+            buffer.put((byte) hand.getNumCards());
+            for (int position = 0; position < hand.getNumCards(); position++) {
+                buffer.put((byte) hand.getCard(position).getId());
+            }
+        }
+        if (state.getPhase() == DrawState.Phase.FINISHED) {
+            for (Player player : state.getRanking()) {
+                buffer.put((byte) players.indexOf(player));
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    private static void putRandomState(ByteBuffer buffer, RandomGenerator random) {
+        if (!(random instanceof Xoshiro256)) {
+            throw new IllegalStateException("Cannot save the state of " + random.getClass().getName());
+        }
+        for (long word : ((Xoshiro256) random).getState()) {
+            buffer.putLong(word);
+        }
+    }
+
+    private static long[] getRandomState(ByteBuffer buffer) {
+        long[] state = new long[4];
+        for (int i = 0; i < state.length; i++) {
+            state[i] = buffer.getLong();
+        }
+        return state;
+    }
+
+    /**
+     * Restore a game whose players discard only by events, through
+     * FiveCardDraw.discard.
+     * @param snapshot the snapshot, as returned by save
+     * @return the restored game
+     * @throws IllegalArgumentException if the snapshot is not a valid snapshot
+     */
+    public static FiveCardDraw restore(byte[] snapshot) {
+        return restore(snapshot, Collections.<String, DiscardAgent>emptyMap());
+    }
+
+    /**
+     * Restore a game, giving each player the agent mapped to the player's
+     * name. Players without an agent are prompted on the command line if
+     * the round is played through beforeRound.
+     * @param snapshot the snapshot, as returned by save
+     * @param agents the agents by player name
+     * @return the restored game
+     * @throws IllegalArgumentException if the snapshot is not a valid snapshot
+     */
+    public static FiveCardDraw restore(byte[] snapshot, Map<String, DiscardAgent> agents) {
+        try {
+            return restore(ByteBuffer.wrap(snapshot), agents);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Snapshot ends early after " + snapshot.length + " bytes");
+        }
+    }
+
+    private static FiveCardDraw restore(ByteBuffer buffer, Map<String, DiscardAgent> agents) {
+        int magic = buffer.getInt();
+        byte version = buffer.get();
+        if (magic != MAGIC || version != VERSION) {
+            throw new IllegalArgumentException("Not a version " + VERSION + " snapshot");
+        }
+        long[] gameState = getRandomState(buffer);
+        long[] roundState = getRandomState(buffer);
+        long roundSeed = buffer.getLong();
+        int dealerSeat = buffer.get() & 0xFF;
+        int phase = buffer.get() & 0xFF;
+        int seatToAct = buffer.get() & 0xFF;
+        int numDiscarded = buffer.get() & 0xFF;
+        if (phase >= PHASES.length) {
+            throw new IllegalArgumentException("Invalid phase " + phase);
+        }
+
+        // the constructor draws a round seed, so the state is set after it
+        Xoshiro256 gameRandom = new Xoshiro256(0);
+        FiveCardDraw game = new FiveCardDraw(gameRandom);
+        gameRandom.setState(gameState);
+        Xoshiro256 roundRandom = new Xoshiro256(0);
+        roundRandom.setState(roundState);
+        game.getDeck().readFrom(buffer);
+        game.getDiscardDeck().readFrom(buffer);
+        int numPlayers = buffer.get() & 0xFF;
+        List<Player> players = new ArrayList<Player>(numPlayers);
+        for (int seat = 0; seat < numPlayers; seat++) {
+            byte[] name = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(name);
+            String playerName = new String(name, StandardCharsets.UTF_8);
+            DiscardAgent agent = agents.get(playerName);
+            Player player = agent == null ? game.addPlayer(playerName) : game.addPlayer(playerName, agent);
+            if (player == null) {
+                throw new IllegalArgumentException("Player at seat " + seat + " is already seated");
+            }
+            int numCards = buffer.get() & 0xFF;
+            for (int position = 0; position < numCards; position++) {
+                int id = buffer.get() & 0xFF;
+                if (id >= Card.NUM_CARDS || !player.getHand().addCard(Card.of(id))) {
+                    throw new IllegalArgumentException("Invalid card id " + id + " in hand at seat " + seat);
+                }
+            }
+            players.add(player);
+        }
+        if (numPlayers > 0 && (dealerSeat >= numPlayers || seatToAct >= numPlayers || numDiscarded > numPlayers)) {
+            throw new IllegalArgumentException("Invalid seats for " + numPlayers + " players");
+        }
+
+        DrawState state;
+        switch (PHASES[phase]) {
+        case DISCARDING:
+            if (numPlayers == 0) {
+                throw new IllegalArgumentException("No player to discard");
+            }
+            state = DrawState.discarding(seatToAct, players.get(seatToAct));
+            break;
+        case DRAWING:
+            state = DrawState.DRAWING;
+            break;
+        case FINISHED:
+            List<Player> ranking = new ArrayList<Player>(numPlayers);
+            for (int i = 0; i < numPlayers; i++) {
+                int seat = buffer.get() & 0xFF;
+                if (seat >= numPlayers) {
+                    throw new IllegalArgumentException("Invalid seat " + seat + " in ranking");
+                }
+                ranking.add(players.get(seat));
+            }
+            state = DrawState.finished(ranking);
+            break;
+        case ABORTED:
+            state = DrawState.ABORTED;
+            break;
+        default:
+            state = DrawState.READY;
+            break;
+        }
+        if (buffer.hasRemaining()) {
+            throw new IllegalArgumentException(buffer.remaining() + " bytes after the snapshot");
+        }
+        game.restoreRound(roundSeed, roundRandom, dealerSeat, state, seatToAct, numDiscarded);
+        return game;
+    }
+
+}
@@ -0,0 +1,291 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CombinationSpliterator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * DrawSolver computes the exact outcome of every discard choice in Five Card
+ * Draw, and solves the best choice for every starting hand into a DrawTable.
+ *
+ * A final hand is valued by its chance to beat a random five-card hand,
+ * counting a tie as half a win. Discarding from a hand draws every set of
+ * replacements from the 47 unseen cards with equal chance. Rather than evaluate
+ * each draw, the solver first sums, for every set of up to four cards, the
+ * values and poker ranks of all five-card hands holding that set. The sum over
+ * the draws that keep some cards and avoid the discarded ones then follows by
+ * inclusion-exclusion over the discarded cards, in at most 32 lookups.
+ *
+ * Discard masks hold one bit per card of the hand, in order of card id, with
+ * bit 0 for the card with the lowest id.
+ */
+public class DrawSolver {
+
+    public static final int NUM_DISCARD_MASKS = 1 << HandEvaluator.NUM_CARDS_IN_HAND;
+    public static final int DEFAULT_NUM_CHUNKS = 256;
+
+    private static final int NUM_CARDS_IN_HAND = HandEvaluator.NUM_CARDS_IN_HAND;
+    private static final int NUM_POKER_RANKS = PokerRank.values().length;
+    private static final int NUM_UNSEEN_CARDS = Card.NUM_CARDS - NUM_CARDS_IN_HAND;
+    private static final long NUM_HANDS = CombinationSpliterator.count(NUM_CARDS_IN_HAND);
+
+    // distinct strengths in increasing order, and twice the number of hands each
+    // strength beats plus the number of hands it ties
+    private final int[] strengths;
+    private final long[] halfWins;
+
+    // for sets of k cards, indexed by k and then by colex index: the summed half
+    // wins, and the number of hands of each poker rank, of all hands holding the set
+    private final long[][] halfWinSums;
+    private final long[][] pokerRankCounts;
+
+    /**
+     * Construct a solver, summing over all five-card hands.
+     */
+    public DrawSolver() {
+        int[] handStrengths = CombinationSpliterator.stream(NUM_CARDS_IN_HAND, true)
+                .mapToInt(HandEvaluator::evaluate).toArray();
+        int[] sorted = handStrengths.clone();
+        Arrays.sort(sorted);
+        strengths = IntStream.of(sorted).distinct().toArray();
+        halfWins = new long[strengths.length];
+        int from = 0;
+        for (int i = 0; i < strengths.length; i++) {
+            int to = from;
+            while (to < sorted.length && sorted[to] == strengths[i]) {
+                to++;
+            }
+            halfWins[i] = 2L * from + (to - from);
+            from = to;
+        }
+
+        halfWinSums = new long[NUM_CARDS_IN_HAND][];
+        pokerRankCounts = new long[NUM_CARDS_IN_HAND][];
+        for (int k = 0; k < NUM_CARDS_IN_HAND; k++) {
+            halfWinSums[k] = new long[(int) CombinationSpliterator.count(k)];
+            pokerRankCounts[k] = new long[halfWinSums[k].length * NUM_POKER_RANKS];
+        }
+        // the first table holds the single empty set
+        long[] subsets = new long[NUM_DISCARD_MASKS];
+        int[] index = new int[1];
+        new CombinationSpliterator(NUM_CARDS_IN_HAND).forEachRemaining((long hand) -> {
+            int strength = handStrengths[index[0]++];
+            long halfWin = halfWins(strength);
+            int pokerRank = strength >>> HandEvaluator.CATEGORY_SHIFT;
+            subsets(hand, subsets);
+            for (int subset = 0; subset < NUM_DISCARD_MASKS - 1; subset++) {
+                int k = Integer.bitCount(subset);
+                int subsetIndex = (int) CombinationSpliterator.rank(subsets[subset]);
+                halfWinSums[k][subsetIndex] += halfWin;
+                pokerRankCounts[k][subsetIndex * NUM_POKER_RANKS + pokerRank]++;
+            }
+        });
+    }
+
+    /**
+     * Return twice the number of hands a strength beats plus the number it ties.
+     */
+    private long halfWins(int strength) {
+        return halfWins[Arrays.binarySearch(strengths, strength)];
+    }
+
+    /**
+     * Fill subsets with the cards of the hand chosen by each mask of hand positions,
+     * in order of card id.
+     */
+    private static void subsets(long hand, long[] subsets) {
+        long[] cards = new long[NUM_CARDS_IN_HAND];
+        long remaining = hand;
+        for (int i = 0; i < NUM_CARDS_IN_HAND; i++) {
+            cards[i] = remaining & -remaining;
+            remaining &= remaining - 1;
+        }
+        for (int mask = 0; mask < NUM_DISCARD_MASKS; mask++) {
+            long subset = 0;
+            for (int i = 0; i < NUM_CARDS_IN_HAND; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    subset |= cards[i];
+                }
+            }
+            subsets[mask] = subset;
+        }
+    }
+
+    /**
+     * Return the number of draws after discarding the given number of cards.
+     * @param numDiscards the number of cards discarded
+     * @return the number of ways to draw the replacements from the 47 unseen cards
+     */
+    public static long numDraws(int numDiscards) {
+        long numDraws = 1;
+        for (int i = 0; i < numDiscards; i++) {
+            numDraws = numDraws * (NUM_UNSEEN_CARDS - i) / (i + 1);
+        }
+        return numDraws;
+    }
+
+    /**
+     * Return the outcome of discarding cards from a hand.
+     * @param hand the bits of a five-card hand, one bit per card id
+     * @param discardMask the cards to discard, one bit per card in order of card id
+     * @return the number of draws ending in each poker rank, and the chance to win
+     */
+    public DrawOutcome outcome(long hand, int discardMask) {
+        long[] subsets = new long[NUM_DISCARD_MASKS];
+        subsets(hand, subsets);
+        int strength = HandEvaluator.evaluate(hand);
+        long[] counts = new long[NUM_POKER_RANKS];
+        long halfWinSum = 0;
+        int keepMask = ~discardMask & (NUM_DISCARD_MASKS - 1);
+        // iterate over every subset of the discards
+        for (int drawn = discardMask; ; drawn = (drawn - 1) & discardMask) {
+            int sign = (Integer.bitCount(drawn) & 1) == 0 ? 1 : -1;
+            int subset = keepMask | drawn;
+            if (subset == NUM_DISCARD_MASKS - 1) {
+                counts[strength >>> HandEvaluator.CATEGORY_SHIFT] += sign;
+                halfWinSum += sign * halfWins(strength);
+            } else {
+                int k = Integer.bitCount(subset);
+                int subsetIndex = (int) CombinationSpliterator.rank(subsets[subset]);
+                for (int pokerRank = 0; pokerRank < NUM_POKER_RANKS; pokerRank++) {
+                    counts[pokerRank] += sign * pokerRankCounts[k][subsetIndex * NUM_POKER_RANKS + pokerRank];
+                }
+                halfWinSum += sign * halfWinSums[k][subsetIndex];
+            }
+            if (drawn == 0) {
+                break;
+            }
+        }
+        long numDraws = numDraws(Integer.bitCount(discardMask));
+        return new DrawOutcome(discardMask, counts, halfWinSum / (2.0 * NUM_HANDS * numDraws));
+    }
+
+    /**
+     * Return the discard mask with the greatest chance to win. Of equally good
+     * masks, the one with the fewest discards, then the lowest mask, is chosen.
+     * @param hand the bits of a five-card hand, one bit per card id
+     * @return the best discard mask, one bit per card in order of card id
+     */
+    public int bestDiscard(long hand) {
+        long[] subsets = new long[NUM_DISCARD_MASKS];
+        subsets(hand, subsets);
+        long[] sums = new long[NUM_DISCARD_MASKS];
+        for (int subset = 0; subset < NUM_DISCARD_MASKS - 1; subset++) {
+            sums[subset] = halfWinSums[Integer.bitCount(subset)][(int) CombinationSpliterator.rank(subsets[subset])];
+        }
+        sums[NUM_DISCARD_MASKS - 1] = halfWins(HandEvaluator.evaluate(hand));
+
+        int best = 0;
+        double bestValue = -1;
+        for (int numDiscards = 0; numDiscards <= NUM_CARDS_IN_HAND; numDiscards++) {
+            long numDraws = numDraws(numDiscards);
+            for (int discardMask = 0; discardMask < NUM_DISCARD_MASKS; discardMask++) {
+                if (Integer.bitCount(discardMask) != numDiscards) {
+                    continue;
+                }
+                int keepMask = ~discardMask & (NUM_DISCARD_MASKS - 1);
+                long halfWinSum = 0;
+                for (int drawn = discardMask; ; drawn = (drawn - 1) & discardMask) {
+                    long sum = sums[keepMask | drawn];
+                    halfWinSum += (Integer.bitCount(drawn) & 1) == 0 ? sum : -sum;
+                    if (drawn == 0) {
+                        break;
+                    }
+                }
+                double value = (double) halfWinSum / numDraws;
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = discardMask;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Solve the best discard for every hand into a table file, in chunks of
+     * hands solved in parallel. Each chunk is written and flushed before it is
+     * marked done, so a run that is stopped can be resumed by calling solve
+     * again with the same file.
+     * @param path the table file, created if it does not exist or is empty
+     * @param numChunks the number of chunks, used only when the file is created
+     * @param maxChunks the most chunks to solve in this run
+     * @return the number of chunks left to solve
+     * @throws IOException if the file cannot be read or written, or is not
+     * empty and not a table file of the current version; the file is then
+     * left as it was
+     */
+    public int solve(Path path, int numChunks, int maxChunks) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean[] done;
+            if (channel.size() == 0) {
+                DrawTable.writeHeader(channel, numChunks);
+                done = new boolean[numChunks];
+            } else {
+                done = DrawTable.readProgress(channel);
+                if (done == null) {
+                    throw new IOException("Not a draw table file of version " + DrawTable.VERSION + ": " + path);
+                }
+            }
+            List<Integer> todo = new ArrayList<Integer>();
+            for (int chunk = 0; chunk < done.length; chunk++) {
+                if (!done[chunk]) {
+                    todo.add(chunk);
+                }
+            }
+            final int chunks = done.length;
+            todo.stream().limit(maxChunks).parallel().forEach(chunk -> solveChunk(channel, chunk, chunks));
+            return Math.max(0, todo.size() - maxChunks);
+        }
+    }
+
+    private void solveChunk(FileChannel channel, int chunk, int numChunks) {
+        long from = DrawTable.chunkStart(chunk, numChunks);
+        long to = DrawTable.chunkStart(chunk + 1, numChunks);
+        byte[] decisions = new byte[(int) (to - from)];
+        CombinationSpliterator hands = new CombinationSpliterator(NUM_CARDS_IN_HAND, from, to);
+        int[] i = new int[1];
+        hands.forEachRemaining((long hand) -> decisions[i[0]++] = (byte) bestDiscard(hand));
+        try {
+            write(channel, ByteBuffer.wrap(decisions), DrawTable.decisionOffset(numChunks) + from);
+            channel.force(false);
+            write(channel, ByteBuffer.wrap(new byte[] {1}), DrawTable.progressOffset(chunk));
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            offset += channel.write(buffer, offset);
+        }
+    }
+
+    public static void main(String args[]) throws IOException {
+        if (args.length < 1) {
+            System.out.println("java cardgame.poker.DrawSolver <table file> [<chunks to solve>]");
+            return;
+        }
+        int maxChunks = args.length > 1 ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+        long start = System.nanoTime();
+        DrawSolver solver = new DrawSolver();
+        System.out.println(String.format("Summed all hands in %.1f s", (System.nanoTime() - start) / 1e9));
+        int left = solver.solve(Paths.get(args[0]), DEFAULT_NUM_CHUNKS, maxChunks);
+        System.out.println(String.format("Solved in %.1f s; %d chunks left", (System.nanoTime() - start) / 1e9, left));
+    }
+
+}
@@ -0,0 +1,108 @@
+package cardgame.poker;
+
+import cardgame.common.Player;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DrawState is the state of a Five Card Draw round, as returned by the
+ * event-driven methods of FiveCardDraw after each event.
+ *
+ * A round is ready once shuffled, then waits for each player in turn to
+ * discard, then draws and is scored. A round ends finished, with a ranking,
+ * or aborted, if the cards ran out. States are immutable.
+ */
+public class DrawState {
+
+    /**
+     * Phase of a round.
+     */
+    public enum Phase {
+        // shuffled, with no cards dealt
+        READY,
+        // dealt, waiting for a player to discard
+        DISCARDING,
+        // every player has discarded; the draws and showdown are next
+        DRAWING,
+        // scored, with a ranking
+        FINISHED,
+        // ended early because the cards ran out
+        ABORTED
+    }
+
+    static final DrawState READY = new DrawState(Phase.READY, -1, null, null);
+    static final DrawState DRAWING = new DrawState(Phase.DRAWING, -1, null, null);
+    static final DrawState ABORTED = new DrawState(Phase.ABORTED, -1, null, null);
+
+    private final Phase phase;
+    private final int seatToAct;
+    private final Player playerToAct;
+    private final List<Player> ranking;
+
+    private DrawState(Phase phase, int seatToAct, Player playerToAct, List<Player> ranking) {
+        this.phase = phase;
+        this.seatToAct = seatToAct;
+        this.playerToAct = playerToAct;
+        this.ranking = ranking;
+    }
+
+    /**
+     * Return the state of a round waiting for a player to discard.
+     */
+    static DrawState discarding(int seat, Player player) {
+        return new DrawState(Phase.DISCARDING, seat, player, null);
+    }
+
+    /**
+     * Return the state of a scored round.
+     */
+    static DrawState finished(List<Player> ranking) {
+        return new DrawState(Phase.FINISHED, -1, null, Collections.unmodifiableList(ranking));
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Return whether the round has ended, finished or aborted.
+     * @return whether the round has ended
+     */
+    public boolean isOver() {
+        return phase == Phase.FINISHED || phase == Phase.ABORTED;
+    }
+
+    /**
+     * Return the seat of the player to discard next.
+     * @return the seat of the player to discard, or -1 if not discarding
+     */
+    public int getSeatToAct() {
+        return seatToAct;
+    }
+
+    /**
+     * Return the player to discard next, whose hand holds the dealt cards.
+     * @return the player to discard, or null if not discarding
+     */
+    public Player getPlayerToAct() {
+        return playerToAct;
+    }
+
+    /**
+     * Return the players of a finished round, sorted by rank.
+     * @return the players, lowest rank first, or null if not finished
+     */
+    public List<Player> getRanking() {
+        return ranking;
+    }
+
+    @Override
+    public String toString() {
+        if (phase == Phase.DISCARDING) {
+            return phase + " seat " + seatToAct;
+        }
+        return phase.toString();
+    }
+
+}
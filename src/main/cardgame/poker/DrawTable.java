@@ -0,0 +1,140 @@
+package cardgame.poker;
+
+import cardgame.common.CombinationSpliterator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * DrawTable looks up the best discard for a Five Card Draw hand in a table
+ * file solved by DrawSolver.
+ *
+ * A table file starts with a header holding a magic number, the format
+ * version and the number of chunks, followed by one byte per chunk that is set
+ * once the chunk is solved, followed by one byte per hand in colex order
+ * holding its best discard mask. A file is mapped read-only and only once
+ * every chunk is solved.
+ */
+public class DrawTable {
+
+    // "CGDT"
+    public static final int MAGIC = 0x43474454;
+    // increase when the hand values or the file layout change
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 3 * Integer.BYTES;
+    private static final int NUM_CARDS_IN_HAND = HandEvaluator.NUM_CARDS_IN_HAND;
+    private static final long NUM_HANDS = CombinationSpliterator.count(NUM_CARDS_IN_HAND);
+
+    private final MappedByteBuffer decisions;
+    private final int decisionOffset;
+
+    private DrawTable(MappedByteBuffer decisions, int decisionOffset) {
+        this.decisions = decisions;
+        this.decisionOffset = decisionOffset;
+    }
+
+    /**
+     * Map a fully solved table file read-only.
+     * @param path the table file
+     * @return the table, backed by the mapped file
+     * @throws IOException if the file cannot be read, or is not a table file of
+     * the current version, or is not fully solved
+     */
+    public static DrawTable map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            boolean[] done = readProgress(channel);
+            if (done == null) {
+                throw new IOException("Not a draw table file of version " + VERSION + ": " + path);
+            }
+            for (boolean chunkDone : done) {
+                if (!chunkDone) {
+                    throw new IOException("Draw table file is not fully solved: " + path);
+                }
+            }
+            long size = decisionOffset(done.length) + NUM_HANDS;
+            if (channel.size() != size) {
+                throw new IOException("Unexpected draw table file size " + channel.size() + ": " + path);
+            }
+            return new DrawTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), (int) decisionOffset(done.length));
+        }
+    }
+
+    /**
+     * Return the best discard for a hand.
+     * @param hand the bits of a five-card hand, one bit per card id
+     * @return the best discard mask, one bit per card in order of card id
+     */
+    public int getDiscardMask(long hand) {
+        return decisions.get(decisionOffset + (int) CombinationSpliterator.rank(hand));
+    }
+
+    /**
+     * Return which chunks of a table file are solved.
+     * @param channel the table file
+     * @return whether each chunk is solved, or null if the file is not a table
+     * file of the current version
+     */
+    static boolean[] readProgress(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        read(channel, header, 0);
+        int numChunks = header.getInt(2 * Integer.BYTES);
+        if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION
+                || numChunks < 1 || numChunks > NUM_HANDS) {
+            return null;
+        }
+        ByteBuffer progress = ByteBuffer.allocate(numChunks);
+        if (channel.size() >= HEADER_SIZE + numChunks) {
+            read(channel, progress, HEADER_SIZE);
+        }
+        boolean[] done = new boolean[numChunks];
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            done[chunk] = progress.get(chunk) != 0;
+        }
+        return done;
+    }
+
+    /**
+     * Write the header and an empty progress list to a new table file.
+     */
+    static void writeHeader(FileChannel channel, int numChunks) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + numChunks);
+        header.putInt(MAGIC).putInt(VERSION).putInt(numChunks);
+        header.rewind();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+    }
+
+    private static void read(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of draw table file");
+            }
+        }
+    }
+
+    /**
+     * Return the colex index of the first hand of a chunk.
+     */
+    static long chunkStart(int chunk, int numChunks) {
+        return NUM_HANDS * chunk / numChunks;
+    }
+
+    static long progressOffset(int chunk) {
+        return HEADER_SIZE + chunk;
+    }
+
+    static long decisionOffset(int numChunks) {
+        return HEADER_SIZE + numChunks;
+    }
+
+}
@@ -0,0 +1,86 @@
+package cardgame.poker;
+
+/**
+ * Equity holds the estimated chances of one hand against the others, as
+ * computed by EquityCalculator.
+ *
+ * A trial that the hand wins outright counts as one win. A trial that the hand
+ * ties with k - 1 other hands counts as one tie, and adds 1 / k to the equity.
+ */
+public class Equity {
+
+    private final long wins;
+    private final long ties;
+    private final long trials;
+    private final double equity;
+    private final double halfWidth;
+
+    /**
+     * Construct an equity estimate.
+     * @param wins number of trials the hand won outright
+     * @param ties number of trials the hand tied for the win
+     * @param trials number of trials
+     * @param equity share of the pot won on average, between 0 and 1
+     * @param halfWidth half-width of the confidence interval of the equity
+     */
+    public Equity(long wins, long ties, long trials, double equity, double halfWidth) {
+        this.wins = wins;
+        this.ties = ties;
+        this.trials = trials;
+        this.equity = equity;
+        this.halfWidth = halfWidth;
+    }
+
+    public long getWins() {
+        return wins;
+    }
+
+    public long getTies() {
+        return ties;
+    }
+
+    public long getTrials() {
+        return trials;
+    }
+
+    /**
+     * Return the probability that the hand wins outright.
+     * @return the probability that the hand wins outright
+     */
+    public double getWinProbability() {
+        return trials == 0 ? 0 : (double) wins / trials;
+    }
+
+    /**
+     * Return the probability that the hand ties for the win.
+     * @return the probability that the hand ties for the win
+     */
+    public double getTieProbability() {
+        return trials == 0 ? 0 : (double) ties / trials;
+    }
+
+    /**
+     * Return the share of the pot the hand wins on average, counting a tie
+     * between k hands as 1 / k of a win.
+     * @return the equity of the hand, between 0 and 1
+     */
+    public double getEquity() {
+        return equity;
+    }
+
+    /**
+     * Return the half-width of the confidence interval of the equity, so the
+     * equity lies within getEquity() plus or minus getHalfWidth().
+     * @return the half-width of the confidence interval
+     */
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("equity %.4f +/- %.4f  win %.4f  tie %.4f  (%d trials)",
+                equity, halfWidth, getWinProbability(), getTieProbability(), trials);
+    }
+
+}
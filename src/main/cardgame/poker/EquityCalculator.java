@@ -0,0 +1,240 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.Deck;
+import cardgame.common.RandomStreams;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.random.RandomGenerator;
+
+/**
+ * EquityCalculator estimates the equity of five-card poker hands by Monte
+ * Carlo simulation.
+ *
+ * Each trial deals the cards missing from the known hands from a Deck holding
+ * the cards that are neither in a hand nor dead, and ranks the completed hands
+ * with PokerHand.compareTo. Trials run in rounds of numbered tasks on a
+ * fork/join pool. Each task shuffles with the stream of RandomStreams for its
+ * number, so the same seed gives the same estimate whatever the parallelism.
+ * The calculation stops once the confidence interval of every equity is narrow
+ * enough, or once the time budget is spent.
+ */
+public class EquityCalculator {
+
+    // z-score of a two-sided 95% confidence interval
+    public static final double Z_95 = 1.96;
+    public static final int DEFAULT_TRIALS_PER_TASK = 256;
+
+    private static final int NUM_CARDS_IN_FULL_HAND = 5;
+    // fixed so that rounds hold the same tasks whatever the parallelism
+    private static final int TASKS_PER_ROUND = 64;
+
+    private final ForkJoinPool pool;
+    private final RandomStreams streams;
+    private final int trialsPerTask;
+
+    /**
+     * Construct an equity calculator that runs on the common fork/join pool.
+     * @param seed the seed from which the random streams of all tasks are derived
+     */
+    public EquityCalculator(long seed) {
+        this(ForkJoinPool.commonPool(), seed, DEFAULT_TRIALS_PER_TASK);
+    }
+
+    /**
+     * Construct an equity calculator.
+     * @param pool the pool on which trials run
+     * @param seed the seed from which the random streams of all tasks are derived
+     * @param trialsPerTask number of trials run by each task
+     */
+    public EquityCalculator(ForkJoinPool pool, long seed, int trialsPerTask) {
+        if (trialsPerTask < 1) {
+            throw new IllegalArgumentException("Expected at least one trial per task but got " + trialsPerTask);
+        }
+        this.pool = pool;
+        this.streams = new RandomStreams(seed);
+        this.trialsPerTask = trialsPerTask;
+    }
+
+    /**
+     * Estimate the equity of each hand. Hands may hold fewer than five cards,
+     * in which case the rest are dealt in each trial.
+     * @param hands the known hands, each holding at most five cards
+     * @param deadCards cards that are not in any hand and cannot be dealt
+     * @param targetHalfWidth stop once the 95% confidence interval of every
+     * equity is at most this far from the estimate
+     * @param timeBudgetNanos stop once this much time has passed, even if the
+     * target has not been reached; at least one round of trials always runs
+     * @return the equity of each hand, in the order of hands
+     */
+    public Equity[] calculate(List<PokerHand> hands, CardSet deadCards, double targetHalfWidth, long timeBudgetNanos) {
+        long start = System.nanoTime();
+        CardSet[] knownCards = new CardSet[hands.size()];
+        CardSet usedCards = new CardSet(deadCards.getBits());
+        int numMissing = 0;
+        for (int i = 0; i < knownCards.length; i++) {
+            knownCards[i] = hands.get(i).getCardSet();
+            if (knownCards[i].size() > NUM_CARDS_IN_FULL_HAND) {
+                throw new IllegalArgumentException("Hand " + i + " holds more than " + NUM_CARDS_IN_FULL_HAND + " cards");
+            }
+            if (usedCards.intersects(knownCards[i])) {
+                throw new IllegalArgumentException("Hand " + i + " shares cards with another hand or the dead cards");
+            }
+            usedCards = usedCards.union(knownCards[i]);
+            numMissing += NUM_CARDS_IN_FULL_HAND - knownCards[i].size();
+        }
+        CardSet remaining = CardSet.fullDeck().difference(usedCards);
+        if (remaining.size() < numMissing) {
+            throw new IllegalArgumentException("Expected " + numMissing + " cards to deal but only "
+                    + remaining.size() + " remain");
+        }
+
+        Tally total = new Tally(hands.size());
+        long firstTask = 0;
+        do {
+            total.merge(pool.invoke(new TrialTask(knownCards, remaining, firstTask, firstTask + TASKS_PER_ROUND)));
+            firstTask += TASKS_PER_ROUND;
+        } while (total.maxHalfWidth() > targetHalfWidth && System.nanoTime() - start < timeBudgetNanos);
+        return total.toEquities();
+    }
+
+    /**
+     * TrialTask runs the trials of a range of numbered tasks, splitting the
+     * range in half until one task is left.
+     */
+    private class TrialTask extends RecursiveTask<Tally> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CardSet[] knownCards;
+        private final CardSet remaining;
+        private final long fromTask;
+        private final long toTask;
+
+        TrialTask(CardSet[] knownCards, CardSet remaining, long fromTask, long toTask) {
+            this.knownCards = knownCards;
+            this.remaining = remaining;
+            this.fromTask = fromTask;
+            this.toTask = toTask;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (toTask - fromTask > 1) {
+                long middle = (fromTask + toTask) >>> 1;
+                TrialTask left = new TrialTask(knownCards, remaining, fromTask, middle);
+                left.fork();
+                Tally tally = new TrialTask(knownCards, remaining, middle, toTask).compute();
+                tally.merge(left.join());
+                return tally;
+            }
+            return runTrials(streams.stream(fromTask));
+        }
+
+        private Tally runTrials(RandomGenerator random) {
+            int numHands = knownCards.length;
+            Tally tally = new Tally(numHands);
+            Deck deck = new Deck(remaining, random);
+            PokerHand[] hands = new PokerHand[numHands];
+            boolean[] best = new boolean[numHands];
+            for (int trial = 0; trial < trialsPerTask; trial++) {
+                deck.reset();
+                for (int i = 0; i < numHands; i++) {
+                    hands[i] = new PokerHand(NUM_CARDS_IN_FULL_HAND);
+                    for (Card card : knownCards[i]) {
+                        hands[i].addCard(card);
+                    }
+                    deck.drawInto(hands[i], NUM_CARDS_IN_FULL_HAND);
+                }
+                int numBest = 0;
+                PokerHand bestHand = null;
+                for (int i = 0; i < numHands; i++) {
+                    int result = bestHand == null ? 1 : hands[i].compareTo(bestHand);
+                    if (result > 0) {
+                        Arrays.fill(best, 0, i, false);
+                        bestHand = hands[i];
+                        numBest = 0;
+                    }
+                    best[i] = result >= 0;
+                    if (best[i]) {
+                        numBest++;
+                    }
+                }
+                tally.add(best, numBest);
+            }
+            return tally;
+        }
+    }
+
+    /**
+     * Tally accumulates the outcomes of trials for each hand.
+     */
+    private static class Tally {
+
+        private final long[] wins;
+        private final long[] ties;
+        private final double[] shares;
+        private final double[] squaredShares;
+        private long trials;
+
+        Tally(int numHands) {
+            wins = new long[numHands];
+            ties = new long[numHands];
+            shares = new double[numHands];
+            squaredShares = new double[numHands];
+        }
+
+        void add(boolean[] best, int numBest) {
+            double share = 1.0 / numBest;
+            for (int i = 0; i < best.length; i++) {
+                if (best[i]) {
+                    if (numBest == 1) {
+                        wins[i]++;
+                    } else {
+                        ties[i]++;
+                    }
+                    shares[i] += share;
+                    squaredShares[i] += share * share;
+                }
+            }
+            trials++;
+        }
+
+        void merge(Tally other) {
+            for (int i = 0; i < wins.length; i++) {
+                wins[i] += other.wins[i];
+                ties[i] += other.ties[i];
+                shares[i] += other.shares[i];
+                squaredShares[i] += other.squaredShares[i];
+            }
+            trials += other.trials;
+        }
+
+        double halfWidth(int hand) {
+            double mean = shares[hand] / trials;
+            double variance = Math.max(0, squaredShares[hand] / trials - mean * mean);
+            return Z_95 * Math.sqrt(variance / trials);
+        }
+
+        double maxHalfWidth() {
+            double max = 0;
+            for (int i = 0; i < wins.length; i++) {
+                max = Math.max(max, halfWidth(i));
+            }
+            return max;
+        }
+
+        Equity[] toEquities() {
+            Equity[] equities = new Equity[wins.length];
+            for (int i = 0; i < equities.length; i++) {
+                equities[i] = new Equity(wins[i], ties[i], trials, shares[i] / trials, halfWidth(i));
+            }
+            return equities;
+        }
+    }
+
+}
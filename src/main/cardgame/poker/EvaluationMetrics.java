@@ -0,0 +1,91 @@
+package cardgame.poker;
+
+import cardgame.common.GameMetrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EvaluationMetrics counts poker hand evaluations by the category of the
+ * hand, registered as the MXBean cardgame:type=EvaluationMetrics when
+ * GameMetrics is turned on. Only evaluations are counted; a hand's strength
+ * read again from its cache is not. Sampling the total twice gives the
+ * evaluator throughput.
+ *
+ * Each category is counted with its own LongAdder, so hands evaluated on
+ * many threads are counted without contention.
+ */
+public final class EvaluationMetrics implements EvaluationMetricsMXBean {
+
+    private static final PokerRank[] POKER_RANKS = PokerRank.values();
+    private static final EvaluationMetrics INSTANCE = new EvaluationMetrics();
+
+    private final LongAdder[] evaluations;
+
+    static {
+        if (GameMetrics.ENABLED) {
+            GameMetrics.register(GameMetrics.DOMAIN + ":type=EvaluationMetrics", INSTANCE);
+        }
+    }
+
+    private EvaluationMetrics() {
+        evaluations = new LongAdder[POKER_RANKS.length];
+        for (int i = 0; i < evaluations.length; i++) {
+            evaluations[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Return the metrics.
+     * @return the metrics
+     */
+    public static EvaluationMetrics get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Count an evaluation, if GameMetrics is turned on.
+     * @param strength the strength the hand evaluated to
+     */
+    public static void evaluated(int strength) {
+        if (GameMetrics.ENABLED) {
+            INSTANCE.evaluations[strength >>> HandEvaluator.CATEGORY_SHIFT].increment();
+        }
+    }
+
+    @Override
+    public long getEvaluations() {
+        long total = 0;
+        for (LongAdder count : evaluations) {
+            total += count.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Return the number of evaluations of a category.
+     * @param pokerRank the category
+     * @return the number of hands evaluated to the category
+     */
+    public long getEvaluations(PokerRank pokerRank) {
+        return evaluations[pokerRank.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getEvaluationsByCategory() {
+        Map<String, Long> counts = new LinkedHashMap<String, Long>();
+        for (PokerRank pokerRank : POKER_RANKS) {
+            counts.put(pokerRank.name(), getEvaluations(pokerRank));
+        }
+        return counts;
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder count : evaluations) {
+            count.reset();
+        }
+    }
+
+}
@@ -0,0 +1,16 @@
+package cardgame.poker;
+
+import java.util.Map;
+
+/**
+ * EvaluationMetricsMXBean is the management interface of EvaluationMetrics.
+ */
+public interface EvaluationMetricsMXBean {
+
+    long getEvaluations();
+
+    Map<String, Long> getEvaluationsByCategory();
+
+    void reset();
+
+}
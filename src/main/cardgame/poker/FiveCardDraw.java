@@ -3,32 +3,76 @@ package cardgame.poker;
 import cardgame.common.Card;
 import cardgame.common.Deck;
 import cardgame.common.Game;
+import cardgame.common.GameMetrics;
 import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
 
+import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 
 /**
  * FiveCardDraw implements the rules for the Five Card Draw poker game.
+ *
+ * Each player discards as chosen by a DiscardAgent. Players added without an
+ * agent are prompted on the command line. With output turned off and agents
+ * that do not prompt, rounds run headless and can be repeated with newRound.
+ *
+ * Each round shuffles from its own seed, drawn from the game's random source,
+ * so a round can be replayed from its seed and the players' discards alone.
+ *
+ * Rounds can also be driven by events rather than agents: startRound deals,
+ * and each player's discards are submitted with discard when they arrive,
+ * each call returning the new DrawState of the round. The last discard draws
+ * and scores the round. No thread waits on a player between events, so one
+ * thread can play many tables at once. Between events, the whole game can be
+ * saved to a few hundred bytes and restored, even in another JVM, with
+ * DrawSnapshot.
  */
 public class FiveCardDraw extends Game {
     private static final int NUM_CARDS_IN_FULL_HAND = 5;
+    private static final int ALL_POSITIONS_MASK = (1 << NUM_CARDS_IN_FULL_HAND) - 1;
 
     private Deck discardDeck;
     private int dealerPlayerIndex;
+    private Map<Player, DiscardAgent> agents;
+    private DiscardAgent consoleAgent;
+    private PrintStream out;
+    private RoundListener listener;
+    private long roundSeed;
+    private DrawState state;
+    private int seatToAct;
+    private int numDiscarded;
 
     /**
-     * Construct Five Card Draw game.
+     * Construct Five Card Draw game, shuffled by a randomly seeded Xoshiro256
+     * so that the game can be saved by DrawSnapshot.
      */
     public FiveCardDraw() {
-        super();
+        this(new Xoshiro256(new SplittableRandom().nextLong()));
+    }
+
+    /**
+     * Construct Five Card Draw game that shuffles with the given random source,
+     * such as a seeded Xoshiro256 or a stream from RandomStreams, so that
+     * games can be reproduced.
+     * @param random the random source for shuffling
+     */
+    public FiveCardDraw(RandomGenerator random) {
+        super(random);
         dealerPlayerIndex = 0;
-        discardDeck = new Deck(false);
+        discardDeck = new Deck(true, getRandom());
+        agents = new HashMap<Player, DiscardAgent>();
+        out = System.out;
         for (Player player : getPlayers()) {
             player.setHand(new PokerHand(NUM_CARDS_IN_FULL_HAND));
         }
+        shuffleRound(getRandom().nextLong());
     }
 
     /**
@@ -46,6 +90,121 @@ public class FiveCardDraw extends Game {
         return player;
     }
 
+    /**
+     * Add a player whose discards are chosen by the given agent, if the
+     * player is not already playing.
+     * @param name name of player
+     * @param agent the agent that chooses the player's discards
+     * @return newly added player if successful; otherwise, null
+     */
+    public Player addPlayer(String name, DiscardAgent agent) {
+        Player player = addPlayer(name);
+        if (player != null) {
+            agents.put(player, agent);
+        }
+        return player;
+    }
+
+    /**
+     * Return the agent that chooses the player's discards. Players added
+     * without an agent share one console agent.
+     * @param player the player
+     * @return the agent that chooses the player's discards
+     */
+    public DiscardAgent getAgent(Player player) {
+        DiscardAgent agent = agents.get(player);
+        if (agent == null) {
+            if (consoleAgent == null) {
+                consoleAgent = new ConsoleDiscardAgent();
+            }
+            agent = consoleAgent;
+        }
+        return agent;
+    }
+
+    /**
+     * Set the stream the game prints its progress to.
+     * @param out the stream to print to, or null to print nothing
+     */
+    public void setOut(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Set the listener told of each round as it is played, such as a
+     * HandHistoryWriter.
+     * @param listener the listener, or null for none
+     */
+    public void setRoundListener(RoundListener listener) {
+        this.listener = listener;
+    }
+
+    private void println(Object message) {
+        if (out != null) {
+            out.println(message);
+        }
+    }
+
+    /**
+     * Prepare for another round: return all cards to the deck and shuffle,
+     * empty the discard deck and the hands, and pass the deal to the next player.
+     */
+    public void newRound() {
+        shuffleRound(getRandom().nextLong());
+        if (!getPlayers().isEmpty()) {
+            dealerPlayerIndex = (dealerPlayerIndex + 1) % getPlayers().size();
+        }
+    }
+
+    /**
+     * Prepare to replay a recorded round: shuffle from the round's seed and
+     * give the deal to the recorded dealer. With the same players seated in
+     * the same order and discarding as recorded, the round plays out as it did.
+     * @param seed the seed of the round
+     * @param dealerSeat the position of the dealer among the players
+     */
+    public void replayRound(long seed, int dealerSeat) {
+        if (dealerSeat < 0 || dealerSeat >= getPlayers().size()) {
+            throw new IllegalArgumentException("Invalid dealer seat " + dealerSeat);
+        }
+        shuffleRound(seed);
+        dealerPlayerIndex = dealerSeat;
+    }
+
+    /**
+     * Return all cards to the deck and shuffle them from the given seed, and
+     * empty the discard deck and the hands.
+     */
+    private void shuffleRound(long seed) {
+        roundSeed = seed;
+        RandomGenerator random = new Xoshiro256(seed);
+        getDeck().setRandom(random);
+        discardDeck.setRandom(random);
+        getDeck().resetInOrder();
+        GameMetrics.deckShuffled();
+        discardDeck.clear();
+        for (Player player : getPlayers()) {
+            player.getHand().clear();
+        }
+        state = DrawState.READY;
+    }
+
+    /**
+     * Return the seed the current round was shuffled from.
+     * @return the seed of the current round
+     */
+    public long getRoundSeed() {
+        return roundSeed;
+    }
+
+    /**
+     * Return the player who deals the current round.
+     * @return the dealer
+     */
+    public Player getDealer() {
+        return getPlayers().get(dealerPlayerIndex);
+    }
+
     /**
      * Deal a card to the player. If cards in deck have been exhausted,
      * deal card from the discard deck.
@@ -54,107 +213,74 @@ public class FiveCardDraw extends Game {
      * in deck or discard deck
      */
     public Boolean dealCard(Player player) {
-        Boolean gameEnded = false;
-        if (!getDeck().isEmpty()) {
-            Card card = getDeck().drawCard();
-            if (card != null) {
-                player.getHand().addCard(card);
-            }
-        } else {
-            if (!discardDeck.isEmpty()) {
-                discardDeck.shuffle();
-                Card card = discardDeck.drawCard();
-                if (card != null) {
-                    player.getHand().addCard(card);
-                }
-            } else {
-                // both deck & discard deck are empty
-                gameEnded = true;
-            }
+        Card card = nextCard();
+        if (card == null) {
+            // both deck & discard deck are empty
+            return true;
         }
-        return gameEnded;
+        player.getHand().addCard(card);
+        return false;
     }
 
     /**
-     * Prompt player for number of cards to discard, followed by discard positions.
-     * @return the positions to discard
+     * Draw the next card from the deck or, once it is exhausted, from the
+     * shuffled discard deck.
+     * @return the next card, or null if both decks are empty
      */
-    private List<Integer> promptForDiscards() {
-        int numDiscards = promptForNumDiscards();
-        List <Integer> positionsToDiscard = new ArrayList<Integer>();
-        if (numDiscards > 0) {
-            promptForDiscardPositions(numDiscards, positionsToDiscard);
+    private Card nextCard() {
+        if (!getDeck().isEmpty()) {
+            return getDeck().drawCard();
+        }
+        if (!discardDeck.isEmpty()) {
+            GameMetrics.discardReshuffled();
+            discardDeck.shuffle();
+            return discardDeck.drawCard();
         }
-        return positionsToDiscard;
+        return null;
     }
 
     /**
-     * Prompt player for number of cards to discard.
-     * @return number of cards to discard
+     * Display player's cards and discard the cards chosen by the player's agent.
+     * @param player the player for whom to choose discards
      */
-    private int promptForNumDiscards() {
-        int numDiscards = -1;  // initialize to an invalid number
-        System.out.println("How many cards do you want to discard? Enter a number between 0 and 5.");
-        Scanner scanner = new Scanner(System.in);
-        while ((numDiscards < 0) || (numDiscards  > NUM_CARDS_IN_FULL_HAND)) {
-            if (scanner.hasNextInt()) {
-                numDiscards = scanner.nextInt();
-            }
-            if ((numDiscards < 0) || (numDiscards  > NUM_CARDS_IN_FULL_HAND)) {
-                // if input if invalid, then prompt again
-                System.out.println("Please enter a number between 0 and 5.");
-            }
-        }
-        return numDiscards;
-    }
-
-    /**
-     * Prompt for positions to discard
-     * @param numDiscards number of discards to prompt for
-     * @param positionsToDiscard a list to which the positions to discard should be added
-     */
-    private void promptForDiscardPositions(int numDiscards, List<Integer> positionsToDiscard) {
-        Scanner scanner = new Scanner(System.in);
-        if (numDiscards > 0 && numDiscards <= NUM_CARDS_IN_FULL_HAND) {
-            System.out.println("Enter the positions (between 0 and 4) of the cards you want to discard.");
-            while (positionsToDiscard.size() < numDiscards) {
-                if (scanner.hasNextInt()) {
-                    int position = scanner.nextInt();
-                    if (positionsToDiscard.contains(position)) {
-                        System.out.println("That position has already been entered. Please enter another position between 0 and 4.");
-                    } else {
-                        if ((position >= 0) &&  (position < NUM_CARDS_IN_FULL_HAND)) {
-                            positionsToDiscard.add(position);
-                        } else {
-                            System.out.println("Please enter a number between 0 and 4.");
-                        }
-                    }
-                } else {
-                    System.out.println("Please enter a number between 0 and 4.");
-                }
+    public void beforeTurn(Player player) {
+        List<Integer> positionsToDiscard;
+        println("\nBefore Turn:");
+        println(player);
+
+        positionsToDiscard = new ArrayList<Integer>(getAgent(player).chooseDiscards((PokerHand) player.getHand()));
+        Collections.sort(positionsToDiscard);
+        int discardMask = 0;
+        for (int i = 0; i < positionsToDiscard.size(); i++) {
+            int position = positionsToDiscard.get(i);
+            if (position < 0 || position >= NUM_CARDS_IN_FULL_HAND || (i > 0 && positionsToDiscard.get(i - 1) == position)) {
+                throw new IllegalStateException("Invalid discard positions " + positionsToDiscard + " for " + player.getName());
             }
+            discardMask |= 1 << position;
         }
+        discardCards(player, discardMask);
     }
 
     /**
-     * Display player's cards and prompt for discards.
-     * @param player the player for whom to prompt for discards
+     * Discard the cards at the positions in the mask, tell the round
+     * listener, and pass the turn to discard to the next player.
      */
-    public void beforeTurn(Player player) {
-        List<Integer> positionsToDiscard;
-        System.out.println("\nBefore Turn:");
-        System.out.println(player);
-
-        positionsToDiscard = promptForDiscards();
-        Collections.sort(positionsToDiscard);
-        while (!positionsToDiscard.isEmpty()) {
-            // discard from the highest position first so that the indices
-            // still work as we discard cards
-            int currentPosition = positionsToDiscard.get(positionsToDiscard.size() - 1);
-            discardDeck.addCard(player.getHand().getCard(currentPosition));
-            player.getHand().removeCard(currentPosition);
-            positionsToDiscard.remove(positionsToDiscard.size() - 1);
+    private void discardCards(Player player, int discardMask) {
+        if (listener != null) {
+            listener.discarded(getPlayers().indexOf(player), (PokerHand) player.getHand(), discardMask);
+        }
+        // discard from the highest position first so that the indices
+        // still work as we discard cards
+        for (int position = NUM_CARDS_IN_FULL_HAND - 1; position >= 0; position--) {
+            if ((discardMask & (1 << position)) != 0) {
+                discardDeck.addCard(player.getHand().getCard(position));
+                player.getHand().removeCard(position);
+            }
         }
+        numDiscarded++;
+        seatToAct = (seatToAct + 1) % getPlayers().size();
+        state = numDiscarded == getPlayers().size() ? DrawState.DRAWING
+                : DrawState.discarding(seatToAct, getPlayers().get(seatToAct));
     }
 
     /**
@@ -163,14 +289,19 @@ public class FiveCardDraw extends Game {
      * @return whether the game has ended
      */
     public Boolean turn(Player player) {
-        Boolean gameEnded = false;
+        int seat = listener == null ? -1 : getPlayers().indexOf(player);
         while (!player.getHand().isFullHand()) {
-            gameEnded = dealCard(player);
-            if (gameEnded) {
-                break;
+            Card card = nextCard();
+            if (card == null) {
+                // both deck & discard deck are empty
+                return true;
+            }
+            player.getHand().addCard(card);
+            if (listener != null) {
+                listener.drew(seat, card);
             }
         }
-        return gameEnded;
+        return false;
     }
 
     /**
@@ -178,30 +309,164 @@ public class FiveCardDraw extends Game {
      * @param player the player for whom to display hand
      */
     public void afterTurn(Player player) {
-        System.out.println("\nAfter turn: ");
-        System.out.println(player);
+        println("\nAfter turn: ");
+        println(player);
     }
 
     /**
-     * Deal hands and prompt for discards starting at player after dealer.
+     * Deal hands and prompt for discards starting at player after dealer,
+     * timed as the beforeRound phase of GameMetrics.
      * @return whether the game has ended
      */
     @Override
     public Boolean beforeRound() {
-        Boolean gameEnded;
-        gameEnded = dealCards();
-        if (!gameEnded) {
-            int numPlayers = getPlayers().size();
-            int playerNum = (dealerPlayerIndex + 1) % numPlayers; // start 1 beyond dealer
-            for (int i = 0; i < numPlayers; i++) {
-                getPlayers().get(playerNum).getHand();
-                beforeTurn(getPlayers().get(playerNum));
-                playerNum = (playerNum + 1) % numPlayers;
-            }
+        long start = GameMetrics.start();
+        Boolean gameEnded = dealAndDiscard();
+        GameMetrics.recordSince(GameMetrics.BEFORE_ROUND, start);
+        return gameEnded;
+    }
+
+    /**
+     * Deal hands and prompt for discards starting at player after dealer.
+     * @return whether the game has ended
+     */
+    private Boolean dealAndDiscard() {
+        Boolean gameEnded = deal();
+        while (state.getPhase() == DrawState.Phase.DISCARDING) {
+            beforeTurn(getPlayers().get(seatToAct));
         }
         return gameEnded;
     }
 
+    /**
+     * Tell the round listener the round has started, deal the hands and wait
+     * for the player after the dealer to discard.
+     * @return whether the game has ended
+     */
+    private Boolean deal() {
+        if (listener != null) {
+            listener.roundStarted(roundSeed, getPlayers(), dealerPlayerIndex);
+        }
+        Boolean gameEnded = dealCards();
+        seatToAct = (dealerPlayerIndex + 1) % getPlayers().size(); // start 1 beyond dealer
+        numDiscarded = 0;
+        if (gameEnded) {
+            abortRound();
+        } else {
+            state = DrawState.discarding(seatToAct, getPlayers().get(seatToAct));
+        }
+        return gameEnded;
+    }
+
+    private void abortRound() {
+        state = DrawState.ABORTED;
+        if (listener != null) {
+            listener.roundAborted();
+        }
+    }
+
+    /**
+     * Deal the hands of a round without blocking on any player, and wait for
+     * the player after the dealer to discard. The round must be ready: just
+     * constructed, or prepared by newRound or replayRound.
+     * @return the new state of the round: discarding, or aborted if the cards ran out
+     * @throws IllegalStateException if the round is not ready
+     */
+    public DrawState startRound() {
+        if (state.getPhase() != DrawState.Phase.READY) {
+            throw new IllegalStateException("Expected a ready round but the round is " + state);
+        }
+        deal();
+        return state;
+    }
+
+    /**
+     * Discard the cards of the player to act, without blocking on any other
+     * player. Once the last player has discarded, every player draws and
+     * the round is scored, as by round and afterRound.
+     * @param seat the seat of the player, who must be the player to act
+     * @param discardMask the positions to discard, one bit per position
+     * from 0 to 4; 0 to stand pat
+     * @return the new state of the round: discarding for the next player,
+     * finished with a ranking, or aborted if the cards ran out
+     * @throws IllegalStateException if the round is not waiting for the
+     * player at the seat to discard
+     * @throws IllegalArgumentException if the mask holds a position above 4
+     */
+    public DrawState discard(int seat, int discardMask) {
+        if (state.getPhase() != DrawState.Phase.DISCARDING || seat != seatToAct) {
+            throw new IllegalStateException("Expected no discard from seat " + seat + " when the round is " + state);
+        }
+        if ((discardMask & ~ALL_POSITIONS_MASK) != 0) {
+            throw new IllegalArgumentException("Invalid discard mask " + Integer.toBinaryString(discardMask));
+        }
+        Player player = getPlayers().get(seat);
+        println("\nBefore Turn:");
+        println(player);
+        discardCards(player, discardMask);
+        if (state.getPhase() == DrawState.Phase.DRAWING && !round()) {
+            afterRound();
+        }
+        return state;
+    }
+
+    /**
+     * Return the random source round seeds are drawn from, for snapshots.
+     */
+    RandomGenerator getGameRandom() {
+        return getRandom();
+    }
+
+    /**
+     * Return the players in seat order, for snapshots.
+     */
+    List<Player> getSeats() {
+        return getPlayers();
+    }
+
+    /**
+     * Return the deck discards go to, for snapshots.
+     */
+    Deck getDiscardDeck() {
+        return discardDeck;
+    }
+
+    int getDealerSeat() {
+        return dealerPlayerIndex;
+    }
+
+    int getSeatToAct() {
+        return seatToAct;
+    }
+
+    int getNumDiscarded() {
+        return numDiscarded;
+    }
+
+    /**
+     * Restore the round from a snapshot, once the players, hands and decks
+     * are restored: the round's seed and random source, the dealer, the state
+     * and the discards so far.
+     */
+    void restoreRound(long seed, RandomGenerator random, int dealerSeat, DrawState state, int seatToAct,
+            int numDiscarded) {
+        roundSeed = seed;
+        getDeck().setRandom(random);
+        discardDeck.setRandom(random);
+        dealerPlayerIndex = dealerSeat;
+        this.state = state;
+        this.seatToAct = seatToAct;
+        this.numDiscarded = numDiscarded;
+    }
+
+    /**
+     * Return the state of the round, as last returned by startRound or discard.
+     * @return the state of the round
+     */
+    public DrawState getState() {
+        return state;
+    }
+
     /**
      * Deal cards to all of the players until each player has a full hand
      * or the deck has run out of cards.
@@ -211,7 +476,7 @@ public class FiveCardDraw extends Game {
         Boolean gameEnded = false;
         int numPlayers = getPlayers().size();
         int playerNum = (dealerPlayerIndex + 1) % numPlayers; // start 1 beyond dealer
-        System.out.println("\nDealer: " + getPlayers().get(dealerPlayerIndex).getName());
+        println("\nDealer: " + getPlayers().get(dealerPlayerIndex).getName());
         for (int i = 0; i < NUM_CARDS_IN_FULL_HAND; i++) {
             for (int j = 0; j < numPlayers; j++) {
                 gameEnded = dealCard(getPlayers().get(playerNum));
@@ -225,11 +490,23 @@ public class FiveCardDraw extends Game {
     }
 
     /**
-     * Deal cards and show new hands, starting at player after dealer.
+     * Deal cards and show new hands, starting at player after dealer, timed
+     * as the round phase of GameMetrics.
      * @return whether the game has ended
      */
     @Override
     public Boolean round() {
+        long start = GameMetrics.start();
+        Boolean gameEnded = drawCards();
+        GameMetrics.recordSince(GameMetrics.ROUND, start);
+        return gameEnded;
+    }
+
+    /**
+     * Deal cards and show new hands, starting at player after dealer.
+     * @return whether the game has ended
+     */
+    private Boolean drawCards() {
         Boolean gameEnded = false;
         int numPlayers = getPlayers().size();
         int playerNum = (dealerPlayerIndex + 1) % numPlayers; // start 1 beyond dealer
@@ -242,36 +519,34 @@ public class FiveCardDraw extends Game {
             afterTurn(getPlayers().get(playerNum));
             playerNum = (playerNum + 1) % numPlayers;
         }
+        if (gameEnded) {
+            abortRound();
+        }
         return gameEnded;
     }
 
+    /**
+     * Score the round and tell the round listener the result.
+     * @return the list of players, sorted by rank, lowest rank first
+     */
+    @Override
+    public List<Player> afterRound() {
+        List<Player> ranking = super.afterRound();
+        state = DrawState.finished(ranking);
+        if (listener != null) {
+            listener.roundFinished(ranking);
+        }
+        return ranking;
+    }
+
     /**
      * Score the round by sorting players, from lowest to highest ranking.
+     * Each hand is evaluated once; see Showdown.
      * @return the list of players, sorted by rank, lowest rank first
      */
     @Override
     protected List<Player> scoreRound() {
-        List<Player> sortedPlayers = new ArrayList<Player>(getPlayers());
-        Collections.sort(sortedPlayers, new java.util.Comparator<Player>() {
-            public int compare(Player player1, Player player2) {
-                PokerHand hand1;
-                PokerHand hand2;
-                if (player1.getHand() instanceof PokerHand) {
-                    hand1 = (PokerHand)player1.getHand();
-                } else {
-                    // unexpected since Hand is internal to FiveCardDraw
-                    return -1;
-                }
-                if (player2.getHand() instanceof PokerHand) {
-                    hand2 = (PokerHand)player2.getHand();
-                } else {
-                    // unexpected since Hand is internal to FiveCardDraw
-                    return 1;
-                }
-                return hand1.compareTo(hand2);
-            }
-        });
-        return sortedPlayers;
+        return Showdown.rank(getPlayers());
     }
 
 }
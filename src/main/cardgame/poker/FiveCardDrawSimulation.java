@@ -0,0 +1,206 @@
+package cardgame.poker;
+
+import cardgame.common.Player;
+import cardgame.common.RandomStreams;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * FiveCardDrawSimulation plays rounds of Five Card Draw headless, with every
+ * player's discards chosen by an agent, and tallies each player's wins. A
+ * round won by several tied players counts as an equal share of a win for each.
+ *
+ * Run it with: java -cp bin cardgame.poker.FiveCardDrawSimulation
+ * [--history &lt;file&gt;] &lt;rounds&gt; &lt;seed&gt; &lt;agent&gt; &lt;agent&gt;..., where
+ * each agent is pat, heuristic or random, and the rounds are appended to the
+ * hand-history file if one is given.
+ */
+public class FiveCardDrawSimulation {
+
+    public static final int MIN_NUM_PLAYERS = 2;
+
+    private final FiveCardDraw game;
+    private final List<Player> players;
+    private final List<Double> wins;
+    private long numRounds;
+    private long numUnfinishedRounds;
+
+    /**
+     * Construct a simulation that shuffles with the given random source.
+     * @param random the random source for shuffling
+     */
+    public FiveCardDrawSimulation(RandomGenerator random) {
+        game = new FiveCardDraw(random);
+        game.setOut(null);
+        players = new ArrayList<Player>();
+        wins = new ArrayList<Double>();
+    }
+
+    /**
+     * Add a player whose discards are chosen by the given agent.
+     * @param name name of player
+     * @param agent the agent that chooses the player's discards; it should not
+     * prompt on the command line
+     * @return newly added player if successful; otherwise, null
+     */
+    public Player addPlayer(String name, DiscardAgent agent) {
+        Player player = game.addPlayer(name, agent);
+        if (player != null) {
+            players.add(player);
+            wins.add(0.0);
+        }
+        return player;
+    }
+
+    /**
+     * Set the listener told of each round as it is played, such as a
+     * HandHistoryWriter.
+     * @param listener the listener, or null for none
+     */
+    public void setRoundListener(RoundListener listener) {
+        game.setRoundListener(listener);
+    }
+
+    /**
+     * Play rounds, passing the deal around the table after every round.
+     * @param rounds the number of rounds to play
+     */
+    public void play(long rounds) {
+        for (long i = 0; i < rounds; i++) {
+            if (numRounds + numUnfinishedRounds > 0) {
+                game.newRound();
+            }
+            if (game.beforeRound() || game.round()) {
+                // the cards ran out before every player had a full hand
+                numUnfinishedRounds++;
+                continue;
+            }
+            tallyWinners(game.afterRound());
+            numRounds++;
+        }
+    }
+
+    /**
+     * Share a win between the players tied for the highest ranking hand.
+     * @param ranking the players, sorted by rank, lowest rank first
+     */
+    private void tallyWinners(List<Player> ranking) {
+        List<Player> winners = Showdown.winners(ranking);
+        for (Player winner : winners) {
+            int index = players.indexOf(winner);
+            wins.set(index, wins.get(index) + 1.0 / winners.size());
+        }
+    }
+
+    /**
+     * Return the players, in the order they were added.
+     * @return the players
+     */
+    public List<Player> getPlayers() {
+        return players;
+    }
+
+    /**
+     * Return the number of rounds the player won, counting a tie between k
+     * players as 1 / k of a win.
+     * @param player the player
+     * @return the number of rounds won
+     */
+    public double getWins(Player player) {
+        return wins.get(players.indexOf(player));
+    }
+
+    /**
+     * Return the share of finished rounds the player won.
+     * @param player the player
+     * @return the win rate, between 0 and 1
+     */
+    public double getWinRate(Player player) {
+        return numRounds == 0 ? 0 : getWins(player) / numRounds;
+    }
+
+    /**
+     * Return the number of rounds played to the end.
+     * @return the number of finished rounds
+     */
+    public long getNumRounds() {
+        return numRounds;
+    }
+
+    /**
+     * Return the number of rounds that ended because the cards ran out.
+     * @return the number of unfinished rounds
+     */
+    public long getNumUnfinishedRounds() {
+        return numUnfinishedRounds;
+    }
+
+    /**
+     * Return the agent for a name used on the command line.
+     * @param agentName pat, heuristic or random
+     * @param random the random source for a random agent
+     * @return the agent, or null for an unknown name
+     */
+    public static DiscardAgent agentFor(String agentName, RandomGenerator random) {
+        DiscardAgent agent = null;
+        if (agentName.equals("pat")) {
+            agent = new KeepPatDiscardAgent();
+        } else if (agentName.equals("heuristic")) {
+            agent = new HeuristicDiscardAgent();
+        } else if (agentName.equals("random")) {
+            agent = new RandomDiscardAgent(random);
+        }
+        return agent;
+    }
+
+    public static void main(String args[]) throws IOException {
+        Path historyFile = null;
+        if (args.length >= 2 && args[0].equals("--history")) {
+            historyFile = Paths.get(args[1]);
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        if (args.length < 2 + MIN_NUM_PLAYERS) {
+            System.out.println("java cardgame.poker.FiveCardDrawSimulation [--history <file>] <rounds> <seed> <agent> <agent>...");
+            System.out.println("where each agent is pat, heuristic or random");
+            return;
+        }
+        long rounds = Long.parseLong(args[0]);
+        RandomStreams streams = new RandomStreams(Long.parseLong(args[1]));
+        // stream 0 shuffles; stream i + 1 is for the agent of player i
+        FiveCardDrawSimulation simulation = new FiveCardDrawSimulation(streams.stream(0));
+        for (int i = 2; i < args.length; i++) {
+            DiscardAgent agent = agentFor(args[i], streams.stream(i - 1));
+            if (agent == null) {
+                System.out.println("Unknown agent " + args[i]);
+                return;
+            }
+            simulation.addPlayer(args[i] + "-" + (i - 1), agent);
+        }
+
+        HandHistoryWriter history = historyFile == null ? null : new HandHistoryWriter(historyFile);
+        long start = System.nanoTime();
+        try {
+            simulation.setRoundListener(history);
+            simulation.play(rounds);
+        } finally {
+            if (history != null) {
+                history.close();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        for (Player player : simulation.getPlayers()) {
+            System.out.println(String.format("%-16s win rate %.4f", player.getName(), simulation.getWinRate(player)));
+        }
+        System.out.println(String.format("\n%d rounds (%d unfinished) in %.1f ms, %.0f rounds per second",
+                simulation.getNumRounds(), simulation.getNumUnfinishedRounds(), elapsed / 1e6,
+                rounds * 1e9 / elapsed));
+    }
+
+}
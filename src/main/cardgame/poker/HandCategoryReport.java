@@ -0,0 +1,51 @@
+package cardgame.poker;
+
+import cardgame.common.CombinationSpliterator;
+
+/**
+ * HandCategoryReport evaluates every five-card hand and tallies how many
+ * hands fall in each poker rank, as a check of the evaluator and a baseline
+ * for its throughput.
+ *
+ * Run it with: java -cp bin cardgame.poker.HandCategoryReport [--sequential]
+ */
+public class HandCategoryReport {
+
+    private static final int NUM_CARDS_IN_HAND = 5;
+
+    private HandCategoryReport() {
+    }
+
+    /**
+     * Return the number of five-card hands of each poker rank.
+     * @param parallel whether to evaluate hands on a parallel stream
+     * @return the number of hands, indexed by poker rank ordinal
+     */
+    public static long[] countCategories(boolean parallel) {
+        return CombinationSpliterator.stream(NUM_CARDS_IN_HAND, parallel).collect(
+                () -> new long[PokerRank.values().length],
+                (counts, hand) -> counts[HandEvaluator.evaluate(hand) >>> HandEvaluator.CATEGORY_SHIFT]++,
+                (counts, other) -> {
+                    for (int i = 0; i < counts.length; i++) {
+                        counts[i] += other[i];
+                    }
+                });
+    }
+
+    public static void main(String args[]) {
+        boolean parallel = !(args.length > 0 && args[0].equals("--sequential"));
+        long start = System.nanoTime();
+        long[] counts = countCategories(parallel);
+        long elapsed = System.nanoTime() - start;
+
+        long total = 0;
+        for (PokerRank pokerRank : PokerRank.values()) {
+            System.out.println(String.format("%-16s %9d", pokerRank, counts[pokerRank.ordinal()]));
+            total += counts[pokerRank.ordinal()];
+        }
+        System.out.println(String.format("%-16s %9d", "total", total));
+        System.out.println(String.format("\n%s: %.1f ms, %.1f million hands per second",
+                parallel ? "parallel" : "sequential", elapsed / 1e6, total * 1e3 / elapsed));
+    }
+
+}
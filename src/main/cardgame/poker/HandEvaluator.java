@@ -0,0 +1,452 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.Rank;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HandEvaluator maps five cards to a single int strength using lookup tables.
+ *
+ * Each card is encoded as an int holding a rank bit, a suit bit, the rank
+ * index and a prime for the rank. Flushes and hands with five distinct ranks
+ * are looked up directly by the 13-bit mask of ranks; all other hands are
+ * looked up by the product of the rank primes through a perfect hash.
+ *
+ * A strength holds the poker rank in the bits above CATEGORY_SHIFT, followed by
+ * up to five 4-bit rank indexes in order of significance, so a stronger hand
+ * always has a greater strength.
+ *
+ * The tables are generated when the class is loaded. If the system property
+ * cardgame.poker.strengthTable names a table file written by StrengthTable,
+ * the tables are memory-mapped from it instead, so that processes on the same
+ * machine share one copy. A missing, stale or corrupt file is ignored.
+ */
+public final class HandEvaluator {
+
+    public static final int CATEGORY_SHIFT = 20;
+    public static final int NUM_CARDS_IN_HAND = 5;
+    public static final String TABLE_FILE_PROPERTY = "cardgame.poker.strengthTable";
+
+    private static final int NUM_RANKS = Rank.values().length;
+    static final int RANK_MASK_SIZE = 1 << NUM_RANKS;
+    private static final int[] PRIMES = {2, 3, 5, 7, 11, 13, 17, 19, 23, 29, 31, 37, 41};
+
+    // the five-high straight: Two, Three, Four, Five and Ace
+    private static final int WHEEL_MASK = 0x100F;
+
+    private static final int HASH_BUCKET_BITS = 11;
+    private static final int HASH_SLOT_BITS = 13;
+    static final int NUM_HASH_BUCKETS = 1 << HASH_BUCKET_BITS;
+    static final int NUM_HASH_SLOTS = 1 << HASH_SLOT_BITS;
+    private static final int[] HASH_MULTIPLIERS = {
+            0x9E3779B1, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1, 0xD3A2646C, 0xFD7046C5, 0xB55A4F09
+    };
+
+    // encoded cards, indexed by card id
+    private static final int[] CARD_CODES = new int[Card.NUM_CARDS];
+
+    // heap buffers when generated, read-only mapped buffers when loaded from a file
+    private static final IntBuffer FLUSHES;
+    private static final IntBuffer UNIQUE5;
+    private static final IntBuffer HASH_DISPLACEMENTS;
+    private static final IntBuffer HASH_VALUES;
+    private static final int BUCKET_MULTIPLIER;
+    private static final int SLOT_MULTIPLIER;
+    private static final boolean TABLE_MAPPED;
+
+    static {
+        for (int id = 0; id < Card.NUM_CARDS; id++) {
+            CARD_CODES[id] = encode(Card.of(id).getRank().ordinal(), Card.of(id).getSuit().ordinal());
+        }
+        StrengthTable table = mapTable(System.getProperty(TABLE_FILE_PROPERTY));
+        TABLE_MAPPED = table != null;
+        if (table == null) {
+            table = generateTable();
+        }
+        FLUSHES = table.getFlushes();
+        UNIQUE5 = table.getUnique5();
+        HASH_DISPLACEMENTS = table.getHashDisplacements();
+        HASH_VALUES = table.getHashValues();
+        BUCKET_MULTIPLIER = table.getBucketMultiplier();
+        SLOT_MULTIPLIER = table.getSlotMultiplier();
+    }
+
+    private HandEvaluator() {
+    }
+
+    /**
+     * Return the tables mapped from the table file, or null if there is no
+     * usable table file.
+     */
+    private static StrengthTable mapTable(String tableFile) {
+        if (tableFile == null) {
+            return null;
+        }
+        try {
+            StrengthTable table = StrengthTable.map(Paths.get(tableFile));
+            if (table.getFlushes().capacity() == RANK_MASK_SIZE
+                    && table.getUnique5().capacity() == RANK_MASK_SIZE
+                    && table.getHashDisplacements().capacity() == NUM_HASH_BUCKETS
+                    && table.getHashValues().capacity() == NUM_HASH_SLOTS) {
+                return table;
+            }
+        } catch (IOException e) {
+            // missing, stale or corrupt; fall back to generating the tables
+        }
+        return null;
+    }
+
+    /**
+     * Return whether the tables were memory-mapped from a table file rather
+     * than generated.
+     * @return whether the tables were memory-mapped from a table file
+     */
+    public static boolean isTableMapped() {
+        return TABLE_MAPPED;
+    }
+
+    /**
+     * Generate the lookup tables.
+     * @return the generated tables, in heap buffers
+     */
+    static StrengthTable generateTable() {
+        int[] flushes = new int[RANK_MASK_SIZE];
+        int[] unique5 = new int[RANK_MASK_SIZE];
+        int[] hashDisplacements = new int[NUM_HASH_BUCKETS];
+        int[] hashValues = new int[NUM_HASH_SLOTS];
+        buildRankMaskTables(flushes, unique5);
+        int[] multipliers = buildPerfectHash(hashDisplacements, hashValues);
+        return new StrengthTable(multipliers[0], multipliers[1], IntBuffer.wrap(flushes),
+                IntBuffer.wrap(unique5), IntBuffer.wrap(hashDisplacements), IntBuffer.wrap(hashValues));
+    }
+
+    /**
+     * Return the evaluator encoding of a card.
+     * @param card the card to encode
+     * @return the card encoded as an int
+     */
+    public static int encode(Card card) {
+        return CARD_CODES[card.getId()];
+    }
+
+    /**
+     * Return the evaluator encoding of a card given its id.
+     * @param cardId the id of the card to encode
+     * @return the card encoded as an int
+     */
+    public static int encode(int cardId) {
+        return CARD_CODES[cardId];
+    }
+
+    private static int encode(int rankIndex, int suitIndex) {
+        return (1 << (16 + rankIndex)) | (1 << (12 + suitIndex)) | (rankIndex << 8) | PRIMES[rankIndex];
+    }
+
+    /**
+     * Return the strength of a five-card hand.
+     * @param cards the five cards of the hand, in any order
+     * @return the strength of the hand
+     */
+    public static int evaluate(List<Card> cards) {
+        if (cards.size() != NUM_CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Expected " + NUM_CARDS_IN_HAND + " cards but got " + cards.size());
+        }
+        return evaluate(encode(cards.get(0)), encode(cards.get(1)), encode(cards.get(2)),
+                encode(cards.get(3)), encode(cards.get(4)));
+    }
+
+    /**
+     * Return the strength of a five-card hand given as the bits of a CardSet.
+     * @param cardBits the bits of the hand, one bit per card id
+     * @return the strength of the hand
+     */
+    public static int evaluate(long cardBits) {
+        if (Long.bitCount(cardBits) != NUM_CARDS_IN_HAND) {
+            throw new IllegalArgumentException("Expected " + NUM_CARDS_IN_HAND + " cards but got " + Long.bitCount(cardBits));
+        }
+        long bits = cardBits;
+        int c1 = CARD_CODES[Long.numberOfTrailingZeros(bits)];
+        bits &= bits - 1;
+        int c2 = CARD_CODES[Long.numberOfTrailingZeros(bits)];
+        bits &= bits - 1;
+        int c3 = CARD_CODES[Long.numberOfTrailingZeros(bits)];
+        bits &= bits - 1;
+        int c4 = CARD_CODES[Long.numberOfTrailingZeros(bits)];
+        bits &= bits - 1;
+        int c5 = CARD_CODES[Long.numberOfTrailingZeros(bits)];
+        return evaluate(c1, c2, c3, c4, c5);
+    }
+
+    /**
+     * Return the strength of a five-card hand given encoded cards.
+     * @param c1 first encoded card
+     * @param c2 second encoded card
+     * @param c3 third encoded card
+     * @param c4 fourth encoded card
+     * @param c5 fifth encoded card
+     * @return the strength of the hand
+     */
+    public static int evaluate(int c1, int c2, int c3, int c4, int c5) {
+        int rankMask = (c1 | c2 | c3 | c4 | c5) >>> 16;
+        int strength;
+        if ((c1 & c2 & c3 & c4 & c5 & 0xF000) != 0) {
+            strength = FLUSHES.get(rankMask);
+            if (strength == 0) {
+                // fewer than five ranks in one suit means a card is repeated
+                strength = repeatedCardFlush(c1, c2, c3, c4, c5);
+            }
+            return strength;
+        }
+        strength = UNIQUE5.get(rankMask);
+        if (strength != 0) {
+            return strength;
+        }
+        return pairedStrength(c1, c2, c3, c4, c5);
+    }
+
+    private static int pairedStrength(int c1, int c2, int c3, int c4, int c5) {
+        int product = (c1 & 0xFF) * (c2 & 0xFF) * (c3 & 0xFF) * (c4 & 0xFF) * (c5 & 0xFF);
+        return HASH_VALUES.get(hashSlot(product));
+    }
+
+    /**
+     * Return the strength of a flush that repeats a card, which cannot be dealt from a
+     * deck but can be built by hand. Four of a kind and full house still outrank the
+     * flush; otherwise the flush is tie-broken by its five ranks, highest first.
+     */
+    private static int repeatedCardFlush(int c1, int c2, int c3, int c4, int c5) {
+        int strength = pairedStrength(c1, c2, c3, c4, c5);
+        if (getPokerRank(strength).compareTo(PokerRank.FULL_HOUSE) >= 0) {
+            return strength;
+        }
+        int[] ranks = {(c1 >>> 8) & 0xF, (c2 >>> 8) & 0xF, (c3 >>> 8) & 0xF, (c4 >>> 8) & 0xF, (c5 >>> 8) & 0xF};
+        Arrays.sort(ranks);
+        return strength(PokerRank.FLUSH, ranks[4], ranks[3], ranks[2], ranks[1], ranks[0]);
+    }
+
+    /**
+     * Return the poker rank encoded in a strength.
+     * @param strength a strength returned by evaluate
+     * @return the poker rank of the strength
+     */
+    public static PokerRank getPokerRank(int strength) {
+        return PokerRank.values()[strength >>> CATEGORY_SHIFT];
+    }
+
+    private static int hashSlot(int product) {
+        int bucket = (product * BUCKET_MULTIPLIER) >>> (32 - HASH_BUCKET_BITS);
+        int base = (product * SLOT_MULTIPLIER) >>> (32 - HASH_SLOT_BITS);
+        return (base ^ HASH_DISPLACEMENTS.get(bucket)) & (NUM_HASH_SLOTS - 1);
+    }
+
+    /**
+     * Return the strength for a category and rank indexes, given in order of significance.
+     */
+    private static int strength(PokerRank pokerRank, int... rankIndexes) {
+        int strength = pokerRank.ordinal();
+        for (int i = 0; i < NUM_CARDS_IN_HAND; i++) {
+            strength = (strength << 4) | (i < rankIndexes.length ? rankIndexes[i] : 0);
+        }
+        return strength;
+    }
+
+    /**
+     * Return the rank indexes in a rank mask, highest first.
+     */
+    private static int[] ranksDescending(int rankMask) {
+        int[] ranks = new int[Integer.bitCount(rankMask)];
+        int i = 0;
+        for (int rank = NUM_RANKS - 1; rank >= 0; rank--) {
+            if ((rankMask & (1 << rank)) != 0) {
+                ranks[i++] = rank;
+            }
+        }
+        return ranks;
+    }
+
+    /**
+     * Return the highest rank index of a straight in a five-rank mask, or -1 if there is none.
+     */
+    private static int straightHighRank(int rankMask) {
+        if (rankMask == WHEEL_MASK) {
+            return Rank.FIVE.ordinal();
+        }
+        int lowest = Integer.numberOfTrailingZeros(rankMask);
+        if (rankMask == (0x1F << lowest)) {
+            return lowest + 4;
+        }
+        return -1;
+    }
+
+    private static void buildRankMaskTables(int[] flushes, int[] unique5) {
+        for (int rankMask = 0; rankMask < RANK_MASK_SIZE; rankMask++) {
+            if (Integer.bitCount(rankMask) != NUM_CARDS_IN_HAND) {
+                continue;
+            }
+            int straightHigh = straightHighRank(rankMask);
+            if (straightHigh >= 0) {
+                flushes[rankMask] = strength(PokerRank.STRAIGHT_FLUSH, straightHigh);
+                unique5[rankMask] = strength(PokerRank.STRAIGHT, straightHigh);
+            } else {
+                flushes[rankMask] = strength(PokerRank.FLUSH, ranksDescending(rankMask));
+                unique5[rankMask] = strength(PokerRank.NO_RANK, ranksDescending(rankMask));
+            }
+        }
+    }
+
+    /**
+     * Return the strength of a hand with at least one repeated rank.
+     */
+    private static int pairedStrength(int[] rankCounts) {
+        List<Integer> groups = new ArrayList<Integer>();
+        // order rank indexes by count, then by rank, highest first
+        for (int count = NUM_CARDS_IN_HAND; count >= 1; count--) {
+            for (int rank = NUM_RANKS - 1; rank >= 0; rank--) {
+                if (rankCounts[rank] == count) {
+                    groups.add(rank);
+                }
+            }
+        }
+        int[] ranks = new int[groups.size()];
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = groups.get(i);
+        }
+        int highestCount = rankCounts[ranks[0]];
+        int secondCount = ranks.length > 1 ? rankCounts[ranks[1]] : 0;
+        PokerRank pokerRank;
+        if (highestCount >= 4) {
+            pokerRank = PokerRank.FOUR_OF_A_KIND;
+        } else if (highestCount == 3 && secondCount == 2) {
+            pokerRank = PokerRank.FULL_HOUSE;
+        } else if (highestCount == 3) {
+            pokerRank = PokerRank.THREE_OF_A_KIND;
+        } else if (secondCount == 2) {
+            pokerRank = PokerRank.TWO_PAIRS;
+        } else {
+            pokerRank = PokerRank.ONE_PAIR;
+        }
+        return strength(pokerRank, ranks);
+    }
+
+    /**
+     * Build the perfect hash from rank prime products to strengths for all hands with
+     * a repeated rank. Keys are grouped into buckets, and each bucket is assigned a
+     * displacement that moves all of its keys into free slots, largest bucket first.
+     * @param hashDisplacements the displacement of each bucket, filled in by this method
+     * @param hashValues the strength in each slot, filled in by this method
+     * @return the bucket and slot multipliers of the hash
+     */
+    private static int[] buildPerfectHash(int[] hashDisplacements, int[] hashValues) {
+        List<int[]> entries = new ArrayList<int[]>();
+        int[] rankCounts = new int[NUM_RANKS];
+        collectPairedHands(0, 0, rankCounts, entries);
+
+        for (int i = 0; i < HASH_MULTIPLIERS.length; i++) {
+            for (int j = 0; j < HASH_MULTIPLIERS.length; j++) {
+                if (i != j && tryBuildPerfectHash(entries, HASH_MULTIPLIERS[i], HASH_MULTIPLIERS[j],
+                        hashDisplacements, hashValues)) {
+                    return new int[] {HASH_MULTIPLIERS[i], HASH_MULTIPLIERS[j]};
+                }
+            }
+        }
+        throw new IllegalStateException("Unable to build perfect hash for hand evaluation");
+    }
+
+    private static void collectPairedHands(int minRank, int numCards, int[] rankCounts, List<int[]> entries) {
+        if (numCards == NUM_CARDS_IN_HAND) {
+            int product = 1;
+            boolean paired = false;
+            for (int rank = 0; rank < NUM_RANKS; rank++) {
+                for (int i = 0; i < rankCounts[rank]; i++) {
+                    product *= PRIMES[rank];
+                }
+                paired |= rankCounts[rank] > 1;
+            }
+            if (paired) {
+                entries.add(new int[] {product, pairedStrength(rankCounts)});
+            }
+            return;
+        }
+        for (int rank = minRank; rank < NUM_RANKS; rank++) {
+            // a deck holds at most four cards of a rank, but hands built by hand may
+            // repeat a card, so every rank multiset is included
+            rankCounts[rank]++;
+            collectPairedHands(rank, numCards + 1, rankCounts, entries);
+            rankCounts[rank]--;
+        }
+    }
+
+    private static boolean tryBuildPerfectHash(List<int[]> entries, int bucketMultiplier, int slotMultiplier,
+                                               int[] hashDisplacements, int[] hashValues) {
+        int numBuckets = hashDisplacements.length;
+        List<List<int[]>> buckets = new ArrayList<List<int[]>>();
+        for (int i = 0; i < numBuckets; i++) {
+            buckets.add(new ArrayList<int[]>());
+        }
+        for (int[] entry : entries) {
+            buckets.get((entry[0] * bucketMultiplier) >>> (32 - HASH_BUCKET_BITS)).add(entry);
+        }
+        Integer[] order = new Integer[numBuckets];
+        for (int i = 0; i < numBuckets; i++) {
+            order[i] = i;
+        }
+        final List<List<int[]>> bucketList = buckets;
+        Arrays.sort(order, new java.util.Comparator<Integer>() {
+            public int compare(Integer bucket1, Integer bucket2) {
+                return bucketList.get(bucket2).size() - bucketList.get(bucket1).size();
+            }
+        });
+
+        Arrays.fill(hashDisplacements, 0);
+        Arrays.fill(hashValues, 0);
+        boolean[] used = new boolean[hashValues.length];
+        int slotMask = hashValues.length - 1;
+        int[] slots = new int[NUM_CARDS_IN_HAND * 4];
+        for (Integer bucket : order) {
+            List<int[]> bucketEntries = buckets.get(bucket);
+            if (bucketEntries.isEmpty()) {
+                break;
+            }
+            if (bucketEntries.size() > slots.length) {
+                return false;
+            }
+            boolean placed = false;
+            for (int displacement = 0; displacement < hashValues.length && !placed; displacement++) {
+                placed = true;
+                for (int i = 0; i < bucketEntries.size(); i++) {
+                    int base = (bucketEntries.get(i)[0] * slotMultiplier) >>> (32 - HASH_SLOT_BITS);
+                    slots[i] = (base ^ displacement) & slotMask;
+                    for (int j = 0; j < i; j++) {
+                        if (slots[j] == slots[i]) {
+                            placed = false;
+                        }
+                    }
+                    if (used[slots[i]]) {
+                        placed = false;
+                    }
+                    if (!placed) {
+                        break;
+                    }
+                }
+                if (placed) {
+                    hashDisplacements[bucket] = displacement;
+                    for (int i = 0; i < bucketEntries.size(); i++) {
+                        used[slots[i]] = true;
+                        hashValues[slots[i]] = bucketEntries.get(i)[1];
+                    }
+                }
+            }
+            if (!placed) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
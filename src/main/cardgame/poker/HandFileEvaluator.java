@@ -0,0 +1,358 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.Rank;
+import cardgame.common.Suit;
+import cardgame.common.Xoshiro256;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.IntStream;
+
+/**
+ * HandFileEvaluator scores a text file of poker hands, one hand per line in
+ * the shorthand of Hand.toString, such as "9H 10S JC QS KC", into a file of
+ * one fixed-width record per line: the poker rank, left-aligned, and the
+ * strength, right-aligned. A line that is not a hand of five to seven distinct
+ * cards is recorded as invalid with strength -1.
+ *
+ * The hand file is memory-mapped in chunks, and a chunk holds the lines that
+ * start in it, so chunks split the file at line boundaries. Cards are parsed
+ * from the mapped bytes through tables indexed by byte, without a String per
+ * card. A first parallel pass counts the lines of each chunk, which gives the
+ * place of each chunk's records in the record file; a second parallel pass
+ * evaluates the chunks and writes their records straight into the mapped
+ * record file, so chunks finish in any order.
+ *
+ * Run it with: java -cp bin cardgame.poker.HandFileEvaluator &lt;hands&gt;
+ * &lt;records&gt;, or generate a file of random hands with: java -cp bin
+ * cardgame.poker.HandFileEvaluator --generate &lt;hands&gt; &lt;count&gt; &lt;seed&gt;
+ */
+public class HandFileEvaluator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 16 << 20;
+    // no hand line comes close; a longer line is taken to be a corrupt file
+    public static final int MAX_LINE_LENGTH = 1 << 20;
+    public static final int MIN_NUM_CARDS = HandEvaluator.NUM_CARDS_IN_HAND;
+    public static final int MAX_NUM_CARDS = BestHandEvaluator.MAX_NUM_CARDS;
+    // the counts returned hold invalid lines after the poker ranks
+    public static final int INVALID = PokerRank.values().length;
+
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final int NAME_WIDTH = 15;
+    private static final int STRENGTH_WIDTH = 8;
+    public static final int RECORD_LENGTH = NAME_WIDTH + 1 + STRENGTH_WIDTH + 1;
+
+    // rank and suit ordinals by byte, in upper and lower case, or -1
+    private static final int[] RANKS = new int[128];
+    private static final int[] SUITS = new int[128];
+    // record prefixes by poker rank ordinal, then invalid: the name padded
+    // to its column and a space
+    private static final byte[][] NAMES = new byte[INVALID + 1][];
+
+    static {
+        for (char c = 0; c < 128; c++) {
+            Rank rank = c == 'T' || c == 't' ? Rank.TEN : Rank.fromChar(c);
+            Suit suit = Suit.fromChar(c);
+            RANKS[c] = rank == null ? -1 : rank.ordinal();
+            SUITS[c] = suit == null ? -1 : suit.ordinal();
+        }
+        for (PokerRank pokerRank : PokerRank.values()) {
+            NAMES[pokerRank.ordinal()] = padded(pokerRank.toString());
+        }
+        NAMES[INVALID] = padded("invalid");
+    }
+
+    private HandFileEvaluator() {
+    }
+
+    private static byte[] padded(String name) {
+        return String.format("%-" + NAME_WIDTH + "s ", name).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Score every hand of a hand file into a record file, replacing it.
+     * @param hands the hand file
+     * @param records the record file
+     * @return the number of lines of each poker rank, indexed by ordinal,
+     * followed by the number of invalid lines at INVALID
+     * @throws IOException if a file cannot be read or written, or a line is
+     * longer than MAX_LINE_LENGTH
+     */
+    public static long[] evaluate(Path hands, Path records) throws IOException {
+        return evaluate(hands, records, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Score every hand of a hand file into a record file, replacing it.
+     * @param hands the hand file
+     * @param records the record file
+     * @param chunkSize the number of bytes of the hand file in each chunk
+     * @return the number of lines of each poker rank, indexed by ordinal,
+     * followed by the number of invalid lines at INVALID
+     * @throws IOException if a file cannot be read or written, or a line is
+     * longer than MAX_LINE_LENGTH
+     */
+    public static long[] evaluate(Path hands, Path records, int chunkSize) throws IOException {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Expected a chunk size of at least 1 but got " + chunkSize);
+        }
+        try (FileChannel in = FileChannel.open(hands, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(records, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            int numChunks = (int) ((size + chunkSize - 1) / chunkSize);
+            // the first line of each chunk, then the number of lines
+            long[] firstLines = new long[numChunks + 1];
+            IntStream.range(0, numChunks).parallel()
+                    .forEach(chunk -> firstLines[chunk + 1] = countLines(in, size, chunk, chunkSize));
+            for (int chunk = 0; chunk < numChunks; chunk++) {
+                firstLines[chunk + 1] += firstLines[chunk];
+            }
+            long recordsSize = firstLines[numChunks] * RECORD_LENGTH;
+            if (recordsSize > 0) {
+                // size the record file up front, so that mapping a chunk's
+                // records never grows it while other chunks are written
+                out.write(ByteBuffer.wrap(new byte[1]), recordsSize - 1);
+            }
+            return IntStream.range(0, numChunks).parallel().mapToObj(chunk -> evaluateChunk(in, out, size, chunk,
+                    chunkSize, firstLines[chunk], (int) (firstLines[chunk + 1] - firstLines[chunk]))).collect(
+                    () -> new long[INVALID + 1],
+                    HandFileEvaluator::addCounts,
+                    HandFileEvaluator::addCounts);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void addCounts(long[] counts, long[] other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other[i];
+        }
+    }
+
+    /**
+     * Map a chunk from the byte before it, so that whether a line starts at
+     * its first byte can be told, to the given end.
+     */
+    private static MappedByteBuffer mapChunk(FileChannel in, long start, long to) {
+        long from = Math.max(0, start - 1);
+        try {
+            return in.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Return the number of lines that start in a chunk. A line starts at the
+     * beginning of the file and after every newline but the last byte.
+     */
+    private static long countLines(FileChannel in, long size, int chunk, int chunkSize) {
+        long start = (long) chunk * chunkSize;
+        long end = Math.min(size, start + chunkSize);
+        MappedByteBuffer buffer = mapChunk(in, start, end);
+        long numLines = start == 0 ? 1 : 0;
+        // newlines before each byte of the chunk but the first
+        int offset = start == 0 ? 0 : 1;
+        int last = (int) (end - start) + offset - 1;
+        for (int i = 0; i < last; i++) {
+            if (buffer.get(i) == '\n') {
+                numLines++;
+            }
+        }
+        return numLines;
+    }
+
+    /**
+     * Evaluate the lines that start in a chunk and write their records.
+     */
+    private static long[] evaluateChunk(FileChannel in, FileChannel out, long size, int chunk, int chunkSize,
+            long firstLine, int numLines) {
+        long[] counts = new long[INVALID + 1];
+        if (numLines == 0) {
+            return counts;
+        }
+        long start = (long) chunk * chunkSize;
+        long end = Math.min(size, start + chunkSize);
+        // map as far as the last line may run
+        MappedByteBuffer buffer = mapChunk(in, start, Math.min(size, end + MAX_LINE_LENGTH));
+        MappedByteBuffer records = mapRecords(out, firstLine, numLines);
+        int offset = start == 0 ? 0 : 1;
+        int chunkEnd = (int) (end - start) + offset;
+        int limit = buffer.capacity();
+        byte[] record = new byte[RECORD_LENGTH];
+        long line = firstLine;
+
+        // skip to the first line that starts in the chunk
+        int lineStart = 0;
+        if (offset == 1) {
+            while (lineStart < chunkEnd && buffer.get(lineStart) != '\n') {
+                lineStart++;
+            }
+            lineStart++;
+        }
+        while (lineStart < chunkEnd) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && buffer.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == limit && start - offset + limit < size) {
+                throw new UncheckedIOException(new IOException(
+                        "Line " + (line + 1) + " is longer than " + MAX_LINE_LENGTH + " bytes"));
+            }
+            int strength = evaluateLine(buffer, lineStart, lineEnd);
+            int index = strength < 0 ? INVALID : strength >>> HandEvaluator.CATEGORY_SHIFT;
+            counts[index]++;
+            putRecord(records, record, index, strength);
+            lineStart = lineEnd + 1;
+            line++;
+        }
+        return counts;
+    }
+
+    private static MappedByteBuffer mapRecords(FileChannel out, long firstLine, int numLines) {
+        try {
+            return out.map(FileChannel.MapMode.READ_WRITE, firstLine * RECORD_LENGTH,
+                    (long) numLines * RECORD_LENGTH);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void putRecord(ByteBuffer records, byte[] record, int index, int strength) {
+        System.arraycopy(NAMES[index], 0, record, 0, NAME_WIDTH + 1);
+        int position = RECORD_LENGTH - 1;
+        record[position] = '\n';
+        int value = Math.abs(strength);
+        do {
+            record[--position] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value != 0);
+        if (strength < 0) {
+            record[--position] = '-';
+        }
+        while (position > NAME_WIDTH + 1) {
+            record[--position] = ' ';
+        }
+        records.put(record);
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /**
+     * Return the strength of the hand on a line, or -1 if it is not a hand of
+     * five to seven distinct cards, each a rank (10 or T for Ten) and a suit
+     * separated by spaces.
+     */
+    static int evaluateLine(ByteBuffer buffer, int from, int to) {
+        long cardBits = 0;
+        int numCards = 0;
+        int i = from;
+        while (true) {
+            while (i < to && isSpace(buffer.get(i))) {
+                i++;
+            }
+            if (i == to) {
+                break;
+            }
+            byte b = buffer.get(i++);
+            int rank;
+            if (b == '1' && i < to && buffer.get(i) == '0') {
+                rank = Rank.TEN.ordinal();
+                i++;
+            } else {
+                rank = b < 0 ? -1 : RANKS[b];
+            }
+            if (rank < 0 || i == to) {
+                return -1;
+            }
+            b = buffer.get(i++);
+            int suit = b < 0 ? -1 : SUITS[b];
+            if (suit < 0 || (i < to && !isSpace(buffer.get(i)))) {
+                return -1;
+            }
+            long bit = 1L << (suit * NUM_RANKS + rank);
+            if ((cardBits & bit) != 0 || ++numCards > MAX_NUM_CARDS) {
+                return -1;
+            }
+            cardBits |= bit;
+        }
+        if (numCards < MIN_NUM_CARDS) {
+            return -1;
+        }
+        return numCards == MIN_NUM_CARDS ? HandEvaluator.evaluate(cardBits) : BestHandEvaluator.evaluate(cardBits);
+    }
+
+    /**
+     * Write a hand file of random five-card hands, for trying out and timing
+     * the evaluator.
+     * @param hands the hand file, replaced if it exists
+     * @param numHands the number of hands
+     * @param seed the seed of the random hands
+     * @throws IOException if the file cannot be written
+     */
+    public static void generate(Path hands, long numHands, long seed) throws IOException {
+        Xoshiro256 random = new Xoshiro256(seed);
+        byte[][] cards = new byte[Card.NUM_CARDS][];
+        for (int id = 0; id < Card.NUM_CARDS; id++) {
+            cards[id] = Card.of(id).toString().getBytes(StandardCharsets.US_ASCII);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(hands), 1 << 16)) {
+            for (long hand = 0; hand < numHands; hand++) {
+                long cardBits = 0;
+                for (int i = 0; i < MIN_NUM_CARDS; i++) {
+                    int id;
+                    do {
+                        id = random.nextInt(Card.NUM_CARDS);
+                    } while ((cardBits & (1L << id)) != 0);
+                    cardBits |= 1L << id;
+                    if (i > 0) {
+                        out.write(' ');
+                    }
+                    out.write(cards[id]);
+                }
+                out.write('\n');
+            }
+        }
+    }
+
+    public static void main(String args[]) throws IOException {
+        if (args.length == 4 && args[0].equals("--generate")) {
+            generate(Paths.get(args[1]), Long.parseLong(args[2]), Long.parseLong(args[3]));
+            return;
+        }
+        if (args.length != 2) {
+            System.out.println("java cardgame.poker.HandFileEvaluator <hands> <records>");
+            System.out.println("java cardgame.poker.HandFileEvaluator --generate <hands> <count> <seed>");
+            return;
+        }
+        Path hands = Paths.get(args[0]);
+        long start = System.nanoTime();
+        long[] counts = evaluate(hands, Paths.get(args[1]));
+        long elapsed = System.nanoTime() - start;
+
+        long total = 0;
+        for (PokerRank pokerRank : PokerRank.values()) {
+            System.out.println(String.format("%-16s %12d", pokerRank, counts[pokerRank.ordinal()]));
+            total += counts[pokerRank.ordinal()];
+        }
+        System.out.println(String.format("%-16s %12d", "invalid", counts[INVALID]));
+        total += counts[INVALID];
+        System.out.println(String.format("\n%d lines in %.1f ms, %.1f million lines and %.0f MB per second",
+                total, elapsed / 1e6, total * 1e3 / elapsed, Files.size(hands) * 1e3 / elapsed));
+    }
+
+}
@@ -0,0 +1,267 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * HandHistoryReader streams the rounds of a hand-history file written by
+ * HandHistoryWriter, in the order they were played. See HandHistoryWriter
+ * for the file format.
+ */
+public class HandHistoryReader implements Closeable {
+
+    private static final int NUM_CARDS_IN_HAND = HandEvaluator.NUM_CARDS_IN_HAND;
+    private static final PokerRank[] POKER_RANKS = PokerRank.values();
+    // the type byte and the longest varint length
+    private static final int MAX_RECORD_PREFIX = 1 + 10;
+
+    private final Path path;
+    private final FileChannel channel;
+    private ByteBuffer buffer;
+    private boolean endOfFile;
+    private final Map<Integer, String> playerNames;
+
+    /**
+     * Open a hand-history file.
+     * @param path the hand-history file
+     * @throws IOException if the file cannot be read or is not a hand-history
+     * file of the current version
+     */
+    public HandHistoryReader(Path path) throws IOException {
+        this(path, HandHistoryWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Open a hand-history file.
+     * @param path the hand-history file
+     * @param bufferSize the number of bytes read from the file at a time
+     * @throws IOException if the file cannot be read or is not a hand-history
+     * file of the current version
+     */
+    public HandHistoryReader(Path path, int bufferSize) throws IOException {
+        this.path = path;
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        buffer = ByteBuffer.allocateDirect(Math.max(bufferSize, HandHistoryWriter.HEADER_SIZE));
+        buffer.flip();
+        playerNames = new HashMap<Integer, String>();
+        try {
+            if (!fill(HandHistoryWriter.HEADER_SIZE)) {
+                throw new IOException("Not a hand-history file: " + path);
+            }
+            checkHeader(buffer, path);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void checkHeader(ByteBuffer header, Path path) throws IOException {
+        if (header.getInt() != HandHistoryWriter.MAGIC) {
+            throw new IOException("Not a hand-history file: " + path);
+        }
+        int version = header.getInt();
+        if (version != HandHistoryWriter.VERSION) {
+            throw new IOException("Expected hand-history version " + HandHistoryWriter.VERSION
+                    + " but got " + version + ": " + path);
+        }
+    }
+
+    /**
+     * Return the length of a hand-history file up to the end of its last
+     * complete record, so that a record cut short by a crash can be dropped.
+     * @param channel the open file
+     * @param path the file, for error messages
+     * @return the length of the file without any incomplete last record
+     * @throws IOException if the file cannot be read or is not a hand-history
+     * file of the current version
+     */
+    static long validLength(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HandHistoryWriter.HEADER_SIZE);
+        long size = channel.size();
+        if (channel.read(header, 0) < HandHistoryWriter.HEADER_SIZE) {
+            throw new IOException("Not a hand-history file: " + path);
+        }
+        header.flip();
+        checkHeader(header, path);
+        ByteBuffer prefix = ByteBuffer.allocate(MAX_RECORD_PREFIX);
+        long position = HandHistoryWriter.HEADER_SIZE;
+        while (position < size) {
+            prefix.clear();
+            channel.read(prefix, position);
+            prefix.flip();
+            prefix.get();
+            long length;
+            try {
+                length = getVarint(prefix);
+            } catch (EOFException e) {
+                break;
+            }
+            long end = position + prefix.position() + length;
+            if (length < 0 || end > size) {
+                break;
+            }
+            position = end;
+        }
+        return position;
+    }
+
+    /**
+     * Make sure the buffer holds at least the given number of bytes, reading
+     * more of the file as needed.
+     * @return false if the file ends first
+     */
+    private boolean fill(int numBytes) throws IOException {
+        if (buffer.remaining() >= numBytes) {
+            return true;
+        }
+        if (buffer.capacity() < numBytes) {
+            ByteBuffer larger = ByteBuffer.allocateDirect(numBytes);
+            larger.put(buffer).flip();
+            buffer = larger;
+        }
+        buffer.compact();
+        while (buffer.position() < numBytes && !endOfFile) {
+            endOfFile = channel.read(buffer) < 0;
+        }
+        buffer.flip();
+        return buffer.remaining() >= numBytes;
+    }
+
+    /**
+     * Return the next round in the file.
+     * @return the next round, or null at the end of the file
+     * @throws IOException if the file cannot be read, or is corrupt or ends
+     * part way through a record
+     */
+    public RoundRecord next() throws IOException {
+        while (true) {
+            fill(MAX_RECORD_PREFIX);
+            if (!buffer.hasRemaining()) {
+                return null;
+            }
+            byte type = buffer.get();
+            long length;
+            try {
+                length = getVarint(buffer);
+            } catch (EOFException e) {
+                throw new IOException("Hand-history file ends part way through a record: " + path);
+            }
+            if (length < 0 || length > Integer.MAX_VALUE - MAX_RECORD_PREFIX) {
+                throw new IOException("Unexpected record length " + length + ": " + path);
+            }
+            if (!fill((int) length)) {
+                throw new IOException("Hand-history file ends part way through a record: " + path);
+            }
+            ByteBuffer body = buffer.slice(buffer.position(), (int) length);
+            buffer.position(buffer.position() + (int) length);
+            try {
+                if (type == HandHistoryWriter.PLAYER_RECORD) {
+                    readPlayer(body);
+                } else if (type == HandHistoryWriter.ROUND_RECORD) {
+                    return readRound(body);
+                }
+                // skip records of other types
+            } catch (EOFException | RuntimeException e) {
+                throw new IOException("Corrupt record in hand-history file: " + path, e);
+            }
+        }
+    }
+
+    private void readPlayer(ByteBuffer body) throws IOException {
+        int id = (int) getVarint(body);
+        byte[] name = new byte[body.remaining()];
+        body.get(name);
+        playerNames.put(id, new String(name, StandardCharsets.UTF_8));
+    }
+
+    private RoundRecord readRound(ByteBuffer body) throws IOException {
+        boolean finished = (body.get() & HandHistoryWriter.FINISHED) != 0;
+        long seed = body.getLong();
+        int numSeats = (int) getVarint(body);
+        if (numSeats < 1 || numSeats > HandHistoryWriter.MAX_SEATS) {
+            throw new IllegalStateException("Unexpected number of seats " + numSeats);
+        }
+        String[] names = new String[numSeats];
+        for (int seat = 0; seat < numSeats; seat++) {
+            int id = (int) getVarint(body);
+            names[seat] = playerNames.get(id);
+            if (names[seat] == null) {
+                throw new IllegalStateException("Unknown player id " + id);
+            }
+        }
+        int dealerSeat = (int) getVarint(body);
+        if (dealerSeat < 0 || dealerSeat >= numSeats) {
+            throw new IllegalStateException("Unexpected dealer seat " + dealerSeat);
+        }
+        int[] discardMasks = new int[numSeats];
+        byte[] dealt = new byte[numSeats * NUM_CARDS_IN_HAND];
+        byte[] drawn = new byte[numSeats * NUM_CARDS_IN_HAND];
+        PokerRank[] pokerRanks = null;
+        long winnerMask = 0;
+        if (finished) {
+            pokerRanks = new PokerRank[numSeats];
+            for (int seat = 0; seat < numSeats; seat++) {
+                getCards(body, dealt, seat * NUM_CARDS_IN_HAND, NUM_CARDS_IN_HAND);
+                discardMasks[seat] = body.get() & 0xFF;
+                if (discardMasks[seat] >= 1 << NUM_CARDS_IN_HAND) {
+                    throw new IllegalStateException("Unexpected discards " + discardMasks[seat]);
+                }
+                getCards(body, drawn, seat * NUM_CARDS_IN_HAND, Integer.bitCount(discardMasks[seat]));
+                pokerRanks[seat] = POKER_RANKS[body.get()];
+            }
+            winnerMask = getVarint(body);
+        } else {
+            for (int seat = 0; seat < numSeats; seat++) {
+                discardMasks[seat] = body.get() & 0xFF;
+            }
+        }
+        if (body.hasRemaining()) {
+            throw new IllegalStateException("Unexpected bytes at the end of a round record");
+        }
+        return new RoundRecord(seed, finished, names, dealerSeat, discardMasks, dealt, drawn, pokerRanks, winnerMask);
+    }
+
+    private static void getCards(ByteBuffer body, byte[] cards, int offset, int numCards) {
+        body.get(cards, offset, numCards);
+        for (int i = offset; i < offset + numCards; i++) {
+            if (cards[i] < 0 || cards[i] >= Card.NUM_CARDS) {
+                throw new IllegalStateException("Unexpected card id " + cards[i]);
+            }
+        }
+    }
+
+    /**
+     * Get an unsigned LEB128 varint.
+     * @throws EOFException if the buffer ends part way through the varint
+     */
+    static long getVarint(ByteBuffer buffer) throws EOFException {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            if (!buffer.hasRemaining()) {
+                throw new EOFException();
+            }
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
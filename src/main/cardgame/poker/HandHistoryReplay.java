@@ -0,0 +1,209 @@
+package cardgame.poker;
+
+import cardgame.common.CardSet;
+import cardgame.common.Player;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HandHistoryReplay plays recorded rounds again through FiveCardDraw, from
+ * each round's seed and the recorded discards, and checks that every seat is
+ * dealt and draws the recorded cards and ends with the recorded poker rank,
+ * and that the recorded seats win. Run against a hand history before a change
+ * to the evaluator or the game is deployed, it finds rounds the change would
+ * have scored differently.
+ *
+ * Files are replayed in parallel, each file in order on one thread.
+ *
+ * Run it with: java -cp bin cardgame.poker.HandHistoryReplay &lt;file&gt;...
+ */
+public class HandHistoryReplay {
+
+    // games kept per file for the seatings replayed most recently; a long
+    // history seats many more players than are ever at the tables at once
+    public static final int MAX_CACHED_GAMES = 64;
+
+    private HandHistoryReplay() {
+    }
+
+    /**
+     * Replay every round of the hand-history files, in parallel across files.
+     * @param paths the hand-history files
+     * @return the number of rounds replayed and the rounds that differed
+     * @throws IOException if a file cannot be read or is corrupt
+     */
+    public static ReplayResult replay(List<Path> paths) throws IOException {
+        try {
+            return paths.parallelStream().map(path -> {
+                try {
+                    return replay(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }).collect(ReplayResult::new, ReplayResult::merge, ReplayResult::merge);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Replay every round of a hand-history file, in order.
+     * @param path the hand-history file
+     * @return the number of rounds replayed and the rounds that differed
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public static ReplayResult replay(Path path) throws IOException {
+        ReplayResult result = new ReplayResult();
+        // a game for each recent seating, reused for its rounds, least
+        // recently used first
+        Map<List<String>, ReplayGame> games = new LinkedHashMap<List<String>, ReplayGame>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, ReplayGame> eldest) {
+                return size() > MAX_CACHED_GAMES;
+            }
+        };
+        try (HandHistoryReader reader = new HandHistoryReader(path)) {
+            ReplayGame game = null;
+            RoundRecord round;
+            while ((round = reader.next()) != null) {
+                if (game == null || !game.isSeating(round)) {
+                    List<String> seating = new ArrayList<String>(round.getNumSeats());
+                    for (int seat = 0; seat < round.getNumSeats(); seat++) {
+                        seating.add(round.getPlayerName(seat));
+                    }
+                    game = games.computeIfAbsent(seating, ReplayGame::new);
+                }
+                String mismatch = game.replay(round);
+                if (mismatch == null) {
+                    result.addMatch();
+                } else {
+                    result.addMismatch(path + " round " + result.getNumRounds() + ": " + mismatch);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * A headless game seating the players of a recorded round, whose agents
+     * discard as recorded.
+     */
+    private static class ReplayGame {
+
+        private final FiveCardDraw game;
+        private final Player[] seats;
+        private final RecordedDiscardAgent[] agents;
+
+        ReplayGame(List<String> seating) {
+            game = new FiveCardDraw();
+            game.setOut(null);
+            seats = new Player[seating.size()];
+            agents = new RecordedDiscardAgent[seating.size()];
+            for (int seat = 0; seat < seats.length; seat++) {
+                agents[seat] = new RecordedDiscardAgent(seat);
+                seats[seat] = game.addPlayer(seating.get(seat), agents[seat]);
+            }
+        }
+
+        /**
+         * Return whether the round seats the same players in the same order.
+         */
+        boolean isSeating(RoundRecord round) {
+            if (round.getNumSeats() != seats.length) {
+                return false;
+            }
+            for (int seat = 0; seat < seats.length; seat++) {
+                if (!round.getPlayerName(seat).equals(seats[seat].getName())) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Replay a round.
+         * @return how the round differed from the recording, or null if it did not
+         */
+        String replay(RoundRecord round) {
+            for (RecordedDiscardAgent agent : agents) {
+                agent.setRound(round);
+            }
+            game.replayRound(round.getSeed(), round.getDealerSeat());
+            boolean aborted = game.beforeRound() || game.round();
+            for (RecordedDiscardAgent agent : agents) {
+                if (agent.getMismatch() != null) {
+                    return agent.getMismatch();
+                }
+            }
+            if (aborted == round.isFinished()) {
+                return aborted ? "the cards ran out but the recorded round finished"
+                        : "the round finished but the cards ran out in the recorded round";
+            }
+            if (aborted) {
+                return null;
+            }
+
+            List<Player> ranking = game.afterRound();
+            int best = ((PokerHand) ranking.get(ranking.size() - 1).getHand()).getStrength();
+            for (int seat = 0; seat < seats.length; seat++) {
+                PokerHand hand = (PokerHand) seats[seat].getHand();
+                CardSet recorded = new CardSet();
+                for (int position = 0; position < HandEvaluator.NUM_CARDS_IN_HAND; position++) {
+                    if ((round.getDiscardMask(seat) & (1 << position)) == 0) {
+                        recorded.add(round.getDealtCard(seat, position));
+                    }
+                }
+                for (int i = 0; i < round.getNumDrawn(seat); i++) {
+                    recorded.add(round.getDrawnCard(seat, i));
+                }
+                if (!hand.getCardSet().equals(recorded)) {
+                    return "seat " + seat + " ended with " + hand + " but the recorded hand was " + recorded;
+                }
+                int strength = hand.getStrength();
+                PokerRank pokerRank = HandEvaluator.getPokerRank(strength);
+                if (pokerRank != round.getPokerRank(seat)) {
+                    return "seat " + seat + " ended with " + pokerRank + " but the recorded rank was "
+                            + round.getPokerRank(seat);
+                }
+                if ((strength == best) != round.isWinner(seat)) {
+                    return "seat " + seat + (strength == best ? " won but lost" : " lost but won")
+                            + " in the recorded round";
+                }
+            }
+            return null;
+        }
+
+    }
+
+    public static void main(String args[]) throws IOException {
+        if (args.length < 1) {
+            System.out.println("java cardgame.poker.HandHistoryReplay <file>...");
+            return;
+        }
+        List<Path> paths = new ArrayList<Path>();
+        for (String arg : args) {
+            paths.add(Paths.get(arg));
+        }
+        long start = System.nanoTime();
+        ReplayResult result = replay(paths);
+        long elapsed = System.nanoTime() - start;
+
+        for (String mismatch : result.getMismatches()) {
+            System.out.println(mismatch);
+        }
+        System.out.println(String.format("%d rounds replayed, %d differed, in %.1f ms, %.0f rounds per second",
+                result.getNumRounds(), result.getNumMismatches(), elapsed / 1e6,
+                result.getNumRounds() * 1e9 / elapsed));
+        if (result.getNumMismatches() > 0) {
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,334 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.Player;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * HandHistoryWriter records every round of a Five Card Draw game to a compact
+ * binary hand-history file, as the game's RoundListener.
+ *
+ * A file starts with a magic number and the format version, as big-endian
+ * ints, followed by records. Each record is a type byte, the length of its
+ * body as a varint and the body, so readers can skip records they do not
+ * need. Varints are unsigned LEB128, and cards are one byte holding the card id.
+ * <ul>
+ * <li>A player record binds a player id to a name: the id as a varint, then
+ * the name in UTF-8. Ids are bound before their first round and may be bound
+ * again to another name later in the file.</li>
+ * <li>A round record holds a flags byte, the round's seed as a big-endian
+ * long, the number of seats and each seat's player id as varints, and the
+ * dealer's seat as a varint. A finished round then holds, for each seat, the
+ * five dealt cards, a byte with one bit per discarded position, the cards
+ * drawn in order and the ordinal of the final PokerRank, followed by the
+ * winning seats as a varint with one bit per seat. A round aborted because
+ * the cards ran out holds only each seat's discard byte, 0xFF for a seat that
+ * did not discard. A round has at most 64 seats.</li>
+ * </ul>
+ *
+ * Records are gathered in a buffer and written to the file channel when it is
+ * full. The file is forced to disk whenever the given number of bytes has been
+ * written since it was last forced, and on sync and close, so a crash loses at
+ * most that much history. When an existing file is opened, a record cut short
+ * by a crash is dropped and new records are appended.
+ */
+public class HandHistoryWriter implements RoundListener, Closeable {
+
+    public static final String FILE_PROPERTY = "cardgame.poker.handHistory";
+
+    // "CGHH"
+    public static final int MAGIC = 0x43474848;
+    // increase when the record layout or the meaning of a field changes;
+    // in version 1, a round's seed did not fix its deal, as the deck was
+    // reshuffled from the previous round's order
+    public static final int VERSION = 2;
+    public static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    public static final byte PLAYER_RECORD = 1;
+    public static final byte ROUND_RECORD = 2;
+    public static final int FINISHED = 1;
+    public static final int NO_DISCARDS = 0xFF;
+    // the winning seats are one bit each in a long
+    public static final int MAX_SEATS = Long.SIZE;
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+    public static final long DEFAULT_SYNC_INTERVAL = 1 << 24;
+
+    private static final int NUM_CARDS_IN_HAND = HandEvaluator.NUM_CARDS_IN_HAND;
+    // flags, seed, and the largest varints of the seat count, dealer and winners
+    private static final int MAX_FIXED_ROUND_SIZE = 1 + Long.BYTES + 3 * 10;
+    // player id, dealt cards, discards, drawn cards and poker rank
+    private static final int MAX_SEAT_SIZE = 5 + 2 * NUM_CARDS_IN_HAND + 2;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final long syncInterval;
+    private long unsyncedBytes;
+    private final Map<String, Integer> playerIds;
+    private ByteBuffer record;
+
+    // the round being played
+    private boolean started;
+    private long seed;
+    private List<Player> seats;
+    private int dealerSeat;
+    private byte[] dealt;
+    private int[] discardMasks;
+    private byte[] drawn;
+    private int[] numDrawn;
+
+    /**
+     * Open a hand-history file for appending, creating it if it does not
+     * exist, with the default buffer size and sync interval.
+     * @param path the hand-history file
+     * @throws IOException if the file cannot be opened or is not a hand-history
+     * file of the current version
+     */
+    public HandHistoryWriter(Path path) throws IOException {
+        this(path, DEFAULT_BUFFER_SIZE, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Open a hand-history file for appending, creating it if it does not exist.
+     * @param path the hand-history file
+     * @param bufferSize the number of bytes gathered before writing to the file
+     * @param syncInterval the number of bytes written between forcing the file to disk
+     * @throws IOException if the file cannot be opened or is not a hand-history
+     * file of the current version
+     */
+    public HandHistoryWriter(Path path, int bufferSize, long syncInterval) throws IOException {
+        if (bufferSize < HEADER_SIZE) {
+            throw new IllegalArgumentException("Buffer size " + bufferSize + " is too small");
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.syncInterval = syncInterval;
+        playerIds = new HashMap<String, Integer>();
+        record = ByteBuffer.allocate(256);
+        dealt = new byte[0];
+        drawn = new byte[0];
+        discardMasks = new int[0];
+        numDrawn = new int[0];
+        try {
+            if (channel.size() == 0) {
+                buffer.putInt(MAGIC).putInt(VERSION);
+            } else {
+                long end = HandHistoryReader.validLength(channel, path);
+                channel.truncate(end);
+                channel.position(end);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if there are more than MAX_SEATS seats
+     */
+    @Override
+    public void roundStarted(long seed, List<Player> seats, int dealerSeat) {
+        if (seats.size() > MAX_SEATS) {
+            throw new IllegalArgumentException("Cannot record a round of " + seats.size() + " seats");
+        }
+        started = true;
+        this.seed = seed;
+        this.seats = seats;
+        this.dealerSeat = dealerSeat;
+        int numSeats = seats.size();
+        if (discardMasks.length < numSeats) {
+            dealt = new byte[numSeats * NUM_CARDS_IN_HAND];
+            drawn = new byte[numSeats * NUM_CARDS_IN_HAND];
+            discardMasks = new int[numSeats];
+            numDrawn = new int[numSeats];
+        }
+        Arrays.fill(discardMasks, 0, numSeats, NO_DISCARDS);
+        Arrays.fill(numDrawn, 0, numSeats, 0);
+    }
+
+    @Override
+    public void discarded(int seat, PokerHand hand, int discardMask) {
+        for (int i = 0; i < NUM_CARDS_IN_HAND; i++) {
+            dealt[seat * NUM_CARDS_IN_HAND + i] = (byte) hand.getCard(i).getId();
+        }
+        discardMasks[seat] = discardMask;
+    }
+
+    @Override
+    public void drew(int seat, Card card) {
+        drawn[seat * NUM_CARDS_IN_HAND + numDrawn[seat]++] = (byte) card.getId();
+    }
+
+    @Override
+    public void roundFinished(List<Player> ranking) {
+        if (!started) {
+            return;
+        }
+        int best = ((PokerHand) ranking.get(ranking.size() - 1).getHand()).getStrength();
+        long winners = 0;
+        startRound(FINISHED);
+        for (int seat = 0; seat < seats.size(); seat++) {
+            record.put(dealt, seat * NUM_CARDS_IN_HAND, NUM_CARDS_IN_HAND);
+            record.put((byte) discardMasks[seat]);
+            record.put(drawn, seat * NUM_CARDS_IN_HAND, numDrawn[seat]);
+            PokerHand hand = (PokerHand) seats.get(seat).getHand();
+            int strength = hand.getStrength();
+            record.put((byte) HandEvaluator.getPokerRank(strength).ordinal());
+            if (strength == best) {
+                winners |= 1L << seat;
+            }
+        }
+        putVarint(record, winners);
+        endRound();
+    }
+
+    @Override
+    public void roundAborted() {
+        if (!started) {
+            return;
+        }
+        startRound(0);
+        for (int seat = 0; seat < seats.size(); seat++) {
+            record.put((byte) discardMasks[seat]);
+        }
+        endRound();
+    }
+
+    /**
+     * Write player records for new players, then start the round record.
+     */
+    private void startRound(int flags) {
+        for (Player player : seats) {
+            if (!playerIds.containsKey(player.getName())) {
+                int id = playerIds.size();
+                playerIds.put(player.getName(), id);
+                byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+                record = ensureCapacity(record, 10 + name.length);
+                record.clear();
+                putVarint(record, id);
+                record.put(name);
+                write(PLAYER_RECORD);
+            }
+        }
+        record = ensureCapacity(record, MAX_FIXED_ROUND_SIZE + seats.size() * MAX_SEAT_SIZE);
+        record.clear();
+        record.put((byte) flags);
+        record.putLong(seed);
+        putVarint(record, seats.size());
+        for (Player player : seats) {
+            putVarint(record, playerIds.get(player.getName()));
+        }
+        putVarint(record, dealerSeat);
+    }
+
+    private void endRound() {
+        write(ROUND_RECORD);
+        started = false;
+    }
+
+    /**
+     * Append the record being built, with its type and length, to the buffer.
+     */
+    private void write(byte type) {
+        record.flip();
+        int size = 1 + varintSize(record.remaining()) + record.remaining();
+        try {
+            if (buffer.remaining() < size) {
+                flush();
+            }
+            if (buffer.remaining() < size) {
+                // larger than the buffer; write it directly
+                ByteBuffer large = ByteBuffer.allocate(size);
+                large.put(type);
+                putVarint(large, record.remaining());
+                large.put(record).flip();
+                writeFully(large);
+            } else {
+                buffer.put(type);
+                putVarint(buffer, record.remaining());
+                buffer.put(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Write the buffer to the file, forcing the file to disk if the sync
+     * interval has passed.
+     * @throws IOException if the file cannot be written
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+        if (unsyncedBytes >= syncInterval) {
+            channel.force(false);
+            unsyncedBytes = 0;
+        }
+    }
+
+    private void writeFully(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            unsyncedBytes += channel.write(source);
+        }
+    }
+
+    /**
+     * Write the buffered records and force the file to disk.
+     * @throws IOException if the file cannot be written
+     */
+    public void sync() throws IOException {
+        flush();
+        channel.force(false);
+        unsyncedBytes = 0;
+    }
+
+    /**
+     * Write the buffered records, force the file to disk and close it.
+     * @throws IOException if the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int capacity) {
+        return buffer.capacity() >= capacity ? buffer : ByteBuffer.allocate(Math.max(capacity, 2 * buffer.capacity()));
+    }
+
+    /**
+     * Put a value as an unsigned LEB128 varint: seven bits per byte, lowest
+     * first, with the high bit set on every byte but the last.
+     */
+    static void putVarint(ByteBuffer buffer, long value) {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            buffer.put((byte) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        buffer.put((byte) remaining);
+    }
+
+    static int varintSize(long value) {
+        return Math.max(1, (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7);
+    }
+
+}
@@ -0,0 +1,313 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.Rank;
+import cardgame.common.Suit;
+
+import java.util.Arrays;
+
+/**
+ * HandRange is a weighted set of two-card starting holdings, such as the
+ * hands a player may hold in Texas Hold'em.
+ *
+ * Each holding is stored as the bits of its two cards in a long, next to its
+ * weight, so testing a holding against the board, dead cards or another
+ * holding is a single mask test. A range holds each holding at most once;
+ * adding a holding again replaces its weight.
+ *
+ * Ranges can be parsed from the usual notation: a comma-separated list of
+ * pairs (QQ), suited (AKs), offsuit (AKo) or both (AK) holdings, a plus for
+ * every higher pair or kicker (TT+, ATs+), a span of pairs or kickers
+ * (JJ-99, A9s-A6s), or exact cards (AhKh), each with an optional weight after
+ * a colon (AKo:0.5). T stands for Ten.
+ */
+public class HandRange {
+
+    private static final Rank[] RANKS = Rank.values();
+    private static final int NUM_RANKS = RANKS.length;
+    private static final Suit[] SUITS = Suit.values();
+    // 52 choose 2
+    public static final int MAX_HOLDINGS = Card.NUM_CARDS * (Card.NUM_CARDS - 1) / 2;
+
+    private long[] holdings;
+    private double[] weights;
+    private int size;
+
+    /**
+     * Construct an empty range.
+     */
+    public HandRange() {
+        holdings = new long[16];
+        weights = new double[16];
+    }
+
+    /**
+     * Parse a range from the usual notation; see the class comment.
+     * @param range the range, such as "QQ+, AKs, AQo:0.5, 7h6h"
+     * @return the parsed range
+     * @throws IllegalArgumentException if the range cannot be parsed
+     */
+    public static HandRange parse(String range) {
+        HandRange handRange = new HandRange();
+        for (String token : range.split(",")) {
+            String holding = token.trim();
+            if (holding.isEmpty()) {
+                continue;
+            }
+            double weight = 1;
+            int colon = holding.indexOf(':');
+            if (colon >= 0) {
+                try {
+                    weight = Double.parseDouble(holding.substring(colon + 1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid weight in " + holding, e);
+                }
+                holding = holding.substring(0, colon).trim();
+            }
+            handRange.addNotation(holding, weight);
+        }
+        return handRange;
+    }
+
+    /**
+     * Parse cards written as in a range, such as a board: each card is a rank
+     * and a suit, with T for Ten, optionally separated by spaces or commas.
+     * @param cards the cards, such as "AhKd7c" or "Ah Kd 7c"
+     * @return the bits of the cards, one bit per card id
+     * @throws IllegalArgumentException if the cards cannot be parsed or repeat a card
+     */
+    public static long parseCards(String cards) {
+        String compact = cards.replaceAll("[\\s,]", "");
+        if (compact.length() % 2 != 0) {
+            throw new IllegalArgumentException("Invalid cards " + cards);
+        }
+        long bits = 0;
+        for (int i = 0; i < compact.length(); i += 2) {
+            Suit suit = Suit.fromChar(compact.charAt(i + 1));
+            if (suit == null) {
+                throw new IllegalArgumentException("Invalid suit in " + cards);
+            }
+            long bit = CardSet.bit(Card.of(rank(compact.charAt(i), cards), suit));
+            if ((bits & bit) != 0) {
+                throw new IllegalArgumentException("Cards repeat a card: " + cards);
+            }
+            bits |= bit;
+        }
+        return bits;
+    }
+
+    private static Rank rank(char rankChar, String holding) {
+        Rank rank = rankChar == 'T' || rankChar == 't' ? Rank.TEN : Rank.fromChar(rankChar);
+        if (rank == null) {
+            throw new IllegalArgumentException("Invalid rank in " + holding);
+        }
+        return rank;
+    }
+
+    private void addNotation(String holding, double weight) {
+        if (holding.length() == 4 && Suit.fromChar(holding.charAt(1)) != null
+                && Suit.fromChar(holding.charAt(3)) != null) {
+            // exact cards, such as AhKh
+            Card first = Card.of(rank(holding.charAt(0), holding), Suit.fromChar(holding.charAt(1)));
+            Card second = Card.of(rank(holding.charAt(2), holding), Suit.fromChar(holding.charAt(3)));
+            if (first == second) {
+                throw new IllegalArgumentException("Holding repeats a card: " + holding);
+            }
+            add(CardSet.bit(first) | CardSet.bit(second), weight);
+            return;
+        }
+        boolean plus = holding.endsWith("+");
+        int dash = holding.indexOf('-');
+        int end = plus ? holding.length() - 1 : dash >= 0 ? dash : holding.length();
+        int[] from = ranks(holding.substring(0, end), holding);
+        int[] to = from;
+        if (dash >= 0) {
+            // a span such as JJ-99 or A9s-A6s, in either order
+            to = ranks(holding.substring(dash + 1), holding);
+            boolean pairs = from[0] == from[1] && to[0] == to[1];
+            if (from[2] != to[2] || !pairs && (from[0] != to[0] || from[1] == from[0] || to[1] == to[0])) {
+                throw new IllegalArgumentException("Invalid span " + holding);
+            }
+            if (from[1] > to[1]) {
+                int[] swap = from;
+                from = to;
+                to = swap;
+            }
+        } else if (plus) {
+            // a plus raises a pair to Aces and a kicker up to one below the high card
+            to = from[0] == from[1] ? new int[] {NUM_RANKS - 1, NUM_RANKS - 1, from[2]}
+                    : new int[] {from[0], from[0] - 1, from[2]};
+        }
+        int kind = from[2];
+        for (int low = from[1]; low <= to[1]; low++) {
+            int high = from[0] == from[1] ? low : from[0];
+            addRanks(high, low, kind != 'o', kind != 's', weight);
+        }
+    }
+
+    /**
+     * Parse two ranks and an optional s or o into the higher rank, the lower
+     * rank and the kind, a space if neither.
+     */
+    private static int[] ranks(String ranks, String holding) {
+        if (ranks.length() < 2 || ranks.length() > 3) {
+            throw new IllegalArgumentException("Invalid holding " + holding);
+        }
+        int first = rank(ranks.charAt(0), holding).ordinal();
+        int second = rank(ranks.charAt(1), holding).ordinal();
+        int kind = ranks.length() == 3 ? Character.toLowerCase(ranks.charAt(2)) : ' ';
+        if (kind != ' ' && (kind != 's' && kind != 'o' || first == second)) {
+            throw new IllegalArgumentException("Invalid holding " + holding);
+        }
+        return new int[] {Math.max(first, second), Math.min(first, second), kind};
+    }
+
+    /**
+     * Add every holding of two ranks, suited, offsuit or both.
+     */
+    private void addRanks(int high, int low, boolean suited, boolean offsuit, double weight) {
+        for (Suit first : SUITS) {
+            for (Suit second : SUITS) {
+                boolean sameSuit = first == second;
+                if ((sameSuit ? suited : offsuit) && (high != low || first.ordinal() < second.ordinal())) {
+                    add(CardSet.bit(Card.of(RANKS[high], first))
+                            | CardSet.bit(Card.of(RANKS[low], second)), weight);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add a holding, or replace its weight if the range already holds it.
+     * @param holding the bits of the two cards of the holding
+     * @param weight the weight of the holding, relative to the others; a
+     * holding of weight 0 is removed
+     * @return this range
+     */
+    public HandRange add(long holding, double weight) {
+        if (Long.bitCount(holding) != 2) {
+            throw new IllegalArgumentException("Expected a holding of 2 cards but got " + Long.bitCount(holding));
+        }
+        if (!(weight >= 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Invalid weight " + weight);
+        }
+        for (int i = 0; i < size; i++) {
+            if (holdings[i] == holding) {
+                if (weight == 0) {
+                    remove(i);
+                } else {
+                    weights[i] = weight;
+                }
+                return this;
+            }
+        }
+        if (weight > 0) {
+            if (size == holdings.length) {
+                holdings = Arrays.copyOf(holdings, 2 * size);
+                weights = Arrays.copyOf(weights, 2 * size);
+            }
+            holdings[size] = holding;
+            weights[size] = weight;
+            size++;
+        }
+        return this;
+    }
+
+    /**
+     * Add a holding of two cards with weight 1.
+     * @param first the first card
+     * @param second the second card
+     * @return this range
+     */
+    public HandRange add(Card first, Card second) {
+        return add(CardSet.bit(first) | CardSet.bit(second), 1);
+    }
+
+    private void remove(int index) {
+        size--;
+        holdings[index] = holdings[size];
+        weights[index] = weights[size];
+    }
+
+    /**
+     * Return the holdings that share no card with the given cards, such as
+     * the board and dead cards.
+     * @param cards the bits of the cards
+     * @return a new range without the holdings that hold any of the cards
+     */
+    public HandRange without(long cards) {
+        HandRange range = new HandRange();
+        for (int i = 0; i < size; i++) {
+            if ((holdings[i] & cards) == 0) {
+                range.add(holdings[i], weights[i]);
+            }
+        }
+        return range;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return the bits of the two cards of a holding.
+     * @param index the index of the holding, from 0 to size - 1
+     * @return the bits of the holding
+     */
+    public long getHolding(int index) {
+        return holdings[index];
+    }
+
+    public double getWeight(int index) {
+        return weights[index];
+    }
+
+    /**
+     * Return the weight of a holding.
+     * @param holding the bits of the two cards of the holding
+     * @return the weight, or 0 if the range does not hold it
+     */
+    public double getWeight(long holding) {
+        for (int i = 0; i < size; i++) {
+            if (holdings[i] == holding) {
+                return weights[i];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Return the sum of the weights of the holdings.
+     * @return the total weight
+     */
+    public double getTotalWeight() {
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            total += weights[i];
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder range = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                range.append(", ");
+            }
+            for (Card card : new CardSet(holdings[i])) {
+                // written as parsed, with T for Ten
+                range.append(card.getRank() == Rank.TEN ? "T" : card.getRank().toString()).append(card.getSuit());
+            }
+            if (weights[i] != 1) {
+                range.append(':').append(weights[i]);
+            }
+        }
+        return range.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package cardgame.poker;
+
+import cardgame.common.CardSet;
+import cardgame.common.Suit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * HeuristicDiscardAgent follows simple draw poker advice: stand pat on a
+ * straight or better, keep matched ranks and draw to them, draw one card to
+ * four of a suit, and otherwise keep the two highest cards.
+ */
+public class HeuristicDiscardAgent implements DiscardAgent {
+
+    private static final int NUM_CARDS_IN_FULL_HAND = 5;
+    private static final int NUM_HIGH_CARDS_KEPT = 2;
+
+    @Override
+    public List<Integer> chooseDiscards(PokerHand hand) {
+        List<Integer> discards = new ArrayList<Integer>();
+        PokerRank pokerRank = hand.getPokerRank();
+        if (pokerRank.compareTo(PokerRank.STRAIGHT) >= 0) {
+            return discards;
+        }
+        CardSet cardSet = hand.getCardSet();
+        if (pokerRank != PokerRank.NO_RANK) {
+            // discard the cards whose rank is not matched
+            for (int i = 0; i < NUM_CARDS_IN_FULL_HAND; i++) {
+                if (Integer.bitCount(cardSet.getSuitMask(hand.getCard(i).getRank())) == 1) {
+                    discards.add(i);
+                }
+            }
+            return discards;
+        }
+        for (Suit suit : Suit.values()) {
+            if (Integer.bitCount(cardSet.getRankMask(suit)) == NUM_CARDS_IN_FULL_HAND - 1) {
+                // draw to the flush
+                for (int i = 0; i < NUM_CARDS_IN_FULL_HAND; i++) {
+                    if (hand.getCard(i).getSuit() != suit) {
+                        discards.add(i);
+                    }
+                }
+                return discards;
+            }
+        }
+        // the hand is sorted, so the lowest cards come first
+        for (int i = 0; i < NUM_CARDS_IN_FULL_HAND - NUM_HIGH_CARDS_KEPT; i++) {
+            discards.add(i);
+        }
+        return discards;
+    }
+
+    @Override
+    public String toString() {
+        return "heuristic";
+    }
+
+}
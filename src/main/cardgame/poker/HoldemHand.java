@@ -0,0 +1,93 @@
+package cardgame.poker;
+
+import cardgame.common.CardSet;
+
+/**
+ * HoldemHand implements a player's two hole cards in Texas Hold'em.
+ *
+ * The board is shared by every seat at the table rather than copied into
+ * each hand: a hand holds only its hole cards and a reference to the board,
+ * and is ranked by the best five of its hole cards and the board. The
+ * strength is kept until the hole cards or the board change.
+ */
+public class HoldemHand extends PokerHand {
+
+    public static final int NUM_HOLE_CARDS = 2;
+
+    private final CardSet board;
+    // strength of the best five cards, or -1 if not yet evaluated since the
+    // hole cards changed
+    private int strength = -1;
+    // the board the strength was evaluated with
+    private long strengthBoardBits;
+
+    /**
+     * Construct a hold'em hand played with the given board.
+     * @param board the community cards, shared by all hands at the table
+     */
+    public HoldemHand(CardSet board) {
+        super(NUM_HOLE_CARDS);
+        this.board = board;
+    }
+
+    /**
+     * Return the board the hand is played with.
+     * @return the community cards
+     */
+    public CardSet getBoard() {
+        return board;
+    }
+
+    /**
+     * Return the strength of the best five of the hole cards and the board,
+     * as computed by BestHandEvaluator.
+     * @return the strength of the hand if both hole cards have been dealt
+     * and the board holds at least three cards; otherwise, -1
+     */
+    @Override
+    public int getStrength() {
+        long boardBits = board.getBits();
+        int numBoardCards = Long.bitCount(boardBits);
+        if (!isFullHand() || numBoardCards < BestHandEvaluator.MIN_NUM_CARDS - NUM_HOLE_CARDS
+                || numBoardCards > BestHandEvaluator.MAX_NUM_CARDS - NUM_HOLE_CARDS) {
+            // unexpected; nothing to do
+            return -1;
+        }
+        if (strength < 0 || strengthBoardBits != boardBits) {
+            strength = BestHandEvaluator.evaluate(getCardBits() | boardBits);
+            EvaluationMetrics.evaluated(strength);
+            strengthBoardBits = boardBits;
+        }
+        return strength;
+    }
+
+    @Override
+    protected void cardsChanged() {
+        super.cardsChanged();
+        strength = -1;
+    }
+
+    /**
+     * Return the poker rank of the best five of the hole cards and the board.
+     * @return the poker rank of the hand if it can be evaluated; otherwise, null
+     */
+    @Override
+    public PokerRank getPokerRank() {
+        int strength = getStrength();
+        return strength < 0 ? null : HandEvaluator.getPokerRank(strength);
+    }
+
+    @Override
+    public String toString() {
+        // show only the hole cards, and the rank once the board allows one
+        String hand = "";
+        for (int i = 0; i < NUM_HOLE_CARDS && getCard(i) != null; i++) {
+            hand = hand + getCard(i) + " ";
+        }
+        PokerRank pokerRank = getPokerRank();
+        if (pokerRank != null) {
+            hand = hand + pokerRank;
+        }
+        return hand;
+    }
+}
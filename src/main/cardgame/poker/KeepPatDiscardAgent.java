@@ -0,0 +1,21 @@
+package cardgame.poker;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * KeepPatDiscardAgent never discards, so it plays the hand it is dealt.
+ */
+public class KeepPatDiscardAgent implements DiscardAgent {
+
+    @Override
+    public List<Integer> chooseDiscards(PokerHand hand) {
+        return new ArrayList<Integer>();
+    }
+
+    @Override
+    public String toString() {
+        return "pat";
+    }
+
+}
@@ -0,0 +1,417 @@
+package cardgame.poker;
+
+import cardgame.common.Rank;
+import cardgame.common.Suit;
+
+import java.util.Arrays;
+
+/**
+ * OmahaEvaluator returns the strength of the best Omaha hand, which must use
+ * exactly two hole cards and three board cards, with the same strength
+ * encoding as HandEvaluator, and the best eight-or-better low for Omaha Hi/Lo.
+ *
+ * Evaluating every two of four hole cards with every three of five board
+ * cards takes 60 five-card evaluations. Instead, flushes are found per suit:
+ * at most one suit can hold three board cards, and its best flush is the two
+ * highest hole cards of the suit with the three highest board cards, unless
+ * a run of five of its ranks makes a straight flush. Every other hand depends
+ * only on ranks: for each distinct pair of hole ranks, six of four cards, the best
+ * three board cards are found category by category from masks of the board
+ * ranks held once, twice and three times, rather than by trying each board
+ * triple. A board without a pair cannot make a full house or four of a kind,
+ * so a flush is then returned without looking further.
+ *
+ * The low is read from masks of the low ranks alone. evaluateByEnumeration and
+ * evaluateLowByEnumeration try every combination instead, and are kept as
+ * the references to verify against.
+ */
+public final class OmahaEvaluator {
+
+    public static final int NUM_HOLE_CARDS_USED = 2;
+    public static final int NUM_BOARD_CARDS_USED = 3;
+    public static final int MIN_NUM_HOLE_CARDS = 4;
+    public static final int MAX_NUM_HOLE_CARDS = 6;
+    public static final int MIN_NUM_BOARD_CARDS = 3;
+    public static final int MAX_NUM_BOARD_CARDS = 5;
+    // returned by evaluateLow when no eight-or-better low can be made
+    public static final int NO_LOW = -1;
+
+    private static final int NUM_RANKS = Rank.values().length;
+    private static final int NUM_SUITS = Suit.values().length;
+    private static final int SUIT_MASK = (1 << NUM_RANKS) - 1;
+    private static final int SHIFT = HandEvaluator.CATEGORY_SHIFT;
+    // the five-high straight: Two, Three, Four, Five and Ace
+    private static final int WHEEL_MASK = 0x100F;
+    // Two to Eight, the ranks below Ace that count for a low
+    private static final int LOW_RANK_MASK = (1 << (Rank.EIGHT.ordinal() + 1)) - 1;
+
+    private OmahaEvaluator() {
+    }
+
+    private static void checkCards(long holeBits, long boardBits) {
+        int numHoleCards = Long.bitCount(holeBits);
+        int numBoardCards = Long.bitCount(boardBits);
+        if (numHoleCards < MIN_NUM_HOLE_CARDS || numHoleCards > MAX_NUM_HOLE_CARDS) {
+            throw new IllegalArgumentException("Expected " + MIN_NUM_HOLE_CARDS + " to " + MAX_NUM_HOLE_CARDS
+                    + " hole cards but got " + numHoleCards);
+        }
+        if (numBoardCards < MIN_NUM_BOARD_CARDS || numBoardCards > MAX_NUM_BOARD_CARDS) {
+            throw new IllegalArgumentException("Expected " + MIN_NUM_BOARD_CARDS + " to " + MAX_NUM_BOARD_CARDS
+                    + " board cards but got " + numBoardCards);
+        }
+        if ((holeBits & boardBits) != 0) {
+            throw new IllegalArgumentException("Hole cards and board share a card");
+        }
+    }
+
+    private static int suitMask(long cardBits, int suit) {
+        return (int) (cardBits >>> (suit * NUM_RANKS)) & SUIT_MASK;
+    }
+
+    /**
+     * Return the strength of the best Omaha hand: exactly two hole cards and
+     * exactly three board cards.
+     * @param holeBits the bits of four to six hole cards, one bit per card id
+     * @param boardBits the bits of three to five board cards, one bit per card id
+     * @return the strength of the best hand
+     */
+    public static int evaluate(long holeBits, long boardBits) {
+        checkCards(holeBits, boardBits);
+        int flush = 0;
+        for (int suit = 0; suit < NUM_SUITS; suit++) {
+            int boardSuit = suitMask(boardBits, suit);
+            int holeSuit = suitMask(holeBits, suit);
+            if (Integer.bitCount(boardSuit) >= NUM_BOARD_CARDS_USED
+                    && Integer.bitCount(holeSuit) >= NUM_HOLE_CARDS_USED) {
+                flush = flushStrength(holeSuit, boardSuit, suit);
+                // no other suit can hold three of five board cards
+                break;
+            }
+        }
+        if (HandEvaluator.getPokerRank(flush) == PokerRank.STRAIGHT_FLUSH) {
+            return flush;
+        }
+
+        int b0 = suitMask(boardBits, 0);
+        int b1 = suitMask(boardBits, 1);
+        int b2 = suitMask(boardBits, 2);
+        int b3 = suitMask(boardBits, 3);
+        int boardTwos = (b0 & b1) | (b2 & b3) | ((b0 | b1) & (b2 | b3));
+        if (flush != 0 && boardTwos == 0) {
+            // without a board pair there is no full house or four of a kind
+            return flush;
+        }
+        int boardOnes = b0 | b1 | b2 | b3;
+        int boardThrees = (b0 & b1 & (b2 | b3)) | (b2 & b3 & (b0 | b1));
+
+        int h0 = suitMask(holeBits, 0);
+        int h1 = suitMask(holeBits, 1);
+        int h2 = suitMask(holeBits, 2);
+        int h3 = suitMask(holeBits, 3);
+        int holeOnes = h0 | h1 | h2 | h3;
+        int holeTwos = (h0 & h1) | (h2 & h3) | ((h0 | h1) & (h2 | h3));
+
+        int best = flush;
+        // each distinct pair of hole ranks, then each hole pair
+        for (int a = holeOnes; a != 0; a &= a - 1) {
+            int low = Integer.numberOfTrailingZeros(a);
+            for (int b = a & (a - 1); b != 0; b &= b - 1) {
+                best = Math.max(best, bestWithHoleRanks(Integer.numberOfTrailingZeros(b), low,
+                        boardOnes, boardTwos, boardThrees));
+            }
+        }
+        for (int p = holeTwos; p != 0; p &= p - 1) {
+            best = Math.max(best, bestWithHolePair(Integer.numberOfTrailingZeros(p),
+                    boardOnes, boardTwos, boardThrees));
+        }
+        return best;
+    }
+
+    /**
+     * Return the best flush or straight flush of one suit, given the ranks of
+     * the suit in the hole and on the board.
+     */
+    private static int flushStrength(int holeSuit, int boardSuit, int suit) {
+        int suited = holeSuit | boardSuit;
+        for (int high = NUM_RANKS - 1; high >= Rank.FIVE.ordinal(); high--) {
+            int run = high == Rank.FIVE.ordinal() ? WHEEL_MASK : 0x1F << (high - 4);
+            // a run of suited ranks with two in the hole and three on the board
+            if ((suited & run) == run && Integer.bitCount(holeSuit & run) == NUM_HOLE_CARDS_USED) {
+                return (PokerRank.STRAIGHT_FLUSH.ordinal() << SHIFT) | (high << 16);
+            }
+        }
+        // otherwise the highest cards of each make the best flush
+        int ranks = highest(holeSuit, NUM_HOLE_CARDS_USED) | highest(boardSuit, NUM_BOARD_CARDS_USED);
+        return HandEvaluator.evaluate((long) ranks << (suit * NUM_RANKS));
+    }
+
+
+    private static int strength(PokerRank pokerRank, int ranks) {
+        return (pokerRank.ordinal() << SHIFT) | ranks;
+    }
+
+    private static int highest(int rankMask) {
+        return 31 - Integer.numberOfLeadingZeros(rankMask);
+    }
+
+    /**
+     * Return the mask of the n highest ranks in a rank mask.
+     */
+    private static int highest(int rankMask, int n) {
+        int highest = 0;
+        int remaining = rankMask;
+        for (int i = 0; i < n; i++) {
+            int bit = Integer.highestOneBit(remaining);
+            highest |= bit;
+            remaining &= ~bit;
+        }
+        return highest;
+    }
+
+    /**
+     * Return the strongest unsuited hand of a hole pair of rank x with three
+     * board cards, given the masks of board ranks held at least once, twice
+     * and three times. Each category is tried from the strongest down, and
+     * within a category each way of placing the ranks between the hole and
+     * the board.
+     */
+    private static int bestWithHolePair(int x, int ones, int twos, int threes) {
+        int xBit = 1 << x;
+        int others = ones & ~xBit;
+        if ((twos & xBit) != 0) {
+            return strength(PokerRank.FOUR_OF_A_KIND, (x << 16) | (BestHandEvaluator.top(others, 1) << 12));
+        }
+        int fullHouse = 0;
+        if ((ones & xBit) != 0 && (twos & ~xBit) != 0) {
+            fullHouse = strength(PokerRank.FULL_HOUSE, (x << 16) | (highest(twos & ~xBit) << 12));
+        }
+        if ((threes & ~xBit) != 0) {
+            fullHouse = Math.max(fullHouse, strength(PokerRank.FULL_HOUSE, (highest(threes & ~xBit) << 16) | (x << 12)));
+        }
+        if (fullHouse != 0) {
+            return fullHouse;
+        }
+        if ((ones & xBit) != 0) {
+            return strength(PokerRank.THREE_OF_A_KIND, (x << 16) | (BestHandEvaluator.top(others, 2) << 8));
+        }
+        if ((twos & ~xBit) != 0) {
+            int p = highest(twos & ~xBit);
+            int kicker = BestHandEvaluator.top(others & ~(1 << p), 1);
+            return strength(PokerRank.TWO_PAIRS, (Math.max(x, p) << 16) | (Math.min(x, p) << 12) | (kicker << 8));
+        }
+        return strength(PokerRank.ONE_PAIR, (x << 16) | (BestHandEvaluator.top(others, 3) << 4));
+    }
+
+    /**
+     * Return the strongest unsuited hand of hole cards of distinct ranks x
+     * and y, x the higher, with three board cards, given the masks of board
+     * ranks held at least once, twice and three times. Each category is tried
+     * from the strongest down, and within a category each way of placing the
+     * ranks between the hole and the board.
+     */
+    private static int bestWithHoleRanks(int x, int y, int ones, int twos, int threes) {
+        int xBit = 1 << x;
+        int yBit = 1 << y;
+        int hole = xBit | yBit;
+        int others = ones & ~hole;
+        if ((threes & xBit) != 0) {
+            return strength(PokerRank.FOUR_OF_A_KIND, (x << 16) | (y << 12));
+        }
+        if ((threes & yBit) != 0) {
+            return strength(PokerRank.FOUR_OF_A_KIND, (y << 16) | (x << 12));
+        }
+        if ((twos & xBit) != 0 && (ones & yBit) != 0) {
+            return strength(PokerRank.FULL_HOUSE, (x << 16) | (y << 12));
+        }
+        if ((twos & yBit) != 0 && (ones & xBit) != 0) {
+            return strength(PokerRank.FULL_HOUSE, (y << 16) | (x << 12));
+        }
+        // only runs that hold both hole ranks, with the other three on the board
+        for (int high = Math.min(y + 4, NUM_RANKS - 1); high >= Math.max(x, Rank.SIX.ordinal()); high--) {
+            if (((0x1F << (high - 4)) & ~hole & ~ones) == 0) {
+                return strength(PokerRank.STRAIGHT, high << 16);
+            }
+        }
+        if ((hole & ~WHEEL_MASK) == 0 && (WHEEL_MASK & ~hole & ~ones) == 0) {
+            return strength(PokerRank.STRAIGHT, Rank.FIVE.ordinal() << 16);
+        }
+
+        int trips = 0;
+        if ((twos & xBit) != 0 && others != 0) {
+            int kickers = yBit | Integer.highestOneBit(others);
+            trips = strength(PokerRank.THREE_OF_A_KIND, (x << 16) | (BestHandEvaluator.top(kickers, 2) << 8));
+        }
+        if ((twos & yBit) != 0 && others != 0) {
+            int kickers = xBit | Integer.highestOneBit(others);
+            trips = Math.max(trips, strength(PokerRank.THREE_OF_A_KIND,
+                    (y << 16) | (BestHandEvaluator.top(kickers, 2) << 8)));
+        }
+        if ((threes & ~hole) != 0) {
+            trips = Math.max(trips, strength(PokerRank.THREE_OF_A_KIND, (highest(threes & ~hole) << 16) | (x << 12) | (y << 8)));
+        }
+        if (trips != 0) {
+            return trips;
+        }
+
+        int twoPairs = 0;
+        if ((ones & hole) == hole && others != 0) {
+            twoPairs = strength(PokerRank.TWO_PAIRS, (x << 16) | (y << 12) | (highest(others) << 8));
+        }
+        int boardPairs = twos & ~hole;
+        int p = boardPairs == 0 ? -1 : highest(boardPairs);
+        if (p >= 0 && (ones & xBit) != 0) {
+            twoPairs = Math.max(twoPairs, strength(PokerRank.TWO_PAIRS,
+                    (Math.max(x, p) << 16) | (Math.min(x, p) << 12) | (y << 8)));
+        }
+        if (p >= 0 && (ones & yBit) != 0) {
+            twoPairs = Math.max(twoPairs, strength(PokerRank.TWO_PAIRS,
+                    (Math.max(y, p) << 16) | (Math.min(y, p) << 12) | (x << 8)));
+        }
+        if (twoPairs != 0) {
+            return twoPairs;
+        }
+
+        int onePair = 0;
+        if ((ones & xBit) != 0) {
+            onePair = strength(PokerRank.ONE_PAIR, (x << 16) | (BestHandEvaluator.top(yBit | highest(others, 2), 3) << 4));
+        }
+        if ((ones & yBit) != 0) {
+            onePair = Math.max(onePair, strength(PokerRank.ONE_PAIR,
+                    (y << 16) | (BestHandEvaluator.top(xBit | highest(others, 2), 3) << 4)));
+        }
+        if (p >= 0) {
+            int kicker = Integer.highestOneBit(others & ~(1 << p));
+            onePair = Math.max(onePair, strength(PokerRank.ONE_PAIR, (p << 16) | (BestHandEvaluator.top(hole | kicker, 3) << 4)));
+        }
+        if (onePair != 0) {
+            return onePair;
+        }
+        return strength(PokerRank.NO_RANK, BestHandEvaluator.top(hole | highest(others, 3), 5));
+    }
+
+    /**
+     * Return the ranks of cards that count toward a low, with Ace as bit 0
+     * and Two to Eight as bits 1 to 7.
+     */
+    private static int lowRanks(long cardBits) {
+        int ranks = 0;
+        for (int suit = 0; suit < NUM_SUITS; suit++) {
+            ranks |= suitMask(cardBits, suit);
+        }
+        return ((ranks & LOW_RANK_MASK) << 1) | ((ranks >>> Rank.ACE.ordinal()) & 1);
+    }
+
+    /**
+     * Return the best eight-or-better low of exactly two hole cards and
+     * exactly three board cards, with Ace low and straights and flushes not
+     * counting against a low. The low is a mask of its five ranks, with Ace
+     * as bit 0 and Two to Eight as bits 1 to 7, so comparing masks compares
+     * the highest ranks first and a lower mask is a better low.
+     * @param holeBits the bits of four to six hole cards, one bit per card id
+     * @param boardBits the bits of three to five board cards, one bit per card id
+     * @return the mask of the best low, or NO_LOW if none qualifies
+     */
+    public static int evaluateLow(long holeBits, long boardBits) {
+        checkCards(holeBits, boardBits);
+        int board = lowRanks(boardBits);
+        if (Integer.bitCount(board) < NUM_BOARD_CARDS_USED) {
+            return NO_LOW;
+        }
+        int hole = lowRanks(holeBits);
+        int best = NO_LOW;
+        for (int a = hole; a != 0; a &= a - 1) {
+            for (int b = a & (a - 1); b != 0; b &= b - 1) {
+                int pair = (a & -a) | (b & -b);
+                int remaining = board & ~pair;
+                if (Integer.bitCount(remaining) >= NUM_BOARD_CARDS_USED) {
+                    // with the hole ranks fixed, the lowest three board ranks are best
+                    int low = pair;
+                    for (int i = 0; i < NUM_BOARD_CARDS_USED; i++) {
+                        low |= remaining & -remaining;
+                        remaining &= remaining - 1;
+                    }
+                    if (best == NO_LOW || low < best) {
+                        best = low;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Return the strength of the best Omaha hand by evaluating every two hole
+     * cards with every three board cards. This is the reference that evaluate
+     * is verified against.
+     * @param holeBits the bits of four to six hole cards, one bit per card id
+     * @param boardBits the bits of three to five board cards, one bit per card id
+     * @return the strength of the best hand
+     */
+    public static int evaluateByEnumeration(long holeBits, long boardBits) {
+        checkCards(holeBits, boardBits);
+        int best = 0;
+        for (long holePair : subsets(holeBits, NUM_HOLE_CARDS_USED)) {
+            for (long boardTriple : subsets(boardBits, NUM_BOARD_CARDS_USED)) {
+                best = Math.max(best, HandEvaluator.evaluate(holePair | boardTriple));
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Return the best eight-or-better low by checking every two hole cards
+     * with every three board cards. This is the reference that evaluateLow is
+     * verified against.
+     * @param holeBits the bits of four to six hole cards, one bit per card id
+     * @param boardBits the bits of three to five board cards, one bit per card id
+     * @return the mask of the best low, or NO_LOW if none qualifies
+     */
+    public static int evaluateLowByEnumeration(long holeBits, long boardBits) {
+        checkCards(holeBits, boardBits);
+        int best = NO_LOW;
+        for (long holePair : subsets(holeBits, NUM_HOLE_CARDS_USED)) {
+            for (long boardTriple : subsets(boardBits, NUM_BOARD_CARDS_USED)) {
+                long hand = holePair | boardTriple;
+                int low = 0;
+                boolean qualifies = true;
+                for (long cards = hand; cards != 0; cards &= cards - 1) {
+                    int bit = lowRanks(cards & -cards);
+                    qualifies &= bit != 0 && (low & bit) == 0;
+                    low |= bit;
+                }
+                if (qualifies && (best == NO_LOW || low < best)) {
+                    best = low;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Return every subset of a number of cards from the given cards.
+     */
+    private static long[] subsets(long cardBits, int numCards) {
+        int n = Long.bitCount(cardBits);
+        long[] cards = new long[n];
+        long remaining = cardBits;
+        for (int i = 0; i < n; i++) {
+            cards[i] = remaining & -remaining;
+            remaining &= remaining - 1;
+        }
+        long[] subsets = new long[1 << n];
+        int numSubsets = 0;
+        for (int chosen = 0; chosen < 1 << n; chosen++) {
+            if (Integer.bitCount(chosen) == numCards) {
+                long subset = 0;
+                for (int i = 0; i < n; i++) {
+                    if ((chosen & (1 << i)) != 0) {
+                        subset |= cards[i];
+                    }
+                }
+                subsets[numSubsets++] = subset;
+            }
+        }
+        return Arrays.copyOf(subsets, numSubsets);
+    }
+
+}
@@ -0,0 +1,122 @@
+package cardgame.poker;
+
+import cardgame.common.CardSet;
+
+/**
+ * OmahaHand implements a player's hole cards in Omaha and Omaha Hi/Lo.
+ *
+ * As with HoldemHand, the board is shared by every seat rather than copied
+ * into each hand. A hand is ranked by the best hand of exactly two of its
+ * hole cards and exactly three board cards, as computed by OmahaEvaluator,
+ * and the strength is kept until the hole cards or the board change.
+ */
+public class OmahaHand extends PokerHand {
+
+    public static final int NUM_HOLE_CARDS = OmahaEvaluator.MIN_NUM_HOLE_CARDS;
+
+    private final CardSet board;
+    // strength of the best hand, or -1 if not yet evaluated since the hole
+    // cards changed
+    private int strength = -1;
+    // the board the strength was evaluated with
+    private long strengthBoardBits;
+
+    /**
+     * Construct an Omaha hand of four hole cards played with the given board.
+     * @param board the community cards, shared by all hands at the table
+     */
+    public OmahaHand(CardSet board) {
+        this(NUM_HOLE_CARDS, board);
+    }
+
+    /**
+     * Construct an Omaha hand played with the given board, such as of five or
+     * six hole cards for the Big O and six-card variants.
+     * @param numHoleCards the number of hole cards, four to six
+     * @param board the community cards, shared by all hands at the table
+     */
+    public OmahaHand(int numHoleCards, CardSet board) {
+        super(numHoleCards);
+        if (numHoleCards < OmahaEvaluator.MIN_NUM_HOLE_CARDS || numHoleCards > OmahaEvaluator.MAX_NUM_HOLE_CARDS) {
+            throw new IllegalArgumentException("Expected " + OmahaEvaluator.MIN_NUM_HOLE_CARDS + " to "
+                    + OmahaEvaluator.MAX_NUM_HOLE_CARDS + " hole cards but got " + numHoleCards);
+        }
+        this.board = board;
+    }
+
+    /**
+     * Return the board the hand is played with.
+     * @return the community cards
+     */
+    public CardSet getBoard() {
+        return board;
+    }
+
+    private boolean isBoardDealt() {
+        return board.size() >= OmahaEvaluator.MIN_NUM_BOARD_CARDS && board.size() <= OmahaEvaluator.MAX_NUM_BOARD_CARDS;
+    }
+
+    /**
+     * Return the strength of the best hand of two hole cards and three board
+     * cards, as computed by OmahaEvaluator.
+     * @return the strength of the hand if all hole cards have been dealt and
+     * the board holds at least three cards; otherwise, -1
+     */
+    @Override
+    public int getStrength() {
+        if (!isFullHand() || !isBoardDealt()) {
+            // unexpected; nothing to do
+            return -1;
+        }
+        long boardBits = board.getBits();
+        if (strength < 0 || strengthBoardBits != boardBits) {
+            strength = OmahaEvaluator.evaluate(getCardBits(), boardBits);
+            EvaluationMetrics.evaluated(strength);
+            strengthBoardBits = boardBits;
+        }
+        return strength;
+    }
+
+    /**
+     * Return the best eight-or-better low of two hole cards and three board
+     * cards, for Omaha Hi/Lo; a lower value is a better low.
+     * @return the low as computed by OmahaEvaluator.evaluateLow, or
+     * OmahaEvaluator.NO_LOW if none qualifies or the hand cannot be evaluated
+     */
+    public int getLow() {
+        if (!isFullHand() || !isBoardDealt()) {
+            return OmahaEvaluator.NO_LOW;
+        }
+        return OmahaEvaluator.evaluateLow(getCardBits(), board.getBits());
+    }
+
+    @Override
+    protected void cardsChanged() {
+        super.cardsChanged();
+        strength = -1;
+    }
+
+    /**
+     * Return the poker rank of the best hand of two hole cards and three board cards.
+     * @return the poker rank of the hand if it can be evaluated; otherwise, null
+     */
+    @Override
+    public PokerRank getPokerRank() {
+        int strength = getStrength();
+        return strength < 0 ? null : HandEvaluator.getPokerRank(strength);
+    }
+
+    @Override
+    public String toString() {
+        // show only the hole cards, and the rank once the board allows one
+        String hand = "";
+        for (int i = 0; i < getNumCardsInFullHand() && getCard(i) != null; i++) {
+            hand = hand + getCard(i) + " ";
+        }
+        PokerRank pokerRank = getPokerRank();
+        if (pokerRank != null) {
+            hand = hand + pokerRank;
+        }
+        return hand;
+    }
+}
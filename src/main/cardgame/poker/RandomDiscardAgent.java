@@ -0,0 +1,46 @@
+package cardgame.poker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * RandomDiscardAgent discards a random number of cards from random positions.
+ */
+public class RandomDiscardAgent implements DiscardAgent {
+
+    private static final int NUM_CARDS_IN_FULL_HAND = 5;
+
+    private final RandomGenerator random;
+
+    /**
+     * Construct a random discard agent.
+     * @param random the random source for choosing discards; it should not be
+     * shared with other threads
+     */
+    public RandomDiscardAgent(RandomGenerator random) {
+        this.random = random;
+    }
+
+    @Override
+    public List<Integer> chooseDiscards(PokerHand hand) {
+        int[] positions = {0, 1, 2, 3, 4};
+        int numDiscards = random.nextInt(NUM_CARDS_IN_FULL_HAND + 1);
+        List<Integer> discards = new ArrayList<Integer>();
+        // partial Fisher-Yates shuffle of the positions
+        for (int i = 0; i < numDiscards; i++) {
+            int j = i + random.nextInt(NUM_CARDS_IN_FULL_HAND - i);
+            int position = positions[j];
+            positions[j] = positions[i];
+            positions[i] = position;
+            discards.add(position);
+        }
+        return discards;
+    }
+
+    @Override
+    public String toString() {
+        return "random";
+    }
+
+}
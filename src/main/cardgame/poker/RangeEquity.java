@@ -0,0 +1,88 @@
+package cardgame.poker;
+
+/**
+ * RangeEquity holds the equity of one hand range against another, as computed
+ * by RangeEquityCalculator.
+ *
+ * Each pair of holdings that share no card counts with the product of their
+ * weights, over every runout of the board that shares no card with either. A
+ * tie counts as half a win.
+ */
+public class RangeEquity {
+
+    private final double winProbability;
+    private final double tieProbability;
+    private final long runouts;
+    private final boolean exact;
+    private final double halfWidth;
+
+    /**
+     * Construct a range equity.
+     * @param winProbability weighted probability that the first range wins outright
+     * @param tieProbability weighted probability that the ranges tie
+     * @param runouts number of board runouts evaluated
+     * @param exact whether every runout was evaluated
+     * @param halfWidth half-width of the confidence interval of the equity;
+     * 0 if exact
+     */
+    public RangeEquity(double winProbability, double tieProbability, long runouts, boolean exact, double halfWidth) {
+        this.winProbability = winProbability;
+        this.tieProbability = tieProbability;
+        this.runouts = runouts;
+        this.exact = exact;
+        this.halfWidth = halfWidth;
+    }
+
+    /**
+     * Return the probability that the first range wins outright.
+     * @return the probability that the first range wins outright
+     */
+    public double getWinProbability() {
+        return winProbability;
+    }
+
+    /**
+     * Return the probability that the ranges tie.
+     * @return the probability that the ranges tie
+     */
+    public double getTieProbability() {
+        return tieProbability;
+    }
+
+    /**
+     * Return the share of the pot the first range wins on average, counting
+     * a tie as half a win. The second range's equity is one minus this.
+     * @return the equity of the first range, between 0 and 1
+     */
+    public double getEquity() {
+        return winProbability + tieProbability / 2;
+    }
+
+    public long getRunouts() {
+        return runouts;
+    }
+
+    /**
+     * Return whether every runout was evaluated, rather than a sample.
+     * @return whether the equity is exact
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    /**
+     * Return the half-width of the 95% confidence interval of the equity, so
+     * the equity lies within getEquity() plus or minus getHalfWidth().
+     * @return the half-width of the confidence interval; 0 if exact
+     */
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("equity %.4f +/- %.4f  win %.4f  tie %.4f  (%d runouts, %s)",
+                getEquity(), halfWidth, winProbability, tieProbability, runouts, exact ? "exact" : "sampled");
+    }
+
+}
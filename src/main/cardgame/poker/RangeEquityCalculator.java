@@ -0,0 +1,500 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.CombinationSpliterator;
+import cardgame.common.Deck;
+import cardgame.common.RandomStreams;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * RangeEquityCalculator computes the equity of one Texas Hold'em hand range
+ * against another, for a board of zero to five cards.
+ *
+ * Holdings that share a card with the board or the dead cards are dropped
+ * once, by mask tests. For each runout of the board, every remaining holding
+ * of both ranges is evaluated once with BestHandEvaluator, the same ranking
+ * as PokerHand, into a sort key of strength and index. Walking both sorted
+ * ranges together, the weight of the second range below and level with each
+ * holding of the first is kept in total and per card, so the weight of the
+ * holdings that share no card with it is found by subtracting its two cards'
+ * weights and adding back an identical holding, rather than by testing every
+ * pair of holdings.
+ *
+ * When every runout takes no more than the exact limit of evaluations, all
+ * runouts are enumerated in colex order and the equity is exact. Otherwise
+ * runouts are dealt from a Deck in rounds of numbered tasks, as by
+ * EquityCalculator, until the confidence interval is narrow enough or the
+ * time budget is spent.
+ */
+public class RangeEquityCalculator {
+
+    public static final int DEFAULT_RUNOUTS_PER_TASK = 16;
+    // about a third of a second of evaluations on one core
+    public static final long DEFAULT_EXACT_LIMIT = 10_000_000L;
+
+    private static final int NUM_BOARD_CARDS = TexasHoldem.NUM_BOARD_CARDS;
+    // fixed so that rounds hold the same tasks whatever the parallelism
+    private static final int TASKS_PER_ROUND = 64;
+
+    private final ForkJoinPool pool;
+    private final RandomStreams streams;
+    private final int runoutsPerTask;
+    private final long exactLimit;
+
+    /**
+     * Construct a range equity calculator that runs on the common fork/join pool.
+     * @param seed the seed from which the random streams of all tasks are derived
+     */
+    public RangeEquityCalculator(long seed) {
+        this(ForkJoinPool.commonPool(), seed, DEFAULT_RUNOUTS_PER_TASK, DEFAULT_EXACT_LIMIT);
+    }
+
+    /**
+     * Construct a range equity calculator.
+     * @param pool the pool on which runouts are evaluated
+     * @param seed the seed from which the random streams of all tasks are derived
+     * @param runoutsPerTask number of runouts evaluated by each task
+     * @param exactLimit enumerate every runout when that takes at most this
+     * many hand evaluations; 0 to always sample
+     */
+    public RangeEquityCalculator(ForkJoinPool pool, long seed, int runoutsPerTask, long exactLimit) {
+        if (runoutsPerTask < 1) {
+            throw new IllegalArgumentException("Expected at least one runout per task but got " + runoutsPerTask);
+        }
+        this.pool = pool;
+        this.streams = new RandomStreams(seed);
+        this.runoutsPerTask = runoutsPerTask;
+        this.exactLimit = exactLimit;
+    }
+
+    /**
+     * Return n choose k.
+     */
+    private static long binomial(int n, int k) {
+        long binomial = 1;
+        for (int i = 1; i <= k; i++) {
+            binomial = binomial * (n - k + i) / i;
+        }
+        return binomial;
+    }
+
+    /**
+     * Return the next larger number with the same number of bits set, which
+     * is the next combination in colex order.
+     */
+    private static long next(long bits) {
+        long lowest = bits & -bits;
+        long ripple = bits + lowest;
+        return (((ripple ^ bits) >>> 2) / lowest) | ripple;
+    }
+
+    /**
+     * Compute the equity of the first range against the second.
+     * @param first the first range
+     * @param second the second range
+     * @param board the cards of the board dealt so far, at most five
+     * @param deadCards cards that are in neither range and cannot be dealt
+     * @param targetHalfWidth when sampling, stop once the 95% confidence
+     * interval of the equity is at most this far from the estimate
+     * @param timeBudgetNanos when sampling, stop once this much time has
+     * passed, even if the target has not been reached; at least one round of
+     * runouts always runs
+     * @return the equity of the first range
+     * @throws IllegalArgumentException if the board holds more than five cards
+     * or no pair of holdings can be dealt together
+     */
+    public RangeEquity calculate(HandRange first, HandRange second, CardSet board, CardSet deadCards,
+            double targetHalfWidth, long timeBudgetNanos) {
+        long start = System.nanoTime();
+        if (board.size() > NUM_BOARD_CARDS) {
+            throw new IllegalArgumentException("Expected at most " + NUM_BOARD_CARDS + " board cards but got "
+                    + board.size());
+        }
+        CardSet usedCards = board.union(deadCards);
+        Matchup matchup = new Matchup(first.without(usedCards.getBits()), second.without(usedCards.getBits()));
+        // a card held by every holding of a range is never dealt to the board;
+        // leaving it out keeps the runouts of every pair of holdings equally many
+        CardSet remaining = CardSet.fullDeck().difference(usedCards)
+                .difference(new CardSet(matchup.alwaysHeld()));
+        int numToCome = NUM_BOARD_CARDS - board.size();
+
+        long numRunouts = binomial(remaining.size(), numToCome);
+        long evaluations = numRunouts * (matchup.first.size() + matchup.second.size());
+        if (evaluations <= exactLimit) {
+            Tally tally = pool.invoke(new ExactTask(matchup, board.getBits(), remaining, numToCome, 0, numRunouts));
+            return tally.toRangeEquity(true);
+        }
+        Tally total = new Tally();
+        long firstTask = 0;
+        do {
+            total.merge(pool.invoke(new SampleTask(matchup, board.getBits(), remaining, numToCome,
+                    firstTask, firstTask + TASKS_PER_ROUND)));
+            firstTask += TASKS_PER_ROUND;
+        } while (total.halfWidth() > targetHalfWidth && System.nanoTime() - start < timeBudgetNanos);
+        return total.toRangeEquity(false);
+    }
+
+    /**
+     * Matchup holds the two ranges without the holdings that conflict with
+     * the board or dead cards, with the ids of each holding's cards.
+     */
+    private static class Matchup {
+
+        private final HandRange first;
+        private final HandRange second;
+        private final int[] firstLow;
+        private final int[] firstHigh;
+        private final int[] secondLow;
+        private final int[] secondHigh;
+        // by holding of the first range: the weight of the identical holding
+        // in the second range, or 0 if it holds none
+        private final double[] identicalWeights;
+
+        Matchup(HandRange first, HandRange second) {
+            this.first = first;
+            this.second = second;
+            firstLow = new int[first.size()];
+            firstHigh = new int[first.size()];
+            secondLow = new int[second.size()];
+            secondHigh = new int[second.size()];
+            identicalWeights = new double[first.size()];
+            boolean compatible = false;
+            for (int i = 0; i < first.size(); i++) {
+                long holding = first.getHolding(i);
+                firstLow[i] = Long.numberOfTrailingZeros(holding);
+                firstHigh[i] = 63 - Long.numberOfLeadingZeros(holding);
+                for (int j = 0; j < second.size(); j++) {
+                    long other = second.getHolding(j);
+                    if (other == holding) {
+                        identicalWeights[i] = second.getWeight(j);
+                    }
+                    compatible |= (other & holding) == 0;
+                }
+            }
+            if (!compatible) {
+                throw new IllegalArgumentException("No pair of holdings of the ranges can be dealt together");
+            }
+            for (int j = 0; j < second.size(); j++) {
+                secondLow[j] = Long.numberOfTrailingZeros(second.getHolding(j));
+                secondHigh[j] = 63 - Long.numberOfLeadingZeros(second.getHolding(j));
+            }
+        }
+
+        /**
+         * Return the bits of the cards held by every holding of either range.
+         */
+        long alwaysHeld() {
+            long firstCards = -1L;
+            for (int i = 0; i < first.size(); i++) {
+                firstCards &= first.getHolding(i);
+            }
+            long secondCards = -1L;
+            for (int j = 0; j < second.size(); j++) {
+                secondCards &= second.getHolding(j);
+            }
+            return firstCards | secondCards;
+        }
+    }
+
+    /**
+     * RunoutEvaluator evaluates both ranges on complete boards, reusing its
+     * keys and per-card weights from one board to the next.
+     */
+    private static class RunoutEvaluator {
+
+        private final Matchup matchup;
+        private final long[] firstKeys;
+        private final long[] secondKeys;
+        // weight of the second range per card: every holding, those weaker
+        // than the current holding and those level with it
+        private final double[] allCards = new double[Card.NUM_CARDS];
+        private final double[] belowCards = new double[Card.NUM_CARDS];
+        private final double[] levelCards = new double[Card.NUM_CARDS];
+
+        RunoutEvaluator(Matchup matchup) {
+            this.matchup = matchup;
+            firstKeys = new long[matchup.first.size()];
+            secondKeys = new long[matchup.second.size()];
+        }
+
+        /**
+         * Evaluate both ranges on a complete board and add the weights of the
+         * pairs of holdings that win, tie and are dealt to the tally.
+         */
+        void evaluate(long boardBits, Tally tally) {
+            HandRange first = matchup.first;
+            HandRange second = matchup.second;
+            int numFirst = 0;
+            for (int i = 0; i < first.size(); i++) {
+                long holding = first.getHolding(i);
+                if ((holding & boardBits) == 0) {
+                    firstKeys[numFirst++] = ((long) BestHandEvaluator.evaluate(holding | boardBits) << 32) | i;
+                }
+            }
+            int numSecond = 0;
+            double all = 0;
+            for (int j = 0; j < second.size(); j++) {
+                long holding = second.getHolding(j);
+                if ((holding & boardBits) == 0) {
+                    secondKeys[numSecond++] = ((long) BestHandEvaluator.evaluate(holding | boardBits) << 32) | j;
+                    double weight = second.getWeight(j);
+                    all += weight;
+                    allCards[matchup.secondLow[j]] += weight;
+                    allCards[matchup.secondHigh[j]] += weight;
+                }
+            }
+            Arrays.sort(firstKeys, 0, numFirst);
+            Arrays.sort(secondKeys, 0, numSecond);
+
+            double win = 0;
+            double tie = 0;
+            double dealt = 0;
+            double below = 0;
+            int j = 0;
+            int i = 0;
+            while (i < numFirst) {
+                int strength = (int) (firstKeys[i] >>> 32);
+                while (j < numSecond && (int) (secondKeys[j] >>> 32) < strength) {
+                    int index = (int) secondKeys[j];
+                    double weight = second.getWeight(index);
+                    below += weight;
+                    belowCards[matchup.secondLow[index]] += weight;
+                    belowCards[matchup.secondHigh[index]] += weight;
+                    j++;
+                }
+                double level = 0;
+                int levelEnd = j;
+                while (levelEnd < numSecond && (int) (secondKeys[levelEnd] >>> 32) == strength) {
+                    int index = (int) secondKeys[levelEnd];
+                    double weight = second.getWeight(index);
+                    level += weight;
+                    levelCards[matchup.secondLow[index]] += weight;
+                    levelCards[matchup.secondHigh[index]] += weight;
+                    levelEnd++;
+                }
+                for (; i < numFirst && (int) (firstKeys[i] >>> 32) == strength; i++) {
+                    int index = (int) firstKeys[i];
+                    double weight = first.getWeight(index);
+                    int low = matchup.firstLow[index];
+                    int high = matchup.firstHigh[index];
+                    // an identical holding has the same strength, so it is
+                    // level and subtracted twice, once per card
+                    double identical = matchup.identicalWeights[index];
+                    win += weight * (below - belowCards[low] - belowCards[high]);
+                    tie += weight * (level - levelCards[low] - levelCards[high] + identical);
+                    dealt += weight * (all - allCards[low] - allCards[high] + identical);
+                }
+                for (int k = j; k < levelEnd; k++) {
+                    int index = (int) secondKeys[k];
+                    levelCards[matchup.secondLow[index]] = 0;
+                    levelCards[matchup.secondHigh[index]] = 0;
+                }
+            }
+            // clear only the cards of the holdings added, which for narrow
+            // ranges are far fewer than the 52
+            for (int k = 0; k < numSecond; k++) {
+                int index = (int) secondKeys[k];
+                allCards[matchup.secondLow[index]] = 0;
+                allCards[matchup.secondHigh[index]] = 0;
+                belowCards[matchup.secondLow[index]] = 0;
+                belowCards[matchup.secondHigh[index]] = 0;
+            }
+            tally.add(win, tie, dealt);
+        }
+    }
+
+    /**
+     * ExactTask evaluates a range of runouts by colex index, splitting the
+     * range in half until it holds at most runoutsPerTask runouts.
+     */
+    private class ExactTask extends RecursiveTask<Tally> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Matchup matchup;
+        private final long boardBits;
+        private final CardSet remaining;
+        private final int numToCome;
+        private final long fromRunout;
+        private final long toRunout;
+
+        ExactTask(Matchup matchup, long boardBits, CardSet remaining, int numToCome, long fromRunout, long toRunout) {
+            this.matchup = matchup;
+            this.boardBits = boardBits;
+            this.remaining = remaining;
+            this.numToCome = numToCome;
+            this.fromRunout = fromRunout;
+            this.toRunout = toRunout;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (toRunout - fromRunout > runoutsPerTask) {
+                long middle = (fromRunout + toRunout) >>> 1;
+                ExactTask left = new ExactTask(matchup, boardBits, remaining, numToCome, fromRunout, middle);
+                left.fork();
+                Tally tally = new ExactTask(matchup, boardBits, remaining, numToCome, middle, toRunout).compute();
+                tally.merge(left.join());
+                return tally;
+            }
+            // combinations are of positions among the remaining cards; below
+            // n choose k, colex indexes only use the lowest n positions
+            long[] cardBits = new long[remaining.size()];
+            int position = 0;
+            for (Card card : remaining) {
+                cardBits[position++] = CardSet.bit(card);
+            }
+            Tally tally = new Tally();
+            RunoutEvaluator evaluator = new RunoutEvaluator(matchup);
+            long positions = CombinationSpliterator.unrank(numToCome, fromRunout);
+            for (long runout = fromRunout; runout < toRunout; runout++) {
+                long runoutBits = 0;
+                for (long rest = positions; rest != 0; rest &= rest - 1) {
+                    runoutBits |= cardBits[Long.numberOfTrailingZeros(rest)];
+                }
+                evaluator.evaluate(boardBits | runoutBits, tally);
+                if (positions != 0) {
+                    positions = next(positions);
+                }
+            }
+            return tally;
+        }
+    }
+
+    /**
+     * SampleTask evaluates the runouts of a range of numbered tasks, splitting
+     * the range in half until one task is left.
+     */
+    private class SampleTask extends RecursiveTask<Tally> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Matchup matchup;
+        private final long boardBits;
+        private final CardSet remaining;
+        private final int numToCome;
+        private final long fromTask;
+        private final long toTask;
+
+        SampleTask(Matchup matchup, long boardBits, CardSet remaining, int numToCome, long fromTask, long toTask) {
+            this.matchup = matchup;
+            this.boardBits = boardBits;
+            this.remaining = remaining;
+            this.numToCome = numToCome;
+            this.fromTask = fromTask;
+            this.toTask = toTask;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (toTask - fromTask > 1) {
+                long middle = (fromTask + toTask) >>> 1;
+                SampleTask left = new SampleTask(matchup, boardBits, remaining, numToCome, fromTask, middle);
+                left.fork();
+                Tally tally = new SampleTask(matchup, boardBits, remaining, numToCome, middle, toTask).compute();
+                tally.merge(left.join());
+                return tally;
+            }
+            return sample(streams.stream(fromTask));
+        }
+
+        private Tally sample(RandomGenerator random) {
+            Tally tally = new Tally();
+            RunoutEvaluator evaluator = new RunoutEvaluator(matchup);
+            Deck deck = new Deck(remaining, random);
+            for (int runout = 0; runout < runoutsPerTask; runout++) {
+                deck.reset();
+                long runoutBits = 0;
+                for (int k = 0; k < numToCome; k++) {
+                    runoutBits |= CardSet.bit(deck.drawCard());
+                }
+                evaluator.evaluate(boardBits | runoutBits, tally);
+            }
+            return tally;
+        }
+    }
+
+    /**
+     * Tally accumulates the weights of the pairs of holdings that win, tie
+     * and are dealt over runouts. The equity is a ratio of sums over runouts,
+     * so its confidence interval is estimated by the delta method.
+     */
+    private static class Tally {
+
+        private double wins;
+        private double ties;
+        private double shares;
+        private double dealt;
+        private double squaredShares;
+        private double squaredDealt;
+        private double sharesTimesDealt;
+        private long runouts;
+
+        void add(double win, double tie, double dealt) {
+            double share = win + tie / 2;
+            wins += win;
+            ties += tie;
+            shares += share;
+            this.dealt += dealt;
+            squaredShares += share * share;
+            squaredDealt += dealt * dealt;
+            sharesTimesDealt += share * dealt;
+            runouts++;
+        }
+
+        void merge(Tally other) {
+            wins += other.wins;
+            ties += other.ties;
+            shares += other.shares;
+            dealt += other.dealt;
+            squaredShares += other.squaredShares;
+            squaredDealt += other.squaredDealt;
+            sharesTimesDealt += other.sharesTimesDealt;
+            runouts += other.runouts;
+        }
+
+        double halfWidth() {
+            if (dealt == 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double equity = shares / dealt;
+            double meanDealt = dealt / runouts;
+            double variance = Math.max(0, (squaredShares - 2 * equity * sharesTimesDealt
+                    + equity * equity * squaredDealt) / runouts);
+            return EquityCalculator.Z_95 * Math.sqrt(variance / runouts) / meanDealt;
+        }
+
+        RangeEquity toRangeEquity(boolean exact) {
+            double win = dealt == 0 ? 0 : wins / dealt;
+            double tie = dealt == 0 ? 0 : ties / dealt;
+            return new RangeEquity(win, tie, runouts, exact, exact ? 0 : halfWidth());
+        }
+    }
+
+    /**
+     * Print the equity of one range against another, such as:
+     * RangeEquityCalculator "QQ+, AKs" "JJ-99, AQs+, AKo" "Ah 7d 2c"
+     * @param args the first range, the second range and optionally the board
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.out.println("RangeEquityCalculator <range> <range> [board]");
+            return;
+        }
+        HandRange first = HandRange.parse(args[0]);
+        HandRange second = HandRange.parse(args[1]);
+        CardSet board = new CardSet(args.length > 2 ? HandRange.parseCards(args[2]) : 0);
+        long start = System.nanoTime();
+        RangeEquity equity = new RangeEquityCalculator(System.nanoTime()).calculate(first, second, board,
+                new CardSet(), 0.001, TimeUnit.SECONDS.toNanos(1));
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.println(equity + " in " + millis + " ms");
+    }
+
+}
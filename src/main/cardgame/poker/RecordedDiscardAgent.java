@@ -0,0 +1,58 @@
+package cardgame.poker;
+
+import java.util.List;
+
+/**
+ * RecordedDiscardAgent discards as a seat did in a recorded round, for
+ * replaying hand histories. It also checks that the hand it is shown is the
+ * hand the seat was dealt.
+ */
+public class RecordedDiscardAgent implements DiscardAgent {
+
+    private final int seat;
+    private RoundRecord round;
+    private String mismatch;
+
+    /**
+     * Construct an agent for a seat.
+     * @param seat the seat whose recorded discards to replay
+     */
+    public RecordedDiscardAgent(int seat) {
+        this.seat = seat;
+    }
+
+    /**
+     * Set the round to replay, and forget any mismatch in the previous round.
+     * @param round the recorded round
+     */
+    public void setRound(RoundRecord round) {
+        this.round = round;
+        mismatch = null;
+    }
+
+    @Override
+    public List<Integer> chooseDiscards(PokerHand hand) {
+        if (round.getDiscardMask(seat) == HandHistoryWriter.NO_DISCARDS) {
+            mismatch = "seat " + seat + " was asked to discard but did not discard in the recorded round";
+        } else if (round.isFinished()) {
+            for (int position = 0; position < HandEvaluator.NUM_CARDS_IN_HAND; position++) {
+                if (hand.getCard(position).getId() != round.getDealtCard(seat, position).getId()) {
+                    mismatch = "seat " + seat + " was dealt " + hand + " but the recorded round dealt "
+                            + round.getDealtCard(seat, position) + " at position " + position;
+                    break;
+                }
+            }
+        }
+        return round.getDiscardPositions(seat);
+    }
+
+    /**
+     * Return how the replayed round first differed from the recording at
+     * this seat.
+     * @return a description of the difference, or null if none was found
+     */
+    public String getMismatch() {
+        return mismatch;
+    }
+
+}
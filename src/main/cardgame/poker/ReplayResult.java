@@ -0,0 +1,77 @@
+package cardgame.poker;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ReplayResult tallies the rounds replayed by HandHistoryReplay and keeps
+ * the first few rounds whose replay differed from the recording.
+ */
+public class ReplayResult {
+
+    public static final int MAX_MISMATCHES_KEPT = 20;
+
+    private long numRounds;
+    private long numMismatches;
+    private final List<String> mismatches;
+
+    /**
+     * Construct an empty result.
+     */
+    public ReplayResult() {
+        mismatches = new ArrayList<String>();
+    }
+
+    /**
+     * Count a replayed round that matched its recording.
+     */
+    void addMatch() {
+        numRounds++;
+    }
+
+    /**
+     * Count a replayed round that differed from its recording.
+     * @param description where and how the round differed
+     */
+    void addMismatch(String description) {
+        numRounds++;
+        numMismatches++;
+        if (mismatches.size() < MAX_MISMATCHES_KEPT) {
+            mismatches.add(description);
+        }
+    }
+
+    /**
+     * Add the counts and mismatches of another result to this one.
+     * @param other the other result
+     * @return this result
+     */
+    ReplayResult merge(ReplayResult other) {
+        numRounds += other.numRounds;
+        numMismatches += other.numMismatches;
+        for (String mismatch : other.mismatches) {
+            if (mismatches.size() < MAX_MISMATCHES_KEPT) {
+                mismatches.add(mismatch);
+            }
+        }
+        return this;
+    }
+
+    public long getNumRounds() {
+        return numRounds;
+    }
+
+    public long getNumMismatches() {
+        return numMismatches;
+    }
+
+    /**
+     * Return descriptions of the first rounds that differed from their recordings.
+     * @return up to MAX_MISMATCHES_KEPT descriptions
+     */
+    public List<String> getMismatches() {
+        return Collections.unmodifiableList(mismatches);
+    }
+
+}
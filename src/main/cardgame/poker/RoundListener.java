@@ -0,0 +1,49 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.Player;
+
+import java.util.List;
+
+/**
+ * RoundListener is told of each step of a Five Card Draw round as it is
+ * played. Players are identified by their seat, their position among the
+ * players of the game.
+ */
+public interface RoundListener {
+
+    /**
+     * Called before the cards are dealt.
+     * @param seed the seed the round was shuffled from
+     * @param seats the players in seat order
+     * @param dealerSeat the seat of the dealer
+     */
+    void roundStarted(long seed, List<Player> seats, int dealerSeat);
+
+    /**
+     * Called when a player has chosen discards, before they are discarded.
+     * @param seat the seat of the player
+     * @param hand the player's dealt hand, sorted lowest to highest
+     * @param discardMask the positions to discard, one bit per position
+     */
+    void discarded(int seat, PokerHand hand, int discardMask);
+
+    /**
+     * Called for each card a player draws to replace a discard, in order.
+     * @param seat the seat of the player
+     * @param card the card drawn
+     */
+    void drew(int seat, Card card);
+
+    /**
+     * Called when the round has been scored.
+     * @param ranking the players, sorted by rank, lowest rank first
+     */
+    void roundFinished(List<Player> ranking);
+
+    /**
+     * Called when the round ends early because the cards ran out.
+     */
+    void roundAborted();
+
+}
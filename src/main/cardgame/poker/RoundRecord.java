@@ -0,0 +1,157 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RoundRecord holds one round of Five Card Draw as read from a hand-history
+ * file by HandHistoryReader.
+ */
+public class RoundRecord {
+
+    private static final int NUM_CARDS_IN_HAND = HandEvaluator.NUM_CARDS_IN_HAND;
+
+    private final long seed;
+    private final boolean finished;
+    private final String[] playerNames;
+    private final int dealerSeat;
+    private final int[] discardMasks;
+    private final byte[] dealt;
+    private final byte[] drawn;
+    private final PokerRank[] pokerRanks;
+    private final long winnerMask;
+
+    /**
+     * Construct a round record.
+     * @param seed the seed the round was shuffled from
+     * @param finished whether the round was played to the end
+     * @param playerNames the names of the players in seat order
+     * @param dealerSeat the seat of the dealer
+     * @param discardMasks each seat's discarded positions, one bit per position,
+     * or HandHistoryWriter.NO_DISCARDS for a seat that did not discard
+     * @param dealt the ids of each seat's dealt cards, five per seat; unused if
+     * the round was not finished
+     * @param drawn the ids of the cards each seat drew, five slots per seat
+     * @param pokerRanks each seat's final poker rank, or null if the round
+     * was not finished
+     * @param winnerMask the winning seats, one bit per seat
+     */
+    public RoundRecord(long seed, boolean finished, String[] playerNames, int dealerSeat, int[] discardMasks,
+                       byte[] dealt, byte[] drawn, PokerRank[] pokerRanks, long winnerMask) {
+        this.seed = seed;
+        this.finished = finished;
+        this.playerNames = playerNames;
+        this.dealerSeat = dealerSeat;
+        this.discardMasks = discardMasks;
+        this.dealt = dealt;
+        this.drawn = drawn;
+        this.pokerRanks = pokerRanks;
+        this.winnerMask = winnerMask;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Return whether the round was played to the end rather than aborted
+     * because the cards ran out. Only finished rounds hold cards and results.
+     * @return whether the round was finished
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public int getNumSeats() {
+        return playerNames.length;
+    }
+
+    public String getPlayerName(int seat) {
+        return playerNames[seat];
+    }
+
+    public int getDealerSeat() {
+        return dealerSeat;
+    }
+
+    /**
+     * Return the positions a seat discarded, one bit per position of the
+     * dealt hand.
+     * @param seat the seat
+     * @return the discard mask, or HandHistoryWriter.NO_DISCARDS if the seat
+     * did not discard
+     */
+    public int getDiscardMask(int seat) {
+        return discardMasks[seat];
+    }
+
+    /**
+     * Return the positions a seat discarded.
+     * @param seat the seat
+     * @return the positions, lowest first; empty if the seat did not discard
+     */
+    public List<Integer> getDiscardPositions(int seat) {
+        List<Integer> positions = new ArrayList<Integer>();
+        if (discardMasks[seat] != HandHistoryWriter.NO_DISCARDS) {
+            for (int position = 0; position < NUM_CARDS_IN_HAND; position++) {
+                if ((discardMasks[seat] & (1 << position)) != 0) {
+                    positions.add(position);
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Return a card of a seat's dealt hand.
+     * @param seat the seat
+     * @param position the position in the dealt hand, sorted lowest to highest
+     * @return the card
+     */
+    public Card getDealtCard(int seat, int position) {
+        return Card.of(dealt[seat * NUM_CARDS_IN_HAND + position]);
+    }
+
+    /**
+     * Return the number of cards a seat drew, which is the number it discarded.
+     * @param seat the seat
+     * @return the number of cards drawn
+     */
+    public int getNumDrawn(int seat) {
+        return finished ? Integer.bitCount(discardMasks[seat]) : 0;
+    }
+
+    /**
+     * Return a card a seat drew.
+     * @param seat the seat
+     * @param index the index of the card in the order drawn
+     * @return the card
+     */
+    public Card getDrawnCard(int seat, int index) {
+        return Card.of(drawn[seat * NUM_CARDS_IN_HAND + index]);
+    }
+
+    /**
+     * Return the poker rank of a seat's final hand.
+     * @param seat the seat
+     * @return the poker rank, or null if the round was not finished
+     */
+    public PokerRank getPokerRank(int seat) {
+        return pokerRanks == null ? null : pokerRanks[seat];
+    }
+
+    /**
+     * Return the winning seats; tied players all win.
+     * @return the winning seats, one bit per seat
+     */
+    public long getWinnerMask() {
+        return winnerMask;
+    }
+
+    public boolean isWinner(int seat) {
+        return (winnerMask & (1L << seat)) != 0;
+    }
+
+}
@@ -0,0 +1,180 @@
+package cardgame.poker;
+
+import cardgame.common.Hand;
+import cardgame.common.Player;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Showdown ranks players by the strength of their poker hands.
+ *
+ * Each hand is evaluated once into a sort key that holds the strength in the
+ * high 32 bits and the player's position in the low 32 bits, so players are
+ * ordered by sorting primitive keys rather than by comparing hands. Players
+ * whose hands are not full poker hands rank below all others. Finding the
+ * winners takes one pass and the top k players a heap of k keys, so large
+ * fields need not be fully sorted.
+ */
+public class Showdown {
+
+    private static final long POSITION_MASK = 0xFFFFFFFFL;
+
+    private Showdown() {
+    }
+
+    /**
+     * Return the strength of a player's hand, or -1 if it is not a full poker hand.
+     */
+    private static int strength(Player player) {
+        Hand<?> hand = player.getHand();
+        return hand instanceof PokerHand ? ((PokerHand) hand).getStrength() : -1;
+    }
+
+    /**
+     * Return the sort key of each player, ordering players by strength and
+     * then by position, lowest first.
+     */
+    private static long[] keys(List<Player> players) {
+        long[] keys = new long[players.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = ((long) strength(players.get(i)) << 32) | i;
+        }
+        return keys;
+    }
+
+    /**
+     * Return the players sorted by the strength of their hands, lowest first.
+     * Players with equal strength keep their order.
+     * @param players the players
+     * @return a new list of the players, lowest rank first
+     */
+    public static List<Player> rank(List<Player> players) {
+        long[] keys = keys(players);
+        Arrays.sort(keys);
+        List<Player> ranking = new ArrayList<Player>(keys.length);
+        for (long key : keys) {
+            ranking.add(players.get((int) (key & POSITION_MASK)));
+        }
+        return ranking;
+    }
+
+    /**
+     * Return the players grouped into tiers of equal strength, such as for
+     * splitting pots: the winners first, then the players tied for second
+     * place, and so on. Each tier keeps the players' order.
+     * @param players the players
+     * @return the tiers, strongest first
+     */
+    public static List<List<Player>> tiers(List<Player> players) {
+        long[] keys = keys(players);
+        Arrays.sort(keys);
+        List<List<Player>> tiers = new ArrayList<List<Player>>();
+        int end = keys.length;
+        while (end > 0) {
+            int start = end - 1;
+            while (start > 0 && (keys[start - 1] >> 32) == (keys[end - 1] >> 32)) {
+                start--;
+            }
+            List<Player> tier = new ArrayList<Player>(end - start);
+            for (int i = start; i < end; i++) {
+                tier.add(players.get((int) (keys[i] & POSITION_MASK)));
+            }
+            tiers.add(tier);
+            end = start;
+        }
+        return tiers;
+    }
+
+    /**
+     * Return the players tied for the strongest hand, in one pass.
+     * @param players the players
+     * @return the winners, in the players' order; empty if there are no players
+     */
+    public static List<Player> winners(List<Player> players) {
+        List<Player> winners = new ArrayList<Player>();
+        int best = Integer.MIN_VALUE;
+        for (Player player : players) {
+            int strength = strength(player);
+            if (strength > best) {
+                best = strength;
+                winners.clear();
+            }
+            if (strength == best) {
+                winners.add(player);
+            }
+        }
+        return winners;
+    }
+
+    /**
+     * Return the k players with the strongest hands, without sorting the rest.
+     * Of players with equal strength at the cut, those earlier in the list are
+     * kept.
+     * @param players the players
+     * @param k the number of players to return
+     * @return the strongest players, strongest first; all players if there are
+     * no more than k
+     */
+    public static List<Player> top(List<Player> players, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Expected k of at least 0 but got " + k);
+        }
+        int size = Math.min(k, players.size());
+        // a min-heap of the strongest keys seen; the position is inverted in the
+        // key so that earlier players win ties
+        long[] heap = new long[size];
+        for (int i = 0; i < players.size(); i++) {
+            long key = ((long) strength(players.get(i)) << 32) | (POSITION_MASK - i);
+            if (i < size) {
+                heap[i] = key;
+                siftUp(heap, i);
+            } else if (size > 0 && key > heap[0]) {
+                heap[0] = key;
+                siftDown(heap, size);
+            }
+        }
+        Arrays.sort(heap);
+        List<Player> top = new ArrayList<Player>(size);
+        for (int i = size - 1; i >= 0; i--) {
+            top.add(players.get((int) (POSITION_MASK - (heap[i] & POSITION_MASK))));
+        }
+        return top;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        int child = index;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (heap[parent] <= heap[child]) {
+                break;
+            }
+            long key = heap[parent];
+            heap[parent] = heap[child];
+            heap[child] = key;
+            child = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (heap[parent] <= heap[child]) {
+                break;
+            }
+            long key = heap[parent];
+            heap[parent] = heap[child];
+            heap[child] = key;
+            parent = child;
+        }
+    }
+
+}
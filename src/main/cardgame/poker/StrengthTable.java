@@ -0,0 +1,199 @@
+package cardgame.poker;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * StrengthTable holds the lookup tables of HandEvaluator, and reads and
+ * writes them as a binary table file.
+ *
+ * A table file starts with a header holding a magic number, the format
+ * version, the perfect hash multipliers, the length of each table and a CRC32
+ * checksum of the tables, followed by the tables as ints in native byte order.
+ * A file is mapped read-only, so every process that maps it shares the same
+ * page cache copy.
+ *
+ * Build a table file with: java -cp bin cardgame.poker.StrengthTable &lt;file&gt;
+ */
+public class StrengthTable {
+
+    // "CGST"; reads as a different number if the byte order differs
+    public static final int MAGIC = 0x43475354;
+    // increase when the strength encoding or the table layout changes
+    public static final int VERSION = 1;
+
+    private static final int NUM_TABLES = 4;
+    private static final int HEADER_SIZE = (4 + NUM_TABLES) * Integer.BYTES + Long.BYTES;
+
+    private final int bucketMultiplier;
+    private final int slotMultiplier;
+    private final IntBuffer flushes;
+    private final IntBuffer unique5;
+    private final IntBuffer hashDisplacements;
+    private final IntBuffer hashValues;
+
+    /**
+     * Construct a strength table.
+     * @param bucketMultiplier multiplier that maps a prime product to its hash bucket
+     * @param slotMultiplier multiplier that maps a prime product to its base slot
+     * @param flushes strengths of flushes, indexed by rank mask
+     * @param unique5 strengths of hands with five distinct ranks, indexed by rank mask
+     * @param hashDisplacements displacement of each hash bucket
+     * @param hashValues strengths of hands with a repeated rank, indexed by hash slot
+     */
+    public StrengthTable(int bucketMultiplier, int slotMultiplier, IntBuffer flushes, IntBuffer unique5,
+                         IntBuffer hashDisplacements, IntBuffer hashValues) {
+        this.bucketMultiplier = bucketMultiplier;
+        this.slotMultiplier = slotMultiplier;
+        this.flushes = flushes;
+        this.unique5 = unique5;
+        this.hashDisplacements = hashDisplacements;
+        this.hashValues = hashValues;
+    }
+
+    /**
+     * Map a table file read-only.
+     * @param path the table file
+     * @return the tables, backed by the mapped file
+     * @throws IOException if the file cannot be read, or is not a table file of
+     * the current version, or fails its checksum
+     */
+    public static StrengthTable map(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Unexpected table file size " + channel.size() + ": " + path);
+            }
+            // the mapping stays valid once the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        buffer.order(ByteOrder.nativeOrder());
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a table file in native byte order: " + path);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Expected table file version " + VERSION + " but got " + version + ": " + path);
+        }
+        int bucketMultiplier = buffer.getInt();
+        int slotMultiplier = buffer.getInt();
+        int[] lengths = new int[NUM_TABLES];
+        long tablesSize = 0;
+        for (int i = 0; i < NUM_TABLES; i++) {
+            lengths[i] = buffer.getInt();
+            if (lengths[i] < 0) {
+                throw new IOException("Unexpected table length " + lengths[i] + ": " + path);
+            }
+            tablesSize += (long) lengths[i] * Integer.BYTES;
+        }
+        long checksum = buffer.getLong();
+        if (HEADER_SIZE + tablesSize != buffer.capacity()) {
+            throw new IOException("Table file is truncated or has trailing bytes: " + path);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().position(HEADER_SIZE));
+        if (crc.getValue() != checksum) {
+            throw new IOException("Table file fails its checksum: " + path);
+        }
+
+        IntBuffer[] tables = new IntBuffer[NUM_TABLES];
+        int offset = HEADER_SIZE;
+        for (int i = 0; i < NUM_TABLES; i++) {
+            int size = lengths[i] * Integer.BYTES;
+            tables[i] = buffer.slice(offset, size).order(ByteOrder.nativeOrder()).asIntBuffer();
+            offset += size;
+        }
+        return new StrengthTable(bucketMultiplier, slotMultiplier, tables[0], tables[1], tables[2], tables[3]);
+    }
+
+    /**
+     * Write the tables to a table file, replacing any existing file. The file
+     * is written under a temporary name and then moved into place, so that
+     * other processes never map a partly written file.
+     * @param path the table file
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Path path) throws IOException {
+        IntBuffer[] tables = {flushes, unique5, hashDisplacements, hashValues};
+        int tablesSize = 0;
+        for (IntBuffer table : tables) {
+            tablesSize += table.capacity() * Integer.BYTES;
+        }
+        ByteBuffer body = ByteBuffer.allocate(tablesSize).order(ByteOrder.nativeOrder());
+        for (IntBuffer table : tables) {
+            for (int i = 0; i < table.capacity(); i++) {
+                body.putInt(table.get(i));
+            }
+        }
+        body.flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.nativeOrder());
+        header.putInt(MAGIC).putInt(VERSION).putInt(bucketMultiplier).putInt(slotMultiplier);
+        for (IntBuffer table : tables) {
+            header.putInt(table.capacity());
+        }
+        header.putLong(crc.getValue());
+        header.flip();
+
+        // a sibling name unique to this process, created with default permissions
+        Path temporary = path.resolveSibling(path.getFileName() + "." + ProcessHandle.current().pid() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[] {header, body});
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    public int getBucketMultiplier() {
+        return bucketMultiplier;
+    }
+
+    public int getSlotMultiplier() {
+        return slotMultiplier;
+    }
+
+    public IntBuffer getFlushes() {
+        return flushes;
+    }
+
+    public IntBuffer getUnique5() {
+        return unique5;
+    }
+
+    public IntBuffer getHashDisplacements() {
+        return hashDisplacements;
+    }
+
+    public IntBuffer getHashValues() {
+        return hashValues;
+    }
+
+    public static void main(String args[]) throws IOException {
+        if (args.length != 1) {
+            System.out.println("java cardgame.poker.StrengthTable <table file>");
+            return;
+        }
+        HandEvaluator.generateTable().write(Paths.get(args[0]));
+        System.out.println("Wrote strength table version " + VERSION + " to " + args[0]);
+    }
+
+}
@@ -0,0 +1,46 @@
+package cardgame.poker;
+
+import cardgame.common.CardSet;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TableDiscardAgent discards the cards that a solved DrawTable gives the best
+ * chance to beat a random hand.
+ */
+public class TableDiscardAgent implements DiscardAgent {
+
+    private static final int NUM_CARDS_IN_FULL_HAND = 5;
+
+    private final DrawTable drawTable;
+
+    /**
+     * Construct a table discard agent.
+     * @param drawTable the solved draw table
+     */
+    public TableDiscardAgent(DrawTable drawTable) {
+        this.drawTable = drawTable;
+    }
+
+    @Override
+    public List<Integer> chooseDiscards(PokerHand hand) {
+        long bits = hand.getCardSet().getBits();
+        int discardMask = drawTable.getDiscardMask(bits);
+        List<Integer> discards = new ArrayList<Integer>();
+        for (int i = 0; i < NUM_CARDS_IN_FULL_HAND; i++) {
+            // masks hold one bit per card in order of card id
+            long bit = CardSet.bit(hand.getCard(i));
+            if ((discardMask & (1 << Long.bitCount(bits & (bit - 1)))) != 0) {
+                discards.add(i);
+            }
+        }
+        return discards;
+    }
+
+    @Override
+    public String toString() {
+        return "table";
+    }
+
+}
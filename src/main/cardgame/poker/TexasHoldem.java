@@ -0,0 +1,223 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.Game;
+import cardgame.common.GameMetrics;
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * TexasHoldem implements the dealing and showdown of Texas Hold'em poker,
+ * without betting.
+ *
+ * Each player is dealt two hole cards, one at a time starting at the player
+ * after the dealer. The board is then dealt in three streets, the flop of
+ * three cards, the turn and the river, each after a burned card. At the
+ * showdown each player's hand is the best five of the hole cards and the
+ * board.
+ *
+ * The board is one card set shared by all players' hands, so dealing a
+ * street touches no hands, and the showdown evaluates each seat once; see
+ * HoldemHand and Showdown. As in FiveCardDraw, each round shuffles from its
+ * own seed, drawn from the game's random source, and with output turned off
+ * rounds run headless and can be repeated with newRound.
+ */
+public class TexasHoldem extends Game {
+    public static final int NUM_FLOP_CARDS = 3;
+    public static final int NUM_BOARD_CARDS = 5;
+
+    private CardSet board;
+    private int dealerPlayerIndex;
+    private PrintStream out;
+    private long roundSeed;
+
+    /**
+     * Construct Texas Hold'em game.
+     */
+    public TexasHoldem() {
+        this(new SplittableRandom());
+    }
+
+    /**
+     * Construct Texas Hold'em game that shuffles with the given random source,
+     * such as a seeded Xoshiro256 or a stream from RandomStreams, so that
+     * games can be reproduced.
+     * @param random the random source for shuffling
+     */
+    public TexasHoldem(RandomGenerator random) {
+        super(random);
+        board = new CardSet();
+        dealerPlayerIndex = 0;
+        out = System.out;
+        shuffleRound(getRandom().nextLong());
+    }
+
+    /**
+     * Add a player to the game if the player is not already playing.
+     * Initializes the player with an empty hold'em hand played with the
+     * table's board.
+     * @param name name of player
+     * @return newly added player if successful; otherwise, null
+     */
+    @Override
+    public Player addPlayer(String name) {
+        Player player = super.addPlayer(name);
+        if (player != null) {
+            player.setHand(new HoldemHand(board));
+        }
+        return player;
+    }
+
+    /**
+     * Set the stream the game prints its progress to.
+     * @param out the stream to print to, or null to print nothing
+     */
+    public void setOut(PrintStream out) {
+        this.out = out;
+    }
+
+    private void println(Object message) {
+        if (out != null) {
+            out.println(message);
+        }
+    }
+
+    /**
+     * Prepare for another round: return all cards to the deck and shuffle,
+     * empty the board and the hands, and pass the deal to the next player.
+     */
+    public void newRound() {
+        shuffleRound(getRandom().nextLong());
+        if (!getPlayers().isEmpty()) {
+            dealerPlayerIndex = (dealerPlayerIndex + 1) % getPlayers().size();
+        }
+    }
+
+    /**
+     * Return all cards to the deck and shuffle them from the given seed, and
+     * empty the board and the hands.
+     */
+    private void shuffleRound(long seed) {
+        roundSeed = seed;
+        getDeck().setRandom(new Xoshiro256(seed));
+        getDeck().resetInOrder();
+        GameMetrics.deckShuffled();
+        board.clear();
+        for (Player player : getPlayers()) {
+            player.getHand().clear();
+        }
+    }
+
+    /**
+     * Return the seed the current round was shuffled from.
+     * @return the seed of the current round
+     */
+    public long getRoundSeed() {
+        return roundSeed;
+    }
+
+    /**
+     * Return the player who deals the current round.
+     * @return the dealer
+     */
+    public Player getDealer() {
+        return getPlayers().get(dealerPlayerIndex);
+    }
+
+    /**
+     * Return the community cards dealt so far this round.
+     * @return a copy of the board
+     */
+    public CardSet getBoard() {
+        return new CardSet(board.getBits());
+    }
+
+    /**
+     * Deal two hole cards to each player, timed as the beforeRound phase of
+     * GameMetrics.
+     * @return whether the game has ended because the deck ran out
+     */
+    @Override
+    public Boolean beforeRound() {
+        long start = GameMetrics.start();
+        Boolean gameEnded = dealHoleCards();
+        GameMetrics.recordSince(GameMetrics.BEFORE_ROUND, start);
+        return gameEnded;
+    }
+
+    /**
+     * Deal two hole cards to each player, one at a time, starting at the
+     * player after the dealer.
+     * @return whether the game has ended because the deck ran out
+     */
+    private boolean dealHoleCards() {
+        int numPlayers = getPlayers().size();
+        println("\nDealer: " + getPlayers().get(dealerPlayerIndex).getName());
+        for (int i = 0; i < HoldemHand.NUM_HOLE_CARDS; i++) {
+            int playerNum = (dealerPlayerIndex + 1) % numPlayers; // start 1 beyond dealer
+            for (int j = 0; j < numPlayers; j++) {
+                if (getDeck().drawInto(getPlayers().get(playerNum).getHand(), 1) == 0) {
+                    return true;
+                }
+                playerNum = (playerNum + 1) % numPlayers;
+            }
+        }
+        println("\nHole cards:");
+        for (Player player : getPlayers()) {
+            println(player);
+        }
+        return false;
+    }
+
+    /**
+     * Deal the flop, the turn and the river to the board, timed as the round
+     * phase of GameMetrics.
+     * @return whether the game has ended because the deck ran out
+     */
+    @Override
+    public Boolean round() {
+        long start = GameMetrics.start();
+        boolean gameEnded = dealStreet("Flop", NUM_FLOP_CARDS)
+                || dealStreet("Turn", 1)
+                || dealStreet("River", 1);
+        GameMetrics.recordSince(GameMetrics.ROUND, start);
+        return gameEnded;
+    }
+
+    /**
+     * Burn a card and deal a street to the board.
+     * @param street the name of the street, for display
+     * @param numCards the number of cards in the street
+     * @return whether the game has ended because the deck ran out
+     */
+    private boolean dealStreet(String street, int numCards) {
+        if (getDeck().size() < numCards + 1) {
+            return true;
+        }
+        getDeck().drawCard();
+        for (int i = 0; i < numCards; i++) {
+            Card card = getDeck().drawCard();
+            board.add(card);
+        }
+        println("\n" + street + ": " + board);
+        return false;
+    }
+
+    /**
+     * Score the round by sorting players, from lowest to highest ranking,
+     * by the best five of their hole cards and the board. Each seat is
+     * evaluated once; see Showdown.
+     * @return the list of players, sorted by rank, lowest rank first
+     */
+    @Override
+    protected List<Player> scoreRound() {
+        return Showdown.rank(getPlayers());
+    }
+
+}
@@ -0,0 +1,419 @@
+package cardgame.poker;
+
+import cardgame.common.Player;
+import cardgame.common.RandomStreams;
+import cardgame.common.Xoshiro256;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.random.RandomGenerator;
+
+/**
+ * TournamentSimulation plays a Five Card Draw elimination tournament headless,
+ * with every entrant's discards chosen by an agent, to see where entrants of
+ * each agent finish.
+ *
+ * The tournament is played in levels. At each level the remaining entrants
+ * are shuffled and re-seated at tables of at most seatsPerTable, as evenly as
+ * possible, and every table plays one round of its own FiveCardDraw; the
+ * entrant ranked lowest at each table is out. No table seats a lone entrant:
+ * when an odd number are left for tables of two, the entrant shuffled into
+ * the last seat has a bye and sits the level out. Entrants knocked out at a level
+ * finish in the order of their tables, below everyone still playing, and the
+ * last entrant left finishes first.
+ *
+ * The tables of a level are played by tasks on a fork/join pool, which split
+ * the tables in half until few are left, so idle workers steal the rest. Each
+ * table shuffles and draws with the stream of RandomStreams for its number,
+ * counting tables from 0 across levels, and the seating of each level uses a
+ * stream of its own, so the same seed plays the same tournament whatever the
+ * parallelism. Tasks write each knocked-out entrant's place to its own slot
+ * and add to per-agent LongAdder counters, so no lock is shared by the tables.
+ *
+ * Run it with: java -cp bin cardgame.poker.TournamentSimulation
+ * &lt;entrants&gt; &lt;seats per table&gt; &lt;seed&gt; &lt;agent&gt; &lt;agent&gt;...,
+ * where each agent is pat, heuristic or random, and entrants take the agents
+ * in turn.
+ */
+public class TournamentSimulation {
+
+    public static final int MIN_SEATS = 2;
+    // ten hands of five cards leave two cards and the discards to draw from
+    public static final int MAX_SEATS = 10;
+    public static final int DEFAULT_TABLES_PER_TASK = 64;
+    // places are bucketed by powers of two: 1, 2 to 3, 4 to 7 and so on
+    public static final int NUM_PLACE_BUCKETS = 31;
+
+    private final ForkJoinPool pool;
+    private final RandomStreams streams;
+    private final int numEntrants;
+    private final int seatsPerTable;
+    private final String[] agentNames;
+    private final int tablesPerTask;
+
+    // by entrant: the finishing place, or 0 while still playing
+    private final int[] places;
+    private final LongAdder tableRounds = new LongAdder();
+    private final LongAdder unfinishedRounds = new LongAdder();
+    // by agent
+    private final LongAdder[] roundsPlayed;
+    private final LongAdder[] roundsWon;
+    private final LongAdder[] placeTotals;
+    // by agent and place bucket
+    private final LongAdder[][] finishes;
+    private int numLevels;
+    private long numTables;
+
+    /**
+     * Construct a tournament that runs on the common fork/join pool.
+     * @param seed the seed from which the seating and every table's random
+     * stream are derived
+     * @param numEntrants the number of entrants, at least 2
+     * @param seatsPerTable the most entrants seated at a table, from 2 to 10
+     * @param agentNames the agents the entrants take in turn: pat, heuristic or random
+     */
+    public TournamentSimulation(long seed, int numEntrants, int seatsPerTable, List<String> agentNames) {
+        this(ForkJoinPool.commonPool(), seed, numEntrants, seatsPerTable, agentNames, DEFAULT_TABLES_PER_TASK);
+    }
+
+    /**
+     * Construct a tournament.
+     * @param pool the pool on which tables are played
+     * @param seed the seed from which the seating and every table's random
+     * stream are derived
+     * @param numEntrants the number of entrants, at least 2
+     * @param seatsPerTable the most entrants seated at a table, from 2 to 10
+     * @param agentNames the agents the entrants take in turn: pat, heuristic or random
+     * @param tablesPerTask the most tables played by one task without splitting
+     */
+    public TournamentSimulation(ForkJoinPool pool, long seed, int numEntrants, int seatsPerTable,
+            List<String> agentNames, int tablesPerTask) {
+        if (numEntrants < MIN_SEATS) {
+            throw new IllegalArgumentException("Expected at least " + MIN_SEATS + " entrants but got " + numEntrants);
+        }
+        if (seatsPerTable < MIN_SEATS || seatsPerTable > MAX_SEATS) {
+            throw new IllegalArgumentException("Expected " + MIN_SEATS + " to " + MAX_SEATS
+                    + " seats per table but got " + seatsPerTable);
+        }
+        if (agentNames.isEmpty()) {
+            throw new IllegalArgumentException("Expected at least one agent");
+        }
+        for (String agentName : agentNames) {
+            if (FiveCardDrawSimulation.agentFor(agentName, null) == null) {
+                throw new IllegalArgumentException("Unknown agent " + agentName);
+            }
+        }
+        if (tablesPerTask < 1) {
+            throw new IllegalArgumentException("Expected at least one table per task but got " + tablesPerTask);
+        }
+        this.pool = pool;
+        this.streams = new RandomStreams(seed);
+        this.numEntrants = numEntrants;
+        this.seatsPerTable = seatsPerTable;
+        this.agentNames = agentNames.toArray(new String[0]);
+        this.tablesPerTask = tablesPerTask;
+        places = new int[numEntrants];
+        roundsPlayed = adders(agentNames.size());
+        roundsWon = adders(agentNames.size());
+        placeTotals = adders(agentNames.size());
+        finishes = new LongAdder[agentNames.size()][];
+        for (int agent = 0; agent < finishes.length; agent++) {
+            finishes[agent] = adders(NUM_PLACE_BUCKETS);
+        }
+    }
+
+    private static LongAdder[] adders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Return the place bucket of a finishing place: 0 for first, 1 for second
+     * and third, 2 for fourth to seventh and so on.
+     * @param place the finishing place, from 1
+     * @return the bucket of the place
+     */
+    public static int bucket(int place) {
+        return 31 - Integer.numberOfLeadingZeros(place);
+    }
+
+    /**
+     * Play the tournament until one entrant is left. A tournament is played once.
+     */
+    public void play() {
+        if (numLevels > 0) {
+            throw new IllegalStateException("The tournament has already been played");
+        }
+        int[] remaining = new int[numEntrants];
+        for (int i = 0; i < numEntrants; i++) {
+            remaining[i] = i;
+        }
+        int numRemaining = numEntrants;
+        while (numRemaining > 1) {
+            seat(remaining, numRemaining, streams.stream(-1 - numLevels));
+            // at least two entrants a table; with tables of two, an odd
+            // entrant out has a bye
+            int tables = Math.min((numRemaining + seatsPerTable - 1) / seatsPerTable, numRemaining / 2);
+            int numSeated = Math.min(numRemaining, tables * seatsPerTable);
+            pool.invoke(new TableTask(remaining, numSeated, numRemaining, tables, numTables, 0, tables));
+            numTables += tables;
+            numLevels++;
+            // keep the entrants still playing, in seat order
+            int kept = 0;
+            for (int i = 0; i < numRemaining; i++) {
+                if (places[remaining[i]] == 0) {
+                    remaining[kept++] = remaining[i];
+                }
+            }
+            numRemaining = kept;
+        }
+        finish(remaining[0], 1);
+    }
+
+    /**
+     * Shuffle the remaining entrants into new seats.
+     */
+    private static void seat(int[] remaining, int numRemaining, RandomGenerator random) {
+        for (int i = numRemaining - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int entrant = remaining[j];
+            remaining[j] = remaining[i];
+            remaining[i] = entrant;
+        }
+    }
+
+    private void finish(int entrant, int place) {
+        int agent = getAgent(entrant);
+        places[entrant] = place;
+        placeTotals[agent].add(place);
+        finishes[agent][bucket(place)].increment();
+    }
+
+    /**
+     * TableTask plays one round at each of a range of a level's tables,
+     * splitting the range in half until at most tablesPerTask are left.
+     */
+    private class TableTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] seats;
+        private final int numSeated;
+        private final int numRemaining;
+        private final int numTablesInLevel;
+        private final long firstTableNumber;
+        private final int fromTable;
+        private final int toTable;
+
+        TableTask(int[] seats, int numSeated, int numRemaining, int numTablesInLevel, long firstTableNumber,
+                int fromTable, int toTable) {
+            this.seats = seats;
+            this.numSeated = numSeated;
+            this.numRemaining = numRemaining;
+            this.numTablesInLevel = numTablesInLevel;
+            this.firstTableNumber = firstTableNumber;
+            this.fromTable = fromTable;
+            this.toTable = toTable;
+        }
+
+        @Override
+        protected void compute() {
+            if (toTable - fromTable > tablesPerTask) {
+                int middle = (fromTable + toTable) >>> 1;
+                invokeAll(new TableTask(seats, numSeated, numRemaining, numTablesInLevel, firstTableNumber,
+                        fromTable, middle),
+                        new TableTask(seats, numSeated, numRemaining, numTablesInLevel, firstTableNumber,
+                        middle, toTable));
+                return;
+            }
+            for (int table = fromTable; table < toTable; table++) {
+                // the first numSeated % tables tables take one entrant more
+                int base = numSeated / numTablesInLevel;
+                int extra = numSeated % numTablesInLevel;
+                int from = table * base + Math.min(table, extra);
+                int to = from + base + (table < extra ? 1 : 0);
+                int loser = playTable(streams.stream(firstTableNumber + table), from, to);
+                // entrants out at earlier tables finish lower, and below
+                // any entrant with a bye
+                finish(loser, numRemaining - table);
+            }
+        }
+
+        /**
+         * Play one round at the table of the entrants in the given seats and
+         * return the entrant ranked lowest.
+         */
+        private int playTable(RandomGenerator random, int from, int to) {
+            FiveCardDraw game = new FiveCardDraw(random);
+            game.setOut(null);
+            DiscardAgent[] agents = new DiscardAgent[agentNames.length];
+            List<Player> players = new ArrayList<Player>(to - from);
+            for (int seat = from; seat < to; seat++) {
+                int agent = getAgent(seats[seat]);
+                if (agents[agent] == null) {
+                    agents[agent] = FiveCardDrawSimulation.agentFor(agentNames[agent], new Xoshiro256(random.nextLong()));
+                }
+                players.add(game.addPlayer(Integer.toString(seats[seat]), agents[agent]));
+            }
+            while (game.beforeRound() || game.round()) {
+                // the cards ran out before every player had a full hand
+                unfinishedRounds.increment();
+                game.newRound();
+            }
+            List<Player> ranking = game.afterRound();
+            tableRounds.increment();
+            for (int seat = from; seat < to; seat++) {
+                roundsPlayed[getAgent(seats[seat])].increment();
+            }
+            for (Player winner : Showdown.winners(ranking)) {
+                roundsWon[getAgent(seats[from + players.indexOf(winner)])].increment();
+            }
+            return seats[from + players.indexOf(ranking.get(0))];
+        }
+    }
+
+    public int getNumEntrants() {
+        return numEntrants;
+    }
+
+    /**
+     * Return the index of the agent an entrant plays with.
+     * @param entrant the entrant, from 0
+     * @return the index of the entrant's agent among the agent names
+     */
+    public int getAgent(int entrant) {
+        return entrant % agentNames.length;
+    }
+
+    public List<String> getAgentNames() {
+        return Arrays.asList(agentNames);
+    }
+
+    /**
+     * Return the place an entrant finished in.
+     * @param entrant the entrant, from 0
+     * @return the finishing place, from 1 for the winner; 0 before the
+     * tournament is played
+     */
+    public int getPlace(int entrant) {
+        return places[entrant];
+    }
+
+    /**
+     * Return the number of entrants of an agent who finished in a place bucket.
+     * @param agent the index of the agent
+     * @param bucket the place bucket; see bucket
+     * @return the number of finishes
+     */
+    public long getFinishes(int agent, int bucket) {
+        return finishes[agent][bucket].sum();
+    }
+
+    /**
+     * Return the average finishing place of the entrants of an agent.
+     * @param agent the index of the agent
+     * @return the average place
+     */
+    public double getAveragePlace(int agent) {
+        int numAgentEntrants = (numEntrants - agent + agentNames.length - 1) / agentNames.length;
+        return numAgentEntrants == 0 ? 0 : (double) placeTotals[agent].sum() / numAgentEntrants;
+    }
+
+    /**
+     * Return the number of rounds played by entrants of an agent, one per
+     * entrant seated at a table.
+     * @param agent the index of the agent
+     * @return the number of rounds played
+     */
+    public long getRoundsPlayed(int agent) {
+        return roundsPlayed[agent].sum();
+    }
+
+    /**
+     * Return the share of the rounds played by entrants of an agent that
+     * they won, counting each of several tied winners as a win.
+     * @param agent the index of the agent
+     * @return the win rate, between 0 and 1
+     */
+    public double getWinRate(int agent) {
+        long played = roundsPlayed[agent].sum();
+        return played == 0 ? 0 : (double) roundsWon[agent].sum() / played;
+    }
+
+    /**
+     * Return the number of rounds played, one per table per level.
+     * @return the number of table rounds
+     */
+    public long getNumTableRounds() {
+        return tableRounds.sum();
+    }
+
+    /**
+     * Return the number of rounds that ended because the cards ran out and
+     * were played again.
+     * @return the number of unfinished rounds
+     */
+    public long getNumUnfinishedRounds() {
+        return unfinishedRounds.sum();
+    }
+
+    public int getNumLevels() {
+        return numLevels;
+    }
+
+    public static void main(String args[]) {
+        if (args.length < 4) {
+            System.out.println("java cardgame.poker.TournamentSimulation <entrants> <seats per table> <seed> <agent> <agent>...");
+            System.out.println("where each agent is pat, heuristic or random");
+            return;
+        }
+        int numEntrants = Integer.parseInt(args[0]);
+        int seatsPerTable = Integer.parseInt(args[1]);
+        long seed = Long.parseLong(args[2]);
+        List<String> agentNames = Arrays.asList(args).subList(3, args.length);
+        TournamentSimulation tournament;
+        try {
+            tournament = new TournamentSimulation(seed, numEntrants, seatsPerTable, agentNames);
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+            return;
+        }
+        long start = System.nanoTime();
+        tournament.play();
+        long elapsed = System.nanoTime() - start;
+
+        StringBuilder header = new StringBuilder(String.format("%-16s", "places"));
+        for (String agentName : agentNames) {
+            header.append(String.format("%12s", agentName));
+        }
+        System.out.println(header);
+        for (int bucket = 0; bucket <= bucket(numEntrants); bucket++) {
+            int first = 1 << bucket;
+            int last = Math.min(2 * first - 1, numEntrants);
+            StringBuilder row = new StringBuilder(String.format("%-16s", first == last ? "" + first : first + "-" + last));
+            for (int agent = 0; agent < agentNames.size(); agent++) {
+                row.append(String.format("%12d", tournament.getFinishes(agent, bucket)));
+            }
+            System.out.println(row);
+        }
+        StringBuilder averages = new StringBuilder(String.format("%-16s", "average place"));
+        StringBuilder winRates = new StringBuilder(String.format("%-16s", "round win rate"));
+        for (int agent = 0; agent < agentNames.size(); agent++) {
+            averages.append(String.format("%12.1f", tournament.getAveragePlace(agent)));
+            winRates.append(String.format("%12.4f", tournament.getWinRate(agent)));
+        }
+        System.out.println(averages);
+        System.out.println(winRates);
+        System.out.println(String.format("\n%d entrants, %d levels, %d table rounds in %.1f ms, %.0f table rounds per second",
+                numEntrants, tournament.getNumLevels(), tournament.getNumTableRounds(), elapsed / 1e6,
+                tournament.getNumTableRounds() * 1e9 / elapsed));
+    }
+
+}
@@ -0,0 +1,53 @@
+package cardgame.server;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Connection sends and receives the lines of the table protocol over a socket.
+ */
+public class Connection implements Closeable {
+
+    private final Socket socket;
+    private final BufferedReader reader;
+    private final PrintWriter writer;
+
+    /**
+     * Construct a connection over a connected socket.
+     * @param socket the socket
+     * @throws IOException if the socket streams cannot be opened
+     */
+    public Connection(Socket socket) throws IOException {
+        this.socket = socket;
+        reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        writer = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Send a line.
+     * @param line the line to send
+     */
+    public void send(String line) {
+        writer.println(line);
+    }
+
+    /**
+     * Receive a line, blocking until one arrives.
+     * @return the line, or null if the other side has closed the connection
+     * @throws IOException if the connection fails or the read times out
+     */
+    public String receive() throws IOException {
+        return reader.readLine();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+
+}
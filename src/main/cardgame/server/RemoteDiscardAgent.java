@@ -0,0 +1,78 @@
+package cardgame.server;
+
+import cardgame.poker.DiscardAgent;
+import cardgame.poker.PokerHand;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RemoteDiscardAgent asks a player at the other end of a connection for the
+ * cards to discard. It sends the hand and a DISCARD prompt, and reads a line of
+ * distinct positions between 0 and 4 separated by spaces; an empty line stands
+ * pat. Invalid lines are answered with an ERROR and the prompt is repeated. A
+ * player who has disconnected or does not answer in time stands pat.
+ */
+public class RemoteDiscardAgent implements DiscardAgent {
+
+    private static final int NUM_CARDS_IN_FULL_HAND = 5;
+
+    private final Connection connection;
+
+    /**
+     * Construct a remote discard agent.
+     * @param connection the connection to the player
+     */
+    public RemoteDiscardAgent(Connection connection) {
+        this.connection = connection;
+    }
+
+    @Override
+    public List<Integer> chooseDiscards(PokerHand hand) {
+        connection.send("HAND " + hand);
+        while (true) {
+            connection.send("DISCARD");
+            String line;
+            try {
+                line = connection.receive();
+            } catch (IOException e) {
+                line = null;
+            }
+            if (line == null) {
+                return new ArrayList<Integer>();
+            }
+            List<Integer> discards = parsePositions(line);
+            if (discards != null) {
+                return discards;
+            }
+            connection.send("ERROR expected distinct positions between 0 and 4");
+        }
+    }
+
+    /**
+     * Return the positions in a line, or null if the line is invalid.
+     * @param line positions separated by spaces
+     * @return the positions, or null if the line is invalid
+     */
+    static List<Integer> parsePositions(String line) {
+        List<Integer> positions = new ArrayList<Integer>();
+        for (String token : line.trim().split("\\s+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            int position;
+            try {
+                position = Integer.parseInt(token);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (position < 0 || position >= NUM_CARDS_IN_FULL_HAND || positions.contains(position)) {
+                return null;
+            }
+            positions.add(position);
+        }
+        return positions;
+    }
+
+}
@@ -0,0 +1,90 @@
+package cardgame.server;
+
+import java.io.IOException;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * ScriptedClient plays at a TableServer without a person at the keyboard,
+ * answering every DISCARD prompt with the same line, for load and
+ * integration testing.
+ *
+ * Run it with: java -cp bin cardgame.server.ScriptedClient &lt;host&gt; &lt;port&gt;
+ * &lt;clients&gt; [&lt;discard positions&gt;]
+ */
+public class ScriptedClient {
+
+    private final String host;
+    private final int port;
+    private final String name;
+    private final String discards;
+
+    /**
+     * Construct a scripted client.
+     * @param host the server host
+     * @param port the server port
+     * @param name the player name to send
+     * @param discards the line sent for every DISCARD prompt, such as "0 1"
+     */
+    public ScriptedClient(String host, int port, String name, String discards) {
+        this.host = host;
+        this.port = port;
+        this.name = name;
+        this.discards = discards;
+    }
+
+    /**
+     * Connect, play a round and disconnect.
+     * @return every line received from the server
+     * @throws IOException if the connection fails
+     */
+    public List<String> play() throws IOException {
+        List<String> received = new ArrayList<String>();
+        try (Connection connection = new Connection(new Socket(host, port))) {
+            connection.send(name);
+            String line;
+            while ((line = connection.receive()) != null) {
+                received.add(line);
+                if (line.equals("DISCARD")) {
+                    connection.send(discards);
+                } else if (line.equals("BYE")) {
+                    break;
+                }
+            }
+        }
+        return received;
+    }
+
+    public static void main(String args[]) throws Exception {
+        if (args.length < 3) {
+            System.out.println("java cardgame.server.ScriptedClient <host> <port> <clients> [<discard positions>]");
+            return;
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int numClients = Integer.parseInt(args[2]);
+        String discards = args.length > 3 ? args[3] : "";
+
+        long start = System.nanoTime();
+        ExecutorService executor = TableServer.newThreadPerTaskExecutor();
+        List<Future<List<String>>> results = new ArrayList<Future<List<String>>>();
+        for (int i = 0; i < numClients; i++) {
+            ScriptedClient client = new ScriptedClient(host, port, "bot" + i, discards);
+            results.add(executor.submit(client::play));
+        }
+        int numFinished = 0;
+        for (Future<List<String>> result : results) {
+            List<String> lines = result.get();
+            if (lines.size() > 1 && lines.get(lines.size() - 2).startsWith("WINNER")) {
+                numFinished++;
+            }
+        }
+        executor.shutdown();
+        System.out.println(String.format("%d of %d clients finished a round in %.1f ms",
+                numFinished, numClients, (System.nanoTime() - start) / 1e6));
+    }
+
+}
@@ -0,0 +1,123 @@
+package cardgame.server;
+
+import cardgame.common.Player;
+import cardgame.poker.FiveCardDraw;
+import cardgame.poker.Showdown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.random.RandomGenerator;
+
+/**
+ * Table seats connected players and plays one round of Five Card Draw with
+ * them once every seat is taken.
+ */
+public class Table {
+
+    private final long number;
+    private final int numSeats;
+    private final List<Connection> connections;
+    private final List<String> names;
+    private final CountDownLatch finished;
+
+    /**
+     * Construct an empty table.
+     * @param number the table number
+     * @param numSeats the number of players the table waits for
+     */
+    public Table(long number, int numSeats) {
+        this.number = number;
+        this.numSeats = numSeats;
+        connections = new ArrayList<Connection>();
+        names = new ArrayList<String>();
+        finished = new CountDownLatch(1);
+    }
+
+    /**
+     * Seat a player. Not thread-safe; the server seats one player at a time.
+     * @param connection the connection to the player
+     * @param name the name of the player
+     * @return whether every seat is now taken
+     */
+    public boolean seat(Connection connection, String name) {
+        connections.add(connection);
+        names.add(name);
+        connection.send("WELCOME " + name + " TABLE " + number + " SEAT " + (connections.size() - 1));
+        return connections.size() == numSeats;
+    }
+
+    /**
+     * Unseat a player who gave up waiting for the table to fill. Not
+     * thread-safe; the server unseats players while holding the seating lock.
+     * @param connection the connection to the player
+     */
+    public void unseat(Connection connection) {
+        int seat = connections.indexOf(connection);
+        if (seat >= 0) {
+            connections.remove(seat);
+            names.remove(seat);
+        }
+    }
+
+    /**
+     * Play a round with the seated players, then release the threads waiting
+     * for the table.
+     * @param random the random source for shuffling
+     */
+    public void play(RandomGenerator random) {
+        try {
+            FiveCardDraw game = new FiveCardDraw(random);
+            game.setOut(null);
+            for (int i = 0; i < connections.size(); i++) {
+                if (game.addPlayer(names.get(i), new RemoteDiscardAgent(connections.get(i))) == null) {
+                    // names need only be unique at a table
+                    names.set(i, names.get(i) + "#" + i);
+                    game.addPlayer(names.get(i), new RemoteDiscardAgent(connections.get(i)));
+                }
+            }
+            broadcast("PLAYERS " + String.join(" ", names));
+            broadcast("DEALER " + game.getDealer().getName());
+            if (game.beforeRound() || game.round()) {
+                broadcast("ABORTED");
+                return;
+            }
+            List<Player> ranking = game.afterRound();
+            for (int i = ranking.size() - 1; i >= 0; i--) {
+                Player player = ranking.get(i);
+                broadcast("RANK " + player.getName() + " " + player.getHand());
+            }
+            List<String> winners = new ArrayList<String>();
+            for (Player winner : Showdown.winners(ranking)) {
+                winners.add(winner.getName());
+            }
+            broadcast("WINNER " + String.join(" ", winners));
+        } finally {
+            broadcast("BYE");
+            finished.countDown();
+        }
+    }
+
+    /**
+     * Wait until the round at the table is over, or the timeout expires.
+     * @param timeout the longest time to wait
+     * @param unit the unit of the timeout
+     * @return whether the round is over
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitFinished(long timeout, TimeUnit unit) throws InterruptedException {
+        return finished.await(timeout, unit);
+    }
+
+    public long getNumber() {
+        return number;
+    }
+
+    private void broadcast(String line) {
+        for (Connection connection : connections) {
+            connection.send(line);
+        }
+    }
+
+}
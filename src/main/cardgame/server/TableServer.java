@@ -0,0 +1,213 @@
+package cardgame.server;
+
+import cardgame.common.RandomStreams;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * TableServer hosts Five Card Draw tables for players connecting over TCP.
+ *
+ * Each connection is served by its own thread: a virtual thread on Java 21
+ * and later, otherwise a platform thread. A player sends a name as the first
+ * line and is seated at the table being filled. The thread of the player who
+ * takes the last seat plays the round, reading every player's discards from
+ * their connection in turn, while the other players' threads wait for the
+ * table to finish. Blocking reads park virtual threads rather than pinning
+ * platform threads, since no lock is held while reading.
+ *
+ * Hosting many thousands of tables needs Java 21 or later. Before Java 21,
+ * every connection holds a platform thread, blocked in a read for up to
+ * READ_TIMEOUT_MILLIS, so the server only suits a few hundred players.
+ *
+ * A player waits at most WAIT_TIMEOUT_MILLIS for the table to fill and play
+ * its round. A player still waiting then is unseated, sent BYE and
+ * disconnected, so a table that never fills does not hold its players'
+ * threads and sockets forever.
+ *
+ * Run it with: java -cp bin cardgame.server.TableServer &lt;port&gt; [&lt;seats per table&gt;]
+ */
+public class TableServer implements Closeable {
+
+    public static final int DEFAULT_NUM_SEATS = 4;
+    public static final int READ_TIMEOUT_MILLIS = 60000;
+    public static final long WAIT_TIMEOUT_MILLIS = 10 * READ_TIMEOUT_MILLIS;
+
+    private final ServerSocket serverSocket;
+    private final int numSeats;
+    private final long waitTimeoutMillis;
+    private final RandomStreams streams;
+    private final ExecutorService executor;
+    private final ReentrantLock seatingLock;
+    private final AtomicLong numTablesPlayed;
+    private Table filling;
+    private long numTables;
+
+    /**
+     * Construct a table server that accepts players on a bound server socket.
+     * @param serverSocket the bound server socket
+     * @param numSeats the number of players at each table
+     * @param seed the seed for shuffling; table n shuffles with stream n
+     */
+    public TableServer(ServerSocket serverSocket, int numSeats, long seed) {
+        this(serverSocket, numSeats, seed, WAIT_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * Construct a table server with the given wait timeout, for tests.
+     * @param serverSocket the bound server socket
+     * @param numSeats the number of players at each table
+     * @param seed the seed for shuffling; table n shuffles with stream n
+     * @param waitTimeoutMillis how long a player waits for the table to finish
+     */
+    TableServer(ServerSocket serverSocket, int numSeats, long seed, long waitTimeoutMillis) {
+        if (numSeats < 2) {
+            throw new IllegalArgumentException("Expected at least 2 seats per table but got " + numSeats);
+        }
+        this.serverSocket = serverSocket;
+        this.numSeats = numSeats;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        streams = new RandomStreams(seed);
+        executor = newThreadPerTaskExecutor();
+        seatingLock = new ReentrantLock();
+        numTablesPlayed = new AtomicLong();
+    }
+
+    /**
+     * Return whether connections are served by virtual threads, which needs
+     * Java 21 or later.
+     * @return whether virtual threads are available
+     */
+    public static boolean hasVirtualThreads() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Return an executor that runs each task in a new virtual thread, or in a
+     * new platform thread before Java 21.
+     * @return an executor that runs each task in its own thread
+     */
+    static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    /**
+     * Accept players until the server is closed.
+     * @throws IOException if accepting fails other than by closing the server
+     */
+    public void serve() throws IOException {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                if (serverSocket.isClosed()) {
+                    break;
+                }
+                throw e;
+            }
+            executor.execute(() -> handle(socket));
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Connection connection = new Connection(socket)) {
+            socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+            String name = connection.receive();
+            if (name == null || name.trim().isEmpty()) {
+                return;
+            }
+            Table table;
+            boolean full;
+            seatingLock.lock();
+            try {
+                if (filling == null) {
+                    filling = new Table(numTables++, numSeats);
+                }
+                table = filling;
+                full = table.seat(connection, name.trim().split("\\s+")[0]);
+                if (full) {
+                    filling = null;
+                }
+            } finally {
+                seatingLock.unlock();
+            }
+            if (full) {
+                table.play(streams.stream(table.getNumber()));
+                numTablesPlayed.incrementAndGet();
+            } else if (!table.awaitFinished(waitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                seatingLock.lock();
+                try {
+                    // a table still filling has not dealt the player in
+                    if (table == filling) {
+                        table.unseat(connection);
+                    }
+                } finally {
+                    seatingLock.unlock();
+                }
+                connection.send("BYE");
+            }
+        } catch (IOException e) {
+            // the player disconnected; the connection is closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Return the port the server accepts players on.
+     * @return the local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Return the number of tables that have finished a round.
+     * @return the number of tables played
+     */
+    public long getNumTablesPlayed() {
+        return numTablesPlayed.get();
+    }
+
+    /**
+     * Stop accepting players and interrupt the players waiting for a table.
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    public static void main(String args[]) throws IOException {
+        if (args.length < 1) {
+            System.out.println("java cardgame.server.TableServer <port> [<seats per table>]");
+            System.out.println("Java 21 or later is needed to host many thousands of tables");
+            return;
+        }
+        int port = Integer.parseInt(args[0]);
+        int numSeats = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_NUM_SEATS;
+        try (TableServer server = new TableServer(new ServerSocket(port, 4096), numSeats, System.nanoTime())) {
+            if (!hasVirtualThreads()) {
+                System.out.println("Java " + Runtime.version().feature() + " has no virtual threads: each player"
+                        + " holds a platform thread, so only a few hundred players can be served");
+            }
+            System.out.println("Serving tables of " + numSeats + " on port " + server.getPort());
+            server.serve();
+        }
+    }
+
+}
@@ -112,4 +112,33 @@ public class TestCard extends TestCase {
             }
         }
     }
+
+    public void testOf_canonicalInstance() throws Throwable {
+        for (int i = 0; i < diamonds.length; i++) {
+            assertSame("Parsed card should be canonical", Card.of(Rank.fromValue(i + Rank.MIN_VALUE), Suit.DIAMONDS), Card.getInstance(diamonds[i]));
+            assertSame("Parsed card should be canonical", Card.of(Rank.fromValue(i + Rank.MIN_VALUE), Suit.SPADES), Card.getInstance(spades[i]));
+        }
+    }
+
+    public void testOf_idRoundTrip() throws Throwable {
+        for (int id = 0; id < Card.NUM_CARDS; id++) {
+            Card card = Card.of(id);
+            assertEquals("Card id should round trip", id, card.getId());
+            assertSame("Card should round trip", card, Card.of(card.getRank(), card.getSuit()));
+        }
+    }
+
+    public void testHashCode_equalCards() throws Throwable {
+        Card card1 = new Card(Rank.QUEEN, Suit.HEARTS);
+        Card card2 = Card.getInstance("QH");
+        assertEquals("Equal cards should be equal", card1, card2);
+        assertEquals("Equal cards should have equal hash codes", card1.hashCode(), card2.hashCode());
+    }
+
+    public void testGetInstance_invalid() throws Throwable {
+        assertNull("Invalid rank should not parse", Card.getInstance("1D"));
+        assertNull("Invalid ten should not parse", Card.getInstance("11D"));
+        assertNull("Invalid suit should not parse", Card.getInstance("AX"));
+        assertEquals("Lower case should parse", Card.of(Rank.TEN, Suit.CLUBS), Card.getInstance("10c"));
+    }
 }
\ No newline at end of file
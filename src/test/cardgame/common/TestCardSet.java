@@ -0,0 +1,56 @@
+package cardgame.common;
+
+import junit.framework.TestCase;
+
+public class TestCardSet extends TestCase {
+
+    public void testAddRemoveContains() throws Throwable {
+        CardSet cardSet = new CardSet();
+        Card card = Card.getInstance("10H");
+
+        assertTrue("Card should be added", cardSet.add(card));
+        assertFalse("Card should not be added twice", cardSet.add(card));
+        assertTrue("Set should hold card", cardSet.contains(card));
+        assertEquals("Set should hold one card", 1, cardSet.size());
+        assertTrue("Card should be removed", cardSet.remove(card));
+        assertFalse("Card should not be removed twice", cardSet.remove(card));
+        assertTrue("Set should be empty", cardSet.isEmpty());
+    }
+
+    public void testFullDeck() throws Throwable {
+        CardSet deck = CardSet.fullDeck();
+        assertEquals("Full deck should hold 52 cards", Card.NUM_CARDS, deck.size());
+        int numCards = 0;
+        for (Card card : deck) {
+            assertTrue("Full deck should hold every card", deck.contains(card));
+            numCards++;
+        }
+        assertEquals("Full deck should iterate 52 cards", Card.NUM_CARDS, numCards);
+    }
+
+    public void testDifference_remainingDeck() throws Throwable {
+        CardSet dead = new CardSet();
+        dead.add(Card.getInstance("AS"));
+        dead.add(Card.getInstance("KS"));
+        CardSet remaining = CardSet.fullDeck().difference(dead);
+
+        assertEquals("Remaining deck should hold 50 cards", Card.NUM_CARDS - 2, remaining.size());
+        assertFalse("Remaining deck should not intersect dead cards", remaining.intersects(dead));
+        assertEquals("Union should restore full deck", CardSet.fullDeck(), remaining.union(dead));
+        assertTrue("Intersection should be empty", remaining.intersection(dead).isEmpty());
+    }
+
+    public void testRankAndSuitMasks() throws Throwable {
+        CardSet cardSet = new CardSet();
+        cardSet.add(Card.getInstance("2H"));
+        cardSet.add(Card.getInstance("AH"));
+        cardSet.add(Card.getInstance("AS"));
+
+        assertEquals("Hearts should hold Two and Ace", (1 << Rank.TWO.ordinal()) | (1 << Rank.ACE.ordinal()), cardSet.getRankMask(Suit.HEARTS));
+        assertEquals("Spades should hold Ace", 1 << Rank.ACE.ordinal(), cardSet.getRankMask(Suit.SPADES));
+        assertEquals("Clubs should be empty", 0, cardSet.getRankMask(Suit.CLUBS));
+        assertEquals("Ranks should be Two and Ace", (1 << Rank.TWO.ordinal()) | (1 << Rank.ACE.ordinal()), cardSet.getRankMask());
+        assertEquals("Aces should be Hearts and Spades", (1 << Suit.HEARTS.ordinal()) | (1 << Suit.SPADES.ordinal()), cardSet.getSuitMask(Rank.ACE));
+    }
+
+}
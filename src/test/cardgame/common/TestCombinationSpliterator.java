@@ -0,0 +1,54 @@
+package cardgame.common;
+
+import junit.framework.TestCase;
+
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+
+public class TestCombinationSpliterator extends TestCase {
+
+    private static final int FULL_HAND = 5;
+    private static final long NUM_HANDS = 2598960L;
+
+    public void testStream_countsAllHands() throws Throwable {
+        assertEquals("Sequential stream should count all hands", NUM_HANDS,
+                CombinationSpliterator.stream(FULL_HAND, false).count());
+        assertEquals("Parallel stream should count all hands", NUM_HANDS,
+                CombinationSpliterator.stream(FULL_HAND, true).distinct().count());
+    }
+
+    public void testStream_colexOrder() throws Throwable {
+        long[] hands = CombinationSpliterator.stream(FULL_HAND, false).limit(7).toArray();
+        assertEquals("First hand should hold the lowest cards", 0x1FL, hands[0]);
+        assertEquals("Second hand should replace the highest card", 0x2FL, hands[1]);
+        for (int i = 1; i < hands.length; i++) {
+            assertTrue("Hands should be in increasing order", hands[i] > hands[i - 1]);
+            assertEquals("Hand should hold five cards", FULL_HAND, Long.bitCount(hands[i]));
+        }
+    }
+
+    public void testRank_inverseOfUnrank() throws Throwable {
+        long index = 0;
+        Spliterator.OfLong spliterator = new CombinationSpliterator(3);
+        long[] bits = new long[1];
+        while (spliterator.tryAdvance((long hand) -> bits[0] = hand)) {
+            assertEquals("Rank should be the colex index", index, CombinationSpliterator.rank(bits[0]));
+            assertEquals("Unrank should give the hand", bits[0], CombinationSpliterator.unrank(3, index));
+            index++;
+        }
+        assertEquals("All combinations should be visited", CombinationSpliterator.count(3), index);
+    }
+
+    public void testTrySplit_evenHalves() throws Throwable {
+        CombinationSpliterator suffix = new CombinationSpliterator(FULL_HAND);
+        Spliterator.OfLong prefix = suffix.trySplit();
+        assertEquals("Prefix should hold half the hands", NUM_HANDS / 2, prefix.estimateSize());
+        assertEquals("Suffix should hold half the hands", NUM_HANDS / 2, suffix.estimateSize());
+        long lastOfPrefix = StreamSupport.longStream(prefix, false).reduce((a, b) -> b).getAsLong();
+        long firstOfSuffix = StreamSupport.longStream(suffix, false).findFirst().getAsLong();
+        assertTrue("Halves should be contiguous", firstOfSuffix > lastOfPrefix);
+        assertEquals("Halves should meet at the middle index", NUM_HANDS / 2,
+                CombinationSpliterator.rank(firstOfSuffix));
+    }
+
+}
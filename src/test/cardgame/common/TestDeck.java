@@ -0,0 +1,59 @@
+package cardgame.common;
+
+import junit.framework.TestCase;
+
+public class TestDeck extends TestCase {
+
+    private static final long SEED = 20100301L;
+
+    public void testShuffle_sameSeedSameOrder() throws Throwable {
+        Deck deck1 = new Deck(false, new Xoshiro256(SEED));
+        Deck deck2 = new Deck(false, new Xoshiro256(SEED));
+        assertEquals("Decks with the same seed should have the same order", deck1.toString(), deck2.toString());
+    }
+
+    public void testStream_independentOfRequestOrder() throws Throwable {
+        RandomStreams streams = new RandomStreams(SEED);
+        Deck later = new Deck(false, streams.stream(7));
+        new Deck(false, streams.stream(3));
+        Deck again = new Deck(false, new RandomStreams(SEED).stream(7));
+        assertEquals("A stream should only depend on seed and index", later.toString(), again.toString());
+        assertFalse("Different streams should differ",
+                later.toString().equals(new Deck(false, streams.stream(8)).toString()));
+    }
+
+    public void testResetInOrder_dependsOnlyOnRandomSource() throws Throwable {
+        Deck deck1 = new Deck(false, new Xoshiro256(SEED));
+        Deck deck2 = new Deck(false, new Xoshiro256(SEED + 1));
+        deck1.drawCard();
+        deck1.setRandom(new Xoshiro256(SEED + 2));
+        deck2.setRandom(new Xoshiro256(SEED + 2));
+        deck1.resetInOrder();
+        deck2.resetInOrder();
+        assertEquals("Earlier shuffles should not matter", deck1.toString(), deck2.toString());
+        assertEquals("Reset should return all cards", CardSet.fullDeck(), deck1.getCardSet());
+    }
+
+    public void testDrawCard_drawsAllCardsOnce() throws Throwable {
+        Deck deck = new Deck(false, new Xoshiro256(SEED));
+        CardSet drawn = new CardSet();
+        Card card;
+        while ((card = deck.drawCard()) != null) {
+            assertTrue("Card should only be drawn once", drawn.add(card));
+        }
+        assertEquals("All cards should be drawn", Card.NUM_CARDS, drawn.size());
+        assertTrue("Deck should be empty", deck.isEmpty());
+
+        deck.reset();
+        assertEquals("Reset should return all cards", CardSet.fullDeck(), deck.getCardSet());
+    }
+
+    public void testDeck_fromCardSet() throws Throwable {
+        CardSet remaining = CardSet.fullDeck();
+        remaining.remove(Card.getInstance("AS"));
+        Deck deck = new Deck(remaining, new Xoshiro256(SEED));
+        assertEquals("Deck should hold 51 cards", Card.NUM_CARDS - 1, deck.size());
+        assertFalse("Deck should not hold dead card", deck.getCardSet().contains(Card.getInstance("AS")));
+    }
+
+}
@@ -0,0 +1,86 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.CombinationSpliterator;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+public class TestBestHandEvaluator extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final int NUM_RANDOM_HANDS = 200000;
+
+    private static long bits(String... cardStrings) {
+        CardSet cards = new CardSet();
+        for (String cardString : cardStrings) {
+            cards.add(Card.getInstance(cardString));
+        }
+        return cards.getBits();
+    }
+
+    private static long randomHand(Xoshiro256 random, int numCards) {
+        long bits = 0;
+        while (Long.bitCount(bits) < numCards) {
+            bits |= 1L << random.nextInt(Card.NUM_CARDS);
+        }
+        return bits;
+    }
+
+    private static PokerRank rank(long bits) {
+        return HandEvaluator.getPokerRank(BestHandEvaluator.evaluate(bits));
+    }
+
+    public void testEvaluate_allFiveCardHandsMatchHandEvaluator() throws Throwable {
+        CombinationSpliterator.stream(HandEvaluator.NUM_CARDS_IN_HAND, false).forEach(bits ->
+                assertEquals("Five-card strength should match HandEvaluator",
+                        HandEvaluator.evaluate(bits), BestHandEvaluator.evaluate(bits)));
+    }
+
+    public void testEvaluate_randomHandsMatchReference() throws Throwable {
+        Xoshiro256 random = new Xoshiro256(SEED);
+        for (int numCards = 6; numCards <= BestHandEvaluator.MAX_NUM_CARDS; numCards++) {
+            for (int i = 0; i < NUM_RANDOM_HANDS; i++) {
+                long bits = randomHand(random, numCards);
+                assertEquals("Strength should match the best of all five-card subsets for " + new CardSet(bits),
+                        BestHandEvaluator.evaluateByEnumeration(bits), BestHandEvaluator.evaluate(bits));
+            }
+        }
+    }
+
+    public void testEvaluate_sevenCardHands() throws Throwable {
+        assertEquals("Two trips make a full house", PokerRank.FULL_HOUSE,
+                rank(bits("9H", "9S", "9D", "4C", "4H", "4D", "KS")));
+        assertEquals("Three pairs make two pairs", PokerRank.TWO_PAIRS,
+                rank(bits("9H", "9S", "4D", "4C", "2H", "2D", "KS")));
+        assertTrue("Best two pairs should use the highest kicker",
+                BestHandEvaluator.evaluate(bits("9H", "9S", "4D", "4C", "2H", "2D", "KS"))
+                        > BestHandEvaluator.evaluate(bits("9H", "9S", "4D", "4C", "2H", "2D", "QS")));
+        assertEquals("A flush beats a straight", PokerRank.FLUSH,
+                rank(bits("5H", "6S", "7H", "8H", "9D", "KH", "2H")));
+        assertEquals("Ace plays low in the wheel", PokerRank.STRAIGHT,
+                rank(bits("AH", "2S", "3D", "4C", "5H", "KD", "KS")));
+        assertEquals("Six suited cards can hold a straight flush", PokerRank.STRAIGHT_FLUSH,
+                rank(bits("5H", "6H", "7H", "8H", "9H", "KH", "9S")));
+        assertEquals("Quads with a pair are four of a kind", PokerRank.FOUR_OF_A_KIND,
+                rank(bits("JH", "JS", "JD", "JC", "3H", "3S", "2D")));
+    }
+
+    public void testPokerHand_sevenCards() throws Throwable {
+        PokerHand hand = new PokerHand(BestHandEvaluator.MAX_NUM_CARDS);
+        for (String card : new String[] {"9H", "9S", "9D", "4C", "4H", "4D", "KS"}) {
+            hand.addCard(Card.getInstance(card));
+        }
+        assertEquals("Seven-card hand should be ranked by its best five", PokerRank.FULL_HOUSE, hand.getPokerRank());
+    }
+
+    public void testEvaluate_rejectsWrongNumberOfCards() throws Throwable {
+        try {
+            BestHandEvaluator.evaluate(bits("9H", "9S", "9D", "4C"));
+            fail("Four cards should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Scanner;
+
+public class TestDiscardAgent extends TestCase {
+
+    private static final int FULL_HAND = 5;
+
+    private PokerHand hand(String... cardStrings) {
+        PokerHand hand = new PokerHand(FULL_HAND);
+        for (String cardString : cardStrings) {
+            hand.addCard(Card.getInstance(cardString));
+        }
+        return hand;
+    }
+
+    public void testHeuristic_standsPatOnStraight() throws Throwable {
+        List<Integer> discards = new HeuristicDiscardAgent().chooseDiscards(hand("5H", "6D", "7C", "8S", "9H"));
+        assertTrue("Straight should stand pat", discards.isEmpty());
+    }
+
+    public void testHeuristic_keepsPair() throws Throwable {
+        // sorted: 2C 7S 9H KD KH
+        List<Integer> discards = new HeuristicDiscardAgent().chooseDiscards(hand("KH", "KD", "2C", "7S", "9H"));
+        assertEquals("Unpaired cards should be discarded", Arrays.asList(0, 1, 2), discards);
+    }
+
+    public void testHeuristic_drawsToFlush() throws Throwable {
+        // sorted: 2H 5H 7S 9H KH
+        List<Integer> discards = new HeuristicDiscardAgent().chooseDiscards(hand("2H", "5H", "7S", "9H", "KH"));
+        assertEquals("Off-suit card should be discarded", Arrays.asList(2), discards);
+    }
+
+    public void testHeuristic_keepsHighCards() throws Throwable {
+        List<Integer> discards = new HeuristicDiscardAgent().chooseDiscards(hand("2H", "5D", "7S", "9C", "KH"));
+        assertEquals("Three lowest cards should be discarded", Arrays.asList(0, 1, 2), discards);
+    }
+
+    public void testRandom_distinctPositions() throws Throwable {
+        RandomDiscardAgent agent = new RandomDiscardAgent(new Xoshiro256(1));
+        PokerHand hand = hand("2H", "5D", "7S", "9C", "KH");
+        for (int i = 0; i < 1000; i++) {
+            List<Integer> discards = agent.chooseDiscards(hand);
+            assertEquals("Positions should be distinct", discards.size(), new HashSet<Integer>(discards).size());
+            for (int position : discards) {
+                assertTrue("Position should be in hand", position >= 0 && position < FULL_HAND);
+            }
+        }
+    }
+
+    public void testConsole_skipsInvalidInput() throws Throwable {
+        ConsoleDiscardAgent agent = new ConsoleDiscardAgent(new Scanner("two 2 9 4 4 0"));
+        List<Integer> discards = agent.chooseDiscards(hand("2H", "5D", "7S", "9C", "KH"));
+        assertEquals("Invalid and repeated input should be skipped", Arrays.asList(4, 0), discards);
+    }
+
+}
@@ -0,0 +1,140 @@
+package cardgame.poker;
+
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+public class TestDrawSnapshot extends TestCase {
+
+    private static final long SEED = 20100301L;
+
+    private FiveCardDraw game(int numPlayers) {
+        FiveCardDraw game = new FiveCardDraw(new Xoshiro256(SEED));
+        game.setOut(null);
+        for (int i = 0; i < numPlayers; i++) {
+            game.addPlayer("player" + i);
+        }
+        return game;
+    }
+
+    private FiveCardDraw restore(byte[] snapshot) {
+        FiveCardDraw game = DrawSnapshot.restore(snapshot);
+        game.setOut(null);
+        return game;
+    }
+
+    private String describe(List<Player> players) {
+        StringBuilder description = new StringBuilder();
+        for (Player player : players) {
+            description.append(player).append('\n');
+        }
+        return description.toString();
+    }
+
+    /**
+     * Play out the round and the next with the same discards: three cards
+     * from the lowest positions, then pat.
+     */
+    private String playOn(FiveCardDraw game) {
+        StringBuilder played = new StringBuilder();
+        for (int round = 0; round < 2; round++) {
+            if (game.getState().isOver()) {
+                game.newRound();
+            }
+            DrawState state = game.getState();
+            if (state.getPhase() == DrawState.Phase.READY) {
+                state = game.startRound();
+            }
+            while (state.getPhase() == DrawState.Phase.DISCARDING) {
+                state = game.discard(state.getSeatToAct(), round == 0 ? 7 : 0);
+            }
+            played.append(state).append('\n').append(game.getRoundSeed()).append('\n');
+            played.append(describe(state.getPhase() == DrawState.Phase.FINISHED ? state.getRanking()
+                    : Arrays.asList(game.getDealer())));
+        }
+        return played.toString();
+    }
+
+    public void testRestore_midRoundPlaysOnAlike() throws Throwable {
+        // ten players draw past the deck into the reshuffled discards
+        FiveCardDraw game = game(10);
+        game.newRound();
+        DrawState state = game.startRound();
+        for (int i = 0; i < 4; i++) {
+            state = game.discard(state.getSeatToAct(), 7);
+        }
+        byte[] snapshot = DrawSnapshot.save(game);
+        FiveCardDraw restored = restore(snapshot);
+        assertEquals(game.getState().toString(), restored.getState().toString());
+        assertEquals(game.getDealer().getName(), restored.getDealer().getName());
+        assertEquals(game.getState().getPlayerToAct().toString(), restored.getState().getPlayerToAct().toString());
+        assertTrue("A restored game should save the same snapshot",
+                Arrays.equals(snapshot, DrawSnapshot.save(restored)));
+        assertEquals("A restored game should play on as the saved game", playOn(game), playOn(restored));
+    }
+
+    public void testRestore_readyAndFinished() throws Throwable {
+        FiveCardDraw game = game(4);
+        FiveCardDraw restored = restore(DrawSnapshot.save(game));
+        assertEquals(DrawState.Phase.READY, restored.getState().getPhase());
+        assertEquals(playOn(game), playOn(restored));
+
+        assertEquals(DrawState.Phase.FINISHED, game.getState().getPhase());
+        restored = restore(DrawSnapshot.save(game));
+        assertEquals(describe(game.getState().getRanking()), describe(restored.getState().getRanking()));
+        assertEquals(playOn(game), playOn(restored));
+    }
+
+    public void testRestore_withAgents() throws Throwable {
+        FiveCardDraw game = new FiveCardDraw(new Xoshiro256(SEED));
+        game.setOut(null);
+        Map<String, DiscardAgent> agents = new HashMap<String, DiscardAgent>();
+        for (int i = 0; i < 5; i++) {
+            DiscardAgent agent = i % 2 == 0 ? new HeuristicDiscardAgent() : new KeepPatDiscardAgent();
+            game.addPlayer("player" + i, agent);
+            agents.put("player" + i, agent);
+        }
+        FiveCardDraw restored = DrawSnapshot.restore(DrawSnapshot.save(game), agents);
+        restored.setOut(null);
+        for (FiveCardDraw each : Arrays.asList(game, restored)) {
+            assertFalse(each.beforeRound());
+            assertFalse(each.round());
+        }
+        assertEquals(describe(game.afterRound()), describe(restored.afterRound()));
+    }
+
+    public void testRestore_invalidSnapshots() throws Throwable {
+        FiveCardDraw game = game(3);
+        game.startRound();
+        byte[] snapshot = DrawSnapshot.save(game);
+        byte[] badMagic = snapshot.clone();
+        badMagic[0] = 'X';
+        byte[][] invalid = {new byte[0], badMagic, Arrays.copyOf(snapshot, snapshot.length - 1),
+                Arrays.copyOf(snapshot, snapshot.length + 1)};
+        for (byte[] bytes : invalid) {
+            try {
+                DrawSnapshot.restore(bytes);
+                fail("Restoring " + bytes.length + " bytes should fail");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testSave_onlyXoshiro256() throws Throwable {
+        FiveCardDraw game = new FiveCardDraw(new SplittableRandom(SEED));
+        try {
+            DrawSnapshot.save(game);
+            fail("Saving a game shuffled by SplittableRandom should fail");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        DrawSnapshot.save(new FiveCardDraw());
+    }
+}
@@ -0,0 +1,137 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.CombinationSpliterator;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+public class TestDrawSolver extends TestCase {
+
+    private static final int FULL_HAND = 5;
+
+    private static DrawSolver solver;
+
+    @Override
+    protected void setUp() throws Exception {
+        if (solver == null) {
+            solver = new DrawSolver();
+        }
+    }
+
+    private long hand(String... cardStrings) {
+        CardSet cardSet = new CardSet();
+        for (String cardString : cardStrings) {
+            cardSet.add(Card.getInstance(cardString));
+        }
+        return cardSet.getBits();
+    }
+
+    /**
+     * Return the number of draws ending in each poker rank, by dealing every draw.
+     */
+    private long[] dealEveryDraw(long hand, int discardMask) {
+        long kept = 0;
+        long remaining = hand;
+        for (int i = 0; i < FULL_HAND; i++) {
+            long card = remaining & -remaining;
+            if ((discardMask & (1 << i)) == 0) {
+                kept |= card;
+            }
+            remaining &= remaining - 1;
+        }
+        final long keptCards = kept;
+        long[] counts = new long[PokerRank.values().length];
+        CombinationSpliterator.stream(Integer.bitCount(discardMask), false)
+                .filter(draw -> (draw & hand) == 0)
+                .forEach(draw -> counts[HandEvaluator.getPokerRank(HandEvaluator.evaluate(keptCards | draw)).ordinal()]++);
+        return counts;
+    }
+
+    public void testOutcome_matchesEveryDraw() throws Throwable {
+        long hand = hand("KH", "KD", "2C", "7S", "9H");
+        for (int discardMask : new int[] {0b00001, 0b10000, 0b00110, 0b11000, 0b10101}) {
+            DrawOutcome outcome = solver.outcome(hand, discardMask);
+            long[] counts = dealEveryDraw(hand, discardMask);
+            assertEquals("Number of draws", DrawSolver.numDraws(Integer.bitCount(discardMask)), outcome.getNumDraws());
+            for (PokerRank pokerRank : PokerRank.values()) {
+                assertEquals(pokerRank + " count for mask " + discardMask, counts[pokerRank.ordinal()],
+                        outcome.getCount(pokerRank));
+            }
+        }
+    }
+
+    public void testOutcome_patWinRate() throws Throwable {
+        long hand = hand("QH", "QD", "QC", "7S", "7H");
+        int strength = HandEvaluator.evaluate(hand);
+        long[] halfWins = new long[1];
+        CombinationSpliterator.stream(FULL_HAND, false).forEach(other -> {
+            int otherStrength = HandEvaluator.evaluate(other);
+            halfWins[0] += otherStrength < strength ? 2 : otherStrength == strength ? 1 : 0;
+        });
+        double winRate = halfWins[0] / (2.0 * CombinationSpliterator.count(FULL_HAND));
+        DrawOutcome outcome = solver.outcome(hand, 0);
+        assertEquals("Pat hand should not change", 1, outcome.getCount(PokerRank.FULL_HOUSE));
+        assertEquals("Pat win rate", winRate, outcome.getWinRate(), 1e-12);
+    }
+
+    public void testBestDiscard_bestOutcome() throws Throwable {
+        for (long hand : new long[] {hand("2H", "5D", "7S", "9C", "KH"), hand("AS", "AH", "AD", "2C", "3C"),
+                hand("5H", "6H", "7H", "8H", "9H")}) {
+            double bestWinRate = 0;
+            for (int discardMask = 0; discardMask < DrawSolver.NUM_DISCARD_MASKS; discardMask++) {
+                bestWinRate = Math.max(bestWinRate, solver.outcome(hand, discardMask).getWinRate());
+            }
+            assertEquals("Best discard should have the best win rate", bestWinRate,
+                    solver.outcome(hand, solver.bestDiscard(hand)).getWinRate(), 1e-12);
+        }
+        assertEquals("Straight flush should stand pat", 0, solver.bestDiscard(hand("5H", "6H", "7H", "8H", "9H")));
+    }
+
+    public void testSolve_resumesFromCheckpoint() throws Throwable {
+        Path tableFile = Files.createTempFile("draw", ".table");
+        try {
+            int numChunks = 1024;
+            assertEquals("Chunks left after first run", numChunks - 2, solver.solve(tableFile, numChunks, 2));
+            assertEquals("Chunks left after second run", numChunks - 5, solver.solve(tableFile, numChunks, 3));
+            try (FileChannel channel = FileChannel.open(tableFile, StandardOpenOption.READ)) {
+                boolean[] done = DrawTable.readProgress(channel);
+                for (int chunk = 0; chunk < numChunks; chunk++) {
+                    assertEquals("Chunk " + chunk + " progress", chunk < 5, done[chunk]);
+                }
+            }
+            try {
+                DrawTable.map(tableFile);
+                fail("Partly solved table should be rejected");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            Files.deleteIfExists(tableFile);
+        }
+    }
+
+    public void testSolve_keepsOtherFiles() throws Throwable {
+        Path otherFile = Files.createTempFile("draw", ".table");
+        try {
+            byte[] contents = {'n', 'o', 't', ' ', 'a', ' ', 't', 'a', 'b', 'l', 'e', ' ', 'f', 'i', 'l', 'e'};
+            Files.write(otherFile, contents);
+            try {
+                solver.solve(otherFile, 1024, 1);
+                fail("Solving into another file should fail");
+            } catch (IOException e) {
+                // expected
+            }
+            assertTrue("Another file should be left as it was", Arrays.equals(contents, Files.readAllBytes(otherFile)));
+        } finally {
+            Files.deleteIfExists(otherFile);
+        }
+    }
+
+}
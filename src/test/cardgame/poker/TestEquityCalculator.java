@@ -0,0 +1,92 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class TestEquityCalculator extends TestCase {
+
+    private static final int FULL_HAND = 5;
+    private static final long SEED = 20100301L;
+    private static final long TIME_BUDGET = TimeUnit.SECONDS.toNanos(30);
+
+    private PokerHand hand(String... cardStrings) {
+        PokerHand hand = new PokerHand(FULL_HAND);
+        for (String cardString : cardStrings) {
+            hand.addCard(Card.getInstance(cardString));
+        }
+        return hand;
+    }
+
+    public void testCalculate_completeHands() throws Throwable {
+        List<PokerHand> hands = new ArrayList<PokerHand>();
+        hands.add(hand("10H", "JH", "QH", "KH", "AH"));
+        hands.add(hand("2C", "2D", "2S", "2H", "3C"));
+        Equity[] equities = new EquityCalculator(SEED).calculate(hands, new CardSet(), 0.01, TIME_BUDGET);
+        assertEquals("Straight flush should always win", 1.0, equities[0].getEquity());
+        assertEquals("Four of a kind should never win", 0.0, equities[1].getEquity());
+    }
+
+    public void testCalculate_identicalRanksTie() throws Throwable {
+        List<PokerHand> hands = new ArrayList<PokerHand>();
+        hands.add(hand("2C", "5C", "7D", "9S", "JH"));
+        hands.add(hand("2D", "5D", "7C", "9H", "JS"));
+        Equity[] equities = new EquityCalculator(SEED).calculate(hands, new CardSet(), 0.01, TIME_BUDGET);
+        assertEquals("Hands should always tie", equities[0].getTrials(), equities[0].getTies());
+        assertEquals("Tied hands should split the pot", 0.5, equities[1].getEquity());
+    }
+
+    public void testCalculate_reachesTarget() throws Throwable {
+        List<PokerHand> hands = new ArrayList<PokerHand>();
+        hands.add(hand("AS", "AH", "KD"));
+        hands.add(hand("QS", "QH"));
+        hands.add(hand());
+        Equity[] equities = new EquityCalculator(SEED).calculate(hands, new CardSet(), 0.01, TIME_BUDGET);
+        double total = 0;
+        for (Equity equity : equities) {
+            assertTrue("Half-width should reach target", equity.getHalfWidth() <= 0.01);
+            total += equity.getEquity();
+        }
+        assertEquals("Equities should sum to one", 1.0, total, 1e-9);
+        assertTrue("Pair of aces should be ahead", equities[0].getEquity() > equities[1].getEquity());
+    }
+
+    public void testCalculate_sameSeedAnyParallelism() throws Throwable {
+        List<PokerHand> hands = new ArrayList<PokerHand>();
+        hands.add(hand("KS", "KH"));
+        hands.add(hand("7D", "8D", "9D"));
+        CardSet deadCards = CardSet.of(hand("KC", "6D").getCardSet());
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            Equity[] first = new EquityCalculator(single, SEED, 50).calculate(hands, deadCards, 0.02, TIME_BUDGET);
+            Equity[] second = new EquityCalculator(quad, SEED, 50).calculate(hands, deadCards, 0.02, TIME_BUDGET);
+            for (int i = 0; i < hands.size(); i++) {
+                assertEquals("Same seed should run the same trials", first[i].getTrials(), second[i].getTrials());
+                assertEquals("Same seed should give the same wins", first[i].getWins(), second[i].getWins());
+                assertEquals("Same seed should give the same ties", first[i].getTies(), second[i].getTies());
+            }
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    public void testCalculate_rejectsSharedCards() throws Throwable {
+        List<PokerHand> hands = new ArrayList<PokerHand>();
+        hands.add(hand("AS", "AH"));
+        hands.add(hand("AS", "KH"));
+        try {
+            new EquityCalculator(SEED).calculate(hands, new CardSet(), 0.01, TIME_BUDGET);
+            fail("Hands sharing a card should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package cardgame.poker;
+
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestFiveCardDraw extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final int NUM_PLAYERS = 4;
+
+    private FiveCardDraw game(long seed) {
+        FiveCardDraw game = new FiveCardDraw(new Xoshiro256(seed));
+        game.setOut(null);
+        for (int i = 0; i < NUM_PLAYERS; i++) {
+            game.addPlayer("player" + i, new HeuristicDiscardAgent());
+        }
+        return game;
+    }
+
+    private int heuristicMask(Player player) {
+        int mask = 0;
+        for (int position : new HeuristicDiscardAgent().chooseDiscards((PokerHand) player.getHand())) {
+            mask |= 1 << position;
+        }
+        return mask;
+    }
+
+    private String describe(List<Player> ranking) {
+        StringBuilder description = new StringBuilder();
+        for (Player player : ranking) {
+            description.append(player).append('\n');
+        }
+        return description.toString();
+    }
+
+    public void testDiscard_sameRoundsAsAgents() throws Throwable {
+        FiveCardDraw blocking = game(SEED);
+        FiveCardDraw events = game(SEED);
+        for (int round = 0; round < 50; round++) {
+            if (round > 0) {
+                blocking.newRound();
+                events.newRound();
+            }
+            assertFalse(blocking.beforeRound());
+            assertFalse(blocking.round());
+            List<Player> expected = blocking.afterRound();
+            DrawState state = events.startRound();
+            while (state.getPhase() == DrawState.Phase.DISCARDING) {
+                state = events.discard(state.getSeatToAct(), heuristicMask(state.getPlayerToAct()));
+            }
+            assertEquals(DrawState.Phase.FINISHED, state.getPhase());
+            assertEquals("Events should play the round the agents play", describe(expected),
+                    describe(state.getRanking()));
+            assertSame(state, events.getState());
+        }
+    }
+
+    public void testDiscard_turnOrder() throws Throwable {
+        FiveCardDraw game = game(SEED);
+        assertEquals(DrawState.Phase.READY, game.getState().getPhase());
+        DrawState state = game.startRound();
+        assertEquals("The player after the dealer should discard first", 1, state.getSeatToAct());
+        try {
+            game.discard(2, 0);
+            fail("A discard out of turn should be rejected");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            game.discard(1, 1 << 5);
+            fail("A discard beyond the hand should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            game.startRound();
+            fail("A round should start once");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Player first = state.getPlayerToAct();
+        state = game.discard(1, 0x1F);
+        assertEquals(2, state.getSeatToAct());
+        assertNull("Discarded cards should leave the hand until the draw", first.getHand().getCard(0));
+    }
+
+    public void testDiscard_manyTablesOnOneThread() throws Throwable {
+        // every table waits on its players at once, and one thread plays
+        // whichever table has an event
+        List<FiveCardDraw> tables = new ArrayList<FiveCardDraw>();
+        List<DrawState> states = new ArrayList<DrawState>();
+        for (int table = 0; table < 1000; table++) {
+            FiveCardDraw game = game(SEED + table);
+            tables.add(game);
+            states.add(game.startRound());
+        }
+        int numOver = 0;
+        while (numOver < tables.size()) {
+            numOver = 0;
+            for (int table = 0; table < tables.size(); table++) {
+                DrawState state = states.get(table);
+                if (state.isOver()) {
+                    numOver++;
+                } else {
+                    states.set(table, tables.get(table).discard(state.getSeatToAct(),
+                            heuristicMask(state.getPlayerToAct())));
+                }
+            }
+        }
+        for (DrawState state : states) {
+            assertEquals(DrawState.Phase.FINISHED, state.getPhase());
+            assertEquals(NUM_PLAYERS, state.getRanking().size());
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package cardgame.poker;
+
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+public class TestFiveCardDrawSimulation extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final int NUM_ROUNDS = 2000;
+
+    private FiveCardDrawSimulation simulation(long seed) {
+        FiveCardDrawSimulation simulation = new FiveCardDrawSimulation(new Xoshiro256(seed));
+        simulation.addPlayer("pat", new KeepPatDiscardAgent());
+        simulation.addPlayer("heuristic", new HeuristicDiscardAgent());
+        simulation.addPlayer("random", new RandomDiscardAgent(new Xoshiro256(seed + 1)));
+        return simulation;
+    }
+
+    public void testPlay_winsAddUpToRounds() throws Throwable {
+        FiveCardDrawSimulation simulation = simulation(SEED);
+        simulation.play(NUM_ROUNDS);
+        assertEquals("All rounds should finish", NUM_ROUNDS, simulation.getNumRounds());
+        double totalWins = 0;
+        for (Player player : simulation.getPlayers()) {
+            totalWins += simulation.getWins(player);
+        }
+        assertEquals("Each round should have one win", NUM_ROUNDS, totalWins, 1e-6);
+    }
+
+    public void testPlay_sameSeedSameResults() throws Throwable {
+        FiveCardDrawSimulation first = simulation(SEED);
+        FiveCardDrawSimulation second = simulation(SEED);
+        first.play(NUM_ROUNDS);
+        second.play(NUM_ROUNDS);
+        for (int i = 0; i < first.getPlayers().size(); i++) {
+            assertEquals("Same seed should give the same wins",
+                    first.getWins(first.getPlayers().get(i)), second.getWins(second.getPlayers().get(i)));
+        }
+    }
+
+    public void testPlay_heuristicBeatsRandom() throws Throwable {
+        FiveCardDrawSimulation simulation = simulation(SEED);
+        simulation.play(NUM_ROUNDS);
+        assertTrue("Heuristic agent should beat random agent",
+                simulation.getWinRate(simulation.getPlayers().get(1)) > simulation.getWinRate(simulation.getPlayers().get(2)));
+    }
+
+}
@@ -0,0 +1,120 @@
+package cardgame.poker;
+
+import cardgame.common.Deck;
+import cardgame.common.GameMetrics;
+import cardgame.common.LatencySummary;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.TabularData;
+
+/**
+ * Run with -Dcardgame.metrics=true, as test.sh does; without it, only the
+ * LatencySummary tests check anything.
+ */
+public class TestGameMetrics extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final int NUM_ROUNDS = 1000;
+
+    public void testLatencySummary_summarizesDurations() throws Throwable {
+        LatencySummary summary = new LatencySummary();
+        for (int i = 1; i <= 100; i++) {
+            summary.record(i * 1000L);
+        }
+        assertEquals("Every call should be counted", 100, summary.getCount());
+        assertEquals("Mean should be exact", 50500.0, summary.getMeanNanos(), 1e-9);
+        assertEquals("Max should be exact", 100000, summary.getMaxNanos());
+        long median = summary.getMedianNanos();
+        assertTrue("Median bound " + median + " should be within a power of two", median >= 50000 && median < 100000);
+        assertEquals("P99 should be capped by the max", 100000, summary.getP99Nanos());
+        summary.reset();
+        assertEquals("Reset should clear the count", 0, summary.getCount());
+        assertEquals("Empty summary has no median", 0, summary.getMedianNanos());
+    }
+
+    public void testLatencySummary_countsEveryThread() throws Throwable {
+        final LatencySummary summary = new LatencySummary();
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    summary.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals("No call should be lost", 400000, summary.getCount());
+    }
+
+    public void testSimulation_recordsPhasesAndEvaluations() throws Throwable {
+        if (!GameMetrics.ENABLED) {
+            // nothing is recorded without -Dcardgame.metrics=true
+            return;
+        }
+        GameMetrics.get().reset();
+        Deck deck = new Deck(false, new Xoshiro256(SEED));
+        deck.reset();
+        assertEquals("Decks shuffled outside games should not be counted", 0, GameMetrics.get().getDeckShuffles());
+        EvaluationMetrics.get().reset();
+        FiveCardDrawSimulation simulation = new FiveCardDrawSimulation(new Xoshiro256(SEED));
+        simulation.addPlayer("Heuristic", new HeuristicDiscardAgent());
+        simulation.addPlayer("Pat", new KeepPatDiscardAgent());
+        simulation.play(NUM_ROUNDS);
+
+        assertEquals("Every round should be timed before", NUM_ROUNDS, GameMetrics.BEFORE_ROUND.getCount());
+        assertEquals("Every round should be timed", NUM_ROUNDS, GameMetrics.ROUND.getCount());
+        assertEquals("Every finished round should be timed after", simulation.getNumRounds(),
+                GameMetrics.AFTER_ROUND.getCount());
+        assertTrue("Rounds should take time", GameMetrics.ROUND.getTotalNanos() > 0);
+        assertTrue("Each round shuffles the deck", GameMetrics.get().getDeckShuffles() >= NUM_ROUNDS);
+        assertTrue("Only rounds shuffle the deck", GameMetrics.get().getDeckShuffles() <= NUM_ROUNDS + 1);
+
+        EvaluationMetrics evaluations = EvaluationMetrics.get();
+        assertEquals("Each finished hand should be evaluated once", 2 * simulation.getNumRounds(),
+                evaluations.getEvaluations());
+        long sum = 0;
+        for (long count : evaluations.getEvaluationsByCategory().values()) {
+            sum += count;
+        }
+        assertEquals("Categories should add up to the total", evaluations.getEvaluations(), sum);
+        assertTrue("Pairs are common", evaluations.getEvaluations(PokerRank.ONE_PAIR) > 0);
+    }
+
+    public void testMXBeans_areRegistered() throws Throwable {
+        if (!GameMetrics.ENABLED) {
+            // the MXBeans are registered only with -Dcardgame.metrics=true
+            return;
+        }
+        // evaluating a hand loads and registers EvaluationMetrics
+        EvaluationMetrics.evaluated(0);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (String name : new String[] {"type=GameMetrics", "type=Phase,name=beforeRound",
+                "type=Phase,name=round", "type=Phase,name=afterRound", "type=EvaluationMetrics"}) {
+            assertTrue(name + " should be registered",
+                    server.isRegistered(new ObjectName(GameMetrics.DOMAIN + ":" + name)));
+        }
+        Object count = server.getAttribute(new ObjectName(GameMetrics.DOMAIN + ":type=Phase,name=round"), "Count");
+        assertEquals("Phase count should be a long attribute", GameMetrics.ROUND.getCount(), count);
+        TabularData byCategory = (TabularData) server.getAttribute(
+                new ObjectName(GameMetrics.DOMAIN + ":type=EvaluationMetrics"), "EvaluationsByCategory");
+        Map<String, Long> expected = EvaluationMetrics.get().getEvaluationsByCategory();
+        assertEquals("One row per category", expected.size(), byCategory.size());
+        for (Object row : byCategory.values()) {
+            CompositeData data = (CompositeData) row;
+            assertEquals("Row should match " + data.get("key"), expected.get(data.get("key")), data.get("value"));
+        }
+    }
+
+}
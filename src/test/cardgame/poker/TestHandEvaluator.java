@@ -0,0 +1,106 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.Rank;
+import cardgame.common.Suit;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TestHandEvaluator extends TestCase {
+
+    private static final int NUM_DISTINCT_STRENGTHS = 7462;
+
+    private List<Card> allCards() {
+        List<Card> cards = new ArrayList<Card>();
+        for (Rank rank : Rank.values()) {
+            for (Suit suit : Suit.values()) {
+                cards.add(new Card(rank, suit));
+            }
+        }
+        return cards;
+    }
+
+    private int evaluate(String... cardStrings) {
+        List<Card> cards = new ArrayList<Card>();
+        for (String cardString : cardStrings) {
+            cards.add(Card.getInstance(cardString));
+        }
+        return HandEvaluator.evaluate(cards);
+    }
+
+    public void testEvaluate_categoryFrequencies() throws Throwable {
+        List<Card> cards = allCards();
+        int[] codes = new int[cards.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = HandEvaluator.encode(cards.get(i));
+        }
+        long[] counts = new long[PokerRank.values().length];
+        Set<Integer> strengths = new HashSet<Integer>();
+        for (int a = 0; a < codes.length; a++) {
+            for (int b = a + 1; b < codes.length; b++) {
+                for (int c = b + 1; c < codes.length; c++) {
+                    for (int d = c + 1; d < codes.length; d++) {
+                        for (int e = d + 1; e < codes.length; e++) {
+                            int strength = HandEvaluator.evaluate(codes[a], codes[b], codes[c], codes[d], codes[e]);
+                            counts[HandEvaluator.getPokerRank(strength).ordinal()]++;
+                            strengths.add(strength);
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals("No rank count", 1302540, counts[PokerRank.NO_RANK.ordinal()]);
+        assertEquals("One pair count", 1098240, counts[PokerRank.ONE_PAIR.ordinal()]);
+        assertEquals("Two pairs count", 123552, counts[PokerRank.TWO_PAIRS.ordinal()]);
+        assertEquals("Three of a kind count", 54912, counts[PokerRank.THREE_OF_A_KIND.ordinal()]);
+        assertEquals("Straight count", 10200, counts[PokerRank.STRAIGHT.ordinal()]);
+        assertEquals("Flush count", 5108, counts[PokerRank.FLUSH.ordinal()]);
+        assertEquals("Full house count", 3744, counts[PokerRank.FULL_HOUSE.ordinal()]);
+        assertEquals("Four of a kind count", 624, counts[PokerRank.FOUR_OF_A_KIND.ordinal()]);
+        assertEquals("Straight flush count", 40, counts[PokerRank.STRAIGHT_FLUSH.ordinal()]);
+        assertEquals("Distinct strengths", NUM_DISTINCT_STRENGTHS, strengths.size());
+    }
+
+    public void testCountCategories_parallelMatchesSequential() throws Throwable {
+        long[] sequential = HandCategoryReport.countCategories(false);
+        long[] parallel = HandCategoryReport.countCategories(true);
+        assertEquals("One pair count", 1098240, sequential[PokerRank.ONE_PAIR.ordinal()]);
+        assertEquals("Straight flush count", 40, sequential[PokerRank.STRAIGHT_FLUSH.ordinal()]);
+        for (PokerRank pokerRank : PokerRank.values()) {
+            assertEquals(pokerRank + " count", sequential[pokerRank.ordinal()], parallel[pokerRank.ordinal()]);
+        }
+    }
+
+    public void testEvaluate_cardBits() throws Throwable {
+        List<Card> cards = new ArrayList<Card>();
+        for (String cardString : new String[] {"KH", "9S", "KD", "2C", "9H"}) {
+            cards.add(Card.getInstance(cardString));
+        }
+        assertEquals("Card bits should evaluate like cards",
+                HandEvaluator.evaluate(cards), HandEvaluator.evaluate(CardSet.of(cards).getBits()));
+    }
+
+    public void testEvaluate_wheelIsLowestStraight() throws Throwable {
+        int wheel = evaluate("AH", "2S", "3D", "4C", "5H");
+        int sixHigh = evaluate("2S", "3D", "4C", "5H", "6H");
+        assertEquals("Wheel should be a straight", PokerRank.STRAIGHT, HandEvaluator.getPokerRank(wheel));
+        assertTrue("Six-high straight should beat the wheel", sixHigh > wheel);
+    }
+
+    public void testEvaluate_fullHouseTripsBeforePair() throws Throwable {
+        int threeTwos = evaluate("2H", "2S", "2D", "AC", "AH");
+        int threeThrees = evaluate("3H", "3S", "3D", "4C", "4H");
+        assertTrue("Higher three of a kind should win full house", threeThrees > threeTwos);
+    }
+
+    public void testEvaluate_orderIndependent() throws Throwable {
+        assertEquals("Card order should not matter",
+                evaluate("KH", "9S", "KD", "2C", "9H"), evaluate("2C", "9H", "KH", "KD", "9S"));
+    }
+
+}
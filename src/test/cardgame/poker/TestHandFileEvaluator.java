@@ -0,0 +1,109 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+public class TestHandFileEvaluator extends TestCase {
+
+    private Path handFile;
+    private Path recordFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        handFile = Files.createTempFile("hands", ".txt");
+        recordFile = Files.createTempFile("records", ".txt");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(handFile);
+        Files.deleteIfExists(recordFile);
+    }
+
+    private int evaluateLine(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.US_ASCII);
+        return HandFileEvaluator.evaluateLine(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private int expectedStrength(String line) {
+        long cardBits = 0;
+        String[] cards = line.trim().split("\\s+");
+        for (String card : cards) {
+            cardBits |= CardSet.bit(Card.getInstance(card));
+        }
+        return cards.length == HandEvaluator.NUM_CARDS_IN_HAND
+                ? HandEvaluator.evaluate(cardBits) : BestHandEvaluator.evaluate(cardBits);
+    }
+
+    public void testEvaluateLine_validHands() {
+        String[] lines = {"9H 10S JC QS KC", "AS AD AC KH KD", "2c 3c 4c 5c 6c", "  4D 4S 7H 7C 2S \r",
+                "QH QD 8S 8C 3H 3D 10C", "AH KH QH JH 9H 2C"};
+        for (String line : lines) {
+            assertEquals(line, expectedStrength(line), evaluateLine(line));
+        }
+        assertEquals(evaluateLine("9H 10S JC QS KC"), evaluateLine("9H TS JC QS KC"));
+    }
+
+    public void testEvaluateLine_invalidHands() {
+        String[] lines = {"", "9H 10S JC QS", "9H 10S JC QS KC AD 2D 3D", "9H 9H JC QS KC", "9H 10S JC QS KX",
+                "9H 10S JC QS 1C", "9H10S JC QS KC AD", "9H 10S JC QS KCD", "9H 10S JC QS K"};
+        for (String line : lines) {
+            assertEquals("\"" + line + "\"", -1, evaluateLine(line));
+        }
+    }
+
+    private void assertRecords(List<String> hands, long[] counts) throws IOException {
+        List<String> records = Files.readAllLines(recordFile, StandardCharsets.US_ASCII);
+        assertEquals("Record count", hands.size(), records.size());
+        long[] expectedCounts = new long[HandFileEvaluator.INVALID + 1];
+        for (int i = 0; i < hands.size(); i++) {
+            String record = records.get(i);
+            assertEquals("Record length", HandFileEvaluator.RECORD_LENGTH - 1, record.length());
+            int strength = evaluateLine(hands.get(i));
+            String name = strength < 0 ? "invalid" : HandEvaluator.getPokerRank(strength).toString();
+            assertEquals("Record " + i, name, record.substring(0, 15).trim());
+            assertEquals("Record " + i, strength, Integer.parseInt(record.substring(16).trim()));
+            expectedCounts[strength < 0 ? HandFileEvaluator.INVALID : strength >>> HandEvaluator.CATEGORY_SHIFT]++;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            assertEquals("Count " + i, expectedCounts[i], counts[i]);
+        }
+    }
+
+    public void testEvaluate_chunkBoundaries() throws IOException {
+        HandFileEvaluator.generate(handFile, 500, 17);
+        List<String> hands = Files.readAllLines(handFile, StandardCharsets.US_ASCII);
+        // chunks smaller than, around and larger than a line
+        for (int chunkSize : new int[] {1, 7, 14, 15, 16, 1000, HandFileEvaluator.DEFAULT_CHUNK_SIZE}) {
+            long[] counts = HandFileEvaluator.evaluate(handFile, recordFile, chunkSize);
+            assertRecords(hands, counts);
+        }
+    }
+
+    public void testEvaluate_mixedLines() throws IOException {
+        String text = "AS AD AC KH KD\r\n\r\nnot a hand\n2C 3C 4C 5C 6C 7C 8C\n10H 10D 4S 4C 9H";
+        Files.write(handFile, text.getBytes(StandardCharsets.US_ASCII));
+        List<String> hands = Files.readAllLines(handFile, StandardCharsets.US_ASCII);
+        for (int chunkSize : new int[] {1, 3, 20}) {
+            long[] counts = HandFileEvaluator.evaluate(handFile, recordFile, chunkSize);
+            assertRecords(hands, counts);
+            assertEquals(2, counts[HandFileEvaluator.INVALID]);
+        }
+    }
+
+    public void testEvaluate_emptyFile() throws IOException {
+        long[] counts = HandFileEvaluator.evaluate(handFile, recordFile);
+        assertEquals(0, Files.size(recordFile));
+        for (long count : counts) {
+            assertEquals(0, count);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package cardgame.poker;
+
+import cardgame.common.CardSet;
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestHandHistory extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final int NUM_ROUNDS = 500;
+
+    private Path path;
+
+    @Override
+    protected void setUp() throws Exception {
+        path = Files.createTempFile("history", ".bin");
+        Files.delete(path);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(path);
+    }
+
+    private void record(long seed, int rounds) throws IOException {
+        FiveCardDrawSimulation simulation = new FiveCardDrawSimulation(new Xoshiro256(seed));
+        simulation.addPlayer("pat", new KeepPatDiscardAgent());
+        simulation.addPlayer("heuristic", new HeuristicDiscardAgent());
+        simulation.addPlayer("random", new RandomDiscardAgent(new Xoshiro256(seed + 1)));
+        // a small buffer and sync interval exercise flushing and syncing
+        try (HandHistoryWriter history = new HandHistoryWriter(path, 256, 1024)) {
+            simulation.setRoundListener(history);
+            simulation.play(rounds);
+        }
+    }
+
+    private int countRounds() throws IOException {
+        int numRounds = 0;
+        try (HandHistoryReader reader = new HandHistoryReader(path)) {
+            while (reader.next() != null) {
+                numRounds++;
+            }
+        }
+        return numRounds;
+    }
+
+    public void testReadBack_finalHandsMatchRecordedRanks() throws Throwable {
+        record(SEED, NUM_ROUNDS);
+        int numRounds = 0;
+        try (HandHistoryReader reader = new HandHistoryReader(path)) {
+            RoundRecord round;
+            while ((round = reader.next()) != null) {
+                numRounds++;
+                assertTrue("Round should be finished", round.isFinished());
+                assertEquals("Three seats should be recorded", 3, round.getNumSeats());
+                assertEquals("Seat order should be recorded", "heuristic", round.getPlayerName(1));
+                assertEquals("Patient player should not discard", 0, round.getDiscardMask(0));
+                assertTrue("Round should have a winner", round.getWinnerMask() != 0);
+                int best = 0;
+                int[] strengths = new int[round.getNumSeats()];
+                for (int seat = 0; seat < round.getNumSeats(); seat++) {
+                    CardSet hand = new CardSet();
+                    for (int position = 0; position < HandEvaluator.NUM_CARDS_IN_HAND; position++) {
+                        if ((round.getDiscardMask(seat) & (1 << position)) == 0) {
+                            hand.add(round.getDealtCard(seat, position));
+                        }
+                    }
+                    for (int i = 0; i < round.getNumDrawn(seat); i++) {
+                        hand.add(round.getDrawnCard(seat, i));
+                    }
+                    assertEquals("Final hand should have five distinct cards", 5, hand.size());
+                    strengths[seat] = HandEvaluator.evaluate(hand.getBits());
+                    assertEquals("Recorded rank should match final hand",
+                            HandEvaluator.getPokerRank(strengths[seat]), round.getPokerRank(seat));
+                    best = Math.max(best, strengths[seat]);
+                }
+                for (int seat = 0; seat < round.getNumSeats(); seat++) {
+                    assertEquals("Winners should hold the best hand", strengths[seat] == best, round.isWinner(seat));
+                }
+            }
+        }
+        assertEquals("Every round should be recorded", NUM_ROUNDS, numRounds);
+        assertTrue("Rounds should take few bytes each", Files.size(path) < NUM_ROUNDS * 48);
+    }
+
+    public void testAppend_keepsEarlierRounds() throws Throwable {
+        record(SEED, NUM_ROUNDS);
+        record(SEED + 2, NUM_ROUNDS);
+        assertEquals("Appended rounds should follow earlier rounds", 2 * NUM_ROUNDS, countRounds());
+    }
+
+    public void testAppend_dropsIncompleteRecord() throws Throwable {
+        record(SEED, NUM_ROUNDS);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 1);
+        }
+        try {
+            countRounds();
+            fail("Reading an incomplete record should fail");
+        } catch (IOException e) {
+            // expected
+        }
+        record(SEED, NUM_ROUNDS);
+        assertEquals("Incomplete round should be dropped", 2 * NUM_ROUNDS - 1, countRounds());
+    }
+
+    public void testOpen_rejectsOtherFiles() throws Throwable {
+        Files.write(path, new byte[] {'n', 'o', 't', ' ', 'h', 'i', 's', 't'});
+        try {
+            new HandHistoryReader(path).close();
+            fail("Reading another file should fail");
+        } catch (IOException e) {
+            // expected
+        }
+        try {
+            new HandHistoryWriter(path).close();
+            fail("Appending to another file should fail");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    public void testOpen_rejectsOtherVersions() throws Throwable {
+        Files.write(path, ByteBuffer.allocate(HandHistoryWriter.HEADER_SIZE).putInt(HandHistoryWriter.MAGIC)
+                .putInt(HandHistoryWriter.VERSION - 1).array());
+        try {
+            new HandHistoryReader(path).close();
+            fail("Reading an earlier version should fail");
+        } catch (IOException e) {
+            // expected
+        }
+        try {
+            new HandHistoryWriter(path).close();
+            fail("Appending to an earlier version should fail");
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    public void testRoundStarted_rejectsTooManySeats() throws Throwable {
+        List<Player> seats = new ArrayList<Player>();
+        for (int seat = 0; seat <= HandHistoryWriter.MAX_SEATS; seat++) {
+            seats.add(new Player("player" + seat));
+        }
+        try (HandHistoryWriter history = new HandHistoryWriter(path)) {
+            try {
+                history.roundStarted(SEED, seats, 0);
+                fail("Recording a round of " + seats.size() + " seats should fail");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+            history.roundStarted(SEED, seats.subList(0, HandHistoryWriter.MAX_SEATS), 0);
+        }
+    }
+
+    public void testVarint_roundTrips() throws Throwable {
+        long[] values = {0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE, -1};
+        ByteBuffer buffer = ByteBuffer.allocate(10 * values.length);
+        for (long value : values) {
+            HandHistoryWriter.putVarint(buffer, value);
+        }
+        assertEquals("Small values should take one byte", 1, HandHistoryWriter.varintSize(127));
+        buffer.flip();
+        for (long value : values) {
+            int start = buffer.position();
+            assertEquals("Varint should read back", value, HandHistoryReader.getVarint(buffer));
+            assertEquals("Varint size should match", HandHistoryWriter.varintSize(value), buffer.position() - start);
+        }
+    }
+
+}
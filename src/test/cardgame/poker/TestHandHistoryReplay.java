@@ -0,0 +1,126 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestHandHistoryReplay extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final int NUM_ROUNDS = 500;
+
+    private List<Path> paths;
+
+    @Override
+    protected void setUp() throws Exception {
+        paths = new ArrayList<Path>();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private Path record(long seed, int numPlayers, boolean shiftSeeds) throws Exception {
+        Path path = Files.createTempFile("history", ".bin");
+        Files.delete(path);
+        paths.add(path);
+        FiveCardDrawSimulation simulation = new FiveCardDrawSimulation(new Xoshiro256(seed));
+        for (int i = 0; i < numPlayers; i++) {
+            DiscardAgent agent = i % 2 == 0 ? new HeuristicDiscardAgent() : new RandomDiscardAgent(new Xoshiro256(seed + i));
+            simulation.addPlayer("player" + i, agent);
+        }
+        try (HandHistoryWriter history = new HandHistoryWriter(path)) {
+            simulation.setRoundListener(shiftSeeds ? new ShiftedSeeds(history) : history);
+            simulation.play(NUM_ROUNDS);
+        }
+        return path;
+    }
+
+    public void testReplay_recordedRoundsMatch() throws Throwable {
+        ReplayResult result = HandHistoryReplay.replay(Arrays.asList(record(SEED, 3, false), record(SEED + 1, 5, false)));
+        assertEquals("Every round should be replayed", 2 * NUM_ROUNDS, result.getNumRounds());
+        assertEquals("No round should differ", 0, result.getNumMismatches());
+    }
+
+    public void testReplay_abortedRoundsMatch() throws Throwable {
+        // eleven players need more cards than the deck holds
+        ReplayResult result = HandHistoryReplay.replay(record(SEED, 11, false));
+        assertEquals("Every round should be replayed", NUM_ROUNDS, result.getNumRounds());
+        assertEquals("No round should differ", 0, result.getNumMismatches());
+    }
+
+    public void testReplay_moreSeatingsThanCached() throws Throwable {
+        Path path = Files.createTempFile("history", ".bin");
+        Files.delete(path);
+        paths.add(path);
+        int numSeatings = HandHistoryReplay.MAX_CACHED_GAMES + 6;
+        // the second pass seats players again after their games were dropped
+        for (int pass = 0; pass < 2; pass++) {
+            for (int seating = 0; seating < numSeatings; seating++) {
+                long seed = SEED + pass * numSeatings + seating;
+                FiveCardDrawSimulation simulation = new FiveCardDrawSimulation(new Xoshiro256(seed));
+                simulation.addPlayer("player" + seating, new HeuristicDiscardAgent());
+                simulation.addPlayer("rival" + seating, new KeepPatDiscardAgent());
+                try (HandHistoryWriter history = new HandHistoryWriter(path)) {
+                    simulation.setRoundListener(history);
+                    simulation.play(2);
+                }
+            }
+        }
+        ReplayResult result = HandHistoryReplay.replay(path);
+        assertEquals("Every round should be replayed", 2 * 2 * numSeatings, result.getNumRounds());
+        assertEquals("No round should differ", 0, result.getNumMismatches());
+    }
+
+    public void testReplay_wrongSeedsDiffer() throws Throwable {
+        ReplayResult result = HandHistoryReplay.replay(record(SEED, 3, true));
+        assertEquals("Every round should differ", NUM_ROUNDS, result.getNumMismatches());
+        assertEquals("Only the first mismatches should be kept",
+                ReplayResult.MAX_MISMATCHES_KEPT, result.getMismatches().size());
+        assertTrue("Mismatch should say what was dealt", result.getMismatches().get(0).contains("dealt"));
+    }
+
+    /**
+     * Records every round under the wrong seed.
+     */
+    private static class ShiftedSeeds implements RoundListener {
+
+        private final RoundListener listener;
+
+        ShiftedSeeds(RoundListener listener) {
+            this.listener = listener;
+        }
+
+        public void roundStarted(long seed, List<Player> seats, int dealerSeat) {
+            listener.roundStarted(seed + 1, seats, dealerSeat);
+        }
+
+        public void discarded(int seat, PokerHand hand, int discardMask) {
+            listener.discarded(seat, hand, discardMask);
+        }
+
+        public void drew(int seat, Card card) {
+            listener.drew(seat, card);
+        }
+
+        public void roundFinished(List<Player> ranking) {
+            listener.roundFinished(ranking);
+        }
+
+        public void roundAborted() {
+            listener.roundAborted();
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package cardgame.poker;
 
 import cardgame.common.Card;
+import cardgame.common.CombinationSpliterator;
 import cardgame.common.Rank;
 import cardgame.common.Suit;
 import junit.framework.TestCase;
@@ -294,4 +295,36 @@ public class TestHandPokerRank extends TestCase {
         assertNull("Poker hand should not be returned for invalid hand", hand.getPokerRank());
     }
 
-}
\ No newline at end of file
+    public void testGetPokerRank_matchesEvaluatorForAllHands() throws Throwable {
+        PokerHand hand = new PokerHand(FULL_HAND);
+        CombinationSpliterator.stream(FULL_HAND, false).forEach(bits -> {
+            hand.clear();
+            for (long remaining = bits; remaining != 0; remaining &= remaining - 1) {
+                hand.addCard(Card.of(Long.numberOfTrailingZeros(remaining)));
+            }
+            assertEquals("Rank from counts should match evaluator for " + hand,
+                    HandEvaluator.getPokerRank(HandEvaluator.evaluate(bits)), hand.getPokerRank());
+        });
+    }
+
+    public void testRemoveCard_updatesCounts() throws Throwable {
+        PokerHand hand = new PokerHand(FULL_HAND);
+        for (String card : new String[] {"2H", "2S", "5D", "9C", "9H"}) {
+            hand.addCard(Card.getInstance(card));
+        }
+        assertEquals("Two pairs expected", PokerRank.TWO_PAIRS, hand.getPokerRank());
+        int strength = hand.getStrength();
+        // the hand is sorted, so the five is in the middle
+        hand.removeCard(2);
+        hand.addCard(Card.getInstance("9S"));
+        assertEquals("Full house expected after replacing a card", PokerRank.FULL_HOUSE, hand.getPokerRank());
+        assertTrue("Strength should be evaluated again", hand.getStrength() > strength);
+        assertEquals("Nines should be counted", 3, hand.getRankCount(Rank.NINE));
+        assertEquals("Hearts should be counted", 2, hand.getSuitCount(Suit.HEARTS));
+        assertEquals("Rank mask should drop removed ranks",
+                (1 << Rank.TWO.ordinal()) | (1 << Rank.NINE.ordinal()), hand.getRankMask());
+        hand.clear();
+        assertEquals("Clear should reset counts", 0, hand.getRankMask());
+    }
+
+}
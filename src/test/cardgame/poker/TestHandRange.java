@@ -0,0 +1,67 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import junit.framework.TestCase;
+
+public class TestHandRange extends TestCase {
+
+    private long holding(String first, String second) {
+        return CardSet.bit(Card.getInstance(first)) | CardSet.bit(Card.getInstance(second));
+    }
+
+    public void testParse_sizes() throws Throwable {
+        assertEquals("A pair should have 6 holdings", 6, HandRange.parse("AA").size());
+        assertEquals("Suited should have 4 holdings", 4, HandRange.parse("AKs").size());
+        assertEquals("Offsuit should have 12 holdings", 12, HandRange.parse("AKo").size());
+        assertEquals("Both should have 16 holdings", 16, HandRange.parse("KA").size());
+        assertEquals("QQ+ should hold three pairs", 18, HandRange.parse("QQ+").size());
+        assertEquals("ATs+ should hold four kickers", 16, HandRange.parse("ATs+").size());
+        assertEquals("JJ-99 should hold three pairs", 18, HandRange.parse("JJ-99").size());
+        assertEquals("A6s-A9s should hold four kickers", 16, HandRange.parse("A6s-A9s").size());
+        assertEquals("Every holding should be held once", HandRange.MAX_HOLDINGS,
+                HandRange.parse("22+, A2+, K2+, Q2+, J2+, T2+, 92+, 82+, 72+, 62+, 52+, 42+, 32, AK").size());
+    }
+
+    public void testParse_exactCardsAndWeights() throws Throwable {
+        HandRange range = HandRange.parse("AhKh:0.5, 7c6c, 7C6C:0.25");
+        assertEquals("Repeated holdings should be held once", 2, range.size());
+        assertEquals(0.5, range.getWeight(holding("AH", "KH")));
+        assertEquals("A repeated holding should replace the weight", 0.25, range.getWeight(holding("7C", "6C")));
+        assertEquals(0.0, range.getWeight(holding("AS", "KS")));
+        assertEquals(0.75, range.getTotalWeight());
+        range.add(holding("AH", "KH"), 0);
+        assertEquals("A weight of 0 should remove the holding", 1, range.size());
+    }
+
+    public void testParse_roundTrip() throws Throwable {
+        HandRange range = HandRange.parse("TT, AhTd:0.5, K9s");
+        HandRange parsed = HandRange.parse(range.toString());
+        assertEquals(range.size(), parsed.size());
+        for (int i = 0; i < range.size(); i++) {
+            assertEquals(range.getWeight(i), parsed.getWeight(range.getHolding(i)));
+        }
+    }
+
+    public void testParse_invalid() throws Throwable {
+        for (String invalid : new String[] {"A", "AAs", "AKx", "AsAs", "AK:x", "AK:-1", "QQ-AKs", "AKs-AQo"}) {
+            try {
+                HandRange.parse(invalid);
+                fail("Invalid range should be rejected: " + invalid);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testWithout() throws Throwable {
+        HandRange range = HandRange.parse("AA, KK");
+        long board = HandRange.parseCards("As Kd 2c");
+        HandRange remaining = range.without(board);
+        assertEquals("Holdings with a board card should be dropped", 6, remaining.size());
+        for (int i = 0; i < remaining.size(); i++) {
+            assertEquals(0, remaining.getHolding(i) & board);
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+public class TestOmahaEvaluator extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final int NUM_RANDOM_HANDS = 100000;
+
+    private static long bits(String... cardStrings) {
+        CardSet cards = new CardSet();
+        for (String cardString : cardStrings) {
+            cards.add(Card.getInstance(cardString));
+        }
+        return cards.getBits();
+    }
+
+    private static long randomCards(Xoshiro256 random, int numCards, long dead) {
+        long bits = 0;
+        while (Long.bitCount(bits) < numCards) {
+            bits |= (1L << random.nextInt(Card.NUM_CARDS)) & ~dead;
+        }
+        return bits;
+    }
+
+    private static PokerRank rank(long hole, long board) {
+        return HandEvaluator.getPokerRank(OmahaEvaluator.evaluate(hole, board));
+    }
+
+    public void testEvaluate_randomHandsMatchReference() throws Throwable {
+        Xoshiro256 random = new Xoshiro256(SEED);
+        for (int i = 0; i < NUM_RANDOM_HANDS; i++) {
+            int numHoleCards = OmahaEvaluator.MIN_NUM_HOLE_CARDS + i % 3;
+            int numBoardCards = OmahaEvaluator.MIN_NUM_BOARD_CARDS + i % 3;
+            long hole = randomCards(random, numHoleCards, 0);
+            long board = randomCards(random, numBoardCards, hole);
+            String cards = new CardSet(hole) + "| " + new CardSet(board);
+            assertEquals("High should match every two hole and three board cards for " + cards,
+                    OmahaEvaluator.evaluateByEnumeration(hole, board), OmahaEvaluator.evaluate(hole, board));
+            assertEquals("Low should match every two hole and three board cards for " + cards,
+                    OmahaEvaluator.evaluateLowByEnumeration(hole, board), OmahaEvaluator.evaluateLow(hole, board));
+        }
+    }
+
+    public void testEvaluate_suitedBoardsMatchReference() throws Throwable {
+        // boards of one suit make flushes and straight flushes common
+        Xoshiro256 random = new Xoshiro256(SEED);
+        long hearts = bits("2H", "3H", "4H", "5H", "6H", "7H", "8H", "9H", "10H", "JH", "QH", "KH", "AH");
+        for (int i = 0; i < NUM_RANDOM_HANDS; i++) {
+            long board = randomCards(random, 5, ~hearts);
+            long hole = randomCards(random, 4, board);
+            assertEquals("High should match for " + new CardSet(hole) + "| " + new CardSet(board),
+                    OmahaEvaluator.evaluateByEnumeration(hole, board), OmahaEvaluator.evaluate(hole, board));
+        }
+    }
+
+    public void testEvaluate_usesExactlyTwoHoleCards() throws Throwable {
+        assertEquals("One suited hole card makes no flush", PokerRank.ONE_PAIR,
+                rank(bits("AH", "KS", "QD", "QC"), bits("2H", "5H", "8H", "JH", "9C")));
+        assertEquals("Four board hearts and two hole hearts make a flush", PokerRank.FLUSH,
+                rank(bits("AH", "KH", "QD", "QC"), bits("2H", "5H", "8H", "JH", "9C")));
+        assertEquals("Quads on the board play as trips at most", PokerRank.FULL_HOUSE,
+                rank(bits("AH", "AS", "3D", "4C"), bits("9H", "9S", "9D", "9C", "2C")));
+        assertEquals("Four hole cards to a straight need three on the board", PokerRank.ONE_PAIR,
+                rank(bits("9H", "10S", "JD", "QC"), bits("KH", "2S", "2D", "4C", "6C")));
+        assertEquals("Hole pair with a board pair makes a full house", PokerRank.FULL_HOUSE,
+                rank(bits("7H", "7S", "3D", "4C"), bits("7D", "KS", "KD", "2C", "9C")));
+        assertEquals("Straight flush with two suited hole cards", PokerRank.STRAIGHT_FLUSH,
+                rank(bits("9H", "10H", "2D", "2C"), bits("JH", "QH", "KH", "2S", "3C")));
+    }
+
+    public void testEvaluateLow_countsDistinctLowRanks() throws Throwable {
+        long board = bits("2C", "3D", "8S", "KH", "QH");
+        int low = OmahaEvaluator.evaluateLow(bits("AH", "4S", "KD", "KC"), board);
+        assertEquals("A-2-3-4-8 low", 0x8F, low);
+        assertEquals("A-2 counterfeited by the board does not beat A-4",
+                true, OmahaEvaluator.evaluateLow(bits("AH", "2S", "KD", "KC"), bits("2C", "3D", "8S", "7H", "QH"))
+                        > OmahaEvaluator.evaluateLow(bits("AH", "4S", "KD", "KC"), bits("2C", "3D", "8S", "7H", "QH")));
+        assertEquals("Two low board cards make no low", OmahaEvaluator.NO_LOW,
+                OmahaEvaluator.evaluateLow(bits("AH", "2S", "3D", "4C"), bits("5C", "6D", "KS", "KH", "QH")));
+        assertEquals("One low hole card makes no low", OmahaEvaluator.NO_LOW,
+                OmahaEvaluator.evaluateLow(bits("AH", "KS", "QD", "JC"), board));
+    }
+
+    public void testOmahaHand_sharesTheBoard() throws Throwable {
+        CardSet board = new CardSet();
+        OmahaHand hand = new OmahaHand(board);
+        for (String card : new String[] {"AH", "KH", "3D", "2C"}) {
+            hand.addCard(Card.getInstance(card));
+        }
+        assertEquals("No rank before the flop", null, hand.getPokerRank());
+        for (String card : new String[] {"4H", "5H", "8H"}) {
+            board.add(Card.getInstance(card));
+        }
+        assertEquals("Two hole hearts make a flush", PokerRank.FLUSH, hand.getPokerRank());
+        assertEquals("A-2-4-5-8 low", OmahaEvaluator.evaluateLowByEnumeration(hand.getCardSet().getBits(),
+                board.getBits()), hand.getLow());
+        board.add(Card.getInstance("3H"));
+        assertEquals("Strength should follow the board", PokerRank.FLUSH, hand.getPokerRank());
+        assertEquals("Low should follow the board",
+                0x1F, hand.getLow());
+    }
+
+    public void testEvaluate_rejectsWrongCards() throws Throwable {
+        try {
+            OmahaEvaluator.evaluate(bits("AH", "KH", "QH"), bits("2C", "3D", "8S"));
+            fail("Three hole cards should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            OmahaEvaluator.evaluate(bits("AH", "KH", "QH", "JH"), bits("AH", "3D", "8S"));
+            fail("A card both in the hole and on the board should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,117 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import junit.framework.TestCase;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class TestRangeEquityCalculator extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final long TIME_BUDGET = TimeUnit.SECONDS.toNanos(30);
+
+    private CardSet cards(String cards) {
+        return new CardSet(HandRange.parseCards(cards));
+    }
+
+    /**
+     * Return the equity by testing every pair of holdings on every runout.
+     */
+    private double bruteForceEquity(HandRange first, HandRange second, CardSet board) {
+        long boardBits = board.getBits();
+        double shares = 0;
+        double dealt = 0;
+        for (int id = 0; id < Card.NUM_CARDS; id++) {
+            long runout = boardBits | (1L << id);
+            if (runout == boardBits) {
+                continue;
+            }
+            for (int i = 0; i < first.size(); i++) {
+                long a = first.getHolding(i);
+                for (int j = 0; j < second.size(); j++) {
+                    long b = second.getHolding(j);
+                    if ((a & b) != 0 || ((a | b) & runout) != 0) {
+                        continue;
+                    }
+                    double weight = first.getWeight(i) * second.getWeight(j);
+                    int strength = BestHandEvaluator.evaluate(a | runout);
+                    int other = BestHandEvaluator.evaluate(b | runout);
+                    dealt += weight;
+                    shares += strength > other ? weight : strength == other ? weight / 2 : 0;
+                }
+            }
+        }
+        return shares / dealt;
+    }
+
+    public void testCalculate_exactMatchesBruteForce() throws Throwable {
+        // overlapping ranges, including identical holdings and weights
+        HandRange first = HandRange.parse("AK, KQs, QQ+, 9c8c:0.3");
+        HandRange second = HandRange.parse("AK:0.5, JJ+, KhQh, T9s");
+        CardSet board = cards("Ks 7h 2d 9c");
+        RangeEquity equity = new RangeEquityCalculator(SEED).calculate(first, second, board, new CardSet(),
+                0.01, TIME_BUDGET);
+        assertTrue("A turn board should be enumerated", equity.isExact());
+        assertEquals(0.0, equity.getHalfWidth());
+        assertEquals(bruteForceEquity(first, second, board), equity.getEquity(), 1e-9);
+    }
+
+    public void testCalculate_sampledAgreesWithExact() throws Throwable {
+        HandRange first = HandRange.parse("TT+, AQs+");
+        HandRange second = HandRange.parse("88-66, KJs, 76s");
+        CardSet board = cards("Jd 7s 2h");
+        RangeEquity exact = new RangeEquityCalculator(SEED).calculate(first, second, board, new CardSet(),
+                0.005, TIME_BUDGET);
+        RangeEquity sampled = new RangeEquityCalculator(ForkJoinPool.commonPool(), SEED, 16, 0)
+                .calculate(first, second, board, new CardSet(), 0.005, TIME_BUDGET);
+        assertTrue(exact.isExact());
+        assertFalse(sampled.isExact());
+        assertTrue("Half-width should reach target", sampled.getHalfWidth() <= 0.005);
+        assertEquals(exact.getEquity(), sampled.getEquity(), 0.01);
+    }
+
+    public void testCalculate_identicalRangesSplit() throws Throwable {
+        HandRange range = HandRange.parse("99+, AJs+, KQo");
+        RangeEquity equity = new RangeEquityCalculator(SEED).calculate(range, range, cards("2c 5d Th"),
+                new CardSet(), 0.01, TIME_BUDGET);
+        assertEquals("Identical ranges should split evenly", 0.5, equity.getEquity(), 1e-9);
+    }
+
+    public void testCalculate_deadCards() throws Throwable {
+        // with every other King dead, Kings hold only KhKc, which cannot lose to two pair on this board
+        RangeEquity equity = new RangeEquityCalculator(SEED).calculate(HandRange.parse("KK"), HandRange.parse("QQ"),
+                cards("Kd 2c 7h 8s 3d"), cards("Ks"), 0.01, TIME_BUDGET);
+        assertEquals(1.0, equity.getEquity());
+    }
+
+    public void testCalculate_sameSeedAnyParallelism() throws Throwable {
+        HandRange first = HandRange.parse("22+");
+        HandRange second = HandRange.parse("AKo, KQs");
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            RangeEquity one = new RangeEquityCalculator(single, SEED, 8, 0).calculate(first, second, new CardSet(),
+                    new CardSet(), 0.02, TIME_BUDGET);
+            RangeEquity four = new RangeEquityCalculator(quad, SEED, 8, 0).calculate(first, second, new CardSet(),
+                    new CardSet(), 0.02, TIME_BUDGET);
+            assertEquals("Same seed should evaluate the same runouts", one.getRunouts(), four.getRunouts());
+            assertEquals("Same seed should give the same equity", one.getEquity(), four.getEquity());
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    public void testCalculate_rejectsConflictingRanges() throws Throwable {
+        try {
+            new RangeEquityCalculator(SEED).calculate(HandRange.parse("AsAh"), HandRange.parse("AsKs"),
+                    new CardSet(), new CardSet(), 0.01, TIME_BUDGET);
+            fail("Ranges that cannot be dealt together should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,80 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.Deck;
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TestShowdown extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final int FULL_HAND = 5;
+
+    private static Player player(String name, String... cards) {
+        Player player = new Player(name);
+        player.setHand(new PokerHand(FULL_HAND));
+        for (String card : cards) {
+            player.getHand().addCard(Card.getInstance(card));
+        }
+        return player;
+    }
+
+    private static List<Player> randomField(int numPlayers) {
+        List<Player> players = new ArrayList<Player>();
+        Deck deck = new Deck(false, new Xoshiro256(SEED));
+        for (int i = 0; i < numPlayers; i++) {
+            Player player = new Player("Player " + i);
+            player.setHand(new PokerHand(FULL_HAND));
+            deck.reset();
+            deck.drawInto(player.getHand(), FULL_HAND);
+            players.add(player);
+        }
+        return players;
+    }
+
+    public void testRank_matchesComparatorSort() throws Throwable {
+        List<Player> players = randomField(2000);
+        List<Player> expected = new ArrayList<Player>(players);
+        Collections.sort(expected, (p1, p2) -> ((PokerHand) p1.getHand()).compareTo((PokerHand) p2.getHand()));
+        assertEquals("Ranking should match a stable comparator sort", expected, Showdown.rank(players));
+    }
+
+    public void testTiers_groupsEqualHands() throws Throwable {
+        Player pairHearts = player("a", "2H", "2S", "5H", "9H", "KH");
+        Player flush = player("b", "2C", "4C", "6C", "8C", "10C");
+        Player pairDiamonds = player("c", "2D", "2C", "5D", "9D", "KD");
+        Player highCard = player("d", "3H", "4S", "6D", "9C", "JH");
+        Player incomplete = player("e", "AH");
+        List<Player> players = List.of(pairHearts, flush, pairDiamonds, highCard, incomplete);
+
+        List<List<Player>> tiers = Showdown.tiers(players);
+        assertEquals("Four tiers expected", 4, tiers.size());
+        assertEquals("Flush should win alone", List.of(flush), tiers.get(0));
+        assertEquals("Equal pairs should split", List.of(pairHearts, pairDiamonds), tiers.get(1));
+        assertEquals("High card should be third", List.of(highCard), tiers.get(2));
+        assertEquals("Incomplete hand should be last", List.of(incomplete), tiers.get(3));
+
+        assertEquals("Winner should be the flush", List.of(flush), Showdown.winners(players));
+        assertEquals("Tied winners should all win", List.of(pairHearts, pairDiamonds),
+                Showdown.winners(List.of(pairHearts, highCard, pairDiamonds)));
+    }
+
+    public void testTop_matchesFullRanking() throws Throwable {
+        List<Player> players = randomField(2000);
+        List<Player> byTiers = new ArrayList<Player>();
+        for (List<Player> tier : Showdown.tiers(players)) {
+            byTiers.addAll(tier);
+        }
+        for (int k : new int[] {0, 1, 7, 100, 2000, 5000}) {
+            List<Player> top = Showdown.top(players, k);
+            assertEquals("Top k should be the first k by tier, earlier players first in a tie",
+                    byTiers.subList(0, Math.min(k, players.size())), top);
+        }
+    }
+
+}
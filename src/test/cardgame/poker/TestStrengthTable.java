@@ -0,0 +1,83 @@
+package cardgame.poker;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class TestStrengthTable extends TestCase {
+
+    private Path tableFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        tableFile = Files.createTempFile("strength", ".table");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(tableFile);
+    }
+
+    private void assertSameTable(String message, IntBuffer expected, IntBuffer actual) {
+        assertEquals(message + " length", expected.capacity(), actual.capacity());
+        for (int i = 0; i < expected.capacity(); i++) {
+            assertEquals(message + " entry " + i, expected.get(i), actual.get(i));
+        }
+    }
+
+    private void assertRejected(String message) {
+        try {
+            StrengthTable.map(tableFile);
+            fail(message);
+        } catch (IOException e) {
+            // expected
+        }
+    }
+
+    public void testMap_sameAsGenerated() throws Throwable {
+        StrengthTable generated = HandEvaluator.generateTable();
+        generated.write(tableFile);
+        StrengthTable mapped = StrengthTable.map(tableFile);
+        assertEquals("Bucket multiplier", generated.getBucketMultiplier(), mapped.getBucketMultiplier());
+        assertEquals("Slot multiplier", generated.getSlotMultiplier(), mapped.getSlotMultiplier());
+        assertSameTable("Flushes", generated.getFlushes(), mapped.getFlushes());
+        assertSameTable("Unique5", generated.getUnique5(), mapped.getUnique5());
+        assertSameTable("Hash displacements", generated.getHashDisplacements(), mapped.getHashDisplacements());
+        assertSameTable("Hash values", generated.getHashValues(), mapped.getHashValues());
+        assertTrue("Mapped tables should be read-only", mapped.getHashValues().isReadOnly());
+    }
+
+    public void testMap_rejectsCorruptFile() throws Throwable {
+        HandEvaluator.generateTable().write(tableFile);
+        try (RandomAccessFile file = new RandomAccessFile(tableFile.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 1);
+        }
+        assertRejected("Corrupt table file should be rejected");
+    }
+
+    public void testMap_rejectsOtherVersion() throws Throwable {
+        HandEvaluator.generateTable().write(tableFile);
+        try (RandomAccessFile file = new RandomAccessFile(tableFile.toFile(), "rw")) {
+            // the version follows the magic number
+            file.seek(Integer.BYTES);
+            file.write(0xFF);
+        }
+        assertRejected("Table file of another version should be rejected");
+    }
+
+    public void testMap_rejectsTruncatedFile() throws Throwable {
+        HandEvaluator.generateTable().write(tableFile);
+        try (RandomAccessFile file = new RandomAccessFile(tableFile.toFile(), "rw")) {
+            file.setLength(file.length() - Integer.BYTES);
+        }
+        assertRejected("Truncated table file should be rejected");
+    }
+
+}
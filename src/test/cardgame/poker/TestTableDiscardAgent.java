@@ -0,0 +1,100 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.CombinationSpliterator;
+import junit.framework.TestCase;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestTableDiscardAgent extends TestCase {
+
+    private static final int FULL_HAND = 5;
+    private static final long NUM_HANDS = CombinationSpliterator.count(FULL_HAND);
+
+    // hands, each with the cards its table entry discards
+    private static final String[][][] DISCARDS = {
+            {{"KH", "KD", "2C", "7S", "9H"}, {"2C", "7S", "9H"}},
+            {{"AS", "AH", "AD", "2C", "3C"}, {"2C", "3C"}},
+            {{"2H", "5D", "7S", "9C", "KH"}, {"2H", "5D", "7S", "9C", "KH"}},
+            {{"5H", "6H", "7H", "8H", "9H"}, {}},
+            {{"10S", "JS", "QS", "KS", "2D"}, {"2D"}},
+    };
+
+    private Path tableFile;
+
+    @Override
+    protected void setUp() throws Exception {
+        tableFile = Files.createTempFile("draw", ".table");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        Files.deleteIfExists(tableFile);
+    }
+
+    private static long bits(String[] cardStrings) {
+        CardSet cardSet = new CardSet();
+        for (String cardString : cardStrings) {
+            cardSet.add(Card.getInstance(cardString));
+        }
+        return cardSet.getBits();
+    }
+
+    /**
+     * Write a solved table file holding the discards of the test hands and
+     * standing pat with every other hand.
+     */
+    private DrawTable writeTable() throws Exception {
+        try (FileChannel channel = FileChannel.open(tableFile, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            DrawTable.writeHeader(channel, 1);
+            channel.write(ByteBuffer.wrap(new byte[] {1}), DrawTable.progressOffset(0));
+            long decisionOffset = DrawTable.decisionOffset(1);
+            channel.write(ByteBuffer.wrap(new byte[1]), decisionOffset + NUM_HANDS - 1);
+            for (String[][] discards : DISCARDS) {
+                long hand = bits(discards[0]);
+                long discarded = bits(discards[1]);
+                // masks hold one bit per card in order of card id
+                int discardMask = 0;
+                int i = 0;
+                for (long cards = hand; cards != 0; cards &= cards - 1, i++) {
+                    if ((discarded & cards & -cards) != 0) {
+                        discardMask |= 1 << i;
+                    }
+                }
+                channel.write(ByteBuffer.wrap(new byte[] {(byte) discardMask}),
+                        decisionOffset + CombinationSpliterator.rank(hand));
+            }
+        }
+        return DrawTable.map(tableFile);
+    }
+
+    public void testChooseDiscards_positionsOfTableCards() throws Throwable {
+        TableDiscardAgent agent = new TableDiscardAgent(writeTable());
+        for (String[][] discards : DISCARDS) {
+            PokerHand hand = new PokerHand(FULL_HAND);
+            for (String cardString : discards[0]) {
+                hand.addCard(Card.getInstance(cardString));
+            }
+            List<String> discarded = new ArrayList<String>();
+            for (int position : agent.chooseDiscards(hand)) {
+                discarded.add(hand.getCard(position).toString());
+            }
+            List<String> expected = new ArrayList<String>();
+            for (String cardString : discards[1]) {
+                expected.add(Card.getInstance(cardString).toString());
+            }
+            discarded.sort(null);
+            expected.sort(null);
+            assertEquals(Arrays.toString(discards[0]), expected, discarded);
+        }
+    }
+
+}
@@ -0,0 +1,124 @@
+package cardgame.poker;
+
+import cardgame.common.Card;
+import cardgame.common.CardSet;
+import cardgame.common.Player;
+import cardgame.common.Xoshiro256;
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class TestTexasHoldem extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final int NUM_SEATS = 10;
+    private static final int NUM_ROUNDS = 2000;
+
+    private static TexasHoldem tenSeatGame(long seed) {
+        TexasHoldem game = new TexasHoldem(new Xoshiro256(seed));
+        game.setOut(null);
+        for (int i = 0; i < NUM_SEATS; i++) {
+            game.addPlayer("Player " + i);
+        }
+        return game;
+    }
+
+    private static long holeBits(Player player) {
+        return player.getHand().getCardSet().getBits();
+    }
+
+    public void testRound_dealsDistinctCardsAndRanksByBestFive() throws Throwable {
+        TexasHoldem game = tenSeatGame(SEED);
+        for (int round = 0; round < NUM_ROUNDS; round++) {
+            assertFalse("Hole cards should be dealt", game.beforeRound());
+            assertFalse("Board should be dealt", game.round());
+            List<Player> ranking = game.afterRound();
+            long board = game.getBoard().getBits();
+            assertEquals("Board should hold five cards", TexasHoldem.NUM_BOARD_CARDS, Long.bitCount(board));
+
+            long seen = board;
+            int previous = -1;
+            for (Player player : ranking) {
+                long hole = holeBits(player);
+                assertEquals("Each player should hold two hole cards", HoldemHand.NUM_HOLE_CARDS, Long.bitCount(hole));
+                assertEquals("No card should be dealt twice", 0, seen & hole);
+                seen |= hole;
+                int strength = ((PokerHand) player.getHand()).getStrength();
+                assertEquals("Strength should be the best five of hole cards and board",
+                        BestHandEvaluator.evaluateByEnumeration(hole | board), strength);
+                assertTrue("Ranking should be lowest first", strength >= previous);
+                previous = strength;
+            }
+            game.newRound();
+        }
+    }
+
+    public void testRound_sameSeedDealsSameCards() throws Throwable {
+        TexasHoldem game = tenSeatGame(SEED);
+        TexasHoldem other = tenSeatGame(SEED);
+        for (int round = 0; round < 10; round++) {
+            game.beforeRound();
+            game.round();
+            other.beforeRound();
+            other.round();
+            assertEquals("Same seed should shuffle rounds alike", game.getRoundSeed(), other.getRoundSeed());
+            assertEquals("Same seed should deal the same board", game.getBoard(), other.getBoard());
+            assertEquals("Same seed should deal the same hands", game.afterRound().toString(),
+                    other.afterRound().toString());
+            game.newRound();
+            other.newRound();
+        }
+    }
+
+    public void testNewRound_passesTheDealAndClearsTheBoard() throws Throwable {
+        TexasHoldem game = tenSeatGame(SEED);
+        Player dealer = game.getDealer();
+        game.beforeRound();
+        game.round();
+        game.newRound();
+        assertNotSame("Deal should pass to the next player", dealer, game.getDealer());
+        assertTrue("Board should be empty", game.getBoard().isEmpty());
+    }
+
+    public void testHoldemHand_sharesTheBoard() throws Throwable {
+        CardSet board = new CardSet();
+        HoldemHand first = new HoldemHand(board);
+        HoldemHand second = new HoldemHand(board);
+        first.addCard(Card.getInstance("AH"));
+        first.addCard(Card.getInstance("AS"));
+        second.addCard(Card.getInstance("KH"));
+        second.addCard(Card.getInstance("QH"));
+        assertEquals("No rank before the flop", null, first.getPokerRank());
+        assertEquals("No strength before the flop", -1, first.getStrength());
+
+        for (String card : new String[] {"2H", "7H", "9C"}) {
+            board.add(Card.getInstance(card));
+        }
+        assertEquals("Aces in the hole should be one pair", PokerRank.ONE_PAIR, first.getPokerRank());
+        assertTrue("Pair should beat high card", first.compareTo(second) > 0);
+
+        board.add(Card.getInstance("4H"));
+        assertEquals("Strength should follow the board", PokerRank.FLUSH, second.getPokerRank());
+        assertTrue("Flush should beat pair", second.compareTo(first) > 0);
+    }
+
+    public void testShowdown_boardPlaysSplitsThePot() throws Throwable {
+        CardSet board = new CardSet();
+        for (String card : new String[] {"10S", "JS", "QS", "KS", "AS"}) {
+            board.add(Card.getInstance(card));
+        }
+        List<Player> players = new ArrayList<Player>();
+        String[][] holeCards = {{"2H", "3D"}, {"9C", "9D"}, {"4C", "7H"}};
+        for (int i = 0; i < holeCards.length; i++) {
+            Player player = new Player("Player " + i);
+            player.setHand(new HoldemHand(board));
+            for (String card : holeCards[i]) {
+                player.getHand().addCard(Card.getInstance(card));
+            }
+            players.add(player);
+        }
+        assertEquals("Royal flush on the board should split", players, Showdown.winners(players));
+    }
+
+}
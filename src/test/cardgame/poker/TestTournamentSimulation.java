@@ -0,0 +1,113 @@
+package cardgame.poker;
+
+import junit.framework.TestCase;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public class TestTournamentSimulation extends TestCase {
+
+    private static final long SEED = 20100301L;
+    private static final List<String> AGENTS = Arrays.asList("heuristic", "pat", "random");
+
+    public void testPlay_everyPlaceOnce() throws Throwable {
+        int numEntrants = 1000;
+        TournamentSimulation tournament = new TournamentSimulation(SEED, numEntrants, 6, AGENTS);
+        tournament.play();
+        boolean[] taken = new boolean[numEntrants + 1];
+        for (int entrant = 0; entrant < numEntrants; entrant++) {
+            int place = tournament.getPlace(entrant);
+            assertTrue("Place should be between 1 and the number of entrants", place >= 1 && place <= numEntrants);
+            assertFalse("Place should be taken once", taken[place]);
+            taken[place] = true;
+        }
+        assertEquals("Each table round should knock out one entrant", numEntrants - 1, tournament.getNumTableRounds());
+        long finishes = 0;
+        for (int agent = 0; agent < AGENTS.size(); agent++) {
+            for (int bucket = 0; bucket < TournamentSimulation.NUM_PLACE_BUCKETS; bucket++) {
+                finishes += tournament.getFinishes(agent, bucket);
+            }
+        }
+        assertEquals("Every entrant should finish once", numEntrants, finishes);
+        assertEquals(1, tournament.getFinishes(tournament.getAgent(winner(tournament)), 0));
+    }
+
+    private int winner(TournamentSimulation tournament) {
+        for (int entrant = 0; entrant < tournament.getNumEntrants(); entrant++) {
+            if (tournament.getPlace(entrant) == 1) {
+                return entrant;
+            }
+        }
+        return -1;
+    }
+
+    public void testPlay_headsUpTablesGiveByes() throws Throwable {
+        for (int numEntrants : new int[] {3, 101}) {
+            TournamentSimulation tournament = new TournamentSimulation(SEED, numEntrants, 2, Arrays.asList("heuristic"));
+            tournament.play();
+            boolean[] taken = new boolean[numEntrants + 1];
+            for (int entrant = 0; entrant < numEntrants; entrant++) {
+                int place = tournament.getPlace(entrant);
+                assertTrue("Place should be between 1 and the number of entrants", place >= 1 && place <= numEntrants);
+                assertFalse("Place should be taken once", taken[place]);
+                taken[place] = true;
+            }
+            assertEquals(numEntrants - 1, tournament.getNumTableRounds());
+            assertEquals("Every table should seat two entrants", 2 * tournament.getNumTableRounds(),
+                    tournament.getRoundsPlayed(0));
+        }
+        TournamentSimulation three = new TournamentSimulation(SEED, 3, 2, AGENTS);
+        three.play();
+        assertEquals("Three entrants should play down to a heads-up final", 2, three.getNumLevels());
+    }
+
+    public void testPlay_sameSeedAnyParallelism() throws Throwable {
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool quad = new ForkJoinPool(4);
+        try {
+            TournamentSimulation first = new TournamentSimulation(single, SEED, 2000, 9, AGENTS, 4);
+            TournamentSimulation second = new TournamentSimulation(quad, SEED, 2000, 9, AGENTS, 4);
+            first.play();
+            second.play();
+            for (int entrant = 0; entrant < first.getNumEntrants(); entrant++) {
+                assertEquals("Same seed should give the same places", first.getPlace(entrant), second.getPlace(entrant));
+            }
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    public void testPlay_heuristicFinishesHigher() throws Throwable {
+        TournamentSimulation tournament = new TournamentSimulation(SEED, 3000, 6, AGENTS);
+        tournament.play();
+        assertTrue("Heuristic agent should finish higher than random agent",
+                tournament.getAveragePlace(0) < tournament.getAveragePlace(2));
+        assertTrue("Heuristic agent should win more rounds than random agent",
+                tournament.getWinRate(0) > tournament.getWinRate(2));
+    }
+
+    public void testBucket() throws Throwable {
+        assertEquals(0, TournamentSimulation.bucket(1));
+        assertEquals(1, TournamentSimulation.bucket(3));
+        assertEquals(2, TournamentSimulation.bucket(4));
+        assertEquals(19, TournamentSimulation.bucket(1000000));
+    }
+
+    public void testConstruct_invalid() throws Throwable {
+        try {
+            new TournamentSimulation(SEED, 100, TournamentSimulation.MAX_SEATS + 1, AGENTS);
+            fail("Too many seats per table should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new TournamentSimulation(SEED, 100, 6, Arrays.asList("heuristic", "bluff"));
+            fail("Unknown agent should be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
@@ -0,0 +1,92 @@
+package cardgame.server;
+
+import junit.framework.TestCase;
+
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TestTableServer extends TestCase {
+
+    private static final long SEED = 20100301L;
+
+    private List<List<String>> playClients(TableServer server, String... discards) throws Exception {
+        ExecutorService executor = TableServer.newThreadPerTaskExecutor();
+        try {
+            List<Future<List<String>>> results = new ArrayList<Future<List<String>>>();
+            for (int i = 0; i < discards.length; i++) {
+                results.add(executor.submit(new ScriptedClient("localhost", server.getPort(), "bot", discards[i])::play));
+            }
+            List<List<String>> received = new ArrayList<List<String>>();
+            for (Future<List<String>> result : results) {
+                received.add(result.get(30, TimeUnit.SECONDS));
+            }
+            return received;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    public void testServe_playsFullTables() throws Throwable {
+        TableServer server = new TableServer(new ServerSocket(0), 2, SEED);
+        Thread serving = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (Exception e) {
+                // the test fails on the missing results
+            }
+        });
+        serving.start();
+        try {
+            List<List<String>> received = playClients(server, "", "0 1", "4", "0 1 2 3 4");
+            for (List<String> lines : received) {
+                assertTrue("Client should be welcomed", lines.get(0).startsWith("WELCOME bot"));
+                assertTrue("Client should be asked for discards", lines.contains("DISCARD"));
+                assertEquals("Round should end", "BYE", lines.get(lines.size() - 1));
+                assertTrue("Round should have a winner", lines.get(lines.size() - 2).startsWith("WINNER "));
+                assertTrue("Duplicate names should be told apart", lines.contains("PLAYERS bot bot#1"));
+            }
+            assertEquals("Two tables should be played", 2, server.getNumTablesPlayed());
+        } finally {
+            server.close();
+            serving.join();
+        }
+    }
+
+    public void testServe_unseatsPlayersWhoWaitTooLong() throws Throwable {
+        TableServer server = new TableServer(new ServerSocket(0), 2, SEED, 2000);
+        Thread serving = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (Exception e) {
+                // the test fails on the missing results
+            }
+        });
+        serving.start();
+        try {
+            List<String> lines = playClients(server, "").get(0);
+            assertEquals("A lone player should be sent away", Arrays.asList("WELCOME bot TABLE 0 SEAT 0", "BYE"),
+                    lines);
+            for (List<String> received : playClients(server, "", "")) {
+                assertTrue("The lone player should have been unseated", received.contains("PLAYERS bot bot#1"));
+            }
+            assertEquals("One table should be played", 1, server.getNumTablesPlayed());
+        } finally {
+            server.close();
+            serving.join();
+        }
+    }
+
+    public void testParsePositions() throws Throwable {
+        assertEquals("Empty line should stand pat", new ArrayList<Integer>(), RemoteDiscardAgent.parsePositions(" "));
+        assertEquals("Positions should be parsed", Arrays.asList(4, 0), RemoteDiscardAgent.parsePositions("4 0"));
+        assertNull("Repeated position should be rejected", RemoteDiscardAgent.parsePositions("1 1"));
+        assertNull("Position out of range should be rejected", RemoteDiscardAgent.parsePositions("5"));
+        assertNull("Words should be rejected", RemoteDiscardAgent.parsePositions("two"));
+    }
+
+}
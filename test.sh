@@ -1,13 +1,102 @@
 javac -g src/main/cardgame/common/Rank.java -cp bin -d bin
 javac -g src/main/cardgame/common/Suit.java -cp bin -d bin
 javac -g src/main/cardgame/common/Card.java -cp bin -d bin
+javac -g src/main/cardgame/common/CardSet.java -cp bin -d bin
+javac -g src/main/cardgame/common/CombinationSpliterator.java -cp bin -d bin
 javac -g src/main/cardgame/common/Hand.java -cp bin -d bin
+javac -g src/main/cardgame/common/LatencySummaryMXBean.java src/main/cardgame/common/LatencySummary.java src/main/cardgame/common/GameMetricsMXBean.java src/main/cardgame/common/GameMetrics.java -cp bin -d bin
+javac -g src/main/cardgame/common/Xoshiro256.java -cp bin -d bin
+javac -g src/main/cardgame/common/RandomStreams.java -cp bin -d bin
+javac -g src/main/cardgame/common/Deck.java -cp bin -d bin
 javac -g src/main/cardgame/poker/PokerRank.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandEvaluator.java src/main/cardgame/poker/StrengthTable.java -cp bin -d bin
+javac -g src/main/cardgame/poker/EvaluationMetricsMXBean.java src/main/cardgame/poker/EvaluationMetrics.java -cp bin -d bin
+javac -g src/main/cardgame/poker/BestHandEvaluator.java -cp bin -d bin
+javac -g src/main/cardgame/poker/OmahaEvaluator.java -cp bin -d bin
 javac -g src/main/cardgame/poker/PokerHand.java -cp bin -d bin
+javac -g src/main/cardgame/poker/OmahaHand.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandCategoryReport.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandFileEvaluator.java -cp bin -d bin
+javac -g src/main/cardgame/poker/Equity.java -cp bin -d bin
+javac -g src/main/cardgame/poker/EquityCalculator.java -cp bin -d bin
+javac -g src/main/cardgame/common/Player.java -cp bin -d bin
+javac -g src/main/cardgame/common/Game.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/ConsoleDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/KeepPatDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HeuristicDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/RandomDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DrawOutcome.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DrawTable.java src/main/cardgame/poker/DrawSolver.java -cp bin -d bin
+javac -g src/main/cardgame/poker/TableDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/Showdown.java -cp bin -d bin
+javac -g src/main/cardgame/poker/RoundListener.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandHistoryWriter.java src/main/cardgame/poker/HandHistoryReader.java src/main/cardgame/poker/RoundRecord.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DrawState.java -cp bin -d bin
+javac -g src/main/cardgame/poker/FiveCardDraw.java -cp bin -d bin
+javac -g src/main/cardgame/poker/DrawSnapshot.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HoldemHand.java src/main/cardgame/poker/TexasHoldem.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandRange.java src/main/cardgame/poker/RangeEquity.java src/main/cardgame/poker/RangeEquityCalculator.java -cp bin -d bin
+javac -g src/main/cardgame/poker/FiveCardDrawSimulation.java -cp bin -d bin
+javac -g src/main/cardgame/poker/TournamentSimulation.java -cp bin -d bin
+javac -g src/main/cardgame/poker/ReplayResult.java -cp bin -d bin
+javac -g src/main/cardgame/poker/RecordedDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/poker/HandHistoryReplay.java -cp bin -d bin
+javac -g src/main/cardgame/server/Connection.java -cp bin -d bin
+javac -g src/main/cardgame/server/RemoteDiscardAgent.java -cp bin -d bin
+javac -g src/main/cardgame/server/Table.java -cp bin -d bin
+javac -g src/main/cardgame/server/TableServer.java -cp bin -d bin
+javac -g src/main/cardgame/server/ScriptedClient.java -cp bin -d bin
 javac -g src/test/cardgame/common/TestCard.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/common/TestCardSet.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/common/TestDeck.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/common/TestCombinationSpliterator.java -cp bin:lib/junit-4.7.jar -d bin
 javac -g src/test/cardgame/poker/TestHandComparable.java -cp bin:lib/junit-4.7.jar -d bin
 javac -g src/test/cardgame/poker/TestHandPokerRank.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestHandEvaluator.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestEquityCalculator.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestStrengthTable.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestDiscardAgent.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestFiveCardDraw.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestDrawSnapshot.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestFiveCardDrawSimulation.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestTournamentSimulation.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestHandFileEvaluator.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestDrawSolver.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestTableDiscardAgent.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestHandHistory.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestHandHistoryReplay.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestShowdown.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestBestHandEvaluator.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestTexasHoldem.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestOmahaEvaluator.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestGameMetrics.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/poker/TestHandRange.java src/test/cardgame/poker/TestRangeEquityCalculator.java -cp bin:lib/junit-4.7.jar -d bin
+javac -g src/test/cardgame/server/TestTableServer.java -cp bin:lib/junit-4.7.jar -d bin
 java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.common.TestCard
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.common.TestCardSet
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.common.TestDeck
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.common.TestCombinationSpliterator
 java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestHandPokerRank
 java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestHandComparable
-
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestHandEvaluator
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestEquityCalculator
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestStrengthTable
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestDiscardAgent
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestFiveCardDraw
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestDrawSnapshot
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestFiveCardDrawSimulation
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestTournamentSimulation
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestHandFileEvaluator
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestDrawSolver
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestTableDiscardAgent
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestHandHistory
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestHandHistoryReplay
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestShowdown
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestBestHandEvaluator
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestTexasHoldem
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestOmahaEvaluator
+java -Dcardgame.metrics=true -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestGameMetrics
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestHandRange
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.poker.TestRangeEquityCalculator
+java -cp bin:lib/junit-4.7.jar org.junit.runner.JUnitCore cardgame.server.TestTableServer